@@ -0,0 +1,80 @@
+import java.util.Random;
+
+// สุ่มค่าตามน้ำหนักแบบ O(1) ต่อครั้งด้วย alias method (Vose)
+// สร้างตารางครั้งเดียว O(n) แล้วใช้ซ้ำได้จากหลาย thread (ไม่มี state ที่เปลี่ยนแปลง)
+// ใช้ random.nextInt() ครั้งเดียวต่อการสุ่ม: 16 บิตล่างเลือกคอลัมน์ 16 บิตบนเทียบกับเกณฑ์ของคอลัมน์
+public final class AliasSampler {
+    private static final int THRESHOLD_SCALE = 1 << 16;
+
+    private final int[] threshold;
+    private final int[] alias;
+
+    public AliasSampler(double[] weights) {
+        int n = weights.length;
+        double total = 0;
+        for (double weight : weights) {
+            if (weight < 0) {
+                throw new IllegalArgumentException("weights must not be negative");
+            }
+            total += weight;
+        }
+        if (n == 0 || total <= 0) {
+            throw new IllegalArgumentException("at least one weight must be positive");
+        }
+        if (n > THRESHOLD_SCALE) {
+            throw new IllegalArgumentException("too many weights");
+        }
+
+        double[] probability = new double[n];
+        alias = new int[n];
+        double[] scaled = new double[n];
+        int[] small = new int[n];
+        int[] large = new int[n];
+        int smallCount = 0;
+        int largeCount = 0;
+        for (int i = 0; i < n; i++) {
+            scaled[i] = weights[i] * n / total;
+            if (scaled[i] < 1.0) {
+                small[smallCount++] = i;
+            } else {
+                large[largeCount++] = i;
+            }
+        }
+
+        // จับคู่ช่องที่น้อยกว่าค่าเฉลี่ยกับช่องที่มากกว่า จนทุกช่องเต็มพอดี
+        while (smallCount > 0 && largeCount > 0) {
+            int less = small[--smallCount];
+            int more = large[--largeCount];
+            probability[less] = scaled[less];
+            alias[less] = more;
+            scaled[more] = scaled[more] + scaled[less] - 1.0;
+            if (scaled[more] < 1.0) {
+                small[smallCount++] = more;
+            } else {
+                large[largeCount++] = more;
+            }
+        }
+        // ที่เหลือคือช่องที่เต็มพอดี (รวมค่าคลาดเคลื่อนจากทศนิยม)
+        while (largeCount > 0) {
+            probability[large[--largeCount]] = 1.0;
+        }
+        while (smallCount > 0) {
+            probability[small[--smallCount]] = 1.0;
+        }
+
+        threshold = new int[n];
+        for (int i = 0; i < n; i++) {
+            threshold[i] = (int) Math.round(probability[i] * THRESHOLD_SCALE);
+        }
+    }
+
+    public int size() {
+        return threshold.length;
+    }
+
+    public int sample(Random random) {
+        int bits = random.nextInt();
+        int column = (int) (((bits & 0xFFFFL) * threshold.length) >>> 16);
+        return (bits >>> 16) < threshold[column] ? column : alias[column];
+    }
+}
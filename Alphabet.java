@@ -0,0 +1,225 @@
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.text.BreakIterator;
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+
+// ชุดสัญลักษณ์ของตาราง - หนึ่งช่องคือ grapheme cluster หนึ่งตัว (เช่น "ผี", "สื้", "É")
+// แต่ละ cluster มีรหัสเล็ก ๆ (id) และเก็บในตารางเป็น char (char)('A' + id) - ตาราง คำ และการเทียบคำ
+// จึงยังเป็น char/String เหมือนเดิม หน่วยความจำต่อช่องคงที่ไม่ว่าภาษาไหน และ LATIN ได้รหัสเดิม 'A'-'Z' พอดี
+// คำที่ส่งให้ PuzzleGenerator ต้องเข้ารหัสด้วย encode() ก่อน แล้วใช้ decode()/symbol() ตอนแสดงผล
+final class Alphabet {
+    static final char FIRST_CODE = 'A';
+    // รหัสต้องไม่ถึงช่วง surrogate และไม่ชนกับ '-' / BoardMask.BLANK (ซึ่งต่ำกว่า 'A')
+    static final int MAX_SYMBOLS = Character.MIN_SURROGATE - FIRST_CODE;
+
+    static final Alphabet LATIN = latin();
+
+    // ชุดคำภาษาไทยธีมเดียวกับ PuzzleGenerator.DEFAULT_WORDS
+    static final List<String> THAI_WORDS = Collections.unmodifiableList(Arrays.asList(
+        "มหาสมุทร", "ภูเขา", "ป่าไม้", "แม่น้ำ", "ดอกไม้",
+        "ผีเสื้อ", "นกอินทรี", "ปลาวาฬ", "เสือ", "รุ้งกินน้ำ",
+        "พระอาทิตย์ตก", "ชายหาด", "เกาะ", "ทะเลทราย", "หุบเขา",
+        "โตรกผา", "น้ำตก", "โลมา", "ฉลาม", "ปะการัง"
+    ));
+
+    final String name;
+    private final String[] symbols;
+    private final Map<String, Integer> ids;
+    private final AliasSampler filler;
+    private final boolean latin;
+
+    private Alphabet(String name, String[] symbols, AliasSampler filler, boolean latin) {
+        this.name = name;
+        this.symbols = symbols;
+        this.filler = filler;
+        this.latin = latin;
+        this.ids = new HashMap<>(symbols.length * 2);
+        for (int i = 0; i < symbols.length; i++) {
+            ids.put(symbols[i], i);
+        }
+    }
+
+    private static Alphabet latin() {
+        String[] letters = new String[26];
+        for (int i = 0; i < letters.length; i++) {
+            letters[i] = String.valueOf((char) ('A' + i));
+        }
+        return new Alphabet("Latin", letters, LetterFiller.ENGLISH_LETTERS, true);
+    }
+
+    // สร้างจากรายการคำ - ตัวเติมสุ่มตามความถี่ของ cluster ในคำเหล่านี้ (ตัวเติมจึงดูกลืนกับคำจริง)
+    // คำที่มีแต่ A-Z ได้ LATIN (ตัวเติมตามความถี่ภาษาอังกฤษ ตารางเหมือนเดิมทุกประการ)
+    static Alphabet fromWords(String name, Collection<String> words) {
+        Map<String, Integer> counts = new LinkedHashMap<>();
+        for (String word : words) {
+            for (String cluster : segment(word)) {
+                counts.merge(cluster, 1, Integer::sum);
+            }
+        }
+        boolean latinOnly = true;
+        for (String cluster : counts.keySet()) {
+            latinOnly &= cluster.length() == 1 && cluster.charAt(0) >= 'A' && cluster.charAt(0) <= 'Z';
+        }
+        if (latinOnly) {
+            return LATIN;
+        }
+        if (counts.size() > MAX_SYMBOLS) {
+            throw new IllegalArgumentException(name + " has more than " + MAX_SYMBOLS + " distinct symbols");
+        }
+        String[] symbols = counts.keySet().toArray(new String[0]);
+        double[] weights = new double[symbols.length];
+        for (int i = 0; i < symbols.length; i++) {
+            weights[i] = counts.get(symbols[i]);
+        }
+        return new Alphabet(name, symbols, new AliasSampler(weights), false);
+    }
+
+    // สร้างจากรายการสัญลักษณ์ตามลำดับ id (เช่น ตอนอ่านตารางที่บันทึกไว้) - ตัวเติมสุ่มแบบเท่ากันทุกตัว
+    static Alphabet fromSymbols(String name, List<String> symbols) {
+        if (symbols.isEmpty() || symbols.size() > MAX_SYMBOLS) {
+            throw new IllegalArgumentException(name + " must have 1-" + MAX_SYMBOLS + " symbols");
+        }
+        double[] weights = new double[symbols.size()];
+        Arrays.fill(weights, 1.0);
+        return new Alphabet(name, symbols.toArray(new String[0]), new AliasSampler(weights), false);
+    }
+
+    // "thai" หรือไฟล์รายการคำ (หนึ่งคำต่อบรรทัด, UTF-8) - คืนคำที่เข้ารหัสแล้วพร้อม alphabet ใน words.alphabet
+    static Words load(String spec) throws IOException {
+        List<String> words;
+        String name;
+        if (spec.equalsIgnoreCase("thai")) {
+            words = THAI_WORDS;
+            name = "Thai";
+        } else if (spec.equalsIgnoreCase("latin") || spec.equalsIgnoreCase("english")) {
+            words = PuzzleGenerator.DEFAULT_WORDS;
+            name = LATIN.name;
+        } else {
+            Path path = Paths.get(spec);
+            words = new ArrayList<>();
+            for (String line : Files.readAllLines(path, StandardCharsets.UTF_8)) {
+                if (!segment(line).isEmpty()) {
+                    words.add(line.trim());
+                }
+            }
+            name = path.getFileName().toString();
+        }
+        Alphabet alphabet = fromWords(name, words);
+        return new Words(alphabet, alphabet.encodeAll(words));
+    }
+
+    // รายการคำที่เข้ารหัสแล้วคู่กับ alphabet ของมัน
+    static final class Words {
+        final Alphabet alphabet;
+        final List<String> encoded;
+
+        Words(Alphabet alphabet, List<String> encoded) {
+            this.alphabet = alphabet;
+            this.encoded = Collections.unmodifiableList(encoded);
+        }
+    }
+
+    // แยกคำเป็น grapheme cluster (NFC, ตัวพิมพ์ใหญ่, ไม่นับช่องว่างและขีด)
+    static List<String> segment(String word) {
+        String text = Normalizer.normalize(word, Normalizer.Form.NFC).toUpperCase(Locale.ROOT);
+        BreakIterator clusters = BreakIterator.getCharacterInstance(Locale.ROOT);
+        clusters.setText(text);
+        List<String> result = new ArrayList<>(text.length());
+        int start = clusters.first();
+        for (int end = clusters.next(); end != BreakIterator.DONE; start = end, end = clusters.next()) {
+            String cluster = text.substring(start, end);
+            if (!cluster.trim().isEmpty() && !cluster.equals("-")) {
+                result.add(cluster);
+            }
+        }
+        return result;
+    }
+
+    // ===== การเข้ารหัส =====
+    String encode(String word) {
+        List<String> clusters = segment(word);
+        char[] codes = new char[clusters.size()];
+        for (int i = 0; i < codes.length; i++) {
+            Integer id = ids.get(clusters.get(i));
+            if (id == null) {
+                throw new IllegalArgumentException("'" + clusters.get(i) + "' in " + word + " is not in the " + name + " alphabet");
+            }
+            codes[i] = (char) (FIRST_CODE + id);
+        }
+        return new String(codes);
+    }
+
+    // เข้ารหัสเฉพาะสัญลักษณ์ที่อยู่ใน alphabet - ข้ามวรรคตอนและตัวอื่น (เช่น ข้อความลับ "Well done!")
+    String encodeKnown(String text) {
+        StringBuilder codes = new StringBuilder(text.length());
+        for (String cluster : segment(text)) {
+            Integer id = ids.get(cluster);
+            if (id != null) {
+                codes.append((char) (FIRST_CODE + id));
+            }
+        }
+        return codes.toString();
+    }
+
+    List<String> encodeAll(Collection<String> words) {
+        List<String> encoded = new ArrayList<>(words.size());
+        for (String word : words) {
+            encoded.add(encode(word));
+        }
+        return encoded;
+    }
+
+    String decode(String encoded) {
+        if (latin) {
+            return encoded;
+        }
+        StringBuilder text = new StringBuilder(encoded.length() * 2);
+        for (int i = 0; i < encoded.length(); i++) {
+            text.append(symbol(encoded.charAt(i)));
+        }
+        return text.toString();
+    }
+
+    // ข้อความของหนึ่งช่อง
+    String symbol(char code) {
+        int id = code - FIRST_CODE;
+        return id >= 0 && id < symbols.length ? symbols[id] : String.valueOf(code);
+    }
+
+    // id ของรหัสในตาราง หรือ -1 ถ้าไม่ใช่สัญลักษณ์ของ alphabet นี้ (เช่น ช่องว่างหรือ BLANK)
+    int id(char code) {
+        int id = code - FIRST_CODE;
+        return id >= 0 && id < symbols.length ? id : -1;
+    }
+
+    int size() {
+        return symbols.length;
+    }
+
+    boolean isLatin() {
+        return latin;
+    }
+
+    // ตัวเติม O(1) ต่อช่อง (alias method) - LATIN ใช้ sampler เดียวกับ LetterFiller.randomLetter
+    char randomSymbol(Random random) {
+        return (char) (FIRST_CODE + filler.sample(random));
+    }
+
+    @Override
+    public String toString() {
+        return name + " (" + symbols.length + " symbols)";
+    }
+}
@@ -0,0 +1,142 @@
+import java.awt.Rectangle;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import javax.swing.JComponent;
+import javax.swing.Timer;
+
+// นาฬิกาเฟรมเดียวของทุก animation (เส้นคำที่พบ การจาง หน้าชนะ) - ใช้ได้บน EDT เท่านั้น
+// ทุก tween ใช้ timer ตัวเดียวกัน: หนึ่ง tick ต่อเฟรมไม่ว่ามีกี่ effect และ timer หยุดเมื่อไม่มี tween ค้าง (ไม่มี tick ตอนว่าง)
+// แต่ละเฟรมรวมพื้นที่ของ tween ที่ยังเล่นอยู่เป็นหนึ่ง repaint ต่อ component
+// paintComponent อ่าน Tween.value() ของเฟรมล่าสุดไปวาดเอง
+final class AnimationClock {
+    static final int FRAME_MILLIS = 16;
+    private static final long FRAME_NANOS = TimeUnit.MILLISECONDS.toNanos(FRAME_MILLIS);
+
+    // ช่วงของหนึ่ง effect - value() เป็นความคืบหน้า 0..1 หลัง easing (ease-out)
+    static final class Tween {
+        private final JComponent target;
+        private final Rectangle dirty;
+        private final long startNanos;
+        private final long durationNanos;
+        private float progress;
+        private boolean finished;
+
+        private Tween(JComponent target, Rectangle dirty, long startNanos, long durationNanos) {
+            this.target = target;
+            this.dirty = dirty;
+            this.startNanos = startNanos;
+            this.durationNanos = durationNanos;
+        }
+
+        float value() {
+            float remaining = 1 - progress;
+            return 1 - remaining * remaining * remaining;
+        }
+
+        // ความคืบหน้าตามเวลาจริง (ไม่มี easing)
+        float linear() {
+            return progress;
+        }
+
+        boolean isFinished() {
+            return finished;
+        }
+    }
+
+    private final Timer timer = new Timer(FRAME_MILLIS, e -> tick());
+    private final List<Tween> active = new ArrayList<>();
+    private final Map<JComponent, Rectangle> dirtyByTarget = new IdentityHashMap<>();
+
+    // frame statistics - only touched on the EDT
+    private final LatencyHistogram frameIntervals = new LatencyHistogram();
+    private final LatencyHistogram tickWork = new LatencyHistogram();
+    private long lastTickNanos;
+    private long frames;
+    private long lateFrames;
+    private long tweensStarted;
+
+    AnimationClock() {
+        timer.setCoalesce(true);
+    }
+
+    // เริ่ม tween ใหม่ที่ repaint พื้นที่ dirty (พิกัดของ target) ทุกเฟรมจนจบ
+    Tween start(JComponent target, Rectangle dirty, int durationMillis) {
+        Tween tween = new Tween(target, new Rectangle(dirty), System.nanoTime(),
+            TimeUnit.MILLISECONDS.toNanos(Math.max(1, durationMillis)));
+        active.add(tween);
+        tweensStarted++;
+        if (!timer.isRunning()) {
+            lastTickNanos = 0;
+            timer.start();
+        }
+        return tween;
+    }
+
+    // จบทุก tween ของ target ทันที (เช่น ตอนล้างตาราง) - ค่าคงอยู่ที่ 1
+    void finishAll(JComponent target) {
+        for (int i = active.size() - 1; i >= 0; i--) {
+            Tween tween = active.get(i);
+            if (tween.target == target) {
+                tween.progress = 1;
+                tween.finished = true;
+                active.remove(i);
+            }
+        }
+        target.repaint();
+        stopIfIdle();
+    }
+
+    boolean isIdle() {
+        return active.isEmpty();
+    }
+
+    private void tick() {
+        long now = System.nanoTime();
+        if (lastTickNanos != 0) {
+            long interval = now - lastTickNanos;
+            frameIntervals.record(interval);
+            if (interval > 2 * FRAME_NANOS) {
+                lateFrames++;
+            }
+        }
+        lastTickNanos = now;
+        frames++;
+
+        for (int i = active.size() - 1; i >= 0; i--) {
+            Tween tween = active.get(i);
+            tween.progress = Math.min(1f, (now - tween.startNanos) / (float) tween.durationNanos);
+            Rectangle area = dirtyByTarget.get(tween.target);
+            if (area == null) {
+                dirtyByTarget.put(tween.target, new Rectangle(tween.dirty));
+            } else {
+                area.add(tween.dirty);
+            }
+            if (tween.progress >= 1f) {
+                tween.finished = true;
+                active.remove(i); // เฟรมนี้ยัง repaint ค่าสุดท้ายให้
+            }
+        }
+        for (Map.Entry<JComponent, Rectangle> entry : dirtyByTarget.entrySet()) {
+            entry.getKey().repaint(entry.getValue());
+        }
+        dirtyByTarget.clear();
+        stopIfIdle();
+        tickWork.record(System.nanoTime() - now);
+    }
+
+    private void stopIfIdle() {
+        if (active.isEmpty() && timer.isRunning()) {
+            timer.stop();
+        }
+    }
+
+    String frameReport() {
+        return "Animation frames: " + frames
+            + " (" + tweensStarted + " tweens, late: " + lateFrames + ")"
+            + ", interval " + frameIntervals.summary()
+            + ", tick " + tickWork.summary();
+    }
+}
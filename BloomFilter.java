@@ -0,0 +1,92 @@
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+// Bloom filter ของ hash 64 bit - ตอบ "อาจเคยเห็น" หรือ "ไม่เคยเห็นแน่นอน"
+// ขนาดคำนวณจากจำนวนที่คาดไว้และ false-positive rate ที่ต้องการ, thread-safe (CAS ต่อ word)
+final class BloomFilter {
+    private final AtomicLongArray words;
+    private final long bitCount;
+    private final int hashCount;
+    private final long capacity;
+    private final LongAdder inserted = new LongAdder();
+
+    BloomFilter(long expectedItems, double falsePositiveRate) {
+        if (expectedItems <= 0 || falsePositiveRate <= 0 || falsePositiveRate >= 1) {
+            throw new IllegalArgumentException("invalid Bloom filter sizing");
+        }
+        double ln2 = Math.log(2);
+        long bits = (long) Math.ceil(-expectedItems * Math.log(falsePositiveRate) / (ln2 * ln2));
+        long wordCount = (bits + 63) / 64;
+        if (wordCount > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Bloom filter too large: " + bits + " bits");
+        }
+        this.words = new AtomicLongArray((int) wordCount);
+        this.bitCount = wordCount * 64;
+        this.hashCount = Math.max(1, (int) Math.round((double) bitCount / expectedItems * ln2));
+        this.capacity = expectedItems;
+    }
+
+    // ใส่ hash แล้วคืน true ถ้ายังไม่เคยเห็น (false = มีอยู่แล้ว หรือ false positive)
+    boolean add(long hash) {
+        long h1 = hash;
+        long h2 = mix(hash) | 1;
+        boolean added = false;
+        for (int i = 0; i < hashCount; i++) {
+            long bit = ((h1 + i * h2) >>> 1) % bitCount;
+            int index = (int) (bit >>> 6);
+            long mask = 1L << bit;
+            long current = words.get(index);
+            while ((current & mask) == 0) {
+                if (words.compareAndSet(index, current, current | mask)) {
+                    added = true;
+                    break;
+                }
+                current = words.get(index);
+            }
+        }
+        if (added) {
+            inserted.increment();
+        }
+        return added;
+    }
+
+    boolean mightContain(long hash) {
+        long h1 = hash;
+        long h2 = mix(hash) | 1;
+        for (int i = 0; i < hashCount; i++) {
+            long bit = ((h1 + i * h2) >>> 1) % bitCount;
+            if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    long capacity() {
+        return capacity;
+    }
+
+    long size() {
+        return inserted.sum();
+    }
+
+    // false-positive rate ที่คาดได้จากจำนวนที่ใส่ไปแล้ว: (1 - e^(-kn/m))^k
+    double expectedFalsePositiveRate() {
+        return Math.pow(1 - Math.exp(-(double) hashCount * size() / bitCount), hashCount);
+    }
+
+    long memoryBytes() {
+        return bitCount / 8;
+    }
+
+    int hashCount() {
+        return hashCount;
+    }
+
+    // SplitMix64 finalizer - hash ที่สองสำหรับ double hashing
+    static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -0,0 +1,281 @@
+import java.awt.Font;
+import java.awt.Shape;
+import java.awt.font.FontRenderContext;
+import java.awt.geom.AffineTransform;
+import java.awt.geom.Area;
+import java.awt.geom.Path2D;
+import java.awt.geom.Rectangle2D;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import javax.imageio.ImageIO;
+
+// รูปทรงของตาราง (หัวใจ ดาว ตัวอักษร หรือ bitmap) - ช่องที่ปิดไม่ถูกวางคำ ไม่ถูกเติม และไม่ถูกวาด
+// ตารางที่สร้างเสร็จเก็บช่องที่ปิดเป็น BLANK จึงไม่ต้องส่ง mask ไปกับ Puzzle
+// จุดเริ่มที่วางคำยาว L ในแต่ละทิศได้ (slot) คำนวณไว้ครั้งเดียวต่อ mask แล้วใช้ซ้ำทุกตารางที่สร้าง
+final class BoardMask {
+    static final char BLANK = ' ';
+
+    private static final Map<String, BoardMask> NAMED = new ConcurrentHashMap<>();
+
+    final int size;
+    private final boolean[] open; // row * size + col
+    private final int openCells;
+    private final int longestRun;
+    // แยกตามทิศ index = (rowDir + 1) * 3 + (colDir + 1) (index 4 ไม่ใช้)
+    // runs[d][cell] = จำนวนช่องเปิดติดกันจาก cell ในทิศ d รวมตัวเอง
+    // starts[d] = ช่องเปิดเรียงตาม run มากไปน้อย, startCounts[d][L] = จำนวนช่องที่ run >= L (prefix ของ starts[d])
+    private final int[][] runs = new int[9][];
+    private final int[][] starts = new int[9][];
+    private final int[][] startCounts = new int[9][];
+
+    private BoardMask(int size, boolean[] open) {
+        this.size = size;
+        this.open = open;
+        int count = 0;
+        for (boolean cell : open) {
+            if (cell) {
+                count++;
+            }
+        }
+        this.openCells = count;
+
+        int longest = 0;
+        for (int[] dir : DirectionPolicy.DIRECTIONS) {
+            int d = index(dir[0], dir[1]);
+            int[] run = new int[size * size];
+            int[] atLeast = new int[size + 2];
+            for (int row = 0; row < size; row++) {
+                for (int col = 0; col < size; col++) {
+                    int length = 0;
+                    int r = row;
+                    int c = col;
+                    while (r >= 0 && r < size && c >= 0 && c < size && open[r * size + c]) {
+                        length++;
+                        r += dir[0];
+                        c += dir[1];
+                    }
+                    run[row * size + col] = length;
+                    atLeast[length]++;
+                }
+            }
+            // counting sort จาก run ยาวไปสั้น (คงลำดับแถวภายใน run เดียวกัน)
+            for (int length = size - 1; length >= 0; length--) {
+                atLeast[length] += atLeast[length + 1];
+            }
+            int[] sorted = new int[atLeast[1]];
+            int[] next = new int[size + 1];
+            for (int length = size; length >= 1; length--) {
+                next[length] = atLeast[length + 1];
+            }
+            for (int cell = 0; cell < run.length; cell++) {
+                if (run[cell] > 0) {
+                    sorted[next[run[cell]]++] = cell;
+                }
+            }
+            runs[d] = run;
+            starts[d] = sorted;
+            startCounts[d] = atLeast;
+            for (int length = size; length > longest; length--) {
+                if (atLeast[length] > 0) {
+                    longest = length;
+                }
+            }
+        }
+        this.longestRun = longest;
+    }
+
+    private static int index(int rowDir, int colDir) {
+        return (rowDir + 1) * 3 + (colDir + 1);
+    }
+
+    // ===== รูปทรง =====
+    static BoardMask full(int size) {
+        boolean[] open = new boolean[size * size];
+        Arrays.fill(open, true);
+        return new BoardMask(size, open);
+    }
+
+    // แต่ละบรรทัดเป็นหนึ่งแถว ช่องว่างหรือ '.' = ปิด ตัวอื่น = เปิด (ตารางจัตุรัสขนาดด้านที่ยาวที่สุด)
+    static BoardMask fromRows(List<String> rows) {
+        int size = rows.size();
+        for (String row : rows) {
+            size = Math.max(size, row.length());
+        }
+        if (size == 0) {
+            throw new IllegalArgumentException("empty mask");
+        }
+        boolean[] open = new boolean[size * size];
+        for (int row = 0; row < rows.size(); row++) {
+            String line = rows.get(row);
+            for (int col = 0; col < line.length(); col++) {
+                char c = line.charAt(col);
+                open[row * size + col] = c != ' ' && c != '.';
+            }
+        }
+        return new BoardMask(size, open);
+    }
+
+    // ช่องที่จุดกึ่งกลางอยู่ในรูป (รูปถูกย่อขยายให้เต็มตารางโดยคงสัดส่วน)
+    static BoardMask fromShape(Shape shape, int size) {
+        Rectangle2D bounds = new Area(shape).getBounds2D(); // ไม่นับ control point ของเส้นโค้ง
+        double scale = size / Math.max(bounds.getWidth(), bounds.getHeight());
+        double offsetX = (size - bounds.getWidth() * scale) / 2;
+        double offsetY = (size - bounds.getHeight() * scale) / 2;
+        boolean[] open = new boolean[size * size];
+        for (int row = 0; row < size; row++) {
+            for (int col = 0; col < size; col++) {
+                double x = bounds.getX() + (col + 0.5 - offsetX) / scale;
+                double y = bounds.getY() + (row + 0.5 - offsetY) / scale;
+                open[row * size + col] = shape.contains(x, y);
+            }
+        }
+        return new BoardMask(size, open);
+    }
+
+    // pixel ทึบ (มืดและไม่โปร่งใส) ที่กึ่งกลางช่อง = เปิด
+    static BoardMask fromImage(BufferedImage image, int size) {
+        boolean[] open = new boolean[size * size];
+        for (int row = 0; row < size; row++) {
+            for (int col = 0; col < size; col++) {
+                int argb = image.getRGB((int) ((col + 0.5) * image.getWidth() / size),
+                    (int) ((row + 0.5) * image.getHeight() / size));
+                int luminance = (((argb >> 16) & 0xFF) * 3 + ((argb >> 8) & 0xFF) * 6 + (argb & 0xFF)) / 10;
+                open[row * size + col] = (argb >>> 24) >= 128 && luminance < 128;
+            }
+        }
+        return new BoardMask(size, open);
+    }
+
+    static BoardMask heart(int size) {
+        Path2D.Double heart = new Path2D.Double();
+        heart.moveTo(50, 95);
+        heart.curveTo(10, 65, -5, 35, 10, 15);
+        heart.curveTo(25, -5, 50, 5, 50, 25);
+        heart.curveTo(50, 5, 75, -5, 90, 15);
+        heart.curveTo(105, 35, 90, 65, 50, 95);
+        heart.closePath();
+        return fromShape(heart, size);
+    }
+
+    static BoardMask star(int size) {
+        Path2D.Double star = new Path2D.Double();
+        for (int i = 0; i < 10; i++) {
+            double radius = i % 2 == 0 ? 1.0 : 0.5;
+            double angle = -Math.PI / 2 + i * Math.PI / 5;
+            if (i == 0) {
+                star.moveTo(radius * Math.cos(angle), radius * Math.sin(angle));
+            } else {
+                star.lineTo(radius * Math.cos(angle), radius * Math.sin(angle));
+            }
+        }
+        star.closePath();
+        return fromShape(star, size);
+    }
+
+    // outline ของตัวอักษรตัวหนา - ไม่ต้องมีหน้าจอ
+    static BoardMask letter(char letter, int size) {
+        Font font = new Font(Font.SANS_SERIF, Font.BOLD, 100);
+        FontRenderContext context = new FontRenderContext(new AffineTransform(), true, true);
+        Shape outline = font.createGlyphVector(context, String.valueOf(letter)).getOutline();
+        return fromShape(outline, size);
+    }
+
+    // "square", "heart", "star", "letter:A" หรือไฟล์ (.txt แบบ fromRows หรือรูปภาพ) - แบบที่มีชื่อถูก cache ไว้
+    static BoardMask parse(String spec, int size) throws IOException {
+        String name = spec.toLowerCase(Locale.ROOT);
+        if (name.equals("square") || name.equals("heart") || name.equals("star")
+                || (name.startsWith("letter:") && spec.length() == 8)) {
+            String key = (name.startsWith("letter:") ? spec : name) + "@" + size;
+            BoardMask cached = NAMED.get(key);
+            if (cached == null) {
+                cached = name.equals("square") ? full(size)
+                    : name.equals("heart") ? heart(size)
+                    : name.equals("star") ? star(size)
+                    : letter(Character.toUpperCase(spec.charAt(7)), size);
+                NAMED.put(key, cached);
+            }
+            return cached;
+        }
+        Path path = Paths.get(spec);
+        if (spec.endsWith(".txt")) {
+            return fromRows(Files.readAllLines(path, StandardCharsets.UTF_8));
+        }
+        BufferedImage image = ImageIO.read(path.toFile());
+        if (image == null) {
+            throw new IOException("unknown shape or unreadable mask file: " + spec);
+        }
+        return fromImage(image, size);
+    }
+
+    // ===== การใช้งานตอนสร้างตาราง =====
+    boolean isOpen(int row, int col) {
+        return row >= 0 && row < size && col >= 0 && col < size && open[row * size + col];
+    }
+
+    boolean isFull() {
+        return openCells == size * size;
+    }
+
+    int openCells() {
+        return openCells;
+    }
+
+    // คำที่ยาวที่สุดที่วางได้ในทิศใดทิศหนึ่ง
+    int longestRun() {
+        return longestRun;
+    }
+
+    // คำยาว length เริ่มที่ (row, col) ในทิศนี้อยู่ในช่องเปิดทั้งหมด - O(1)
+    boolean fits(int row, int col, int rowDir, int colDir, int length) {
+        return row >= 0 && row < size && col >= 0 && col < size
+            && runs[index(rowDir, colDir)][row * size + col] >= length;
+    }
+
+    int slotCount(int rowDir, int colDir, int length) {
+        return length > size ? 0 : startCounts[index(rowDir, colDir)][Math.max(length, 1)];
+    }
+
+    // จุดเริ่มที่ i (row * size + col) จาก slotCount ช่อง
+    int slot(int rowDir, int colDir, int i) {
+        return starts[index(rowDir, colDir)][i];
+    }
+
+    // สุ่มจุดเริ่มที่คำยาว length วางได้ทั้งคำ หรือ -1 ถ้าทิศนี้ไม่มีที่พอ
+    int sampleStart(int rowDir, int colDir, int length, Random random) {
+        int count = slotCount(rowDir, colDir, length);
+        return count == 0 ? -1 : starts[index(rowDir, colDir)][random.nextInt(count)];
+    }
+
+    // ช่องปิดเป็น BLANK ช่องเปิดเป็น empty
+    char[][] emptyGrid(char empty) {
+        char[][] grid = new char[size][size];
+        for (int row = 0; row < size; row++) {
+            for (int col = 0; col < size; col++) {
+                grid[row][col] = open[row * size + col] ? empty : BLANK;
+            }
+        }
+        return grid;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder text = new StringBuilder();
+        for (int row = 0; row < size; row++) {
+            for (int col = 0; col < size; col++) {
+                text.append(open[row * size + col] ? '#' : '.');
+            }
+            text.append('\n');
+        }
+        return text.toString();
+    }
+}
@@ -0,0 +1,573 @@
+import java.awt.Color;
+import java.awt.Dimension;
+import java.awt.Font;
+import java.awt.FontMetrics;
+import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.Point;
+import java.awt.Rectangle;
+import java.awt.RenderingHints;
+import java.awt.event.ActionEvent;
+import java.awt.event.InputEvent;
+import java.awt.event.KeyEvent;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.awt.event.MouseWheelEvent;
+import java.awt.image.BufferedImage;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import javax.swing.AbstractAction;
+import javax.swing.JComponent;
+import javax.swing.KeyStroke;
+import javax.swing.SwingUtilities;
+
+// มุมมองตารางขนาดใหญ่ (ตาราง event 500x500 ขึ้นไป) ที่ซูมและเลื่อนได้ - แทนปุ่มหนึ่งปุ่มต่อช่องซึ่งใช้ไม่ได้กับตารางขนาดนี้
+// วาดเฉพาะ tile (TILE_PIXELS x TILE_PIXELS) ที่มองเห็นจากภาพที่ render ไว้แล้ว - tile เก็บใน LRU ที่จำกัดจำนวนตามขนาด
+// ของ component (ไม่ขึ้นกับขนาดตาราง) เส้นคำที่พบแล้ววาดลง tile และล้างเฉพาะ tile ที่เส้นใหม่ผ่าน
+// ส่วนเส้นที่กำลังลากวาดทับทุกครั้ง
+// เมาส์ซ้ายลากเลือกคำ, ขวา/กลางลากเพื่อเลื่อน, ล้อเลื่อนขึ้นลง (Shift = ซ้ายขวา), Ctrl+ล้อ หรือ +/- ซูม, ลูกศรเลื่อนทีละครึ่งจอ
+// ใช้บน EDT เท่านั้น
+final class BoardViewport extends JComponent {
+    private static final long serialVersionUID = 1L;
+
+    static final int TILE_PIXELS = 256;
+    static final int MIN_CELL = 6;
+    static final int MAX_CELL = 64;
+    // ขนาดเริ่มต้นเมื่อทั้งตารางไม่พอดีกับจอ - ยังอ่านตัวอักษรได้
+    static final int READABLE_CELL = 28;
+    // ช่องที่เล็กกว่านี้ไม่วาดตัวอักษร (ภาพรวมทั้งตาราง)
+    private static final int MIN_LETTER_CELL = 10;
+    private static final int MIN_TILES = 16;
+    private static final int SPARE_TILES = 8;
+    private static final int SCROLL_MILLIS = 150;
+    private static final int WHEEL_CELLS = 3;
+    private static final double ZOOM_STEP = 1.25;
+    private static final Color SELECTION_COLOR = new Color(255, 255, 150);
+
+    // event ของเมาส์ในหน่วยช่อง (เหมือนปุ่มของตารางเล็ก)
+    interface CellListener {
+        void pressed(int row, int col);
+
+        void entered(int row, int col);
+
+        void released(int row, int col);
+    }
+
+    private static final class Highlight {
+        final int row1;
+        final int col1;
+        final int row2;
+        final int col2;
+        final Color color;
+
+        Highlight(int row1, int col1, int row2, int col2, Color color) {
+            this.row1 = row1;
+            this.col1 = col1;
+            this.row2 = row2;
+            this.col2 = col2;
+            this.color = color;
+        }
+    }
+
+    private final AnimationClock clock; // null = เลื่อนทันทีไม่มี animation
+    private final CellListener listener;
+    private Runnable afterPaint;
+
+    private Puzzle puzzle;
+    private Color background = Color.DARK_GRAY;
+    private Color cellColor = Color.WHITE;
+    private Color textColor = Color.BLACK;
+    private Font baseFont = new Font(Font.DIALOG, Font.BOLD, 18);
+    private Font cellFont;
+    private int cell = READABLE_CELL;
+    private int gap = 2;
+    private final List<Highlight> highlights = new ArrayList<>();
+    private Highlight selection;
+
+    // มุมซ้ายบนที่มองเห็น (พิกเซลของภาพทั้งตาราง) และการเลื่อนที่กำลังเล่น
+    private double viewX;
+    private double viewY;
+    private double fromX;
+    private double fromY;
+    private double toX;
+    private double toY;
+    private AnimationClock.Tween scroll;
+
+    // LRU ของ tile ตาม key (ty << 32 | tx) - ภาพที่หลุดออกเก็บไว้ใช้ซ้ำไม่เกิน SPARE_TILES
+    private int tileCapacity = MIN_TILES;
+    private final ArrayDeque<BufferedImage> spare = new ArrayDeque<>();
+    private final LinkedHashMap<Long, BufferedImage> tiles = new LinkedHashMap<Long, BufferedImage>(64, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, BufferedImage> eldest) {
+            if (size() <= tileCapacity) {
+                return false;
+            }
+            recycle(eldest.getValue());
+            return true;
+        }
+    };
+    private long tilesRendered;
+    private long tileHits;
+
+    private boolean selecting;
+    private int lastRow;
+    private int lastCol;
+    private Point panStart;
+    private double panViewX;
+    private double panViewY;
+
+    BoardViewport(AnimationClock clock, CellListener listener) {
+        this.clock = clock;
+        this.listener = listener;
+        setOpaque(true);
+        setFocusable(true);
+        deriveFont();
+
+        MouseAdapter mouse = new MouseAdapter() {
+            @Override
+            public void mousePressed(MouseEvent e) {
+                requestFocusInWindow();
+                if (SwingUtilities.isLeftMouseButton(e)) {
+                    int row = rowAt(e.getY());
+                    int col = colAt(e.getX());
+                    if (puzzle != null && puzzle.isOpen(row, col)) {
+                        selecting = true;
+                        lastRow = row;
+                        lastCol = col;
+                        listener.pressed(row, col);
+                    }
+                } else {
+                    panStart = e.getPoint();
+                    panViewX = viewX;
+                    panViewY = viewY;
+                    stopScroll();
+                }
+            }
+
+            @Override
+            public void mouseDragged(MouseEvent e) {
+                if (selecting) {
+                    int row = clamp(rowAt(e.getY()), 0, puzzle.size - 1);
+                    int col = clamp(colAt(e.getX()), 0, puzzle.size - 1);
+                    if (row != lastRow || col != lastCol) {
+                        lastRow = row;
+                        lastCol = col;
+                        listener.entered(row, col);
+                    }
+                } else if (panStart != null) {
+                    scrollTo(panViewX - (e.getX() - panStart.x), panViewY - (e.getY() - panStart.y), false);
+                }
+            }
+
+            @Override
+            public void mouseReleased(MouseEvent e) {
+                if (selecting) {
+                    selecting = false;
+                    listener.released(lastRow, lastCol);
+                }
+                panStart = null;
+            }
+
+            @Override
+            public void mouseWheelMoved(MouseWheelEvent e) {
+                if ((e.getModifiersEx() & (InputEvent.CTRL_DOWN_MASK | InputEvent.META_DOWN_MASK)) != 0) {
+                    zoomAt(e.getWheelRotation() < 0 ? ZOOM_STEP : 1 / ZOOM_STEP, e.getX(), e.getY());
+                } else if (e.isShiftDown()) {
+                    scrollBy(e.getWheelRotation() * WHEEL_CELLS * pitch(), 0);
+                } else {
+                    scrollBy(0, e.getWheelRotation() * WHEEL_CELLS * pitch());
+                }
+            }
+        };
+        addMouseListener(mouse);
+        addMouseMotionListener(mouse);
+        addMouseWheelListener(mouse);
+
+        bindKey(KeyEvent.VK_LEFT, "panLeft", () -> scrollBy(-getWidth() / 2.0, 0));
+        bindKey(KeyEvent.VK_RIGHT, "panRight", () -> scrollBy(getWidth() / 2.0, 0));
+        bindKey(KeyEvent.VK_UP, "panUp", () -> scrollBy(0, -getHeight() / 2.0));
+        bindKey(KeyEvent.VK_DOWN, "panDown", () -> scrollBy(0, getHeight() / 2.0));
+        bindKey(KeyEvent.VK_EQUALS, "zoomIn", () -> zoomAt(ZOOM_STEP, getWidth() / 2, getHeight() / 2));
+        bindKey(KeyEvent.VK_PLUS, "zoomIn", () -> zoomAt(ZOOM_STEP, getWidth() / 2, getHeight() / 2));
+        bindKey(KeyEvent.VK_MINUS, "zoomOut", () -> zoomAt(1 / ZOOM_STEP, getWidth() / 2, getHeight() / 2));
+    }
+
+    private void bindKey(int key, String name, Runnable action) {
+        getInputMap(WHEN_FOCUSED).put(KeyStroke.getKeyStroke(key, 0), name);
+        getActionMap().put(name, new AbstractAction() {
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                action.run();
+            }
+        });
+    }
+
+    // ===== สถานะของตาราง =====
+    // null = ล้างตาราง; ตารางใหม่เริ่มที่มุมซ้ายบน ขนาดช่องพอดีจอถ้าทำได้ ไม่อย่างนั้นใช้ READABLE_CELL
+    void setPuzzle(Puzzle puzzle) {
+        this.puzzle = puzzle;
+        highlights.clear();
+        selection = null;
+        stopScroll();
+        if (puzzle != null) {
+            int fit = Math.min(getWidth(), getHeight()) / puzzle.size - 2;
+            setCell(fit >= READABLE_CELL ? Math.min(fit, MAX_CELL) : READABLE_CELL);
+            viewX = 0;
+            viewY = 0;
+        }
+        invalidateTiles();
+    }
+
+    void setColors(Color background, Color cellColor, Color textColor) {
+        this.background = background;
+        this.cellColor = cellColor;
+        this.textColor = textColor;
+        invalidateTiles();
+    }
+
+    void setCellFont(Font font) {
+        baseFont = font;
+        deriveFont();
+        invalidateTiles();
+    }
+
+    // เรียกหลังวาดเสร็จทุกครั้ง (ใช้จับเวลาเปลี่ยนหน้าจอ)
+    void setAfterPaint(Runnable afterPaint) {
+        this.afterPaint = afterPaint;
+    }
+
+    // เส้นคำที่พบแล้ว - ล้างเฉพาะ tile ที่เส้นผ่าน
+    void addHighlight(int row1, int col1, int row2, int col2, Color color) {
+        Highlight highlight = new Highlight(row1, col1, row2, col2, color);
+        highlights.add(highlight);
+        Rectangle bounds = bounds(highlight);
+        for (int ty = bounds.y / TILE_PIXELS; ty <= (bounds.y + bounds.height) / TILE_PIXELS; ty++) {
+            for (int tx = bounds.x / TILE_PIXELS; tx <= (bounds.x + bounds.width) / TILE_PIXELS; tx++) {
+                BufferedImage stale = tiles.remove(key(tx, ty));
+                if (stale != null) {
+                    recycle(stale);
+                }
+            }
+        }
+        repaint(toScreen(bounds));
+    }
+
+    // เส้นที่กำลังลาก (วาดทับ tile) - repaint เฉพาะกรอบของเส้นเดิมกับเส้นใหม่
+    void setSelection(int row1, int col1, int row2, int col2) {
+        Rectangle dirty = selection != null ? bounds(selection) : null;
+        selection = new Highlight(row1, col1, row2, col2, SELECTION_COLOR);
+        Rectangle area = bounds(selection);
+        if (dirty != null) {
+            area.add(dirty);
+        }
+        repaint(toScreen(area));
+    }
+
+    void clearSelection() {
+        if (selection != null) {
+            repaint(toScreen(bounds(selection)));
+            selection = null;
+        }
+    }
+
+    // ===== ซูมและเลื่อน =====
+    // ซูมโดยให้จุด (x, y) บนจอยังชี้ที่ตำแหน่งเดิมของตาราง
+    void zoomAt(double factor, int x, int y) {
+        int next = clamp((int) Math.round(cell * factor), MIN_CELL, MAX_CELL);
+        if (next == cell) {
+            next = clamp(cell + (factor > 1 ? 1 : -1), MIN_CELL, MAX_CELL);
+        }
+        if (next == cell) {
+            return;
+        }
+        stopScroll();
+        double boardX = (viewX + x) / pitch();
+        double boardY = (viewY + y) / pitch();
+        setCell(next);
+        viewX = boardX * pitch() - x;
+        viewY = boardY * pitch() - y;
+        clampView();
+        invalidateTiles();
+    }
+
+    void scrollBy(double dx, double dy) {
+        double baseX = scroll != null ? toX : viewX;
+        double baseY = scroll != null ? toY : viewY;
+        scrollTo(baseX + dx, baseY + dy, clock != null);
+    }
+
+    // เลื่อนไปที่มุมซ้ายบน (x, y) - smooth = เลื่อนไปทีละเฟรมด้วยนาฬิกาเฟรมเดียวกับ animation อื่น
+    void scrollTo(double x, double y, boolean smooth) {
+        if (smooth) {
+            advanceScroll();
+            fromX = viewX;
+            fromY = viewY;
+            toX = clampX(x);
+            toY = clampY(y);
+            scroll = clock.start(this, new Rectangle(0, 0, getWidth(), getHeight()), SCROLL_MILLIS);
+        } else {
+            stopScroll();
+            viewX = clampX(x);
+            viewY = clampY(y);
+            repaint();
+        }
+    }
+
+    private void advanceScroll() {
+        if (scroll != null) {
+            float t = scroll.value();
+            viewX = fromX + (toX - fromX) * t;
+            viewY = fromY + (toY - fromY) * t;
+            if (scroll.isFinished()) {
+                viewX = toX;
+                viewY = toY;
+                scroll = null;
+            }
+        }
+    }
+
+    private void stopScroll() {
+        if (scroll != null) {
+            viewX = toX;
+            viewY = toY;
+            scroll = null;
+        }
+    }
+
+    int cellSize() {
+        return cell;
+    }
+
+    private void setCell(int size) {
+        cell = size;
+        gap = size >= 16 ? 2 : 1;
+        deriveFont();
+    }
+
+    private void deriveFont() {
+        cellFont = baseFont.deriveFont(baseFont.getSize2D() * cell / 45f);
+    }
+
+    private int pitch() {
+        return cell + gap;
+    }
+
+    private int boardPixels() {
+        return puzzle == null ? 0 : puzzle.size * pitch() + gap;
+    }
+
+    private void clampView() {
+        viewX = clampX(viewX);
+        viewY = clampY(viewY);
+    }
+
+    private double clampX(double x) {
+        return Math.max(0, Math.min(x, boardPixels() - getWidth()));
+    }
+
+    private double clampY(double y) {
+        return Math.max(0, Math.min(y, boardPixels() - getHeight()));
+    }
+
+    private int rowAt(int y) {
+        return (int) Math.floor((viewY + y - gap) / pitch());
+    }
+
+    private int colAt(int x) {
+        return (int) Math.floor((viewX + x - gap) / pitch());
+    }
+
+    private static int clamp(int value, int min, int max) {
+        return Math.max(min, Math.min(max, value));
+    }
+
+    @Override
+    public Dimension getPreferredSize() {
+        return isPreferredSizeSet() ? super.getPreferredSize() : new Dimension(600, 600);
+    }
+
+    // ===== การวาด =====
+    @Override
+    protected void paintComponent(Graphics g) {
+        GameEvents.BoardPaint event = new GameEvents.BoardPaint();
+        event.begin();
+        long renderedBefore = tilesRendered;
+        advanceScroll();
+        clampView();
+        g.setColor(background);
+        g.fillRect(0, 0, getWidth(), getHeight());
+        if (puzzle != null) {
+            int columns = (getWidth() + TILE_PIXELS - 1) / TILE_PIXELS + 1;
+            int rows = (getHeight() + TILE_PIXELS - 1) / TILE_PIXELS + 1;
+            tileCapacity = Math.max(MIN_TILES, 2 * columns * rows);
+
+            int originX = (int) Math.round(viewX);
+            int originY = (int) Math.round(viewY);
+            Rectangle clip = g.getClipBounds();
+            if (clip == null) {
+                clip = new Rectangle(0, 0, getWidth(), getHeight());
+            }
+            int board = boardPixels();
+            int lastX = Math.min(originX + clip.x + clip.width, board - 1);
+            int lastY = Math.min(originY + clip.y + clip.height, board - 1);
+            for (int ty = (originY + clip.y) / TILE_PIXELS; ty <= lastY / TILE_PIXELS; ty++) {
+                for (int tx = (originX + clip.x) / TILE_PIXELS; tx <= lastX / TILE_PIXELS; tx++) {
+                    g.drawImage(tile(tx, ty), tx * TILE_PIXELS - originX, ty * TILE_PIXELS - originY, null);
+                }
+            }
+
+            if (selection != null) {
+                Graphics2D g2d = (Graphics2D) g.create();
+                g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+                g2d.translate(-originX, -originY);
+                stroke(g2d, selection);
+                g2d.dispose();
+            }
+        }
+        event.end();
+        if (event.shouldCommit()) {
+            event.component = "viewport";
+            event.highlights = highlights.size();
+            event.selectedCells = selection != null
+                ? Math.max(Math.abs(selection.row2 - selection.row1), Math.abs(selection.col2 - selection.col1)) + 1 : 0;
+            event.tilesRendered = (int) (tilesRendered - renderedBefore);
+            event.commit();
+        }
+        if (afterPaint != null) {
+            afterPaint.run();
+        }
+    }
+
+    private BufferedImage tile(int tx, int ty) {
+        long key = key(tx, ty);
+        BufferedImage image = tiles.get(key);
+        if (image != null) {
+            tileHits++;
+            return image;
+        }
+        image = spare.isEmpty() ? new BufferedImage(TILE_PIXELS, TILE_PIXELS, BufferedImage.TYPE_INT_RGB) : spare.pop();
+        renderTile(image, tx, ty);
+        tiles.put(key, image);
+        tilesRendered++;
+        return image;
+    }
+
+    private void renderTile(BufferedImage image, int tx, int ty) {
+        Graphics2D g = image.createGraphics();
+        g.setColor(background);
+        g.fillRect(0, 0, TILE_PIXELS, TILE_PIXELS);
+        g.translate(-tx * TILE_PIXELS, -ty * TILE_PIXELS);
+        int pitch = pitch();
+        int firstRow = Math.max(0, (ty * TILE_PIXELS - gap) / pitch);
+        int lastRow = Math.min(puzzle.size - 1, ((ty + 1) * TILE_PIXELS) / pitch);
+        int firstCol = Math.max(0, (tx * TILE_PIXELS - gap) / pitch);
+        int lastCol = Math.min(puzzle.size - 1, ((tx + 1) * TILE_PIXELS) / pitch);
+
+        g.setColor(cellColor);
+        for (int row = firstRow; row <= lastRow; row++) {
+            for (int col = firstCol; col <= lastCol; col++) {
+                if (puzzle.grid[row][col] != BoardMask.BLANK) {
+                    g.fillRect(gap + col * pitch, gap + row * pitch, cell, cell);
+                }
+            }
+        }
+        if (cell >= MIN_LETTER_CELL) {
+            g.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+            g.setColor(textColor);
+            g.setFont(cellFont);
+            FontMetrics metrics = g.getFontMetrics();
+            int ascent = metrics.getAscent() - metrics.getDescent();
+            boolean latin = puzzle.alphabet.isLatin();
+            char[] letter = new char[1];
+            for (int row = firstRow; row <= lastRow; row++) {
+                int y = center(row) + ascent / 2;
+                for (int col = firstCol; col <= lastCol; col++) {
+                    letter[0] = puzzle.grid[row][col];
+                    if (letter[0] == BoardMask.BLANK) {
+                        continue;
+                    }
+                    if (latin) {
+                        g.drawChars(letter, 0, 1, center(col) - metrics.charWidth(letter[0]) / 2, y);
+                    } else {
+                        String text = puzzle.cellText(row, col);
+                        g.drawString(text, center(col) - metrics.stringWidth(text) / 2, y);
+                    }
+                }
+            }
+        }
+
+        Rectangle area = new Rectangle(tx * TILE_PIXELS, ty * TILE_PIXELS, TILE_PIXELS, TILE_PIXELS);
+        g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        for (Highlight highlight : highlights) {
+            if (bounds(highlight).intersects(area)) {
+                stroke(g, highlight);
+            }
+        }
+        g.dispose();
+    }
+
+    private void stroke(Graphics2D g, Highlight highlight) {
+        PuzzleRenderer.strokeWord(g, highlight.color, cell, center(highlight.col1), center(highlight.row1),
+            center(highlight.col2), center(highlight.row2));
+    }
+
+    private int center(int index) {
+        return gap + index * pitch() + cell / 2;
+    }
+
+    // กรอบของเส้นในพิกัดของภาพทั้งตาราง (รวมความหนาของเส้น)
+    private Rectangle bounds(Highlight highlight) {
+        int pad = (int) Math.ceil(cell * PuzzleRenderer.HIGHLIGHT_STROKE_RATIO / 2) + 2;
+        int x1 = center(Math.min(highlight.col1, highlight.col2));
+        int y1 = center(Math.min(highlight.row1, highlight.row2));
+        int x2 = center(Math.max(highlight.col1, highlight.col2));
+        int y2 = center(Math.max(highlight.row1, highlight.row2));
+        return new Rectangle(x1 - pad, y1 - pad, x2 - x1 + 2 * pad, y2 - y1 + 2 * pad);
+    }
+
+    private Rectangle toScreen(Rectangle board) {
+        return new Rectangle(board.x - (int) Math.round(viewX), board.y - (int) Math.round(viewY),
+            board.width, board.height);
+    }
+
+    private static long key(int tx, int ty) {
+        return (long) ty << 32 | (tx & 0xFFFFFFFFL);
+    }
+
+    // ===== tile cache =====
+    // ล้างทุก tile (ซูม เปลี่ยนสี เปลี่ยนตาราง) - ภาพเก็บไว้ใช้ซ้ำได้ไม่เกิน SPARE_TILES
+    void invalidateTiles() {
+        for (Iterator<BufferedImage> it = tiles.values().iterator(); it.hasNext(); ) {
+            recycle(it.next());
+            it.remove();
+        }
+        repaint();
+    }
+
+    private void recycle(BufferedImage image) {
+        if (spare.size() < SPARE_TILES) {
+            spare.push(image);
+        }
+    }
+
+    int cachedTiles() {
+        return tiles.size();
+    }
+
+    // หน่วยความจำของ tile ที่เก็บไว้ (รวมภาพสำรอง) - ขึ้นกับขนาด component เท่านั้น
+    long tileMemoryBytes() {
+        return (long) (tiles.size() + spare.size()) * TILE_PIXELS * TILE_PIXELS * 4;
+    }
+
+    long tilesRendered() {
+        return tilesRendered;
+    }
+
+    long tileHits() {
+        return tileHits;
+    }
+}
@@ -0,0 +1,74 @@
+import java.util.concurrent.TimeUnit;
+
+// นาฬิกานับถอยหลังแบบ monotonic - เก็บ deadline จาก System.nanoTime()
+// แทนการลดค่าทีละวินาที ทำให้เวลาไม่คลาดเคลื่อนแม้ EDT จะค้าง
+public class CountdownClock {
+    private enum State { IDLE, RUNNING, PAUSED }
+
+    private State state = State.IDLE;
+    private long deadlineNanos;
+    private long frozenRemainingNanos; // used while IDLE or PAUSED
+
+    public void start(int seconds) {
+        deadlineNanos = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+        state = State.RUNNING;
+    }
+
+    // หยุดนับและคงค่าเวลาที่เหลือไว้
+    public void stop() {
+        if (state == State.RUNNING) {
+            frozenRemainingNanos = remainingNanos();
+        }
+        state = State.IDLE;
+    }
+
+    public void pause() {
+        if (state == State.RUNNING) {
+            frozenRemainingNanos = remainingNanos();
+            state = State.PAUSED;
+        }
+    }
+
+    public void resume() {
+        if (state == State.PAUSED) {
+            deadlineNanos = System.nanoTime() + frozenRemainingNanos;
+            state = State.RUNNING;
+        }
+    }
+
+    public boolean isRunning() {
+        return state == State.RUNNING;
+    }
+
+    public boolean isPaused() {
+        return state == State.PAUSED;
+    }
+
+    public boolean isExpired() {
+        return state == State.RUNNING && remainingNanos() == 0;
+    }
+
+    public long remainingNanos() {
+        if (state != State.RUNNING) {
+            return frozenRemainingNanos;
+        }
+        return Math.max(0L, deadlineNanos - System.nanoTime());
+    }
+
+    // ปัดขึ้น เพื่อให้แสดง 10:00 ตอนเริ่ม และแสดง 00:00 เมื่อหมดเวลาจริงเท่านั้น
+    public int remainingSeconds() {
+        long nanos = remainingNanos();
+        long perSecond = TimeUnit.SECONDS.toNanos(1);
+        return (int) ((nanos + perSecond - 1) / perSecond);
+    }
+
+    // เวลาจนถึงการเปลี่ยนตัวเลขวินาทีครั้งถัดไป (ms) ใช้ตั้งเวลา tick ให้ตรงขอบวินาที
+    public int millisUntilNextSecond() {
+        long perSecond = TimeUnit.SECONDS.toNanos(1);
+        long fraction = remainingNanos() % perSecond;
+        if (fraction == 0) {
+            fraction = perSecond;
+        }
+        return (int) TimeUnit.NANOSECONDS.toMillis(fraction) + 1;
+    }
+}
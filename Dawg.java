@@ -0,0 +1,313 @@
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+// พจนานุกรมแบบ DAWG (minimal acyclic automaton) สำหรับโหมดคำโบนัส
+// เก็บเป็น int[] สองชุด: nodeStart (ช่วงของ edge ต่อ node) และ edges
+// แต่ละ edge = (target << 6) | (terminal << 5) | letter(0-25)
+//
+// สร้างไฟล์: java Dawg build words.txt words.dawg
+public class Dawg {
+    static final int MIN_WORD_LENGTH = 3;
+
+    private static final int MAGIC = 0x44415747; // "DAWG"
+    private static final int VERSION = 1;
+    private static final int LETTER_MASK = 0x1F;
+    private static final int TERMINAL_BIT = 1 << 5;
+    private static final int TARGET_SHIFT = 6;
+
+    private final int[] nodeStart;
+    private final int[] edges;
+
+    private Dawg(int[] nodeStart, int[] edges) {
+        this.nodeStart = nodeStart;
+        this.edges = edges;
+    }
+
+    public int nodeCount() {
+        return nodeStart.length - 1;
+    }
+
+    public int edgeCount() {
+        return edges.length;
+    }
+
+    // ขนาดข้อมูลในหน่วยความจำ (ไม่รวม header ของ object)
+    public long memoryBytes() {
+        return 4L * nodeStart.length + 4L * edges.length;
+    }
+
+    // ===== LOOKUP =====
+    public boolean contains(CharSequence word) {
+        if (word.length() == 0) {
+            return false;
+        }
+        int node = 0;
+        for (int i = 0; i < word.length(); i++) {
+            int edge = findEdge(node, word.charAt(i));
+            if (edge < 0) {
+                return false;
+            }
+            if (i == word.length() - 1) {
+                return (edge & TERMINAL_BIT) != 0;
+            }
+            node = edge >>> TARGET_SHIFT;
+        }
+        return false;
+    }
+
+    // เดินตามช่องในตารางโดยตรง ไม่ต้องสร้าง String ของคำที่เลือก
+    public boolean containsLine(char[][] grid, int row, int col, int rowStep, int colStep, int length) {
+        if (length <= 0) {
+            return false;
+        }
+        int node = 0;
+        for (int i = 0; i < length; i++) {
+            int edge = findEdge(node, grid[row + i * rowStep][col + i * colStep]);
+            if (edge < 0) {
+                return false;
+            }
+            if (i == length - 1) {
+                return (edge & TERMINAL_BIT) != 0;
+            }
+            node = edge >>> TARGET_SHIFT;
+        }
+        return false;
+    }
+
+    private int findEdge(int node, char c) {
+        int letter = c - 'A';
+        if (letter < 0 || letter >= 26) {
+            return -1;
+        }
+        // edge ของแต่ละ node เรียงตามตัวอักษร และมีไม่เกิน 26 เส้น
+        for (int i = nodeStart[node], end = nodeStart[node + 1]; i < end; i++) {
+            int edgeLetter = edges[i] & LETTER_MASK;
+            if (edgeLetter == letter) {
+                return edges[i];
+            }
+            if (edgeLetter > letter) {
+                return -1;
+            }
+        }
+        return -1;
+    }
+
+    // ===== BUILD =====
+    private static final class BuildNode {
+        char[] labels = new char[0];
+        BuildNode[] targets = new BuildNode[0];
+        boolean[] terminal = new boolean[0];
+        int hash;
+
+        BuildNode lastChild() {
+            return targets[targets.length - 1];
+        }
+
+        BuildNode addChild(char label, boolean isTerminal) {
+            int n = labels.length;
+            labels = Arrays.copyOf(labels, n + 1);
+            targets = Arrays.copyOf(targets, n + 1);
+            terminal = Arrays.copyOf(terminal, n + 1);
+            labels[n] = label;
+            terminal[n] = isTerminal;
+            targets[n] = new BuildNode();
+            return targets[n];
+        }
+
+        // node ที่ลงทะเบียนแล้วจะไม่ถูกแก้ไขอีก จึงคำนวณ hash จาก identity ของลูกได้
+        @Override
+        public int hashCode() {
+            if (hash == 0) {
+                int h = Arrays.hashCode(labels) * 31 + Arrays.hashCode(terminal);
+                for (BuildNode target : targets) {
+                    h = h * 31 + System.identityHashCode(target);
+                }
+                hash = h == 0 ? 1 : h;
+            }
+            return hash;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof BuildNode)) {
+                return false;
+            }
+            BuildNode other = (BuildNode) o;
+            if (!Arrays.equals(labels, other.labels) || !Arrays.equals(terminal, other.terminal)) {
+                return false;
+            }
+            for (int i = 0; i < targets.length; i++) {
+                if (targets[i] != other.targets[i]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    // สร้าง automaton ที่เล็กที่สุดแบบเพิ่มทีละคำ (Daciuk et al.) - คำต้องเรียงและไม่ซ้ำ
+    public static Dawg build(List<String> sortedWords) {
+        BuildNode root = new BuildNode();
+        Map<BuildNode, BuildNode> register = new HashMap<>();
+        String previous = "";
+
+        for (String word : sortedWords) {
+            if (word.compareTo(previous) <= 0) {
+                throw new IllegalArgumentException("words must be sorted and unique: " + word);
+            }
+            int common = 0;
+            int max = Math.min(word.length(), previous.length());
+            while (common < max && word.charAt(common) == previous.charAt(common)) {
+                common++;
+            }
+
+            BuildNode state = root;
+            for (int i = 0; i < common; i++) {
+                state = state.lastChild();
+            }
+            if (state.targets.length > 0) {
+                replaceOrRegister(state, register);
+            }
+            for (int i = common; i < word.length(); i++) {
+                state = state.addChild(word.charAt(i), i == word.length() - 1);
+            }
+            previous = word;
+        }
+        if (root.targets.length > 0) {
+            replaceOrRegister(root, register);
+        }
+        return flatten(root);
+    }
+
+    private static void replaceOrRegister(BuildNode state, Map<BuildNode, BuildNode> register) {
+        BuildNode child = state.lastChild();
+        if (child.targets.length > 0) {
+            replaceOrRegister(child, register);
+        }
+        BuildNode existing = register.putIfAbsent(child, child);
+        if (existing != null) {
+            state.targets[state.targets.length - 1] = existing;
+        }
+    }
+
+    private static Dawg flatten(BuildNode root) {
+        // กำหนดหมายเลข node แบบ BFS ให้ root เป็น 0
+        Map<BuildNode, Integer> ids = new IdentityHashMap<>();
+        List<BuildNode> order = new ArrayList<>();
+        ArrayDeque<BuildNode> queue = new ArrayDeque<>();
+        ids.put(root, 0);
+        order.add(root);
+        queue.add(root);
+        int edgeCount = 0;
+        while (!queue.isEmpty()) {
+            BuildNode node = queue.poll();
+            edgeCount += node.targets.length;
+            for (BuildNode target : node.targets) {
+                if (!ids.containsKey(target)) {
+                    ids.put(target, order.size());
+                    order.add(target);
+                    queue.add(target);
+                }
+            }
+        }
+
+        int[] nodeStart = new int[order.size() + 1];
+        int[] edges = new int[edgeCount];
+        int e = 0;
+        for (int n = 0; n < order.size(); n++) {
+            BuildNode node = order.get(n);
+            nodeStart[n] = e;
+            for (int i = 0; i < node.targets.length; i++) {
+                int target = ids.get(node.targets[i]);
+                edges[e++] = (target << TARGET_SHIFT)
+                    | (node.terminal[i] ? TERMINAL_BIT : 0)
+                    | (node.labels[i] - 'A');
+            }
+        }
+        nodeStart[order.size()] = e;
+        return new Dawg(nodeStart, edges);
+    }
+
+    // อ่านรายการคำจากไฟล์ข้อความ: ตัวพิมพ์ใหญ่ A-Z ความยาวอย่างน้อย minLength เรียงและไม่ซ้ำ
+    public static List<String> readWordList(Path path, int minLength) throws IOException {
+        TreeSet<String> words = new TreeSet<>();
+        for (String line : Files.readAllLines(path, StandardCharsets.UTF_8)) {
+            String word = line.trim().toUpperCase();
+            if (word.length() >= minLength && word.chars().allMatch(c -> c >= 'A' && c <= 'Z')) {
+                words.add(word);
+            }
+        }
+        return new ArrayList<>(words);
+    }
+
+    // ===== FILE FORMAT =====
+    public void write(OutputStream output) throws IOException {
+        DataOutputStream out = new DataOutputStream(new BufferedOutputStream(output));
+        out.writeInt(MAGIC);
+        out.writeInt(VERSION);
+        out.writeInt(nodeStart.length);
+        out.writeInt(edges.length);
+        for (int value : nodeStart) {
+            out.writeInt(value);
+        }
+        for (int value : edges) {
+            out.writeInt(value);
+        }
+        out.flush();
+    }
+
+    public static Dawg read(InputStream input) throws IOException {
+        DataInputStream in = new DataInputStream(new BufferedInputStream(input));
+        if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+            throw new IOException("not a DAWG file");
+        }
+        int[] nodeStart = new int[in.readInt()];
+        int[] edges = new int[in.readInt()];
+        for (int i = 0; i < nodeStart.length; i++) {
+            nodeStart[i] = in.readInt();
+        }
+        for (int i = 0; i < edges.length; i++) {
+            edges[i] = in.readInt();
+        }
+        return new Dawg(nodeStart, edges);
+    }
+
+    public static Dawg load(Path path) throws IOException {
+        try (InputStream in = Files.newInputStream(path)) {
+            return read(in);
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 3 || !args[0].equals("build")) {
+            System.out.println("Usage: java Dawg build <words.txt> <output.dawg>");
+            return;
+        }
+        long start = System.nanoTime();
+        List<String> words = readWordList(Paths.get(args[1]), MIN_WORD_LENGTH);
+        Dawg dawg = build(words);
+        try (OutputStream out = Files.newOutputStream(Paths.get(args[2]))) {
+            dawg.write(out);
+        }
+        System.out.printf("Built %s: %d words, %d nodes, %d edges, %d KB in %d ms%n",
+            args[2], words.size(), dawg.nodeCount(), dawg.edgeCount(), dawg.memoryBytes() / 1024,
+            (System.nanoTime() - start) / 1_000_000);
+    }
+}
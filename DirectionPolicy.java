@@ -0,0 +1,97 @@
+import java.util.Random;
+
+// ทิศทางที่อนุญาตให้วางคำและน้ำหนักของแต่ละทิศ - แต่ละ DifficultyLevel มีชุดของตัวเอง
+// น้ำหนัก 0 = ไม่อนุญาต ลำดับทิศตรงกับ DIRECTIONS
+public final class DirectionPolicy {
+    static final int[][] DIRECTIONS = {
+        {0, 1},   // ขวา
+        {1, 0},   // ลง
+        {1, 1},   // ขวาล่าง
+        {1, -1},  // ซ้ายล่าง
+        {0, -1},  // ซ้าย
+        {-1, 0},  // บน
+        {-1, 1},  // ขวาบน
+        {-1, -1}  // ซ้ายบน
+    };
+
+    // ทุกทิศเท่ากัน (พฤติกรรมเดิมของตัวสร้าง)
+    static final DirectionPolicy ALL = new DirectionPolicy(1, 1, 1, 1, 1, 1, 1, 1);
+
+    private final int[] weights;
+    private final int[] cumulative;
+    private final int totalWeight;
+
+    DirectionPolicy(int right, int down, int downRight, int downLeft, int left, int up, int upRight, int upLeft) {
+        this.weights = new int[] {right, down, downRight, downLeft, left, up, upRight, upLeft};
+        this.cumulative = new int[weights.length];
+        int total = 0;
+        for (int i = 0; i < weights.length; i++) {
+            if (weights[i] < 0) {
+                throw new IllegalArgumentException("direction weight must not be negative");
+            }
+            total += weights[i];
+            cumulative[i] = total;
+        }
+        if (total == 0) {
+            throw new IllegalArgumentException("at least one direction must be allowed");
+        }
+        this.totalWeight = total;
+    }
+
+    public int weight(int direction) {
+        return weights[direction];
+    }
+
+    public boolean allows(int rowDir, int colDir) {
+        for (int i = 0; i < DIRECTIONS.length; i++) {
+            if (DIRECTIONS[i][0] == rowDir && DIRECTIONS[i][1] == colDir) {
+                return weights[i] > 0;
+            }
+        }
+        return false;
+    }
+
+    // สุ่มทิศตามน้ำหนัก - ไม่มีทางได้ทิศที่ไม่อนุญาต
+    public int[] sampleDirection(Random random) {
+        int pick = random.nextInt(totalWeight);
+        int i = 0;
+        while (cumulative[i] <= pick) {
+            i++;
+        }
+        return DIRECTIONS[i];
+    }
+
+    // index ของทิศที่อนุญาตทั้งหมดเรียงแบบสุ่มถ่วงน้ำหนัก (สุ่มโดยไม่ใส่คืน) - ทิศแรกมีโอกาสเท่ากับ sampleDirection
+    int[] sampleOrder(Random random) {
+        int[] remaining = weights.clone();
+        int remainingWeight = totalWeight;
+        int allowed = 0;
+        for (int weight : weights) {
+            if (weight > 0) {
+                allowed++;
+            }
+        }
+        int[] order = new int[allowed];
+        for (int n = 0; n < order.length; n++) {
+            int pick = random.nextInt(remainingWeight);
+            int i = 0;
+            while (pick >= remaining[i]) {
+                pick -= remaining[i];
+                i++;
+            }
+            order[n] = i;
+            remainingWeight -= remaining[i];
+            remaining[i] = 0;
+        }
+        return order;
+    }
+
+    // สุ่มจุดเริ่มบนแกนหนึ่งเฉพาะช่วงที่คำยาว length ไม่ล้นตาราง
+    static int sampleStart(int step, int length, int size, Random random) {
+        if (step == 0) {
+            return random.nextInt(size);
+        }
+        int start = random.nextInt(size - length + 1);
+        return step > 0 ? start : start + length - 1;
+    }
+}
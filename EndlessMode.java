@@ -0,0 +1,121 @@
+import java.util.Collection;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// โหมดไม่รู้จบ - ไม่มีด่านสุดท้าย ตารางถัดไปปรับตามความเร็วของผู้เล่น (คำต่อนาทีจากเวลาที่หาคำเจอ)
+// เร็วขึ้น = ตารางใหญ่ขึ้น คำมากขึ้น และทิศทางยากขึ้น (ใช้ DirectionPolicy/คำหลอกของ DifficultyLevel ที่ใกล้ที่สุด)
+final class EndlessMode {
+    // สร้างตารางถัดไปล่วงหน้าเมื่อหาคำเจอเกินสัดส่วนนี้
+    static final double PREFETCH_PROGRESS = 0.7;
+
+    static final int MIN_GRID_SIZE = 10;
+    static final int MAX_GRID_SIZE = 16;
+    static final int MIN_WORDS = 5;
+
+    private static final double INITIAL_PACE = 3.0;       // คำต่อนาที ก่อนมีข้อมูลจริง
+    private static final double PACE_SMOOTHING = 0.5;     // น้ำหนักของตารางล่าสุดใน pace สะสม
+    private static final double TARGET_BOARD_MINUTES = 3.0;
+    private static final double AVERAGE_WORD_LENGTH = 6.5;
+    private static final double MAX_FILL = 0.6;           // สัดส่วนช่องที่ถูกคำใช้ได้มากสุด
+    private static final int MIN_TIME_LIMIT = 120;
+    private static final int MAX_TIME_LIMIT = 900;
+
+    // สเปกของตารางหนึ่งในโหมดนี้
+    static final class Board {
+        final int number;
+        final int gridSize;
+        final int wordCount;
+        final int timeLimit;
+        final WordSearchGame.DifficultyLevel tier; // ธีม ทิศทาง และคำหลอก
+
+        Board(int number, int gridSize, int wordCount, int timeLimit, WordSearchGame.DifficultyLevel tier) {
+            this.number = number;
+            this.gridSize = gridSize;
+            this.wordCount = wordCount;
+            this.timeLimit = timeLimit;
+            this.tier = tier;
+        }
+
+        String displayName() {
+            return "Endless #" + number;
+        }
+
+        String describe() {
+            return gridSize + "x" + gridSize + ", " + wordCount + " words, " + tier.name + " directions";
+        }
+
+        // ไม่ใช้ generateCalibrated - ช่วงคะแนนของแต่ละระดับปรับเทียบไว้สำหรับตาราง 12x12 เท่านั้น
+        Puzzle generate(Collection<String> candidates, Alphabet alphabet, long seed) {
+            PuzzleGenerator generator = new PuzzleGenerator(gridSize, new Random(seed));
+            generator.setVerbose(false);
+            generator.setAlphabet(alphabet);
+            generator.setDirectionPolicy(tier.directions);
+            generator.setDecoysPerWord(tier.decoysPerWord);
+            generator.setDifficultyName(tier.name);
+            return generator.generate(candidates, wordCount);
+        }
+    }
+
+    private double pace = INITIAL_PACE;
+    private int boardsCleared;
+    private int boardNumber; // ตารางที่กำลังเล่น (0 = ยังไม่เริ่ม)
+    private int wordsThisBoard;
+    private long lastWordElapsedNanos;
+
+    void startBoard(Board board) {
+        boardNumber = board.number;
+        wordsThisBoard = 0;
+        lastWordElapsedNanos = 0;
+    }
+
+    // elapsedNanos = เวลาเล่นของตารางนี้ (ไม่นับช่วงที่หยุดเวลา)
+    void wordFound(long elapsedNanos) {
+        wordsThisBoard++;
+        lastWordElapsedNanos = elapsedNanos;
+    }
+
+    void boardCleared() {
+        pace = currentPace();
+        boardsCleared++;
+        wordsThisBoard = 0; // นับเข้า pace แล้ว
+    }
+
+    int boardsCleared() {
+        return boardsCleared;
+    }
+
+    // pace สะสมผสมกับตารางปัจจุบัน (ต้องเจออย่างน้อย 2 คำก่อนจึงนับ)
+    double currentPace() {
+        if (wordsThisBoard < 2 || lastWordElapsedNanos <= 0) {
+            return pace;
+        }
+        double minutes = lastWordElapsedNanos / (double) TimeUnit.MINUTES.toNanos(1);
+        double boardPace = wordsThisBoard / minutes;
+        return pace * (1 - PACE_SMOOTHING) + boardPace * PACE_SMOOTHING;
+    }
+
+    boolean shouldPrefetch(int found, int total) {
+        return total > 0 && found >= Math.ceil(total * PREFETCH_PROGRESS);
+    }
+
+    // ตารางถัดไปจาก pace ณ ตอนนี้ - เรียกได้ก่อนจบตาราง (ตอน prefetch)
+    Board nextBoard(int availableWords) {
+        double pace = currentPace();
+        WordSearchGame.DifficultyLevel tier = pace < 3 ? WordSearchGame.DifficultyLevel.EASY
+            : pace < 6 ? WordSearchGame.DifficultyLevel.NORMAL
+            : WordSearchGame.DifficultyLevel.HARD;
+
+        // ให้ใช้เวลาราว 3 นาทีต่อตารางที่ความเร็วนี้ และเพิ่มขึ้นเรื่อย ๆ ตามจำนวนตารางที่เล่นมา
+        int words = (int) Math.round(pace * TARGET_BOARD_MINUTES) + boardNumber / 2;
+        words = Math.max(MIN_WORDS, Math.min(words, availableWords));
+
+        int needed = (int) Math.ceil(Math.sqrt(words * AVERAGE_WORD_LENGTH / MAX_FILL));
+        int size = Math.max(needed, MIN_GRID_SIZE + (int) (pace / 2) + boardNumber / 3);
+        size = Math.max(MIN_GRID_SIZE, Math.min(MAX_GRID_SIZE, size));
+
+        // เวลาสองเท่าของที่คาดว่าจะใช้
+        int timeLimit = (int) Math.round(words / pace * 60 * 2);
+        timeLimit = Math.max(MIN_TIME_LIMIT, Math.min(MAX_TIME_LIMIT, timeLimit));
+        return new Board(boardNumber + 1, size, words, timeLimit, tier);
+    }
+}
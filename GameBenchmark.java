@@ -0,0 +1,662 @@
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeSet;
+
+// ชุดวัดประสิทธิภาพของ engine (ไม่ใช้ UI) - รันทีละหัวข้อ
+//
+// java GameBenchmark dawg [words.txt]
+// java GameBenchmark difficulty [puzzles-per-level]
+// java GameBenchmark fill
+// java GameBenchmark packed [pool-size]
+// java GameBenchmark dedup [fingerprints]
+// java GameBenchmark shape [puzzles-per-shape]
+// java GameBenchmark stream [puzzles]
+// java GameBenchmark message [puzzles-per-size]
+// java -Djava.awt.headless=true GameBenchmark viewport [frames]
+public class GameBenchmark {
+    private static final int[][] DIRECTIONS = {
+        {0, 1}, {1, 0}, {1, 1}, {1, -1}, {0, -1}, {-1, 0}, {-1, 1}, {-1, -1}
+    };
+
+    public static void main(String[] args) throws Exception {
+        String section = args.length > 0 ? args[0] : "help";
+        switch (section) {
+            case "dawg":
+                benchmarkDawg(args.length > 1 ? args[1] : null);
+                break;
+            case "difficulty":
+                benchmarkDifficulty(args.length > 1 ? Integer.parseInt(args[1]) : 2000);
+                break;
+            case "fill":
+                benchmarkFill();
+                break;
+            case "packed":
+                benchmarkPacked(args.length > 1 ? Integer.parseInt(args[1]) : 200_000);
+                break;
+            case "dedup":
+                benchmarkDedup(args.length > 1 ? Long.parseLong(args[1]) : 20_000_000L);
+                break;
+            case "shape":
+                benchmarkShape(args.length > 1 ? Integer.parseInt(args[1]) : 2000);
+                break;
+            case "stream":
+                benchmarkStream(args.length > 1 ? Integer.parseInt(args[1]) : 20_000);
+                break;
+            case "message":
+                benchmarkMessage(args.length > 1 ? Integer.parseInt(args[1]) : 500);
+                break;
+            case "viewport":
+                benchmarkViewport(args.length > 1 ? Integer.parseInt(args[1]) : 600);
+                break;
+            default:
+                System.out.println("Usage: java GameBenchmark <dawg|difficulty|fill|packed|dedup|shape|stream|message|viewport> [options]");
+        }
+    }
+
+    // ===== DAWG =====
+    private static void benchmarkDawg(String wordFile) throws IOException {
+        List<String> words = wordFile != null
+            ? Dawg.readWordList(Paths.get(wordFile), Dawg.MIN_WORD_LENGTH)
+            : syntheticWords(120_000, new Random(7));
+        System.out.println("Dictionary: " + words.size() + " words" + (wordFile == null ? " (synthetic)" : ""));
+
+        long start = System.nanoTime();
+        Dawg dawg = Dawg.build(words);
+        long buildMillis = (System.nanoTime() - start) / 1_000_000;
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        dawg.write(bytes);
+        start = System.nanoTime();
+        Dawg loaded = Dawg.read(new ByteArrayInputStream(bytes.toByteArray()));
+        long loadMillis = (System.nanoTime() - start) / 1_000_000;
+
+        long hashSetBytes = measureHashSetBytes(words);
+        System.out.printf("Build: %d ms, load: %d ms, nodes: %d, edges: %d%n",
+            buildMillis, loadMillis, loaded.nodeCount(), loaded.edgeCount());
+        System.out.printf("Memory: DAWG %d KB (file %d KB) vs HashSet<String> ~%d KB%n",
+            loaded.memoryBytes() / 1024, bytes.size() / 1024, hashSetBytes / 1024);
+
+        for (String word : words) {
+            if (!loaded.contains(word)) {
+                throw new IllegalStateException("DAWG lost word " + word);
+            }
+        }
+
+        // สุ่มเส้นบนตาราง 12x12 แบบเดียวกับที่ผู้เล่นลาก แล้วตรวจทั้งสองทิศทางเหมือน checkWord
+        Random random = new Random(11);
+        int size = PuzzleGenerator.DEFAULT_SIZE;
+        char[][][] grids = new char[256][][];
+        for (int g = 0; g < grids.length; g++) {
+            grids[g] = PuzzleGenerator.generateSeeded(WordSearchGame.DifficultyLevel.HARD, random.nextLong()).grid;
+        }
+        int lookups = 2_000_000;
+        int[] lines = new int[lookups * 5];
+        for (int i = 0; i < lookups; i++) {
+            int[] dir;
+            int row, col, length;
+            do {
+                dir = DIRECTIONS[random.nextInt(8)];
+                row = random.nextInt(size);
+                col = random.nextInt(size);
+                length = Dawg.MIN_WORD_LENGTH + random.nextInt(size - Dawg.MIN_WORD_LENGTH + 1);
+            } while (!inBounds(row + (length - 1) * dir[0], col + (length - 1) * dir[1], size));
+            lines[i * 5] = row;
+            lines[i * 5 + 1] = col;
+            lines[i * 5 + 2] = dir[0];
+            lines[i * 5 + 3] = dir[1];
+            lines[i * 5 + 4] = length;
+        }
+
+        int hits = 0;
+        for (int round = 0; round < 5; round++) {
+            hits = 0;
+            start = System.nanoTime();
+            for (int i = 0; i < lookups; i++) {
+                char[][] grid = grids[i & 255];
+                int row = lines[i * 5], col = lines[i * 5 + 1];
+                int rowStep = lines[i * 5 + 2], colStep = lines[i * 5 + 3], length = lines[i * 5 + 4];
+                if (loaded.containsLine(grid, row, col, rowStep, colStep, length)
+                        || loaded.containsLine(grid, row + (length - 1) * rowStep, col + (length - 1) * colStep,
+                            -rowStep, -colStep, length)) {
+                    hits++;
+                }
+            }
+            long elapsed = System.nanoTime() - start;
+            System.out.printf("Round %d: %.1f ns per selection (both directions), %d hits%n",
+                round + 1, (double) elapsed / lookups, hits);
+        }
+    }
+
+    // ===== DIFFICULTY =====
+    private static void benchmarkDifficulty(int count) {
+        for (WordSearchGame.DifficultyLevel level : WordSearchGame.DifficultyLevel.values()) {
+            // ตารางที่ไม่ผ่านการปรับเทียบ: การกระจายของคะแนนและเวลาในการให้คะแนน
+            Puzzle[] puzzles = new Puzzle[count];
+            long generateNanos = 0;
+            for (int i = 0; i < count; i++) {
+                PuzzleGenerator generator = new PuzzleGenerator(PuzzleGenerator.DEFAULT_SIZE, new Random(i));
+                generator.setVerbose(false);
+                generator.setDirectionPolicy(level.directions);
+                generator.setDecoysPerWord(level.decoysPerWord);
+                long start = System.nanoTime();
+                puzzles[i] = generator.generate(PuzzleGenerator.DEFAULT_WORDS, level.wordCount);
+                generateNanos += System.nanoTime() - start;
+            }
+            double[] scores = new double[count];
+            long scoreNanos = Long.MAX_VALUE;
+            for (int round = 0; round < 5; round++) {
+                long start = System.nanoTime();
+                for (int i = 0; i < count; i++) {
+                    scores[i] = PuzzleDifficulty.score(puzzles[i]);
+                }
+                scoreNanos = Math.min(scoreNanos, System.nanoTime() - start);
+            }
+            int inBand = 0;
+            for (double score : scores) {
+                if (level.acceptsScore(score)) {
+                    inBand++;
+                }
+            }
+            Arrays.sort(scores);
+
+            // ตารางที่ปรับเทียบแล้ว: จำนวนครั้งที่ต้องสร้างและ throughput รวม
+            long start = System.nanoTime();
+            int attempts = 0;
+            int maxAttempts = 0;
+            int missed = 0;
+            for (int i = 0; i < count; i++) {
+                PuzzleGenerator generator = new PuzzleGenerator(PuzzleGenerator.DEFAULT_SIZE, new Random(i));
+                generator.setVerbose(false);
+                Puzzle puzzle = generator.generateCalibrated(PuzzleGenerator.DEFAULT_WORDS, level);
+                attempts += generator.getCalibrationAttempts();
+                maxAttempts = Math.max(maxAttempts, generator.getCalibrationAttempts());
+                if (!level.acceptsScore(PuzzleDifficulty.score(puzzle))) {
+                    missed++;
+                }
+            }
+            long calibratedNanos = System.nanoTime() - start;
+
+            System.out.printf("%s band %.0f-%.0f: raw scores p5 %.1f, p50 %.1f, p95 %.1f, %.0f%% in band%n",
+                level.name, level.minScore, level.maxScore,
+                scores[count / 20], scores[count / 2], scores[count * 19 / 20], 100.0 * inBand / count);
+            System.out.printf("  score %.2f us/puzzle, generate %.0f us/puzzle, calibrated %.0f us/puzzle "
+                    + "(%.0f puzzles/s, %.2f attempts avg, %d max, %d outside band)%n",
+                scoreNanos / 1000.0 / count, generateNanos / 1000.0 / count, calibratedNanos / 1000.0 / count,
+                count / (calibratedNanos / 1e9), (double) attempts / count, maxAttempts, missed);
+        }
+    }
+
+    // ===== FILL =====
+    private static void benchmarkFill() {
+        for (int size : new int[] {12, 128, 1024, 4096}) {
+            // วางคำเป้าหมายแนวนอนกระจายตามแถว แล้วเหลือช่องที่เหลือให้ตัวเติม
+            char[][] template = new char[size][size];
+            for (char[] row : template) {
+                Arrays.fill(row, '-');
+            }
+            List<Puzzle.Placement> placements = new ArrayList<>();
+            List<String> words = PuzzleGenerator.DEFAULT_WORDS;
+            int count = Math.min(size, words.size());
+            for (int i = 0; i < count; i++) {
+                String word = words.get(i);
+                if (word.length() > size) {
+                    continue;
+                }
+                int row = i * size / count;
+                word.getChars(0, word.length(), template[row], 0);
+                placements.add(new Puzzle.Placement(word, row, 0, 0, 1));
+            }
+
+            long cells = (long) size * size;
+            int rounds = (int) Math.max(3, 32_000_000L / cells);
+            Random random = new Random(size);
+            long uniform = Long.MAX_VALUE, weighted = Long.MAX_VALUE, guarded = Long.MAX_VALUE;
+            for (int round = 0; round < rounds; round++) {
+                char[][] grid = copy(template);
+                long start = System.nanoTime();
+                for (char[] row : grid) {
+                    for (int col = 0; col < size; col++) {
+                        if (row[col] == '-') {
+                            row[col] = (char) ('A' + random.nextInt(26));
+                        }
+                    }
+                }
+                uniform = Math.min(uniform, System.nanoTime() - start);
+
+                grid = copy(template);
+                start = System.nanoTime();
+                for (char[] row : grid) {
+                    for (int col = 0; col < size; col++) {
+                        if (row[col] == '-') {
+                            row[col] = LetterFiller.randomLetter(random);
+                        }
+                    }
+                }
+                weighted = Math.min(weighted, System.nanoTime() - start);
+
+                grid = copy(template);
+                start = System.nanoTime();
+                LetterFiller.fill(grid, '-', placements, 1.5, random);
+                guarded = Math.min(guarded, System.nanoTime() - start);
+            }
+            System.out.printf("%dx%d: uniform %.1f ns/cell, alias %.1f ns/cell, alias+decoys+no-accidental-word %.1f ns/cell (%.2f ms)%n",
+                size, size, (double) uniform / cells, (double) weighted / cells, (double) guarded / cells, guarded / 1e6);
+        }
+    }
+
+    private static char[][] copy(char[][] grid) {
+        char[][] result = new char[grid.length][];
+        for (int i = 0; i < grid.length; i++) {
+            result[i] = grid[i].clone();
+        }
+        return result;
+    }
+
+    private static boolean inBounds(int row, int col, int size) {
+        return row >= 0 && row < size && col >= 0 && col < size;
+    }
+
+    // คำเทียมที่สลับพยัญชนะ/สระ ให้มีโครงสร้าง prefix/suffix ใกล้เคียงพจนานุกรมจริง
+    static List<String> syntheticWords(int count, Random random) {
+        String consonants = "BCDFGHJKLMNPRSTVWY";
+        String vowels = "AEIOU";
+        String[] suffixes = {"", "", "S", "ED", "ING", "ER", "LY", "NESS"};
+        TreeSet<String> words = new TreeSet<>();
+        while (words.size() < count) {
+            StringBuilder word = new StringBuilder();
+            int syllables = 1 + random.nextInt(4);
+            for (int s = 0; s < syllables; s++) {
+                word.append(consonants.charAt(random.nextInt(consonants.length())));
+                word.append(vowels.charAt(random.nextInt(vowels.length())));
+                if (random.nextBoolean()) {
+                    word.append(consonants.charAt(random.nextInt(consonants.length())));
+                }
+            }
+            word.append(suffixes[random.nextInt(suffixes.length)]);
+            if (word.length() >= Dawg.MIN_WORD_LENGTH && word.length() <= PuzzleGenerator.DEFAULT_SIZE) {
+                words.add(word.toString());
+            }
+        }
+        return new ArrayList<>(words);
+    }
+
+    // ===== PACKED =====
+    // pool ขนาดใหญ่จากตารางจริงไม่กี่ร้อยตาราง (สร้างจริงหลายแสนตารางช้าเกินไป) - แต่ละช่องเป็นสำเนาของตัวเอง
+    private static void benchmarkPacked(int poolSize) {
+        Random random = new Random(23);
+        WordSearchGame.DifficultyLevel[] levels = WordSearchGame.DifficultyLevel.values();
+        Puzzle[] samples = new Puzzle[300];
+        for (int i = 0; i < samples.length; i++) {
+            samples[i] = PuzzleGenerator.generateSeeded(levels[i % levels.length], random.nextLong());
+        }
+        PackedPuzzle.Codec codec = new PackedPuzzle.Codec(PuzzleGenerator.DEFAULT_WORDS);
+
+        // ตรวจว่า pack/unpack ได้ตารางเดิมทุกช่องและทุกคำ
+        for (Puzzle puzzle : samples) {
+            PackedPuzzle packed = codec.pack(puzzle);
+            Puzzle restored = codec.unpack(packed);
+            if (!Arrays.deepEquals(puzzle.grid, restored.grid) || !restored.words.equals(puzzle.words)
+                    || !restored.isConsistent() || packed.letterAt(puzzle.size - 1, puzzle.size - 1)
+                        != puzzle.grid[puzzle.size - 1][puzzle.size - 1]) {
+                throw new IllegalStateException("packed round trip changed a puzzle");
+            }
+        }
+
+        Runtime runtime = Runtime.getRuntime();
+        System.gc();
+        long before = runtime.totalMemory() - runtime.freeMemory();
+        Puzzle[] plain = new Puzzle[poolSize];
+        for (int i = 0; i < poolSize; i++) {
+            plain[i] = codec.unpack(codec.pack(samples[i % samples.length]));
+        }
+        System.gc();
+        long plainBytes = runtime.totalMemory() - runtime.freeMemory() - before;
+        plain = null;
+
+        System.gc();
+        before = runtime.totalMemory() - runtime.freeMemory();
+        PackedPuzzle[] packed = new PackedPuzzle[poolSize];
+        long packNanos = System.nanoTime();
+        for (int i = 0; i < poolSize; i++) {
+            packed[i] = codec.pack(samples[i % samples.length]);
+        }
+        packNanos = System.nanoTime() - packNanos;
+        System.gc();
+        long packedBytes = runtime.totalMemory() - runtime.freeMemory() - before;
+
+        long unpackNanos = Long.MAX_VALUE;
+        long checksum = 0;
+        for (int round = 0; round < 5; round++) {
+            long start = System.nanoTime();
+            for (PackedPuzzle p : packed) {
+                checksum += codec.unpack(p).grid[0][0];
+            }
+            unpackNanos = Math.min(unpackNanos, System.nanoTime() - start);
+        }
+
+        System.out.printf("Pool of %,d puzzles (%d distinct, mixed levels)%n", poolSize, samples.length);
+        System.out.printf("Puzzle       : %5d bytes/puzzle -> %,6d MB per million%n",
+            plainBytes / poolSize, plainBytes * 1_000_000L / poolSize >> 20);
+        System.out.printf("PackedPuzzle : %5d bytes/puzzle -> %,6d MB per million (estimate %d bytes)%n",
+            packedBytes / poolSize, packedBytes * 1_000_000L / poolSize >> 20, packed[0].estimatedBytes());
+        System.out.printf("Pack %.0f ns/puzzle, unpack %.0f ns/puzzle (checksum %d)%n",
+            (double) packNanos / poolSize, (double) unpackNanos / poolSize, checksum);
+    }
+
+    // ===== SHAPE =====
+    // ตารางที่มีรูปทรงเทียบกับสี่เหลี่ยมเต็มขนาดเดียวกัน (ใช้ slot ที่คำนวณไว้ต่อ mask)
+    private static void benchmarkShape(int count) throws IOException {
+        int size = 14;
+        WordSearchGame.DifficultyLevel level = WordSearchGame.DifficultyLevel.HARD;
+        System.out.printf("%,d puzzles per shape, %dx%d, %s directions%n", count, size, size, level.name);
+        for (String spec : new String[] {"square", "heart", "star", "letter:A", "letter:W"}) {
+            long start = System.nanoTime();
+            BoardMask mask = BoardMask.parse(spec, size);
+            long maskMicros = (System.nanoTime() - start) / 1000;
+
+            Random random = new Random(31);
+            for (int i = 0; i < count / 4; i++) {
+                PuzzleGenerator.generateShaped(PuzzleGenerator.DEFAULT_WORDS, level, mask, random);
+            }
+            long words = 0;
+            start = System.nanoTime();
+            for (int i = 0; i < count; i++) {
+                Puzzle puzzle = PuzzleGenerator.generateShaped(PuzzleGenerator.DEFAULT_WORDS, level, mask, random);
+                checkShape(mask, puzzle);
+                words += puzzle.words.size();
+            }
+            double micros = (System.nanoTime() - start) / 1000.0;
+            System.out.printf("%-9s %3d open cells, %4.1f words, slots built in %,6d us, %6.0f us/puzzle, %5.1f us/word%n",
+                spec, mask.openCells(), (double) words / count, maskMicros, micros / count, micros / words);
+        }
+    }
+
+    // ช่องที่ปิดต้องว่างและไม่มีคำผ่าน ช่องที่เปิดต้องเป็นตัวอักษร
+    private static void checkShape(BoardMask mask, Puzzle puzzle) {
+        if (!puzzle.isConsistent()) {
+            throw new IllegalStateException("shaped puzzle does not contain its words");
+        }
+        for (int row = 0; row < mask.size; row++) {
+            for (int col = 0; col < mask.size; col++) {
+                char letter = puzzle.grid[row][col];
+                if (mask.isOpen(row, col) ? letter < 'A' || letter > 'Z' : letter != BoardMask.BLANK) {
+                    throw new IllegalStateException("cell " + row + "," + col + " does not follow the mask");
+                }
+            }
+        }
+        for (Puzzle.Placement p : puzzle.placements) {
+            if (!mask.fits(p.row, p.col, p.rowDir, p.colDir, p.word.length())) {
+                throw new IllegalStateException(p.word + " crosses a masked-out cell");
+            }
+        }
+    }
+
+    // ===== STREAM =====
+    // Stream<Puzzle> แบบ sequential เทียบ parallel - ต้องได้ตารางชุดเดียวกันตามลำดับเดียวกัน
+    private static void benchmarkStream(int count) {
+        WordSearchGame.DifficultyLevel level = WordSearchGame.DifficultyLevel.HARD;
+        long seed = 42;
+        PuzzleGenerator.stream(level, seed).limit(count / 10).count(); // warm-up
+
+        long start = System.nanoTime();
+        long[] sequential = PuzzleGenerator.stream(level, seed).limit(count)
+            .mapToLong(puzzle -> PuzzleDeduplicator.fingerprint(puzzle.grid)).toArray();
+        double sequentialMillis = (System.nanoTime() - start) / 1e6;
+
+        start = System.nanoTime();
+        long[] parallel = PuzzleGenerator.stream(level, seed).parallel().limit(count)
+            .mapToLong(puzzle -> PuzzleDeduplicator.fingerprint(puzzle.grid)).toArray();
+        double parallelMillis = (System.nanoTime() - start) / 1e6;
+        if (!Arrays.equals(sequential, parallel)) {
+            throw new IllegalStateException("parallel stream differs from sequential stream");
+        }
+
+        // ตารางที่ i ได้จาก index โดยตรง ไม่ต้องเดิน stream
+        int probe = count / 2;
+        long direct = PuzzleDeduplicator.fingerprint(PuzzleSpliterator.generate(level, seed, null,
+            new Alphabet.Words(Alphabet.LATIN, PuzzleGenerator.DEFAULT_WORDS), probe).grid);
+        if (direct != sequential[probe]) {
+            throw new IllegalStateException("puzzle " + probe + " depends on how the stream was walked");
+        }
+
+        int cores = Runtime.getRuntime().availableProcessors();
+        System.out.printf("%,d %s puzzles: sequential %,.0f puzzles/s, parallel (%d cores) %,.0f puzzles/s%n",
+            count, level.name, count / (sequentialMillis / 1000), cores, count / (parallelMillis / 1000));
+        System.out.println("✓ sequential, parallel and direct-by-index puzzles are identical");
+    }
+
+    // ===== MESSAGE =====
+    // ตารางข้อความลับต่อขนาดตาราง: คำ ~1/9 ของช่อง ข้อความ 1/5 ของช่อง จากคำสุ่ม 2 เท่าของที่ต้องใช้
+    // นับอัตราสำเร็จภายใน DEFAULT_BUDGET_NANOS และ latency รวมรอบที่ไม่สำเร็จ
+    private static void benchmarkMessage(int count) {
+        List<String> pool = syntheticWords(5000, new Random(5));
+        System.out.printf("%,d puzzles per size, budget %d ms%n", count,
+            HiddenMessageGenerator.DEFAULT_BUDGET_NANOS / 1_000_000);
+        for (WordSearchGame.DifficultyLevel level : new WordSearchGame.DifficultyLevel[] {
+                WordSearchGame.DifficultyLevel.EASY, WordSearchGame.DifficultyLevel.HARD}) {
+            for (int size = 10; size <= 18; size += 2) {
+                int wordCount = size * size / 9;
+                int messageLength = size * size / 5;
+                Random random = new Random(size);
+                LatencyHistogram latency = new LatencyHistogram();
+                int succeeded = 0;
+                int infeasible = 0;
+                long attempts = 0;
+                for (int i = 0; i < count; i++) {
+                    List<String> candidates = new ArrayList<>(pool);
+                    Collections.shuffle(candidates, random);
+                    candidates = candidates.subList(0, wordCount * 2);
+                    StringBuilder message = new StringBuilder(messageLength);
+                    for (int k = 0; k < messageLength; k++) {
+                        message.append(LetterFiller.randomLetter(random));
+                    }
+                    HiddenMessageGenerator generator = new HiddenMessageGenerator(size, random);
+                    generator.setDirectionPolicy(level.directions);
+                    long start = System.nanoTime();
+                    Puzzle puzzle;
+                    try {
+                        puzzle = generator.generate(candidates, wordCount, message.toString(),
+                            HiddenMessageGenerator.DEFAULT_BUDGET_NANOS);
+                    } catch (IllegalArgumentException e) {
+                        infeasible++; // คำที่สุ่มได้สั้นเกินจะกินช่องได้ครบ - ไม่นับ
+                        continue;
+                    }
+                    latency.record(System.nanoTime() - start);
+                    attempts += generator.getAttempts();
+                    if (puzzle != null) {
+                        checkMessage(puzzle, wordCount, message.toString());
+                        succeeded++;
+                    }
+                }
+                long tried = latency.samples();
+                System.out.printf("%s %2dx%-2d %2d words, %2d-letter message: %5.1f%% ok, %4.1f attempts, "
+                        + "p50 %,6d us, p99 %,7d us%s%n",
+                    level.name, size, size, wordCount, messageLength, 100.0 * succeeded / tried,
+                    (double) attempts / tried, latency.percentileMicros(0.50), latency.percentileMicros(0.99),
+                    infeasible > 0 ? " (" + infeasible + " infeasible word sets skipped)" : "");
+            }
+        }
+    }
+
+    private static void checkMessage(Puzzle puzzle, int wordCount, String message) {
+        if (!puzzle.isConsistent() || puzzle.words.size() != wordCount) {
+            throw new IllegalStateException("hidden-message puzzle does not contain its words");
+        }
+        if (!puzzle.leftoverText().equals(message)) {
+            throw new IllegalStateException("leftover cells read " + puzzle.leftoverText() + ", not " + message);
+        }
+    }
+
+    // ===== VIEWPORT =====
+    // ตารางใหญ่ใน BoardViewport ขนาดจอ 1280x800: เวลาวาดต่อเฟรมขณะเลื่อนเป็นวงกลม (เพิ่มเส้นคำทุก 20 เฟรม)
+    // จาก tile cache เทียบกับ render ช่องที่มองเห็นใหม่ทุกเฟรม - หน่วยความจำของ tile ต้องเท่ากันทุกขนาดตาราง
+    private static void benchmarkViewport(int frames) {
+        int width = 1280;
+        int height = 800;
+        BufferedImage screen = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        System.out.printf("%,d frames per board, %dx%d viewport, %d px cells%n", frames, width, height,
+            BoardViewport.READABLE_CELL);
+        for (int size : new int[] {100, 500, 2000}) {
+            Random random = new Random(size);
+            char[][] grid = new char[size][size];
+            for (char[] line : grid) {
+                for (int col = 0; col < size; col++) {
+                    line[col] = LetterFiller.randomLetter(random);
+                }
+            }
+            Puzzle puzzle = new Puzzle(grid, new ArrayList<>());
+            BoardViewport view = new BoardViewport(null, null);
+            view.setSize(width, height);
+            view.setPuzzle(puzzle);
+
+            LatencyHistogram cached = panFrames(view, screen, frames, random, true);
+            int tiles = view.cachedTiles();
+            long tileBytes = view.tileMemoryBytes();
+            long rendered = view.tilesRendered();
+            long hits = view.tileHits();
+            LatencyHistogram uncached = panFrames(view, screen, frames, random, false);
+            System.out.printf("%4dx%-4d cached p50 %,5d us p99 %,6d us (%,d tiles rendered, %.1f%% hits) | "
+                    + "no cache p50 %,6d us p99 %,6d us | %d tiles, %.1f MB%n",
+                size, size, cached.percentileMicros(0.50), cached.percentileMicros(0.99), rendered,
+                100.0 * hits / (hits + rendered), uncached.percentileMicros(0.50), uncached.percentileMicros(0.99),
+                tiles, tileBytes / (1024.0 * 1024));
+        }
+    }
+
+    private static LatencyHistogram panFrames(BoardViewport view, BufferedImage screen, int frames, Random random,
+                                              boolean cache) {
+        LatencyHistogram latency = new LatencyHistogram();
+        Graphics2D g = screen.createGraphics();
+        int pitch = view.cellSize() + 2;
+        for (int frame = 0; frame < frames; frame++) {
+            double angle = frame * 2 * Math.PI / 240;
+            double x = 1200 + 1000 * Math.cos(angle);
+            double y = 1200 + 1000 * Math.sin(angle);
+            view.scrollTo(x, y, false);
+            if (frame % 20 == 0) {
+                int row = (int) (y / pitch) + random.nextInt(20);
+                int col = (int) (x / pitch) + random.nextInt(30);
+                view.addHighlight(row, col, row + random.nextInt(6), col + random.nextInt(6), Color.ORANGE);
+            }
+            if (!cache) {
+                view.invalidateTiles();
+            }
+            long start = System.nanoTime();
+            view.paint(g);
+            latency.record(System.nanoTime() - start);
+        }
+        g.dispose();
+        return latency;
+    }
+
+    // ===== DEDUP =====
+    private static void benchmarkDedup(long count) {
+        // fingerprint ต้องเท่ากันทั้ง 8 สมมาตร และต่างกันระหว่างตารางที่ต่างกัน
+        Random random = new Random(31);
+        Set<Long> distinct = new HashSet<>();
+        char[][][] grids = new char[300][][];
+        for (int i = 0; i < grids.length; i++) {
+            grids[i] = PuzzleGenerator.generateSeeded(WordSearchGame.DifficultyLevel.EASY, random.nextLong()).grid;
+            long fingerprint = PuzzleDeduplicator.fingerprint(grids[i]);
+            char[][] turned = grids[i];
+            for (int turn = 0; turn < 4; turn++) {
+                turned = rotate(turned);
+                if (PuzzleDeduplicator.fingerprint(turned) != fingerprint
+                        || PuzzleDeduplicator.fingerprint(mirror(turned)) != fingerprint) {
+                    throw new IllegalStateException("fingerprint changes under rotation/mirroring");
+                }
+            }
+            distinct.add(fingerprint);
+        }
+        long fingerprintNanos = Long.MAX_VALUE;
+        long checksum = 0;
+        for (int round = 0; round < 50; round++) {
+            long start = System.nanoTime();
+            for (char[][] grid : grids) {
+                checksum += PuzzleDeduplicator.fingerprint(grid);
+            }
+            fingerprintNanos = Math.min(fingerprintNanos, System.nanoTime() - start);
+        }
+        System.out.printf("Fingerprint: %.0f ns/puzzle (8 symmetries), %d distinct of %d generated Easy puzzles%s%n",
+            (double) fingerprintNanos / grids.length, distinct.size(), grids.length, checksum == 0 ? "!" : "");
+
+        // fingerprint สุ่มแทนตารางจริง (สร้างตารางจริงหลายสิบล้านช้าเกินไป) แล้ววัด false positive จากค่าที่ไม่เคยใส่
+        System.out.printf("%nSized for %,d up front:%n", count);
+        measureDedup(new PuzzleDeduplicator(count, PuzzleDeduplicator.DEFAULT_FALSE_POSITIVE_RATE), count);
+        System.out.printf("%nGrowing from %,d:%n", PuzzleDeduplicator.DEFAULT_INITIAL_CAPACITY);
+        measureDedup(new PuzzleDeduplicator(), count);
+    }
+
+    private static void measureDedup(PuzzleDeduplicator dedup, long count) {
+        Random fingerprints = new Random(37);
+        long start = System.nanoTime();
+        long rejectedNew = 0;
+        for (long i = 0; i < count; i++) {
+            if (!dedup.firstSeen(fingerprints.nextLong())) {
+                rejectedNew++;
+            }
+        }
+        double insertNanos = (double) (System.nanoTime() - start) / count;
+        int probes = 2_000_000;
+        long falsePositives = 0;
+        Random unseen = new Random(41);
+        double predicted = dedup.falsePositiveRate();
+        for (int i = 0; i < probes; i++) {
+            if (dedup.mightContain(unseen.nextLong())) {
+                falsePositives++;
+            }
+        }
+        System.out.printf("  %,d inserts at %.0f ns each, %,d new puzzles wrongly rejected on the way%n",
+            count, insertNanos, rejectedNew);
+        System.out.printf("  FPR measured %.4f%% over %,d unseen fingerprints, predicted %.4f%%%n",
+            falsePositives * 100.0 / probes, probes, predicted * 100);
+        System.out.println("  " + dedup.report());
+    }
+
+    private static char[][] rotate(char[][] grid) {
+        int size = grid.length;
+        char[][] turned = new char[size][size];
+        for (int row = 0; row < size; row++) {
+            for (int col = 0; col < size; col++) {
+                turned[col][size - 1 - row] = grid[row][col];
+            }
+        }
+        return turned;
+    }
+
+    private static char[][] mirror(char[][] grid) {
+        char[][] mirrored = new char[grid.length][];
+        for (int row = 0; row < grid.length; row++) {
+            mirrored[row] = new StringBuilder(new String(grid[row])).reverse().toString().toCharArray();
+        }
+        return mirrored;
+    }
+
+    private static long measureHashSetBytes(List<String> words) {
+        Runtime runtime = Runtime.getRuntime();
+        System.gc();
+        long before = runtime.totalMemory() - runtime.freeMemory();
+        Set<String> set = new HashSet<>();
+        for (String word : words) {
+            set.add(new String(word.toCharArray()));
+        }
+        System.gc();
+        long after = runtime.totalMemory() - runtime.freeMemory();
+        if (set.isEmpty()) {
+            return 0;
+        }
+        return Math.max(0, after - before);
+    }
+}
@@ -0,0 +1,111 @@
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+// JFR event ของเกม - ดูคู่กับ GC/EDT stall ใน JDK Mission Control หรือ `jfr print`
+// ปิดไว้ทั้งหมด (@Enabled(false)) จนกว่าจะเปิดใน recording เช่น
+//   java -XX:StartFlightRecording:filename=game.jfr,settings=default,settings=wordsearch.jfc WordSearchGame
+// ตอนปิด begin()/shouldCommit() ไม่ทำอะไรและ JIT ตัด object ทิ้ง - ค่าของ field ตั้งหลัง shouldCommit() เท่านั้น
+// ต้องใช้ Java 11+ (jdk.jfr) - เกมสร้าง event เหล่านี้โดยตรง จึงไม่รันบน Java 8
+final class GameEvents {
+    static final String CATEGORY = "Word Search";
+
+    private GameEvents() {
+    }
+
+    @Name("wordsearch.PuzzleGeneration")
+    @Label("Puzzle Generation")
+    @Description("One generated puzzle, including calibration attempts and retries")
+    @Category(CATEGORY)
+    @Enabled(false)
+    @StackTrace(false)
+    static final class PuzzleGeneration extends Event {
+        @Label("Difficulty")
+        String difficulty;
+
+        @Label("Grid Size")
+        int gridSize;
+
+        @Label("Shaped")
+        boolean shaped;
+
+        @Label("Target Words")
+        int targetWords;
+
+        @Label("Placed Words")
+        int placedWords;
+
+        @Label("Calibration Attempts")
+        @Description("Puzzles generated until the difficulty score fit (1 when not calibrated)")
+        int attempts;
+
+        @Label("Retries")
+        @Description("Grids restarted because words were missing or a target word appeared twice")
+        int retries;
+
+        @Label("Fallback Placements")
+        @Description("Words placed by the exhaustive fallback after random placement failed")
+        int fallbackPlacements;
+    }
+
+    @Name("wordsearch.WordCheck")
+    @Label("Word Check")
+    @Description("One released selection checked against the target and bonus words")
+    @Category(CATEGORY)
+    @Enabled(false)
+    @StackTrace(false)
+    static final class WordCheck extends Event {
+        @Label("Hit")
+        boolean hit;
+
+        @Label("Bonus")
+        boolean bonus;
+
+        @Label("Length")
+        int length;
+
+        @Label("Found Words")
+        int foundWords;
+    }
+
+    @Name("wordsearch.BoardPaint")
+    @Label("Board Paint")
+    @Description("One paint of the highlight layer, or of the tile viewport on large boards")
+    @Category(CATEGORY)
+    @Enabled(false)
+    @StackTrace(false)
+    static final class BoardPaint extends Event {
+        @Label("Component")
+        String component;
+
+        @Label("Highlights")
+        int highlights;
+
+        @Label("Selected Cells")
+        int selectedCells;
+
+        @Label("Tiles Rendered")
+        int tilesRendered;
+    }
+
+    @Name("wordsearch.ScreenTransition")
+    @Label("Screen Transition")
+    @Description("From starting a level until its board is first painted")
+    @Category(CATEGORY)
+    @Enabled(false)
+    @StackTrace(false)
+    static final class ScreenTransition extends Event {
+        @Label("Level")
+        String level;
+
+        @Label("Grid Size")
+        int gridSize;
+
+        @Label("Prefetched")
+        boolean prefetched;
+    }
+}
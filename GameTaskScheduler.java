@@ -0,0 +1,165 @@
+import javax.swing.SwingUtilities;
+import java.lang.reflect.Method;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+// ตัวจัดการงานเบื้องหลัง - งานหนัก (สร้างตาราง, ตรวจสอบ) รันนอก EDT
+// แล้วส่งผลลัพธ์กลับผ่าน SwingUtilities.invokeLater พร้อมวัดเวลาที่ใช้บน EDT
+public class GameTaskScheduler {
+    static final long EDT_BUDGET_NANOS = TimeUnit.MILLISECONDS.toNanos(16);
+
+    // -Dwordsearch.edtStrict=true จะโยน exception เมื่องานบน EDT เกินงบ (ใช้ตอนพัฒนา)
+    private static final boolean EDT_STRICT = Boolean.getBoolean("wordsearch.edtStrict");
+
+    private final ExecutorService executor = createExecutor("game-worker");
+
+    // EDT statistics - only touched on the EDT
+    private long edtTaskCount;
+    private long edtOverBudgetCount;
+    private long edtTotalNanos;
+    private long edtMaxNanos;
+    private String edtMaxTaskName = "-";
+
+    // งานที่ส่งไปรัน - ยกเลิกได้ทั้งก่อนเริ่ม ระหว่างรัน และก่อนส่งผลกลับ EDT
+    public static final class Task<T> {
+        private final String name;
+        private volatile boolean cancelled;
+        private volatile Future<?> future;
+
+        private Task(String name) {
+            this.name = name;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public boolean isCancelled() {
+            return cancelled;
+        }
+
+        public void cancel() {
+            cancelled = true;
+            Future<?> f = future;
+            if (f != null) {
+                f.cancel(true);
+            }
+        }
+    }
+
+    // ใช้ virtual thread เมื่อรันบน Java 21+ ไม่งั้นใช้ daemon thread ธรรมดา (PuzzleService ใช้ร่วมด้วย)
+    static ExecutorService createExecutor(String threadPrefix) {
+        try {
+            Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) factory.invoke(null);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            AtomicInteger counter = new AtomicInteger();
+            return Executors.newCachedThreadPool(r -> {
+                Thread t = new Thread(r, threadPrefix + "-" + counter.incrementAndGet());
+                t.setDaemon(true);
+                return t;
+            });
+        }
+    }
+
+    // รัน work บน background thread แล้วเรียก onDone บน EDT (ถ้ายังไม่ถูกยกเลิก)
+    public <T> Task<T> submit(String name, Callable<T> work, Consumer<? super T> onDone) {
+        return submit(name, work, onDone, error -> { });
+    }
+
+    // เหมือนด้านบน แต่ถ้า work ล้มเหลว (exception หรือ Error เช่น StackOverflowError) จะเรียก onError บน EDT
+    // แทน onDone - ยกเว้นงานที่ถูกยกเลิก ผู้เรียกจึงไม่ต้องรอผลที่ไม่มีวันมา
+    public <T> Task<T> submit(String name, Callable<T> work, Consumer<? super T> onDone,
+                              Consumer<? super Throwable> onError) {
+        Task<T> task = new Task<>(name);
+        task.future = executor.submit(() -> {
+            if (task.cancelled) {
+                return;
+            }
+            T result;
+            try {
+                result = work.call();
+            } catch (Throwable e) {
+                if (task.cancelled) {
+                    return;
+                }
+                System.err.println("✗ งาน '" + name + "' ล้มเหลว: " + e);
+                e.printStackTrace();
+                SwingUtilities.invokeLater(() -> {
+                    if (!task.cancelled) {
+                        runOnEdt(name + " (error)", () -> onError.accept(e));
+                    }
+                });
+                return;
+            }
+            SwingUtilities.invokeLater(() -> {
+                if (!task.cancelled) {
+                    runOnEdt(name, () -> onDone.accept(result));
+                }
+            });
+        });
+        return task;
+    }
+
+    // รันงานเบื้องหลังที่ไม่ต้องส่งผลกลับ UI
+    public Task<Void> submit(String name, Runnable work) {
+        return submit(name, () -> {
+            work.run();
+            return null;
+        }, ignored -> { });
+    }
+
+    // รันงานบน EDT (ต้องเรียกจาก EDT) พร้อมบันทึกเวลาเทียบกับงบ 16 ms
+    // ตรวจ thread ก่อนรัน - โหมด strict ไม่ยอมให้งานที่ตั้งใจรันบน EDT ไปรันบน thread อื่นเลย
+    public void runOnEdt(String name, Runnable work) {
+        if (!SwingUtilities.isEventDispatchThread()) {
+            String message = "✗ EDT task '" + name + "' called from " + Thread.currentThread().getName();
+            if (EDT_STRICT) {
+                throw new IllegalStateException(message);
+            }
+            System.out.println(message);
+        }
+        long start = System.nanoTime();
+        try {
+            work.run();
+        } finally {
+            recordEdtTime(name, System.nanoTime() - start);
+        }
+    }
+
+    private void recordEdtTime(String name, long nanos) {
+        edtTaskCount++;
+        edtTotalNanos += nanos;
+        if (nanos > edtMaxNanos) {
+            edtMaxNanos = nanos;
+            edtMaxTaskName = name;
+        }
+        if (nanos > EDT_BUDGET_NANOS) {
+            edtOverBudgetCount++;
+            String message = "⚠ EDT task '" + name + "' took " + TimeUnit.NANOSECONDS.toMillis(nanos)
+                + " ms (budget " + TimeUnit.NANOSECONDS.toMillis(EDT_BUDGET_NANOS) + " ms)";
+            if (EDT_STRICT) {
+                throw new IllegalStateException(message);
+            }
+            System.out.println(message);
+        }
+    }
+
+    public String edtReport() {
+        long avgMicros = edtTaskCount == 0 ? 0 : TimeUnit.NANOSECONDS.toMicros(edtTotalNanos / edtTaskCount);
+        return "EDT tasks: " + edtTaskCount
+            + ", over budget: " + edtOverBudgetCount
+            + ", avg: " + avgMicros + " us"
+            + ", max: " + TimeUnit.NANOSECONDS.toMillis(edtMaxNanos) + " ms (" + edtMaxTaskName + ")";
+    }
+
+    // หยุด worker ทั้งหมด (ตอนปิดหน้าต่าง) - งานที่ค้างไม่ส่งผลกลับ EDT
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
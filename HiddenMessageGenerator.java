@@ -0,0 +1,395 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// ตารางข้อความลับ - ช่องที่เหลือหลังหาคำครบ อ่านจากซ้ายไปขวา บนลงล่าง ได้ข้อความที่กำหนด (Puzzle.leftoverText)
+// ต้องเหลือช่องว่างพอดีเท่าความยาวข้อความ ซึ่งการสุ่มวางแล้วลองใหม่แบบ PuzzleGenerator แทบไม่เคยได้ ตัวนี้จึง:
+// 1) เลือกคำที่ยาวรวมใกล้จำนวนช่องที่ต้องกิน (chooseWords) 2) เลือกตำแหน่งของแต่ละคำจากจำนวนช่องใหม่ที่คำนั้นกิน
+// ให้ช่องที่ต้องกินที่เหลือยังทำได้ด้วยคำที่เหลือ และคำสุดท้ายกินพอดี 3) ย้อนกลับได้จำกัด ถ้าตันจึงเริ่มใหม่จนหมดเวลา
+// แต่ละ instance ไม่ thread-safe ให้สร้างใหม่ต่อหนึ่งงาน
+final class HiddenMessageGenerator {
+    static final long DEFAULT_BUDGET_NANOS = TimeUnit.MILLISECONDS.toNanos(200);
+
+    private static final char EMPTY = '-';
+    // ตำแหน่งที่ลองต่อคำก่อนย้อนกลับ และงานสูงสุดต่อรอบ (ต่อจำนวนคำ) ก่อนเริ่มใหม่
+    private static final int BRANCH = 3;
+    private static final int NODES_PER_WORD = 40;
+    // ช่องซ้อนที่คาดไว้: หนึ่งช่องต่อกี่คำ
+    private static final int OVERLAP_PER_WORDS = 3;
+
+    private final int size;
+    private final Random random;
+    private BoardMask mask; // null = ตารางสี่เหลี่ยมเต็ม
+    private DirectionPolicy directions = DirectionPolicy.ALL;
+    private Alphabet alphabet = Alphabet.LATIN;
+    private int attempts;
+
+    // ตำแหน่งที่วางได้ของคำปัจจุบัน (ใช้ซ้ำทุกคำ)
+    private int[] optionStart = new int[256];
+    private int[] optionDirection = new int[256];
+    private int[] optionNewCells = new int[256];
+    private int[] optionWeight = new int[256];
+    private int options;
+    private int nodes;
+
+    HiddenMessageGenerator(int size, Random random) {
+        this.size = size;
+        this.random = random;
+    }
+
+    void setMask(BoardMask mask) {
+        if (mask != null && mask.size != size) {
+            throw new IllegalArgumentException("mask is " + mask.size + "x" + mask.size + ", grid is " + size + "x" + size);
+        }
+        this.mask = mask;
+    }
+
+    void setDirectionPolicy(DirectionPolicy directions) {
+        this.directions = directions;
+    }
+
+    // message และคำต้องเข้ารหัสด้วย alphabet นี้ (ดู Alphabet.encodeKnown)
+    void setAlphabet(Alphabet alphabet) {
+        this.alphabet = alphabet;
+    }
+
+    // จำนวนรอบที่เริ่มใหม่ในการเรียก generate ครั้งล่าสุด
+    int getAttempts() {
+        return attempts;
+    }
+
+    int openCells() {
+        return mask != null ? mask.openCells() : size * size;
+    }
+
+    // วาง wordCount คำจาก candidateWords ให้เหลือช่องว่าง message.length() ช่องพอดี แล้วเขียนข้อความลงไป
+    // คืน null ถ้าไม่สำเร็จภายใน budgetNanos (ลองอย่างน้อยหนึ่งรอบเสมอ) - ผลขึ้นกับความเร็วเครื่อง ใช้ตอนมีผู้เล่นรอ
+    Puzzle generate(Collection<String> candidateWords, int wordCount, String message, long budgetNanos) {
+        return generate(candidateWords, wordCount, message, budgetNanos, Integer.MAX_VALUE);
+    }
+
+    // เหมือนด้านบนแต่จำกัดด้วยจำนวนรอบแทนเวลา - seed เดียวกันได้ผลเดิมเสมอ (สำเร็จหรือ null) ไม่ว่าเครื่องจะช้าแค่ไหน
+    Puzzle generateWithAttempts(Collection<String> candidateWords, int wordCount, String message, int maxAttempts) {
+        return generate(candidateWords, wordCount, message, -1, maxAttempts);
+    }
+
+    // budgetNanos < 0 = ไม่จำกัดเวลา
+    private Puzzle generate(Collection<String> candidateWords, int wordCount, String message,
+                            long budgetNanos, int maxAttempts) {
+        int longest = mask != null ? mask.longestRun() : size;
+        List<String> usable = new ArrayList<>();
+        for (String word : candidateWords) {
+            if (word.length() <= longest) {
+                usable.add(word);
+            }
+        }
+        if (usable.size() < wordCount) {
+            throw new IllegalArgumentException(wordCount + " words needed, only " + usable.size() + " fit the grid");
+        }
+        if (message.isEmpty() || message.length() > openCells() - wordCount) {
+            throw new IllegalArgumentException("a message of " + message.length() + " symbols does not fit "
+                + openCells() + " cells with " + wordCount + " words");
+        }
+
+        List<String> longestFirst = new ArrayList<>(usable);
+        longestFirst.sort((a, b) -> b.length() - a.length());
+        int maxCover = 0;
+        for (String word : longestFirst.subList(0, wordCount)) {
+            maxCover += word.length();
+        }
+        if (maxCover < openCells() - message.length()) {
+            throw new IllegalArgumentException("the longest " + wordCount + " words cover at most " + maxCover
+                + " cells, " + (openCells() - message.length()) + " must be covered to leave " + message.length());
+        }
+
+        long start = System.nanoTime();
+        attempts = 0;
+        do {
+            attempts++;
+            Puzzle puzzle = attempt(usable, wordCount, message);
+            if (puzzle != null) {
+                return puzzle;
+            }
+        } while (attempts < maxAttempts && (budgetNanos < 0 || System.nanoTime() - start < budgetNanos)
+            && !Thread.currentThread().isInterrupted());
+        return null;
+    }
+
+    private Puzzle attempt(List<String> usable, int wordCount, String message) {
+        char[][] grid = mask != null ? mask.emptyGrid(EMPTY) : emptyGrid();
+        List<String> words = chooseWords(usable, wordCount, openCells() - message.length());
+
+        List<Puzzle.Placement> placements = new ArrayList<>(wordCount);
+        nodes = NODES_PER_WORD * wordCount;
+        if (!place(grid, words, 0, placements, wordCount, openCells(), message.length())) {
+            return null;
+        }
+
+        int next = 0;
+        for (int row = 0; row < size; row++) {
+            for (int col = 0; col < size; col++) {
+                if (grid[row][col] == EMPTY) {
+                    grid[row][col] = message.charAt(next++);
+                }
+            }
+        }
+        // ข้อความแก้ไม่ได้ (ต่างจากตัวเติมสุ่ม) - ถ้าอ่านเป็นคำเป้าหมายซ้ำที่อื่นต้องเริ่มใหม่
+        return hasAccidentalWord(grid, placements) ? null : new Puzzle(grid, placements, alphabet);
+    }
+
+    // สุ่ม wordCount คำที่ยาวรวมใกล้ cover + ช่องซ้อนที่คาดไว้ (สลับกับคำสำรองจนใกล้ที่สุด)
+    // ถ้าคำยาวรวมเกินมาก ช่องที่ต้องซ้อนกันมีมากจนวางไม่ลง ถ้าขาดก็กินช่องไม่ครบ - คำสำรอง (สูงสุด 3 เท่า) ต่อท้ายไว้ใช้แทนคำที่วางไม่ได้
+    // ทั้งสองส่วนเรียงคำยาวก่อน (ยังมีที่ให้เลือกมาก)
+    private List<String> chooseWords(List<String> usable, int wordCount, int cover) {
+        List<String> words = new ArrayList<>(usable);
+        Collections.shuffle(words, random);
+        int target = cover + wordCount / OVERLAP_PER_WORDS;
+        int letters = 0;
+        for (String word : words.subList(0, wordCount)) {
+            letters += word.length();
+        }
+        int spares = Math.min(words.size(), wordCount * 4);
+        for (int s = wordCount; s < spares && letters != target; s++) {
+            int spare = words.get(s).length();
+            int best = -1;
+            int bestDistance = Math.abs(letters - target);
+            for (int i = 0; i < wordCount; i++) {
+                int distance = Math.abs(letters - words.get(i).length() + spare - target);
+                if (distance < bestDistance) {
+                    best = i;
+                    bestDistance = distance;
+                }
+            }
+            if (best >= 0) {
+                letters += spare - words.get(best).length();
+                Collections.swap(words, best, s);
+            }
+        }
+        words.subList(0, wordCount).sort((a, b) -> b.length() - a.length());
+        List<String> spare = words.subList(wordCount, spares); // รายการคำยาว ๆ ไม่ต้องเรียงทั้งหมดทุกรอบ
+        spare.sort((a, b) -> b.length() - a.length());
+        return words.subList(0, spares);
+    }
+
+    // วางคำตั้งแต่ words[from] จน free เหลือเท่า messageLength - ลองได้ BRANCH ตำแหน่งต่อคำแล้วย้อนกลับ
+    // คำที่วางไม่ได้เลยข้ามไปใช้คำถัดไป งานทั้งรอบจำกัดด้วย nodes (หมดแล้วเริ่มรอบใหม่ด้วยลำดับคำใหม่)
+    private boolean place(char[][] grid, List<String> words, int from, List<Puzzle.Placement> placements,
+                          int wordCount, int free, int messageLength) {
+        if (placements.size() == wordCount) {
+            return free == messageLength;
+        }
+        for (int i = from; i <= words.size() - (wordCount - placements.size()); i++) {
+            if (--nodes < 0) {
+                return false;
+            }
+            String word = words.get(i);
+            int remaining = wordCount - placements.size() - 1; // คำที่ต้องวางต่อจากคำนี้
+            int toCover = free - messageLength;
+            // ช่องที่คำที่เหลือกินได้มากสุด (คำยาวถัดไป กินเต็มความยาว) และน้อยสุด (อย่างน้อยคำละช่อง)
+            int maxAfter = 0;
+            for (int j = i + 1; j <= i + remaining; j++) {
+                maxAfter += words.get(j).length();
+            }
+            if (!collectOptions(grid, word, toCover - maxAfter, toCover - remaining)) {
+                continue;
+            }
+            int tries = Math.min(BRANCH, options);
+            int[] starts = new int[tries];
+            int[] dirs = new int[tries];
+            int[] newCells = new int[tries];
+            for (int t = 0; t < tries; t++) {
+                int pick = pickOption(toCover * word.length() / (word.length() + maxAfter));
+                starts[t] = optionStart[pick];
+                dirs[t] = optionDirection[pick];
+                newCells[t] = optionNewCells[pick];
+                removeOption(pick);
+            }
+            for (int t = 0; t < tries; t++) {
+                int[] dir = DirectionPolicy.DIRECTIONS[dirs[t]];
+                int row = starts[t] / size;
+                int col = starts[t] % size;
+                boolean[] written = new boolean[word.length()];
+                for (int k = 0; k < word.length(); k++) {
+                    char[] line = grid[row + k * dir[0]];
+                    written[k] = line[col + k * dir[1]] == EMPTY;
+                    line[col + k * dir[1]] = word.charAt(k);
+                }
+                placements.add(new Puzzle.Placement(word, row, col, dir[0], dir[1]));
+                if (place(grid, words, i + 1, placements, wordCount, free - newCells[t], messageLength)) {
+                    return true;
+                }
+                placements.remove(placements.size() - 1);
+                for (int k = 0; k < word.length(); k++) {
+                    if (written[k]) {
+                        grid[row + k * dir[0]][col + k * dir[1]] = EMPTY;
+                    }
+                }
+                if (nodes < 0) {
+                    return false;
+                }
+            }
+            return false; // คำนี้วางได้แต่ไปต่อไม่ได้ - ย้อนไปเปลี่ยนคำก่อนหน้า
+        }
+        return false;
+    }
+
+    private char[][] emptyGrid() {
+        char[][] grid = new char[size][size];
+        for (char[] row : grid) {
+            Arrays.fill(row, EMPTY);
+        }
+        return grid;
+    }
+
+    // ทุกตำแหน่งที่ทิศอนุญาต ตัวอักษรเข้ากัน และกินช่องใหม่ระหว่าง minNew ถึง maxNew (อย่างน้อย 1)
+    private boolean collectOptions(char[][] grid, String word, int minNew, int maxNew) {
+        options = 0;
+        minNew = Math.max(1, minNew);
+        if (maxNew < minNew) {
+            return false;
+        }
+        int length = word.length();
+        for (int d = 0; d < DirectionPolicy.DIRECTIONS.length; d++) {
+            if (directions.weight(d) == 0) {
+                continue;
+            }
+            int rowDir = DirectionPolicy.DIRECTIONS[d][0];
+            int colDir = DirectionPolicy.DIRECTIONS[d][1];
+            for (int row = 0; row < size; row++) {
+                int endRow = row + (length - 1) * rowDir;
+                if (endRow < 0 || endRow >= size) {
+                    continue;
+                }
+                for (int col = 0; col < size; col++) {
+                    int endCol = col + (length - 1) * colDir;
+                    if (endCol < 0 || endCol >= size
+                            || (mask != null && !mask.fits(row, col, rowDir, colDir, length))) {
+                        continue;
+                    }
+                    int newCells = 0;
+                    int k = 0;
+                    for (; k < length; k++) {
+                        char cell = grid[row + k * rowDir][col + k * colDir];
+                        if (cell == EMPTY) {
+                            newCells++;
+                        } else if (cell != word.charAt(k)) {
+                            break;
+                        }
+                    }
+                    if (k == length && newCells >= minNew && newCells <= maxNew) {
+                        addOption(row * size + col, d, newCells,
+                            directions.weight(d) * (1 + touching(grid, row, col, rowDir, colDir, length)));
+                    }
+                }
+            }
+        }
+        return options > 0;
+    }
+
+    // ช่องข้างเคียง (บน/ล่าง/ซ้าย/ขวา) ของช่องใหม่ที่เป็นขอบหรือมีตัวอักษรแล้ว - ตำแหน่งที่ชิดของเดิม
+    // ไม่ทิ้งช่องว่างเป็นหย่อมเล็ก ๆ ที่ไม่มีคำไหนลงได้
+    private int touching(char[][] grid, int row, int col, int rowDir, int colDir, int length) {
+        int count = 0;
+        for (int k = 0; k < length; k++) {
+            int r = row + k * rowDir;
+            int c = col + k * colDir;
+            if (grid[r][c] == EMPTY) {
+                count += blocked(grid, r - 1, c) + blocked(grid, r + 1, c) + blocked(grid, r, c - 1) + blocked(grid, r, c + 1);
+            }
+        }
+        return count;
+    }
+
+    private int blocked(char[][] grid, int row, int col) {
+        return row < 0 || row >= size || col < 0 || col >= size || grid[row][col] != EMPTY ? 1 : 0;
+    }
+
+    private void removeOption(int index) {
+        options--;
+        optionStart[index] = optionStart[options];
+        optionDirection[index] = optionDirection[options];
+        optionNewCells[index] = optionNewCells[options];
+        optionWeight[index] = optionWeight[options];
+    }
+
+    private void addOption(int start, int direction, int newCells, int weight) {
+        if (options == optionStart.length) {
+            optionStart = Arrays.copyOf(optionStart, options * 2);
+            optionDirection = Arrays.copyOf(optionDirection, options * 2);
+            optionNewCells = Arrays.copyOf(optionNewCells, options * 2);
+            optionWeight = Arrays.copyOf(optionWeight, options * 2);
+        }
+        optionStart[options] = start;
+        optionDirection[options] = direction;
+        optionNewCells[options] = newCells;
+        optionWeight[options] = weight;
+        options++;
+    }
+
+    // สุ่มตามน้ำหนักทิศ เฉพาะตำแหน่งที่กินช่องใกล้ share ที่สุด (ส่วนแบ่งของช่องที่ต้องกินตามความยาวคำ)
+    // ช่องที่ต้องกินจึงลดลงตามสัดส่วน คำท้าย ๆ ยังมีทางเลือกเหลือ
+    private int pickOption(int share) {
+        int best = Integer.MAX_VALUE;
+        for (int i = 0; i < options; i++) {
+            best = Math.min(best, Math.abs(optionNewCells[i] - share));
+        }
+        int total = 0;
+        for (int i = 0; i < options; i++) {
+            if (Math.abs(optionNewCells[i] - share) <= best + 1) {
+                total += optionWeight[i];
+            }
+        }
+        int pick = random.nextInt(total);
+        for (int i = 0; i < options; i++) {
+            if (Math.abs(optionNewCells[i] - share) <= best + 1) {
+                pick -= optionWeight[i];
+                if (pick < 0) {
+                    return i;
+                }
+            }
+        }
+        throw new IllegalStateException("no placement picked");
+    }
+
+    // คำเป้าหมายที่อ่านได้ที่อื่นนอกจากตำแหน่งที่วาง (ทั้งสองทิศ)
+    private boolean hasAccidentalWord(char[][] grid, List<Puzzle.Placement> placements) {
+        for (Puzzle.Placement p : placements) {
+            String word = p.word;
+            for (int[] dir : DirectionPolicy.DIRECTIONS) {
+                for (int row = 0; row < size; row++) {
+                    for (int col = 0; col < size; col++) {
+                        if (grid[row][col] == word.charAt(0) && matches(grid, word, row, col, dir)
+                                && !isPlacement(p, row, col, dir)) {
+                            return true;
+                        }
+                    }
+                }
+            }
+        }
+        return false;
+    }
+
+    private boolean matches(char[][] grid, String word, int row, int col, int[] dir) {
+        int endRow = row + (word.length() - 1) * dir[0];
+        int endCol = col + (word.length() - 1) * dir[1];
+        if (endRow < 0 || endRow >= size || endCol < 0 || endCol >= size) {
+            return false;
+        }
+        for (int k = 1; k < word.length(); k++) {
+            if (grid[row + k * dir[0]][col + k * dir[1]] != word.charAt(k)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // ตำแหน่งที่วางไว้ หรืออ่านย้อนบนช่องเดียวกัน (คำพาลินโดรม)
+    private static boolean isPlacement(Puzzle.Placement p, int row, int col, int[] dir) {
+        return (row == p.row && col == p.col && dir[0] == p.rowDir && dir[1] == p.colDir)
+            || (row == p.endRow() && col == p.endCol() && dir[0] == -p.rowDir && dir[1] == -p.colDir);
+    }
+}
@@ -0,0 +1,280 @@
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+// บันทึกการลากบนตาราง (press / enter / release) ของหนึ่งตาราง เพื่อเล่นซ้ำหาอาการกระตุกของ UI (ดู InputReplay)
+// ไฟล์เก็บ seed และตารางที่เล่นจริงทั้งตาราง (เล่นซ้ำได้แม้ตัวสร้างตารางเปลี่ยนไปแล้ว)
+// event เข้ารหัสแบบ delta: ช่องที่ติดกับ event ก่อนหน้า (กรณีปกติของการลาก) ใช้ 1 byte + เวลา varint (ms)
+final class InputRecording {
+    static final int PRESS = 0;
+    static final int ENTER = 1;
+    static final int RELEASE = 2;
+    static final String[] TYPE_NAMES = {"press", "enter", "release"};
+
+    private static final int MAGIC = 0x57535231; // "WSR1"
+    // 2: ขนาดตาราง ตำแหน่งคำ (u16) และจำนวนคำ (u32) - ตาราง event ใหญ่กว่า 255 ช่อง (1: u8 ตามเดิม อ่านได้อย่างเดียว)
+    private static final int VERSION = 2;
+    // byte แรกของ event: [type 2][far 1][unused 1][drow+1 2][dcol+1 2] - far = delta ช่องเป็น zigzag varint ตามมา
+    private static final int FAR_BIT = 0x20;
+
+    final long seed;
+    final String difficulty;  // ชื่อ enum ของ DifficultyLevel (ธีมและเวลา)
+    final String levelName;
+    final Puzzle puzzle;
+    private final int[] types;
+    private final int[] rows;
+    private final int[] cols;
+    private final long[] millis;
+    private final int encodedBytes;
+
+    private InputRecording(long seed, String difficulty, String levelName, Puzzle puzzle,
+                           int[] types, int[] rows, int[] cols, long[] millis, int encodedBytes) {
+        this.seed = seed;
+        this.difficulty = difficulty;
+        this.levelName = levelName;
+        this.puzzle = puzzle;
+        this.types = types;
+        this.rows = rows;
+        this.cols = cols;
+        this.millis = millis;
+        this.encodedBytes = encodedBytes;
+    }
+
+    int eventCount() {
+        return types.length;
+    }
+
+    int type(int event) {
+        return types[event];
+    }
+
+    int row(int event) {
+        return rows[event];
+    }
+
+    int col(int event) {
+        return cols[event];
+    }
+
+    // เวลาของ event นับจากตอนที่ตารางขึ้นจอ
+    long atMillis(int event) {
+        return millis[event];
+    }
+
+    int encodedBytes() {
+        return encodedBytes;
+    }
+
+    // ===== RECORDER =====
+    // เก็บ event ใน memory ระหว่างเล่น (ไม่มี I/O บน EDT จนกว่าจะ write)
+    static final class Recorder {
+        private final long seed;
+        private final String difficulty;
+        private final String levelName;
+        private final Puzzle puzzle;
+        private final long startNanos = System.nanoTime();
+        private final long startedAt = System.currentTimeMillis();
+        private final ByteArrayOutputStream events = new ByteArrayOutputStream(1024);
+        private int count;
+        private int lastRow;
+        private int lastCol;
+        private long lastMillis;
+
+        Recorder(long seed, String difficulty, String levelName, Puzzle puzzle) {
+            this.seed = seed;
+            this.difficulty = difficulty;
+            this.levelName = levelName;
+            this.puzzle = puzzle;
+        }
+
+        void record(int type, int row, int col) {
+            long now = (System.nanoTime() - startNanos) / 1_000_000;
+            int dRow = row - lastRow;
+            int dCol = col - lastCol;
+            if (Math.abs(dRow) <= 1 && Math.abs(dCol) <= 1) {
+                events.write(type << 6 | (dRow + 1) << 2 | (dCol + 1));
+            } else {
+                events.write(type << 6 | FAR_BIT);
+                writeVarint(events, zigzag(dRow));
+                writeVarint(events, zigzag(dCol));
+            }
+            writeVarint(events, Math.max(0, now - lastMillis));
+            lastRow = row;
+            lastCol = col;
+            lastMillis = Math.max(lastMillis, now);
+            count++;
+        }
+
+        int eventCount() {
+            return count;
+        }
+
+        // wordsearch-<เวลาเริ่ม>-<seed>.wsr
+        String fileName() {
+            return String.format("wordsearch-%d-%016x.wsr", startedAt, seed);
+        }
+
+        void write(Path file) throws IOException {
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file)))) {
+                out.writeInt(MAGIC);
+                out.writeByte(VERSION);
+                out.writeLong(seed);
+                out.writeUTF(difficulty);
+                out.writeUTF(levelName);
+                writePuzzle(out, puzzle);
+                out.writeInt(count);
+                out.writeInt(events.size());
+                events.writeTo(out);
+            }
+        }
+    }
+
+    private static void writePuzzle(DataOutputStream out, Puzzle puzzle) throws IOException {
+        Alphabet alphabet = puzzle.alphabet;
+        out.writeShort(alphabet.isLatin() ? 0 : alphabet.size());
+        if (!alphabet.isLatin()) {
+            out.writeUTF(alphabet.name);
+            for (int i = 0; i < alphabet.size(); i++) {
+                out.writeUTF(alphabet.symbol((char) (Alphabet.FIRST_CODE + i)));
+            }
+        }
+        out.writeShort(puzzle.size);
+        for (char[] row : puzzle.grid) {
+            out.writeUTF(new String(row));
+        }
+        out.writeInt(puzzle.placements.size());
+        for (Puzzle.Placement p : puzzle.placements) {
+            out.writeUTF(p.word);
+            out.writeShort(p.row);
+            out.writeShort(p.col);
+            out.writeByte(p.rowDir);
+            out.writeByte(p.colDir);
+        }
+    }
+
+    private static Puzzle readPuzzle(DataInputStream in, int version) throws IOException {
+        boolean wide = version >= 2;
+        int symbols = in.readUnsignedShort();
+        Alphabet alphabet = Alphabet.LATIN;
+        if (symbols > 0) {
+            String name = in.readUTF();
+            String[] symbolTexts = new String[symbols];
+            for (int i = 0; i < symbols; i++) {
+                symbolTexts[i] = in.readUTF();
+            }
+            alphabet = Alphabet.fromSymbols(name, Arrays.asList(symbolTexts));
+        }
+        int size = wide ? in.readUnsignedShort() : in.readUnsignedByte();
+        char[][] grid = new char[size][];
+        for (int row = 0; row < size; row++) {
+            grid[row] = in.readUTF().toCharArray();
+            if (grid[row].length != size) {
+                throw new IOException("corrupt recording: row " + row + " has " + grid[row].length + " cells");
+            }
+        }
+        int placementCount = wide ? in.readInt() : in.readUnsignedShort();
+        if (placementCount < 0) {
+            throw new IOException("corrupt recording: " + placementCount + " words");
+        }
+        List<Puzzle.Placement> placements = new ArrayList<>(Math.min(placementCount, 1 << 16));
+        for (int i = 0; i < placementCount; i++) {
+            String word = in.readUTF();
+            int row = wide ? in.readUnsignedShort() : in.readByte();
+            int col = wide ? in.readUnsignedShort() : in.readByte();
+            placements.add(new Puzzle.Placement(word, row, col, in.readByte(), in.readByte()));
+        }
+        Puzzle puzzle = new Puzzle(grid, placements, alphabet);
+        if (!puzzle.isConsistent()) {
+            throw new IOException("corrupt recording: words do not match the grid");
+        }
+        return puzzle;
+    }
+
+    static InputRecording read(Path file) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            if (in.readInt() != MAGIC) {
+                throw new IOException(file + " is not an input recording");
+            }
+            int version = in.readUnsignedByte();
+            if (version < 1 || version > VERSION) {
+                throw new IOException("unsupported recording version " + version);
+            }
+            long seed = in.readLong();
+            String difficulty = in.readUTF();
+            String levelName = in.readUTF();
+            Puzzle puzzle = readPuzzle(in, version);
+            int count = in.readInt();
+            int encodedBytes = in.readInt();
+            byte[] data = new byte[encodedBytes];
+            in.readFully(data);
+
+            int[] types = new int[count];
+            int[] rows = new int[count];
+            int[] cols = new int[count];
+            long[] millis = new long[count];
+            int[] position = {0};
+            int row = 0;
+            int col = 0;
+            long time = 0;
+            for (int i = 0; i < count; i++) {
+                int header = data[position[0]++] & 0xFF;
+                if ((header & FAR_BIT) != 0) {
+                    row += unzigzag(readVarint(data, position));
+                    col += unzigzag(readVarint(data, position));
+                } else {
+                    row += (header >> 2 & 3) - 1;
+                    col += (header & 3) - 1;
+                }
+                time += readVarint(data, position);
+                types[i] = header >>> 6;
+                rows[i] = row;
+                cols[i] = col;
+                millis[i] = time;
+                if (types[i] > RELEASE || !puzzle.inBounds(row, col)) {
+                    throw new IOException("corrupt recording at event " + i);
+                }
+            }
+            return new InputRecording(seed, difficulty, levelName, puzzle, types, rows, cols, millis, encodedBytes);
+        }
+    }
+
+    // ===== VARINT =====
+    private static long zigzag(long value) {
+        return value << 1 ^ value >> 63;
+    }
+
+    private static int unzigzag(long value) {
+        return (int) (value >>> 1 ^ -(value & 1));
+    }
+
+    private static void writeVarint(ByteArrayOutputStream out, long value) {
+        while ((value & ~0x7FL) != 0) {
+            out.write((int) (value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.write((int) value);
+    }
+
+    private static long readVarint(byte[] data, int[] position) throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            if (position[0] >= data.length) {
+                throw new IOException("corrupt recording: truncated event data");
+            }
+            int b = data[position[0]++];
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("corrupt recording: varint too long");
+    }
+}
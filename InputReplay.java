@@ -0,0 +1,132 @@
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import javax.swing.SwingUtilities;
+
+// เล่นไฟล์บันทึกการลาก (-Dwordsearch.record=<dir>, ดู InputRecording) ซ้ำผ่าน handler เดียวกับเมาส์จริง
+// แล้วรายงานเวลาต่อ event: handler (highlightSelection / checkWord) และ paint ที่ค้างอยู่หลัง event นั้น
+//
+// java InputReplay <file.wsr> [--realtime] [--budget-ms N] [--dump]
+//
+// ค่าเริ่มต้นเล่นเร็วที่สุด (event ถัดไปทันทีที่ EDT ว่าง); --realtime เว้นจังหวะตามที่บันทึก
+// --dump พิมพ์ตารางและ event โดยไม่เปิดหน้าต่าง
+// exit code 1 ถ้ามี event ที่ handler + paint เกิน budget (ค่าเริ่มต้น 16 ms) - ใช้ใน regression run ได้
+public class InputReplay {
+    private static final int SLOWEST_SHOWN = 5;
+
+    // เวลาของแต่ละ event ระหว่างเล่นซ้ำ (ใช้บน EDT เท่านั้น)
+    static final class Timings {
+        private final long budgetNanos;
+        private final LatencyHistogram[] handle = new LatencyHistogram[InputRecording.TYPE_NAMES.length];
+        private final LatencyHistogram paint = new LatencyHistogram();
+        private final List<long[]> slowest = new ArrayList<>(); // {event, type, total nanos} มากไปน้อย
+        private int overBudget;
+        private long wallNanos;
+
+        Timings(long budgetNanos) {
+            this.budgetNanos = budgetNanos;
+            for (int i = 0; i < handle.length; i++) {
+                handle[i] = new LatencyHistogram();
+            }
+        }
+
+        void record(int event, int type, long handleNanos, long paintNanos) {
+            handle[type].record(handleNanos);
+            paint.record(paintNanos);
+            long total = handleNanos + paintNanos;
+            if (total > budgetNanos) {
+                overBudget++;
+            }
+            int at = slowest.size();
+            while (at > 0 && slowest.get(at - 1)[2] < total) {
+                at--;
+            }
+            if (at < SLOWEST_SHOWN) {
+                slowest.add(at, new long[]{event, type, total});
+                if (slowest.size() > SLOWEST_SHOWN) {
+                    slowest.remove(SLOWEST_SHOWN);
+                }
+            }
+        }
+
+        void finish(long wallNanos) {
+            this.wallNanos = wallNanos;
+        }
+
+        int overBudget() {
+            return overBudget;
+        }
+
+        String report() {
+            StringBuilder text = new StringBuilder();
+            text.append(String.format("Replayed %d events in %d ms%n", paint.samples(),
+                TimeUnit.NANOSECONDS.toMillis(wallNanos)));
+            for (int type = 0; type < handle.length; type++) {
+                if (handle[type].samples() > 0) {
+                    text.append(String.format("  %-8s x%-5d %s%n", InputRecording.TYPE_NAMES[type],
+                        handle[type].samples(), handle[type].summary()));
+                }
+            }
+            text.append(String.format("  %-8s x%-5d %s%n", "paint", paint.samples(), paint.summary()));
+            for (long[] slow : slowest) {
+                text.append(String.format("  slow: event %d (%s) %.2f ms%n", slow[0],
+                    InputRecording.TYPE_NAMES[(int) slow[1]], slow[2] / 1e6));
+            }
+            text.append(String.format("%s %d events over the %d ms budget",
+                overBudget == 0 ? "✓" : "✗", overBudget, TimeUnit.NANOSECONDS.toMillis(budgetNanos)));
+            return text.toString();
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 1) {
+            System.out.println("Usage: java InputReplay <file.wsr> [--realtime] [--budget-ms N] [--dump]");
+            return;
+        }
+        boolean realtime = false;
+        boolean dump = false;
+        long budgetNanos = GameTaskScheduler.EDT_BUDGET_NANOS;
+        for (int i = 1; i < args.length; i++) {
+            switch (args[i]) {
+                case "--realtime": realtime = true; break;
+                case "--dump": dump = true; break;
+                case "--budget-ms": budgetNanos = TimeUnit.MILLISECONDS.toNanos(Long.parseLong(args[++i])); break;
+                default: throw new IllegalArgumentException("unknown option " + args[i]);
+            }
+        }
+        InputRecording recording = InputRecording.read(Paths.get(args[0]));
+        System.out.println("Recording: " + recording.levelName + " (" + recording.difficulty + "), seed "
+            + Long.toHexString(recording.seed) + ", " + recording.puzzle.size + "x" + recording.puzzle.size
+            + ", " + recording.eventCount() + " events in " + recording.encodedBytes() + " bytes");
+        if (dump) {
+            dump(recording);
+            return;
+        }
+
+        boolean atRecordedPace = realtime;
+        Timings timings = new Timings(budgetNanos);
+        SwingUtilities.invokeLater(() -> new WordSearchGame().replay(recording, atRecordedPace, timings, () -> {
+            System.out.println(timings.report());
+            System.exit(timings.overBudget() > 0 ? 1 : 0);
+        }));
+    }
+
+    private static void dump(InputRecording recording) {
+        Puzzle puzzle = recording.puzzle;
+        for (int row = 0; row < puzzle.size; row++) {
+            StringBuilder line = new StringBuilder();
+            for (int col = 0; col < puzzle.size; col++) {
+                line.append(puzzle.cellText(row, col)).append(' ');
+            }
+            System.out.println(line);
+        }
+        for (int i = 0; i < puzzle.words.size(); i++) {
+            System.out.println("word: " + puzzle.displayWord(i));
+        }
+        for (int i = 0; i < recording.eventCount(); i++) {
+            System.out.printf("%8d ms  %-7s (%d, %d)%n", recording.atMillis(i),
+                InputRecording.TYPE_NAMES[recording.type(i)], recording.row(i), recording.col(i));
+        }
+    }
+}
@@ -0,0 +1,57 @@
+import java.util.concurrent.TimeUnit;
+
+// histogram ของ latency ช่องละ 10 us ถึง 1 s - ใช้ใน load test ทั้งหลาย
+// ไม่ thread-safe: ให้แต่ละ thread มีของตัวเองแล้วรวมด้วย merge ตอนจบ
+final class LatencyHistogram {
+    private static final int BUCKET_MICROS = 10;
+    private static final int BUCKETS = 100_000; // up to 1 s
+
+    private final int[] buckets = new int[BUCKETS];
+    private long overflowSamples;
+    private long samples;
+
+    void record(long nanos) {
+        samples++;
+        int bucket = (int) (TimeUnit.NANOSECONDS.toMicros(nanos) / BUCKET_MICROS);
+        if (bucket >= BUCKETS) {
+            overflowSamples++;
+        } else {
+            buckets[bucket]++;
+        }
+    }
+
+    void merge(LatencyHistogram other) {
+        for (int i = 0; i < BUCKETS; i++) {
+            buckets[i] += other.buckets[i];
+        }
+        overflowSamples += other.overflowSamples;
+        samples += other.samples;
+    }
+
+    long samples() {
+        return samples;
+    }
+
+    long overflowSamples() {
+        return overflowSamples;
+    }
+
+    long percentileMicros(double percentile) {
+        long target = (long) Math.ceil(samples * percentile);
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += buckets[i];
+            if (seen >= target) {
+                return (long) (i + 1) * BUCKET_MICROS;
+            }
+        }
+        return -1; // beyond histogram range
+    }
+
+    // "p50 .. us, p90 .. us, p99 .. us, p99.9 .. us, over 1 s: .."
+    String summary() {
+        return String.format("p50 %d us, p90 %d us, p99 %d us, p99.9 %d us, over 1 s: %d",
+            percentileMicros(0.50), percentileMicros(0.90), percentileMicros(0.99),
+            percentileMicros(0.999), overflowSamples);
+    }
+}
@@ -0,0 +1,252 @@
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+// เติมช่องว่างของตารางหลังวางคำแล้ว
+// - ตัวอักษรสุ่มตามความถี่ของภาษาอังกฤษ (alias method, O(1) ต่อช่อง) แทนการสุ่มเท่ากันทุกตัว
+// - เลือกได้ว่าจะวาง "ตัวหลอก" (ต้นคำของคำเป้าหมายที่ไม่ครบคำ) ไว้ในช่องว่างด้วยหรือไม่
+// - รับประกันว่าไม่มีคำเป้าหมายเกิดขึ้นเองโดยบังเอิญนอกจากตำแหน่งที่วางไว้
+// - ตารางของ Alphabet อื่น (เช่น ภาษาไทย) สุ่มตัวเติมจาก alphabet นั้นแทน A-Z
+public final class LetterFiller {
+    // ความถี่ของตัวอักษร A-Z ในข้อความภาษาอังกฤษ (%)
+    private static final double[] ENGLISH_FREQUENCIES = {
+        8.167, 1.492, 2.782, 4.253, 12.702, 2.228, 2.015, 6.094, 6.966, 0.153, 0.772, 4.025, 2.406,
+        6.749, 7.507, 1.929, 0.095, 5.987, 6.327, 9.056, 2.758, 0.978, 2.360, 0.150, 1.974, 0.074
+    };
+
+    static final AliasSampler ENGLISH_LETTERS = new AliasSampler(ENGLISH_FREQUENCIES);
+
+    // alphabet ที่เล็กกว่านี้จัดกลุ่มคำตามสองสัญลักษณ์แรกได้ตรงตัว ใหญ่กว่านี้ใช้ hash (ตรวจคำเต็มอยู่แล้ว)
+    private static final int EXACT_PREFIX_LIMIT = 256;
+    private static final int HASHED_PREFIX_BUCKETS = 1 << 16;
+
+    private LetterFiller() {
+    }
+
+    public static char randomLetter(Random random) {
+        return (char) ('A' + ENGLISH_LETTERS.sample(random));
+    }
+
+    // เติมทุกช่องที่เป็น empty (เรียกซ้ำกับตารางที่เติมแล้วได้ จะตรวจคำซ้ำอย่างเดียว) - คืน false ถ้ามีคำเป้าหมายซ้ำที่เกิดจากคำที่วางไว้ล้วน ๆ (ต้องสร้างตารางใหม่)
+    public static boolean fill(char[][] grid, char empty, List<Puzzle.Placement> placements,
+                               double decoysPerWord, Random random) {
+        return fill(grid, empty, placements, decoysPerWord, Alphabet.LATIN, random);
+    }
+
+    public static boolean fill(char[][] grid, char empty, List<Puzzle.Placement> placements,
+                               double decoysPerWord, Alphabet alphabet, Random random) {
+        int size = grid.length;
+        if (decoysPerWord > 0 && !placements.isEmpty()) {
+            plantDecoys(grid, empty, placements, (int) Math.round(decoysPerWord * placements.size()), random);
+        }
+
+        for (int row = 0; row < size; row++) {
+            for (int col = 0; col < size; col++) {
+                if (grid[row][col] == empty) {
+                    grid[row][col] = alphabet.randomSymbol(random);
+                }
+            }
+        }
+
+        return removeAccidentalWords(grid, placements, alphabet, random);
+    }
+
+    // วางต้นคำ (ขาดตัวสุดท้ายหนึ่งหรือสองตัว) ลงในช่องที่ยังว่างทั้งหมดเท่านั้น ไม่ทับคำจริง
+    private static void plantDecoys(char[][] grid, char empty, List<Puzzle.Placement> placements,
+                                    int count, Random random) {
+        int size = grid.length;
+        for (int attempt = 0, planted = 0; planted < count && attempt < count * 20; attempt++) {
+            String word = placements.get(random.nextInt(placements.size())).word;
+            int length = Math.max(2, word.length() - 1 - random.nextInt(2));
+            if (length >= word.length()) {
+                continue;
+            }
+            int[] dir = DirectionPolicy.ALL.sampleDirection(random);
+            int row = DirectionPolicy.sampleStart(dir[0], length, size, random);
+            int col = DirectionPolicy.sampleStart(dir[1], length, size, random);
+            boolean free = true;
+            for (int i = 0; i < length && free; i++) {
+                free = grid[row + i * dir[0]][col + i * dir[1]] == empty;
+            }
+            if (free) {
+                for (int i = 0; i < length; i++) {
+                    grid[row + i * dir[0]][col + i * dir[1]] = word.charAt(i);
+                }
+                planted++;
+            }
+        }
+    }
+
+    // หาทุกจุดที่อ่านได้เป็นคำเป้าหมายแต่ไม่ใช่ตำแหน่งที่วางไว้ แล้วสุ่มช่องที่ไม่ใช่คำจริงในจุดนั้นใหม่
+    // ตรวจทั้งตารางรอบเดียว ส่วนช่องที่สุ่มใหม่ (อาจสร้างคำใหม่ได้ แต่โอกาสต่ำมาก) ตรวจซ้ำเฉพาะเส้นที่ผ่านช่องนั้น
+    private static boolean removeAccidentalWords(char[][] grid, List<Puzzle.Placement> placements,
+                                                 Alphabet alphabet, Random random) {
+        // จัดกลุ่มคำตามสองตัวอักษรแรก แต่ละช่อง/ทิศจึงเปิดดูตารางครั้งเดียว และแทบไม่เคยต้องเทียบคำจริง
+        int symbols = alphabet.size();
+        Puzzle.Placement[][] byPrefix = new Puzzle.Placement[prefixBuckets(symbols)][];
+        for (Puzzle.Placement p : placements) {
+            int prefix = prefixIndex(alphabet, p.word.charAt(0), p.word.length() > 1 ? p.word.charAt(1) : 0);
+            if (prefix >= 0) {
+                Puzzle.Placement[] group = byPrefix[prefix];
+                group = group == null ? new Puzzle.Placement[1] : Arrays.copyOf(group, group.length + 1);
+                group[group.length - 1] = p;
+                byPrefix[prefix] = group;
+            }
+        }
+
+        int size = grid.length;
+        boolean clean = true;
+        ArrayDeque<Integer> repaired = new ArrayDeque<>();
+        for (int row = 0; row < size; row++) {
+            for (int col = 0; col < size; col++) {
+                int first = alphabet.id(grid[row][col]);
+                if (first < 0) {
+                    continue;
+                }
+                for (int[] dir : DirectionPolicy.DIRECTIONS) {
+                    int nextRow = row + dir[0];
+                    int nextCol = col + dir[1];
+                    if (nextRow < 0 || nextRow >= size || nextCol < 0 || nextCol >= size) {
+                        continue;
+                    }
+                    int second = alphabet.id(grid[nextRow][nextCol]);
+                    if (second < 0) {
+                        continue;
+                    }
+                    Puzzle.Placement[] candidates = byPrefix[prefixBucket(symbols, first, second)];
+                    if (candidates != null) {
+                        clean &= breakAccidental(grid, placements, candidates, row, col, dir, alphabet, random, repaired);
+                    }
+                }
+            }
+        }
+
+        while (!repaired.isEmpty()) {
+            int cell = repaired.poll();
+            int row = cell / size;
+            int col = cell % size;
+            for (Puzzle.Placement p : placements) {
+                Puzzle.Placement[] candidate = {p};
+                for (int[] dir : DirectionPolicy.DIRECTIONS) {
+                    // ทุกจุดเริ่มที่ทำให้คำนี้ผ่านช่องที่เพิ่งเปลี่ยน
+                    for (int i = 0; i < p.word.length(); i++) {
+                        clean &= breakAccidental(grid, placements, candidate,
+                            row - i * dir[0], col - i * dir[1], dir, alphabet, random, repaired);
+                    }
+                }
+            }
+        }
+        return clean;
+    }
+
+    // คืน false ถ้าพบคำซ้ำที่แก้ไม่ได้
+    private static boolean breakAccidental(char[][] grid, List<Puzzle.Placement> placements,
+                                           Puzzle.Placement[] candidates, int row, int col, int[] dir,
+                                           Alphabet alphabet, Random random, ArrayDeque<Integer> repaired) {
+        boolean clean = true;
+        for (Puzzle.Placement p : candidates) {
+            if (!matches(grid, p.word, row, col, dir[0], dir[1]) || isPlacement(p, row, col, dir)) {
+                continue;
+            }
+            int cell = breakOccurrence(grid, placements, p.word, row, col, dir, alphabet, random);
+            if (cell >= 0) {
+                repaired.add(cell);
+            } else {
+                clean = false;
+            }
+        }
+        return clean;
+    }
+
+    private static int prefixIndex(Alphabet alphabet, char first, char second) {
+        int a = alphabet.id(first);
+        int b = alphabet.id(second);
+        return a >= 0 && b >= 0 ? prefixBucket(alphabet.size(), a, b) : -1;
+    }
+
+    private static int prefixBuckets(int symbols) {
+        return symbols <= EXACT_PREFIX_LIMIT ? symbols * symbols : HASHED_PREFIX_BUCKETS;
+    }
+
+    private static int prefixBucket(int symbols, int first, int second) {
+        return symbols <= EXACT_PREFIX_LIMIT ? first * symbols + second
+            : (first * 0x9E3779B1 + second) >>> 16 & (HASHED_PREFIX_BUCKETS - 1);
+    }
+
+    private static boolean matches(char[][] grid, String word, int row, int col, int rowDir, int colDir) {
+        int size = grid.length;
+        if (row < 0 || row >= size || col < 0 || col >= size) {
+            return false;
+        }
+        int endRow = row + (word.length() - 1) * rowDir;
+        int endCol = col + (word.length() - 1) * colDir;
+        if (endRow < 0 || endRow >= size || endCol < 0 || endCol >= size) {
+            return false;
+        }
+        for (int i = 0; i < word.length(); i++) {
+            if (grid[row + i * rowDir][col + i * colDir] != word.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // ตำแหน่งที่วางไว้จริง หรืออ่านย้อนบนช่องเดียวกัน (คำพาลินโดรม)
+    private static boolean isPlacement(Puzzle.Placement p, int row, int col, int[] dir) {
+        if (row == p.row && col == p.col && dir[0] == p.rowDir && dir[1] == p.colDir) {
+            return true;
+        }
+        return row == p.endRow() && col == p.endCol() && dir[0] == -p.rowDir && dir[1] == -p.colDir;
+    }
+
+    // ช่องนี้เป็นส่วนของคำที่วางไว้หรือไม่ - เรียกเฉพาะตอนพบคำซ้ำ (ไม่บ่อย) จึงไม่ต้องเก็บ mask ทั้งตาราง
+    private static boolean isPlacedCell(List<Puzzle.Placement> placements, int row, int col) {
+        for (Puzzle.Placement p : placements) {
+            for (int i = 0; i < p.word.length(); i++) {
+                if (p.row + i * p.rowDir == row && p.col + i * p.colDir == col) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    // เปลี่ยนช่องสุดท้ายที่ไม่ใช่ส่วนของคำจริง (ตัวหลอกอยู่ต้นคำ ช่องท้ายจึงมักเป็นตัวเติม)
+    // คืนตำแหน่งช่องที่เปลี่ยน (row * size + col) หรือ -1 ถ้าไม่มีช่องที่เปลี่ยนได้
+    private static int breakOccurrence(char[][] grid, List<Puzzle.Placement> placements, String word,
+                                       int row, int col, int[] dir, Alphabet alphabet, Random random) {
+        for (int i = word.length() - 1; i >= 0; i--) {
+            int r = row + i * dir[0];
+            int c = col + i * dir[1];
+            if (!isPlacedCell(placements, r, c)) {
+                if (alphabet.size() < 2) {
+                    return -1; // มีสัญลักษณ์เดียว - ไม่มีตัวอื่นให้เปลี่ยน
+                }
+                grid[r][c] = otherSymbol(alphabet, word.charAt(i), random);
+                return r * grid.length + c;
+            }
+        }
+        // ทุกช่องเป็นส่วนของคำที่วางไว้ - แก้ไม่ได้โดยไม่ย้ายคำ (เกิดได้เฉพาะคำที่ซ้อนกันพอดี)
+        return -1;
+    }
+
+    // สุ่มสัญลักษณ์ที่ไม่ใช่ current ตามความถี่ของตัวเติม - ถ้าสุ่มได้ตัวเดิมซ้ำหลายครั้ง (เช่น ตัวเติมแทบมีแต่ current)
+    // เลือกจากตัวอื่นตาม id แบบเท่ากันแทน loop จึงจบเสมอ (alphabet ต้องมีอย่างน้อย 2 ตัว)
+    private static final int REDRAWS = 8;
+
+    private static char otherSymbol(Alphabet alphabet, char current, Random random) {
+        for (int attempt = 0; attempt < REDRAWS; attempt++) {
+            char letter = alphabet.randomSymbol(random);
+            if (letter != current) {
+                return letter;
+            }
+        }
+        int currentId = alphabet.id(current);
+        int id = random.nextInt(currentId < 0 ? alphabet.size() : alphabet.size() - 1);
+        if (currentId >= 0 && id >= currentId) {
+            id++;
+        }
+        return (char) (Alphabet.FIRST_CODE + id);
+    }
+}
@@ -0,0 +1,146 @@
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// ตารางแบบบีบอัดสำหรับเก็บจำนวนมากในหน่วยความจำ (เช่น pool ล้านตาราง)
+// ตัวอักษร 5 bit เรียง 12 ตัวต่อ long, คำเก็บเป็นลำดับใน dictionary ที่ใช้ร่วมกัน, ตำแหน่งคำเป็น int เดียว
+// ใช้ unpack() เพื่อแปลงกลับเป็น Puzzle ก่อนเล่น
+final class PackedPuzzle {
+    static final int BITS_PER_LETTER = 5;
+    static final int LETTERS_PER_LONG = 64 / BITS_PER_LETTER;
+    static final int MAX_SIZE = 32;
+
+    private static final int LETTER_MASK = (1 << BITS_PER_LETTER) - 1;
+    // ช่องที่ปิดของตารางที่มีรูปทรง (BoardMask.BLANK) - ใช้รหัสที่เหลือจาก A-Z
+    private static final int BLANK_CODE = LETTER_MASK;
+
+    // placement: [direction 3][col 5][row 5][word ordinal 16]
+    private static final int ORDINAL_BITS = 16;
+    private static final int MAX_ORDINAL = (1 << ORDINAL_BITS) - 1;
+    private static final int ROW_SHIFT = ORDINAL_BITS;
+    private static final int COL_SHIFT = ROW_SHIFT + 5;
+    private static final int DIRECTION_SHIFT = COL_SHIFT + 5;
+
+    private final int size;
+    private final long[] letters;
+    private final int[] placements;
+
+    private PackedPuzzle(int size, long[] letters, int[] placements) {
+        this.size = size;
+        this.letters = letters;
+        this.placements = placements;
+    }
+
+    // ===== CODEC =====
+    // คำศัพท์ที่ใช้ร่วมกันระหว่างตารางทั้งหมด - คำในตารางต้องอยู่ในชุดนี้
+    static final class Codec {
+        private final List<String> dictionary;
+        private final Map<String, Integer> ordinals = new HashMap<>();
+
+        Codec(List<String> dictionary) {
+            if (dictionary.size() > MAX_ORDINAL + 1) {
+                throw new IllegalArgumentException("dictionary has more than " + (MAX_ORDINAL + 1) + " words");
+            }
+            this.dictionary = new ArrayList<>(dictionary);
+            for (int i = 0; i < this.dictionary.size(); i++) {
+                ordinals.putIfAbsent(this.dictionary.get(i), i);
+            }
+        }
+
+        PackedPuzzle pack(Puzzle puzzle) {
+            int size = puzzle.size;
+            if (size > MAX_SIZE) {
+                throw new IllegalArgumentException("grid size " + size + " exceeds " + MAX_SIZE);
+            }
+            long[] letters = new long[(size * size + LETTERS_PER_LONG - 1) / LETTERS_PER_LONG];
+            int index = 0;
+            for (int row = 0; row < size; row++) {
+                for (int col = 0; col < size; col++) {
+                    int letter = puzzle.grid[row][col] == BoardMask.BLANK ? BLANK_CODE : puzzle.grid[row][col] - 'A';
+                    if (letter < 0 || (letter > 25 && letter != BLANK_CODE)) {
+                        throw new IllegalArgumentException("cannot pack letter '" + puzzle.grid[row][col] + "'");
+                    }
+                    letters[index / LETTERS_PER_LONG] |= (long) letter << (index % LETTERS_PER_LONG * BITS_PER_LETTER);
+                    index++;
+                }
+            }
+
+            int[] placements = new int[puzzle.placements.size()];
+            for (int i = 0; i < placements.length; i++) {
+                Puzzle.Placement p = puzzle.placements.get(i);
+                Integer ordinal = ordinals.get(p.word);
+                if (ordinal == null) {
+                    throw new IllegalArgumentException("word " + p.word + " is not in the dictionary");
+                }
+                placements[i] = ordinal
+                    | p.row << ROW_SHIFT
+                    | p.col << COL_SHIFT
+                    | directionIndex(p.rowDir, p.colDir) << DIRECTION_SHIFT;
+            }
+            return new PackedPuzzle(size, letters, placements);
+        }
+
+        Puzzle unpack(PackedPuzzle packed) {
+            int size = packed.size;
+            char[][] grid = new char[size][size];
+            long bits = 0;
+            int index = 0;
+            for (int row = 0; row < size; row++) {
+                char[] line = grid[row];
+                for (int col = 0; col < size; col++) {
+                    if (index % LETTERS_PER_LONG == 0) {
+                        bits = packed.letters[index / LETTERS_PER_LONG];
+                    }
+                    line[col] = decode((int) (bits & LETTER_MASK));
+                    bits >>>= BITS_PER_LETTER;
+                    index++;
+                }
+            }
+
+            List<Puzzle.Placement> placements = new ArrayList<>(packed.placements.length);
+            for (int value : packed.placements) {
+                int[] step = DirectionPolicy.DIRECTIONS[value >>> DIRECTION_SHIFT];
+                placements.add(new Puzzle.Placement(dictionary.get(value & MAX_ORDINAL),
+                    value >>> ROW_SHIFT & 31, value >>> COL_SHIFT & 31, step[0], step[1]));
+            }
+            return new Puzzle(grid, placements);
+        }
+
+        private static int directionIndex(int rowDir, int colDir) {
+            for (int i = 0; i < DirectionPolicy.DIRECTIONS.length; i++) {
+                if (DirectionPolicy.DIRECTIONS[i][0] == rowDir && DirectionPolicy.DIRECTIONS[i][1] == colDir) {
+                    return i;
+                }
+            }
+            throw new IllegalArgumentException("invalid direction " + rowDir + "," + colDir);
+        }
+    }
+
+    int size() {
+        return size;
+    }
+
+    int wordCount() {
+        return placements.length;
+    }
+
+    // อ่านตัวอักษรโดยไม่ต้อง unpack ทั้งตาราง
+    char letterAt(int row, int col) {
+        int index = row * size + col;
+        return decode((int) (letters[index / LETTERS_PER_LONG] >>> (index % LETTERS_PER_LONG * BITS_PER_LETTER) & LETTER_MASK));
+    }
+
+    private static char decode(int code) {
+        return code == BLANK_CODE ? BoardMask.BLANK : (char) ('A' + code);
+    }
+
+    // ขนาดโดยประมาณบน heap (compressed oops: object header 12 byte, array header 16 byte, ปัดเป็น 8)
+    long estimatedBytes() {
+        return align(12 + 4 + 4 + 4) + align(16 + 8L * letters.length) + align(16 + 4L * placements.length);
+    }
+
+    private static long align(long bytes) {
+        return (bytes + 7) & ~7L;
+    }
+}
@@ -0,0 +1,253 @@
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.zip.Deflater;
+
+// เขียน PDF แบบ vector (เส้นและตัวอักษร Helvetica มาตรฐาน ไม่ฝัง font) ทีละหน้าแบบ streaming
+// เก็บในหน่วยความจำแค่ offset ของแต่ละ object - หนังสือหลายพันหน้าใช้หน่วยความจำคงที่
+// เนื้อหาของหน้า (pageContent) สร้างได้จากหลาย thread พร้อมกัน ส่วน writePage ต้องเรียกตามลำดับจาก thread เดียว
+public class PdfBookWriter implements Closeable {
+    private static final int CATALOG = 1;
+    private static final int PAGES = 2;
+    private static final int FONT_BOLD = 3;
+    private static final int FONT_REGULAR = 4;
+    private static final int HIGHLIGHT_STATE = 5;
+
+    // ความกว้างตัวอักษร A-Z ของ Helvetica-Bold (หน่วย 1/1000 ของขนาด font) จาก AFM มาตรฐาน
+    private static final int[] BOLD_WIDTHS = {
+        722, 722, 722, 722, 667, 611, 778, 722, 278, 556, 722, 611, 833,
+        722, 778, 667, 778, 722, 667, 611, 722, 667, 944, 667, 667, 611
+    };
+    private static final int BOLD_CAP_HEIGHT = 718;
+
+    private final CountingOutputStream out;
+    private final List<Long> offsets = new ArrayList<>();
+    private final List<Integer> pageObjects = new ArrayList<>();
+
+    public PdfBookWriter(OutputStream output) throws IOException {
+        this.out = new CountingOutputStream(new BufferedOutputStream(output, 64 * 1024));
+        write("%PDF-1.4\n%âãÏÓ\n");
+        beginObject(CATALOG);
+        write("<< /Type /Catalog /Pages " + PAGES + " 0 R >>\nendobj\n");
+        offsets.add(-1L); // Pages is written last, once all kids are known
+        beginObject(FONT_BOLD);
+        write("<< /Type /Font /Subtype /Type1 /BaseFont /Helvetica-Bold /Encoding /WinAnsiEncoding >>\nendobj\n");
+        beginObject(FONT_REGULAR);
+        write("<< /Type /Font /Subtype /Type1 /BaseFont /Helvetica /Encoding /WinAnsiEncoding >>\nendobj\n");
+        beginObject(HIGHLIGHT_STATE);
+        write(String.format(Locale.ROOT, "<< /Type /ExtGState /CA %.3f /ca %.3f >>\nendobj\n",
+            PuzzleRenderer.HIGHLIGHT_ALPHA / 255.0, PuzzleRenderer.HIGHLIGHT_ALPHA / 255.0));
+    }
+
+    // ===== PAGE CONTENT =====
+    // content stream ของหนึ่งหน้า (บีบอัดแล้ว) - ไม่แตะ state ของ writer จึงสร้างขนานกันได้
+    // ใช้ฟอนต์ Helvetica ในตัวของ PDF (ไม่ฝังฟอนต์) จึงรองรับเฉพาะตาราง LATIN
+    static byte[] pageContent(Puzzle puzzle, PuzzleRenderer.Layout layout, String title, boolean solution) {
+        if (!puzzle.alphabet.isLatin()) {
+            throw new IllegalArgumentException("PDF pages support A-Z puzzles only, not " + puzzle.alphabet);
+        }
+        StringBuilder content = new StringBuilder(8 * 1024);
+        int height = layout.height;
+
+        content.append("BT /F1 ").append(num(layout.letterSize)).append(" Tf ")
+            .append(num(layout.gridX)).append(' ').append(num(height - (layout.margin + layout.titleHeight / 2)))
+            .append(" Td (").append(escape(title)).append(") Tj ET\n");
+
+        if (solution) {
+            content.append("q /GS1 gs ").append(num(layout.cellSize * PuzzleRenderer.HIGHLIGHT_STROKE_RATIO))
+                .append(" w 1 J\n");
+            for (int i = 0; i < puzzle.placements.size(); i++) {
+                Puzzle.Placement p = puzzle.placements.get(i);
+                java.awt.Color color = PuzzleRenderer.WORD_COLORS[i % PuzzleRenderer.WORD_COLORS.length];
+                content.append(num(color.getRed() / 255f)).append(' ')
+                    .append(num(color.getGreen() / 255f)).append(' ')
+                    .append(num(color.getBlue() / 255f)).append(" RG ")
+                    .append(num(layout.cellCenterX(p.col))).append(' ')
+                    .append(num(height - layout.cellCenterY(p.row))).append(" m ")
+                    .append(num(layout.cellCenterX(p.endCol()))).append(' ')
+                    .append(num(height - layout.cellCenterY(p.endRow()))).append(" l S\n");
+            }
+            content.append("Q\n");
+        }
+
+        content.append("0.745 G 1 w\n");
+        if (puzzle.isShaped()) {
+            // ตารางที่มีรูปทรง - กรอบเฉพาะช่องที่เปิด
+            for (int row = 0; row < puzzle.size; row++) {
+                for (int col = 0; col < puzzle.size; col++) {
+                    if (puzzle.isOpen(row, col)) {
+                        content.append(num(layout.gridX + col * layout.cellSize)).append(' ')
+                            .append(num(height - layout.gridY - (row + 1) * layout.cellSize)).append(' ')
+                            .append(num(layout.cellSize)).append(' ').append(num(layout.cellSize)).append(" re S\n");
+                    }
+                }
+            }
+        } else {
+            for (int i = 0; i <= puzzle.size; i++) {
+                int offset = i * layout.cellSize;
+                line(content, layout.gridX, height - (layout.gridY + offset),
+                    layout.gridX + layout.gridPixels, height - (layout.gridY + offset));
+                line(content, layout.gridX + offset, height - layout.gridY,
+                    layout.gridX + offset, height - (layout.gridY + layout.gridPixels));
+            }
+        }
+
+        content.append("0 g BT /F1 ").append(num(layout.letterSize)).append(" Tf\n");
+        float baselineOffset = layout.letterSize * BOLD_CAP_HEIGHT / 2000f;
+        for (int row = 0; row < puzzle.size; row++) {
+            for (int col = 0; col < puzzle.size; col++) {
+                char letter = puzzle.grid[row][col];
+                if (letter == BoardMask.BLANK) {
+                    continue;
+                }
+                float width = letterWidth(letter) * layout.letterSize / 1000f;
+                content.append("1 0 0 1 ").append(num(layout.cellCenterX(col) - width / 2)).append(' ')
+                    .append(num(height - layout.cellCenterY(row) - baselineOffset))
+                    .append(" Tm (").append(escape(String.valueOf(letter))).append(") Tj\n");
+            }
+        }
+        content.append("/F2 ").append(num(layout.listSize)).append(" Tf\n");
+        int wordCount = puzzle.words.size();
+        for (int i = 0; i < wordCount; i++) {
+            content.append("1 0 0 1 ").append(num(layout.wordX(i, wordCount))).append(' ')
+                .append(num(height - layout.wordY(i, wordCount)))
+                .append(" Tm (").append(escape(puzzle.words.get(i))).append(") Tj\n");
+        }
+        content.append("ET\n");
+
+        return deflate(content.toString().getBytes(StandardCharsets.ISO_8859_1));
+    }
+
+    private static void line(StringBuilder content, float x1, float y1, float x2, float y2) {
+        content.append(num(x1)).append(' ').append(num(y1)).append(" m ")
+            .append(num(x2)).append(' ').append(num(y2)).append(" l S\n");
+    }
+
+    private static int letterWidth(char letter) {
+        return letter >= 'A' && letter <= 'Z' ? BOLD_WIDTHS[letter - 'A'] : 667;
+    }
+
+    // ตัวเลขแบบสั้นที่สุด (ทศนิยมไม่เกิน 2 ตำแหน่ง) - ไม่ขึ้นกับ locale ของเครื่อง
+    private static String num(float value) {
+        int hundredths = Math.round(value * 100);
+        if (hundredths % 100 == 0) {
+            return Integer.toString(hundredths / 100);
+        }
+        return String.format(Locale.ROOT, "%.2f", hundredths / 100f);
+    }
+
+    // ตัวอักษรนอก WinAnsi ใช้ไม่ได้กับ font มาตรฐาน - แทนด้วย '?'
+    private static String escape(String text) {
+        StringBuilder escaped = new StringBuilder(text.length() + 8);
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == '(' || c == ')' || c == '\\') {
+                escaped.append('\\').append(c);
+            } else if (c < 32 || c > 126) {
+                escaped.append('?');
+            } else {
+                escaped.append(c);
+            }
+        }
+        return escaped.toString();
+    }
+
+    private static byte[] deflate(byte[] data) {
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        try {
+            deflater.setInput(data);
+            deflater.finish();
+            ByteArrayOutputStream compressed = new ByteArrayOutputStream(data.length / 3 + 64);
+            byte[] buffer = new byte[8 * 1024];
+            while (!deflater.finished()) {
+                compressed.write(buffer, 0, deflater.deflate(buffer));
+            }
+            return compressed.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    // ===== FILE STRUCTURE =====
+    public void writePage(PuzzleRenderer.Layout layout, byte[] content) throws IOException {
+        int page = offsets.size() + 1;
+        int stream = page + 1;
+        beginObject(page);
+        write("<< /Type /Page /Parent " + PAGES + " 0 R /MediaBox [0 0 " + layout.width + " " + layout.height + "]"
+            + " /Resources << /Font << /F1 " + FONT_BOLD + " 0 R /F2 " + FONT_REGULAR + " 0 R >>"
+            + " /ExtGState << /GS1 " + HIGHLIGHT_STATE + " 0 R >> >> /Contents " + stream + " 0 R >>\nendobj\n");
+        beginObject(stream);
+        write("<< /Length " + content.length + " /Filter /FlateDecode >>\nstream\n");
+        out.write(content);
+        write("\nendstream\nendobj\n");
+        pageObjects.add(page);
+    }
+
+    public int pageCount() {
+        return pageObjects.size();
+    }
+
+    @Override
+    public void close() throws IOException {
+        offsets.set(PAGES - 1, out.count);
+        StringBuilder kids = new StringBuilder();
+        for (int page : pageObjects) {
+            kids.append(page).append(" 0 R ");
+        }
+        write(PAGES + " 0 obj\n<< /Type /Pages /Kids [" + kids + "] /Count " + pageObjects.size() + " >>\nendobj\n");
+
+        long xref = out.count;
+        StringBuilder table = new StringBuilder("xref\n0 " + (offsets.size() + 1) + "\n0000000000 65535 f \n");
+        for (long offset : offsets) {
+            table.append(String.format("%010d 00000 n \n", offset));
+        }
+        write(table.toString());
+        write("trailer\n<< /Size " + (offsets.size() + 1) + " /Root " + CATALOG + " 0 R >>\nstartxref\n"
+            + xref + "\n%%EOF\n");
+        out.close();
+    }
+
+    private void beginObject(int number) throws IOException {
+        if (number != offsets.size() + 1) {
+            throw new IllegalStateException("PDF objects must be written in order");
+        }
+        offsets.add(out.count);
+        write(number + " 0 obj\n");
+    }
+
+    private void write(String text) throws IOException {
+        out.write(text.getBytes(StandardCharsets.ISO_8859_1));
+    }
+
+    private static final class CountingOutputStream extends OutputStream {
+        private final OutputStream delegate;
+        long count;
+
+        CountingOutputStream(OutputStream delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            delegate.write(b);
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            delegate.write(b, off, len);
+            count += len;
+        }
+
+        @Override
+        public void close() throws IOException {
+            delegate.close();
+        }
+    }
+}
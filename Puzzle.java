@@ -0,0 +1,157 @@
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.List;
+
+// ตารางที่สร้างเสร็จแล้วพร้อมรายการคำ - ไม่ผูกกับ UI จึงส่งข้าม thread ได้
+public class Puzzle {
+    final int size;
+    final char[][] grid;
+    final Alphabet alphabet; // ช่องและคำเก็บเป็นรหัสของ alphabet นี้ (LATIN = 'A'-'Z' ตรงตัว)
+    final List<String> words;
+    final List<Placement> placements;
+
+    // ตำแหน่งและทิศทางของคำที่วางในตาราง
+    static class Placement {
+        final String word;
+        final int row;
+        final int col;
+        final int rowDir;
+        final int colDir;
+
+        Placement(String word, int row, int col, int rowDir, int colDir) {
+            this.word = word;
+            this.row = row;
+            this.col = col;
+            this.rowDir = rowDir;
+            this.colDir = colDir;
+        }
+
+        int endRow() {
+            return row + (word.length() - 1) * rowDir;
+        }
+
+        int endCol() {
+            return col + (word.length() - 1) * colDir;
+        }
+    }
+
+    Puzzle(char[][] grid, List<Placement> placements) {
+        this(grid, placements, Alphabet.LATIN);
+    }
+
+    Puzzle(char[][] grid, List<Placement> placements, Alphabet alphabet) {
+        this.size = grid.length;
+        this.grid = grid;
+        this.alphabet = alphabet;
+        this.placements = Collections.unmodifiableList(new ArrayList<>(placements));
+        List<String> placedWords = new ArrayList<>(placements.size());
+        for (Placement p : placements) {
+            placedWords.add(p.word);
+        }
+        this.words = Collections.unmodifiableList(placedWords);
+    }
+
+    // หาคำเป้าหมายที่ตรงกับเส้นที่เลือก (อ่านได้ทั้งไปข้างหน้าและย้อนกลับ) โดยไม่สร้าง String
+    // คืนค่า index ของคำใน words หรือ -1 ถ้าไม่ตรง ใช้ร่วมกันทั้งในเกมและ RaceServer
+    int matchSelection(int startRow, int startCol, int endRow, int endCol, BitSet alreadyFound) {
+        if (!inBounds(startRow, startCol) || !inBounds(endRow, endCol)) {
+            return -1;
+        }
+        int rowDiff = endRow - startRow;
+        int colDiff = endCol - startCol;
+        if (rowDiff != 0 && colDiff != 0 && Math.abs(rowDiff) != Math.abs(colDiff)) {
+            return -1; // ไม่ใช่แนวนอน แนวตั้ง หรือแนวทแยง
+        }
+
+        int length = Math.max(Math.abs(rowDiff), Math.abs(colDiff)) + 1;
+        int rowStep = Integer.signum(rowDiff);
+        int colStep = Integer.signum(colDiff);
+        for (int w = 0; w < words.size(); w++) {
+            if (alreadyFound != null && alreadyFound.get(w)) {
+                continue;
+            }
+            String word = words.get(w);
+            if (word.length() == length
+                    && (matchesLine(word, startRow, startCol, rowStep, colStep)
+                        || matchesLine(word, endRow, endCol, -rowStep, -colStep))) {
+                return w;
+            }
+        }
+        return -1;
+    }
+
+    private boolean matchesLine(String word, int row, int col, int rowStep, int colStep) {
+        for (int i = 0; i < word.length(); i++) {
+            if (grid[row + i * rowStep][col + i * colStep] != word.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    boolean inBounds(int row, int col) {
+        return row >= 0 && row < size && col >= 0 && col < size;
+    }
+
+    // ข้อความสำหรับแสดงผล (grapheme cluster ของช่อง / คำ) - "" สำหรับช่องที่ปิด
+    String cellText(int row, int col) {
+        char code = grid[row][col];
+        return code == BoardMask.BLANK ? "" : alphabet.symbol(code);
+    }
+
+    String displayWord(int index) {
+        return alphabet.decode(words.get(index));
+    }
+
+    // ช่องที่ไม่มีคำผ่าน อ่านจากซ้ายไปขวา บนลงล่าง - ข้อความลับของตาราง HiddenMessageGenerator
+    String leftoverText() {
+        boolean[][] used = new boolean[size][size];
+        for (Placement p : placements) {
+            for (int i = 0; i < p.word.length(); i++) {
+                used[p.row + i * p.rowDir][p.col + i * p.colDir] = true;
+            }
+        }
+        StringBuilder text = new StringBuilder();
+        for (int row = 0; row < size; row++) {
+            for (int col = 0; col < size; col++) {
+                if (!used[row][col] && grid[row][col] != BoardMask.BLANK) {
+                    text.append(grid[row][col]);
+                }
+            }
+        }
+        return alphabet.decode(text.toString());
+    }
+
+    // ช่องที่เป็นส่วนของตาราง (ตารางที่มีรูปทรงมีช่องที่ปิดเป็น BoardMask.BLANK)
+    boolean isOpen(int row, int col) {
+        return inBounds(row, col) && grid[row][col] != BoardMask.BLANK;
+    }
+
+    boolean isShaped() {
+        for (char[] line : grid) {
+            for (char c : line) {
+                if (c == BoardMask.BLANK) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    // ตรวจสอบว่าทุกคำอยู่ในตารางตรงตามตำแหน่งที่บันทึกไว้
+    boolean isConsistent() {
+        for (Placement p : placements) {
+            if (p.row < 0 || p.row >= size || p.col < 0 || p.col >= size
+                    || p.endRow() < 0 || p.endRow() >= size || p.endCol() < 0 || p.endCol() >= size) {
+                return false;
+            }
+            for (int i = 0; i < p.word.length(); i++) {
+                if (grid[p.row + i * p.rowDir][p.col + i * p.colDir] != p.word.charAt(i)) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,286 @@
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import javax.imageio.ImageIO;
+
+// สร้างหนังสือตารางสำหรับพิมพ์จำนวนมากโดยไม่เปิดหน้าต่าง
+//
+// java -Djava.awt.headless=true PuzzleBook <count> <outDir> [EASY|NORMAL|HARD] [--solutions] [--png] [--pdf]
+//      [--threads N] [--seed S] [--cell PX] [--shape heart|star|letter:X|mask.txt|mask.png] [--size N]
+//      [--words thai|words.txt] [--tournament] [--message TEXT]
+//
+// --tournament: <count> รอบที่ไม่มีคำซ้ำกันเลยทั้งชุด (ดู TournamentSet) - ต้องใช้ --words ที่มีคำพอ
+// --message: ช่องที่เหลือหลังหาคำครบอ่านได้ TEXT (ดู HiddenMessageGenerator) - ต้องใช้ --words ที่มีคำยาวพอจะกินช่องที่เหลือ
+// ค่าเริ่มต้นสร้างทั้ง PNG และ PDF; --png หรือ --pdf เลือกอย่างใดอย่างหนึ่ง
+// ตารางสร้างแบบขนานทีละช่วง (window) - หน่วยความจำคงที่ไม่ขึ้นกับจำนวนตาราง
+public class PuzzleBook {
+    private static final int WINDOW_PER_THREAD = 4;
+    // ตารางข้อความลับในหนังสือจำกัดด้วยจำนวนรอบ (ไม่ใช่เวลา) หนังสือจึงสร้างซ้ำได้เหมือนเดิมไม่ว่าเครื่องจะช้าแค่ไหน
+    // ถ้า seed ของหน้าไหนหาไม่ได้ ลอง seed ถัดไปที่ได้จาก seed นั้น (ก็ยังทำซ้ำได้) แทนการหยุดทั้งเล่ม
+    private static final int BOOK_MESSAGE_ATTEMPTS = 2000;
+    private static final int BOOK_MESSAGE_SEEDS = 8;
+
+    // ผลของหนึ่งตารางที่รอเขียนลง PDF ตามลำดับ
+    private static final class Sheet {
+        final PuzzleRenderer.Layout layout;
+        final byte[] puzzlePage;
+        final byte[] solutionPage;
+        final List<String> words;
+
+        Sheet(PuzzleRenderer.Layout layout, byte[] puzzlePage, byte[] solutionPage, List<String> words) {
+            this.layout = layout;
+            this.puzzlePage = puzzlePage;
+            this.solutionPage = solutionPage;
+            this.words = words;
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 2) {
+            System.out.println("Usage: java -Djava.awt.headless=true PuzzleBook <count> <outDir> "
+                + "[EASY|NORMAL|HARD] [--solutions] [--png] [--pdf] [--threads N] [--seed S] [--cell PX] "
+                + "[--shape heart|star|letter:X|mask.txt|mask.png] [--size N] [--words thai|words.txt] [--tournament] "
+                + "[--message TEXT]");
+            return;
+        }
+        int count = Integer.parseInt(args[0]);
+        Path outDir = Paths.get(args[1]);
+        WordSearchGame.DifficultyLevel level = WordSearchGame.DifficultyLevel.NORMAL;
+        boolean solutions = false;
+        boolean png = false;
+        boolean pdf = false;
+        int threads = Runtime.getRuntime().availableProcessors();
+        long seed = 1;
+        int cellSize = 36;
+        String shape = null;
+        String wordSpec = null;
+        boolean tournament = false;
+        String message = null;
+        int size = PuzzleGenerator.DEFAULT_SIZE;
+        for (int i = 2; i < args.length; i++) {
+            switch (args[i]) {
+                case "--solutions": solutions = true; break;
+                case "--png": png = true; break;
+                case "--pdf": pdf = true; break;
+                case "--threads": threads = Integer.parseInt(args[++i]); break;
+                case "--seed": seed = Long.parseLong(args[++i]); break;
+                case "--cell": cellSize = Integer.parseInt(args[++i]); break;
+                case "--shape": shape = args[++i]; break;
+                case "--size": size = Integer.parseInt(args[++i]); break;
+                case "--words": wordSpec = args[++i]; break;
+                case "--tournament": tournament = true; break;
+                case "--message": message = args[++i]; break;
+                default: level = WordSearchGame.DifficultyLevel.valueOf(args[i].toUpperCase());
+            }
+        }
+        if (!png && !pdf) {
+            png = true;
+            pdf = true;
+        }
+        Alphabet.Words words = wordSpec != null ? Alphabet.load(wordSpec)
+            : new Alphabet.Words(Alphabet.LATIN, PuzzleGenerator.DEFAULT_WORDS);
+        if (!words.alphabet.isLatin()) {
+            System.out.println("Words: " + words.alphabet + ", " + words.encoded.size() + " words");
+            if (pdf) {
+                System.out.println("⚠ PDF uses the built-in Helvetica font (A-Z only) - writing PNG only");
+                pdf = false;
+                png = true;
+            }
+        }
+        BoardMask mask = shape != null ? BoardMask.parse(shape, size) : null;
+        if (mask != null) {
+            System.out.println("Shape " + shape + ": " + mask.size + "x" + mask.size + ", " + mask.openCells() + " open cells, "
+                + PuzzleGenerator.shapedWordCount(mask, level.wordCount) + " words per puzzle");
+        }
+        Files.createDirectories(outDir);
+        PuzzleBook book = new PuzzleBook(outDir, level, mask, words, solutions, png, pdf, threads, cellSize);
+        if (tournament) {
+            book.assignTournament(count, seed);
+        }
+        if (message != null) {
+            book.setMessage(message);
+        }
+        book.build(count, seed);
+    }
+
+    private final Path outDir;
+    private final WordSearchGame.DifficultyLevel level;
+    private final BoardMask mask;
+    private final Alphabet.Words words;
+    private final boolean solutions;
+    private final boolean png;
+    private final boolean pdf;
+    private final int threads;
+    private final ThreadLocal<PuzzleRenderer> renderers;
+    private List<List<String>> tournamentWords; // null = ตารางปกติ (ใช้คำซ้ำข้ามตารางได้)
+    private String message; // เข้ารหัสแล้ว, null = เติมตัวอักษรสุ่ม
+
+    PuzzleBook(Path outDir, WordSearchGame.DifficultyLevel level, BoardMask mask, Alphabet.Words words, boolean solutions,
+               boolean png, boolean pdf, int threads, int cellSize) {
+        this.outDir = outDir;
+        this.level = level;
+        this.mask = mask;
+        this.words = words;
+        this.solutions = solutions;
+        this.png = png;
+        this.pdf = pdf;
+        this.threads = Math.max(1, threads);
+        // ภาพหนึ่งชุดต่อ thread ใช้ซ้ำทุกตาราง
+        this.renderers = ThreadLocal.withInitial(() -> new PuzzleRenderer(cellSize));
+    }
+
+    // แบ่งคำให้ทุกรอบก่อนเริ่มสร้าง - ใช้ seed เดียวกับ build จึงได้ชุดเดิมทุกครั้ง
+    void assignTournament(int rounds, long seed) {
+        int perPuzzle = mask != null ? PuzzleGenerator.shapedWordCount(mask, level.wordCount) : level.wordCount;
+        int maxLength = mask != null ? mask.longestRun() : PuzzleGenerator.DEFAULT_SIZE;
+        long start = System.nanoTime();
+        int openCells = mask != null ? mask.openCells() : PuzzleGenerator.DEFAULT_SIZE * PuzzleGenerator.DEFAULT_SIZE;
+        tournamentWords = TournamentSet.assign(words.encoded, rounds, perPuzzle, maxLength, openCells, new Random(~seed));
+        int[] spread = TournamentSet.letterSpread(tournamentWords);
+        System.out.printf("✓ %d rounds x %d words assigned in %.1f ms (%d-%d letters per puzzle)%n",
+            rounds, perPuzzle, (System.nanoTime() - start) / 1e6, spread[0], spread[1]);
+    }
+
+    // ข้อความลับเดียวกันทุกตาราง - ตัดช่องว่างและวรรคตอนที่ไม่อยู่ใน alphabet ออก
+    void setMessage(String text) {
+        message = words.alphabet.encodeKnown(text);
+        if (message.isEmpty()) {
+            throw new IllegalArgumentException("message " + text + " has no " + words.alphabet.name + " symbols");
+        }
+        System.out.println("Hidden message: " + words.alphabet.decode(message) + " (" + message.length() + " cells)");
+    }
+
+    void build(int count, long seed) throws IOException, InterruptedException {
+        ImageIO.setUseCache(false);
+        long start = System.nanoTime();
+        long peakHeap = 0;
+        int window = threads * WINDOW_PER_THREAD;
+        Random seeds = new Random(seed);
+        List<List<String>> placed = new ArrayList<>();
+        ExecutorService pool = Executors.newFixedThreadPool(threads, r -> {
+            Thread thread = new Thread(r, "puzzle-book");
+            thread.setDaemon(true);
+            return thread;
+        });
+        // ตารางเรียงต่อกันในไฟล์หนึ่ง เฉลยแยกอีกไฟล์ (พิมพ์ไว้ท้ายเล่ม)
+        PdfBookWriter book = pdf ? new PdfBookWriter(Files.newOutputStream(outDir.resolve("book.pdf"))) : null;
+        PdfBookWriter answers = pdf && solutions
+            ? new PdfBookWriter(Files.newOutputStream(outDir.resolve("solutions.pdf"))) : null;
+        try {
+            for (int first = 0; first < count; first += window) {
+                int last = Math.min(count, first + window);
+                List<Future<Sheet>> batch = new ArrayList<>(last - first);
+                for (int index = first; index < last; index++) {
+                    // seed ดึงตามลำดับบน thread หลัก - ผลลัพธ์เหมือนเดิมไม่ว่าจะใช้กี่ thread
+                    long puzzleSeed = seeds.nextLong();
+                    int number = index + 1;
+                    batch.add(pool.submit(() -> sheet(number, puzzleSeed)));
+                }
+                for (Future<Sheet> future : batch) {
+                    Sheet sheet = future.get();
+                    if (tournamentWords != null) {
+                        placed.add(sheet.words);
+                    }
+                    if (book != null) {
+                        book.writePage(sheet.layout, sheet.puzzlePage);
+                    }
+                    if (answers != null) {
+                        answers.writePage(sheet.layout, sheet.solutionPage);
+                    }
+                }
+                Runtime runtime = Runtime.getRuntime();
+                peakHeap = Math.max(peakHeap, runtime.totalMemory() - runtime.freeMemory());
+            }
+        } catch (ExecutionException e) {
+            throw new IOException("Puzzle rendering failed", e.getCause());
+        } finally {
+            pool.shutdownNow();
+            if (book != null) {
+                book.close();
+            }
+            if (answers != null) {
+                answers.close();
+            }
+        }
+
+        double seconds = (System.nanoTime() - start) / 1e9;
+        if (tournamentWords != null) {
+            TournamentSet.checkDisjoint(placed);
+            System.out.println("✓ no word repeats across the " + count + " rounds");
+        }
+        System.out.printf("✓ %d %s puzzles in %.1f s (%.0f puzzles/s, %d threads, peak heap ~%d MB)%n",
+            count, level.name(), seconds, count / seconds, threads, peakHeap / (1024 * 1024));
+        if (book != null) {
+            System.out.println("✓ " + outDir.resolve("book.pdf") + " (" + book.pageCount() + " pages)");
+        }
+        if (answers != null) {
+            System.out.println("✓ " + outDir.resolve("solutions.pdf") + " (" + answers.pageCount() + " pages)");
+        }
+    }
+
+    private Sheet sheet(int number, long seed) throws IOException {
+        Puzzle puzzle;
+        if (tournamentWords != null) {
+            puzzle = TournamentSet.generate(level, seed, tournamentWords.get(number - 1), mask, words.alphabet);
+        } else if (message != null) {
+            puzzle = hiddenMessage(number, seed);
+        } else {
+            puzzle = PuzzleGenerator.generateSeeded(level, seed, mask, words);
+        }
+        String title = (tournamentWords != null ? "Round " : "#") + number + "  " + level.displayName;
+        String solutionTitle = title + "  (solution)";
+        PuzzleRenderer renderer = renderers.get();
+        if (png) {
+            writePng(renderer, puzzle, title, false, String.format("puzzle-%05d.png", number));
+            if (solutions) {
+                writePng(renderer, puzzle, solutionTitle, true, String.format("puzzle-%05d-solution.png", number));
+            }
+        }
+        if (!pdf) {
+            return new Sheet(null, null, null, puzzle.words);
+        }
+        PuzzleRenderer.Layout layout = renderer.layout(puzzle);
+        return new Sheet(layout,
+            PdfBookWriter.pageContent(puzzle, layout, title, false),
+            solutions ? PdfBookWriter.pageContent(puzzle, layout, solutionTitle, true) : null, puzzle.words);
+    }
+
+    private Puzzle hiddenMessage(int number, long seed) {
+        int wordCount = mask != null ? PuzzleGenerator.shapedWordCount(mask, level.wordCount) : level.wordCount;
+        for (int retry = 0; retry < BOOK_MESSAGE_SEEDS; retry++) {
+            long attemptSeed = retry == 0 ? seed : PuzzleSpliterator.seedFor(seed, retry);
+            HiddenMessageGenerator generator = new HiddenMessageGenerator(
+                mask != null ? mask.size : PuzzleGenerator.DEFAULT_SIZE, new Random(attemptSeed));
+            generator.setMask(mask);
+            generator.setDirectionPolicy(level.directions);
+            generator.setAlphabet(words.alphabet);
+            Puzzle puzzle = generator.generateWithAttempts(words.encoded, wordCount, message, BOOK_MESSAGE_ATTEMPTS);
+            if (puzzle != null) {
+                if (retry > 0) {
+                    System.out.println("⚠ puzzle " + number + ": hidden message placed with seed #" + (retry + 1));
+                }
+                return puzzle;
+            }
+        }
+        throw new IllegalStateException("puzzle " + number + ": no hidden-message layout found with "
+            + BOOK_MESSAGE_SEEDS + " seeds x " + BOOK_MESSAGE_ATTEMPTS + " attempts");
+    }
+
+    private void writePng(PuzzleRenderer renderer, Puzzle puzzle, String title, boolean solution, String name)
+            throws IOException {
+        File file = outDir.resolve(name).toFile();
+        try (OutputStream out = Files.newOutputStream(file.toPath())) {
+            ImageIO.write(renderer.render(puzzle, title, solution), "png", out);
+        }
+    }
+}
@@ -0,0 +1,140 @@
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.LongAdder;
+
+// กันไม่ให้ตารางซ้ำถูกแจกข้าม pool - ตารางที่หมุนหรือกลับด้านถือว่าซ้ำ
+// ใช้ fingerprint แบบ canonical (ค่าน้อยสุดของ hash ทั้ง 8 สมมาตรของตาราง) ใส่ใน scalable Bloom filter:
+// เมื่อ filter ปัจจุบันเต็มจะเพิ่ม filter ใหม่ที่ใหญ่ขึ้น 2 เท่าและ false-positive rate ครึ่งหนึ่ง
+// (filter แรกได้ครึ่งหนึ่งของค่าที่กำหนด) รวมแล้ว false-positive rate ไม่เกินค่าที่กำหนดไม่ว่าจะใส่ไปกี่ตาราง
+final class PuzzleDeduplicator {
+    static final long DEFAULT_INITIAL_CAPACITY = 1 << 20;
+    static final double DEFAULT_FALSE_POSITIVE_RATE = 0.001;
+
+    // สมมาตรทั้ง 8 ของตารางสี่เหลี่ยม: ช่อง (i, j) ของภาพที่แปลงแล้ว = grid[r0 + i*ri + j*rj][c0 + i*ci + j*cj]
+    // {ri, rj, ci, cj} - จุดเริ่ม r0/c0 เป็น size-1 เมื่อแกนนั้นเดินถอยหลัง
+    private static final int[][] SYMMETRIES = {
+        {1, 0, 0, 1},    // เดิม
+        {0, 1, -1, 0},   // หมุน 90
+        {-1, 0, 0, -1},  // หมุน 180
+        {0, -1, 1, 0},   // หมุน 270
+        {1, 0, 0, -1},   // กลับซ้ายขวา
+        {-1, 0, 0, 1},   // กลับบนล่าง
+        {0, 1, 1, 0},    // transpose
+        {0, -1, -1, 0}   // anti-transpose
+    };
+
+    private final List<BloomFilter> filters = new CopyOnWriteArrayList<>();
+    private final double initialFalsePositiveRate;
+    private final LongAdder duplicates = new LongAdder();
+
+    PuzzleDeduplicator() {
+        this(DEFAULT_INITIAL_CAPACITY, DEFAULT_FALSE_POSITIVE_RATE);
+    }
+
+    PuzzleDeduplicator(long initialCapacity, double falsePositiveRate) {
+        this.initialFalsePositiveRate = falsePositiveRate;
+        filters.add(new BloomFilter(initialCapacity, falsePositiveRate / 2));
+    }
+
+    // hash ของตารางที่เหมือนกันทุกสมมาตร - ใช้ตัวอักษรในตารางเท่านั้น (ตำแหน่งคำกำหนดโดยตัวอักษรอยู่แล้ว)
+    static long fingerprint(char[][] grid) {
+        int size = grid.length;
+        long canonical = Long.MAX_VALUE;
+        for (int[] s : SYMMETRIES) {
+            int r0 = s[0] < 0 || s[1] < 0 ? size - 1 : 0;
+            int c0 = s[2] < 0 || s[3] < 0 ? size - 1 : 0;
+            long hash = 0xCBF29CE484222325L ^ size;
+            for (int i = 0; i < size; i++) {
+                int row = r0 + i * s[0];
+                int col = c0 + i * s[2];
+                for (int j = 0; j < size; j++) {
+                    hash = (hash ^ grid[row][col]) * 0x100000001B3L; // FNV-1a
+                    row += s[1];
+                    col += s[3];
+                }
+            }
+            canonical = Math.min(canonical, BloomFilter.mix(hash));
+        }
+        return canonical;
+    }
+
+    // true ถ้าตารางนี้ (หรือสมมาตรของมัน) ยังไม่เคยผ่านมา - ตารางใหม่อาจถูกปัดตกด้วยโอกาสเท่า falsePositiveRate()
+    boolean firstSeen(Puzzle puzzle) {
+        return firstSeen(fingerprint(puzzle.grid));
+    }
+
+    boolean firstSeen(long fingerprint) {
+        BloomFilter current = filters.get(filters.size() - 1);
+        if (current.size() >= current.capacity()) {
+            current = grow(current);
+        }
+        for (BloomFilter filter : filters) {
+            if (filter != current && filter.mightContain(fingerprint)) {
+                duplicates.increment();
+                return false;
+            }
+        }
+        if (!current.add(fingerprint)) {
+            duplicates.increment();
+            return false;
+        }
+        return true;
+    }
+
+    // ตรวจอย่างเดียวโดยไม่บันทึก
+    boolean mightContain(long fingerprint) {
+        for (BloomFilter filter : filters) {
+            if (filter.mightContain(fingerprint)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private synchronized BloomFilter grow(BloomFilter full) {
+        BloomFilter last = filters.get(filters.size() - 1);
+        if (last != full) {
+            return last; // another thread already grew
+        }
+        double rate = initialFalsePositiveRate / (2L << filters.size());
+        BloomFilter next = new BloomFilter(full.capacity() * 2, rate);
+        filters.add(next);
+        return next;
+    }
+
+    long size() {
+        long total = 0;
+        for (BloomFilter filter : filters) {
+            total += filter.size();
+        }
+        return total;
+    }
+
+    long duplicates() {
+        return duplicates.sum();
+    }
+
+    // โอกาสที่ตารางใหม่จะถูกมองว่าซ้ำ ณ ตอนนี้
+    double falsePositiveRate() {
+        double pass = 1;
+        for (BloomFilter filter : filters) {
+            pass *= 1 - filter.expectedFalsePositiveRate();
+        }
+        return 1 - pass;
+    }
+
+    long memoryBytes() {
+        long total = 0;
+        for (BloomFilter filter : filters) {
+            total += filter.memoryBytes();
+        }
+        return total;
+    }
+
+    String report() {
+        long size = size();
+        return String.format("%,d puzzles, %,d duplicates rejected, %d filters, %,d KB (%.1f bits/puzzle), FPR %.4f%%",
+            size, duplicates(), filters.size(), memoryBytes() / 1024,
+            size == 0 ? 0.0 : memoryBytes() * 8.0 / size, falsePositiveRate() * 100);
+    }
+}
@@ -0,0 +1,135 @@
+// ประเมินความยากของตารางที่สร้างแล้ว (0-100) จากลักษณะที่ผู้เล่นรู้สึกจริง:
+// ทิศทางของคำ, คำกลับหลัง, การซ้อนทับ, ตัวหลอก (ต้นคำปลอม) ในตัวอักษรเติม, ความยาวและจำนวนคำ
+// ทำงานแบบ O(ช่อง x 8 ทิศ) ไม่สร้าง object ระหว่างคำนวณ จึงใช้เวลาระดับไมโครวินาที
+public final class PuzzleDifficulty {
+    // น้ำหนักของแต่ละปัจจัย (รวมกันได้ 1.0)
+    private static final double DIRECTION_WEIGHT = 0.35;
+    private static final double DECOY_WEIGHT = 0.20;
+    private static final double OVERLAP_WEIGHT = 0.10;
+    private static final double LENGTH_WEIGHT = 0.10;
+    private static final double COUNT_WEIGHT = 0.25;
+
+    // จำนวนคำที่ถือว่ายากที่สุด และจำนวนตัวหลอกต่อคำที่ถือว่าเต็มสเกล
+    private static final int MAX_WORD_COUNT = 20;
+    private static final double MAX_DECOYS_PER_WORD = 4.0;
+
+    private static final int[][] DIRECTIONS = {
+        {0, 1}, {1, 0}, {1, 1}, {1, -1}, {0, -1}, {-1, 0}, {-1, 1}, {-1, -1}
+    };
+
+    private PuzzleDifficulty() {
+    }
+
+    public static double score(Puzzle puzzle) {
+        if (puzzle.placements.isEmpty()) {
+            return 0;
+        }
+        return 100 * (DIRECTION_WEIGHT * directionScore(puzzle)
+            + DECOY_WEIGHT * decoyScore(puzzle)
+            + OVERLAP_WEIGHT * overlapScore(puzzle)
+            + LENGTH_WEIGHT * lengthScore(puzzle)
+            + COUNT_WEIGHT * Math.min(1.0, puzzle.placements.size() / (double) MAX_WORD_COUNT));
+    }
+
+    // ความยากตามทิศทาง: แนวนอนง่ายสุด แนวตั้ง แนวทแยง และคำกลับหลังยากขึ้นตามลำดับ
+    static double directionCost(int rowDir, int colDir) {
+        double cost;
+        if (rowDir == 0) {
+            cost = 0.0;          // แนวนอน
+        } else if (colDir == 0) {
+            cost = 0.3;          // แนวตั้ง
+        } else {
+            cost = 0.6;          // แนวทแยง
+        }
+        boolean reversed = colDir < 0 || (colDir == 0 && rowDir < 0);
+        return reversed ? cost + 0.4 : cost;
+    }
+
+    static double directionScore(Puzzle puzzle) {
+        double total = 0;
+        for (Puzzle.Placement p : puzzle.placements) {
+            total += directionCost(p.rowDir, p.colDir);
+        }
+        return total / puzzle.placements.size();
+    }
+
+    // สัดส่วนของช่องคำที่ถูกใช้ร่วมกันมากกว่าหนึ่งคำ
+    static double overlapScore(Puzzle puzzle) {
+        int size = puzzle.size;
+        byte[] cover = new byte[size * size];
+        int wordCells = 0;
+        for (Puzzle.Placement p : puzzle.placements) {
+            for (int i = 0; i < p.word.length(); i++) {
+                int cell = (p.row + i * p.rowDir) * size + p.col + i * p.colDir;
+                if (cover[cell] < Byte.MAX_VALUE) {
+                    cover[cell]++;
+                }
+                wordCells++;
+            }
+        }
+        int shared = 0;
+        for (byte count : cover) {
+            if (count > 1) {
+                shared += count;
+            }
+        }
+        return Math.min(1.0, 2.0 * shared / wordCells);
+    }
+
+    // คำสั้นหายากกว่าคำยาว
+    static double lengthScore(Puzzle puzzle) {
+        double totalLength = 0;
+        for (Puzzle.Placement p : puzzle.placements) {
+            totalLength += p.word.length();
+        }
+        double average = totalLength / puzzle.placements.size();
+        return Math.max(0.0, Math.min(1.0, (puzzle.size - average) / (puzzle.size - 3.0)));
+    }
+
+    // นับจุดที่ตัวอักษรสองตัวแรกของคำเป้าหมายปรากฏในทิศใดก็ได้ แต่ไม่ใช่ตำแหน่งของคำจริง
+    // (alphabet ใหญ่ใช้ prefix แบบ hash - อาจนับเกินเล็กน้อยเมื่อชนกัน)
+    static double decoyScore(Puzzle puzzle) {
+        Alphabet alphabet = puzzle.alphabet;
+        int symbols = alphabet.size();
+        boolean[] prefixes = new boolean[Math.min(symbols * symbols, 1 << 16)];
+        for (Puzzle.Placement p : puzzle.placements) {
+            int first = alphabet.id(p.word.charAt(0));
+            int second = p.word.length() > 1 ? alphabet.id(p.word.charAt(1)) : -1;
+            if (first >= 0 && second >= 0) {
+                prefixes[(first * symbols + second) % prefixes.length] = true;
+            }
+        }
+
+        char[][] grid = puzzle.grid;
+        int size = puzzle.size;
+        int matches = 0;
+        for (int row = 0; row < size; row++) {
+            for (int col = 0; col < size; col++) {
+                int first = alphabet.id(grid[row][col]);
+                if (first < 0) {
+                    continue;
+                }
+                for (int[] dir : DIRECTIONS) {
+                    int r = row + dir[0];
+                    int c = col + dir[1];
+                    if (r < 0 || r >= size || c < 0 || c >= size) {
+                        continue;
+                    }
+                    int second = alphabet.id(grid[r][c]);
+                    if (second >= 0 && prefixes[(first * symbols + second) % prefixes.length]) {
+                        matches++;
+                    }
+                }
+            }
+        }
+        int decoys = Math.max(0, matches - puzzle.placements.size());
+        return Math.min(1.0, decoys / (MAX_DECOYS_PER_WORD * puzzle.placements.size()));
+    }
+
+    // สรุปค่าของแต่ละปัจจัย ใช้ตอน debug/ปรับเทียบ
+    public static String describe(Puzzle puzzle) {
+        return String.format("score %.1f (direction %.2f, decoy %.2f, overlap %.2f, length %.2f, words %d)",
+            score(puzzle), directionScore(puzzle), decoyScore(puzzle), overlapScore(puzzle),
+            lengthScore(puzzle), puzzle.placements.size());
+    }
+}
@@ -0,0 +1,435 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+// ตัวสร้างตารางคำศัพท์ - แยกออกจาก WordSearchGame เพื่อให้รันบน background thread ได้
+// แต่ละ instance ไม่ thread-safe ให้สร้างใหม่ต่อหนึ่งงาน
+public class PuzzleGenerator {
+    static final int DEFAULT_SIZE = 12;
+
+    // ชุดคำทั้งหมดที่มีในตาราง - ธีมคำเกี่ยวกับธรรมชาติและสัตว์
+    static final List<String> DEFAULT_WORDS = Collections.unmodifiableList(Arrays.asList(
+        "OCEAN", "MOUNTAIN", "FOREST", "RIVER", "FLOWER",
+        "BUTTERFLY", "EAGLE", "WHALE", "TIGER", "RAINBOW",
+        "SUNSET", "BEACH", "ISLAND", "DESERT", "VALLEY",
+        "CANYON", "WATERFALL", "DOLPHIN", "SHARK", "CORAL"
+    ));
+
+    private static final char EMPTY = '-';
+
+    // จำนวนตารางสูงสุดที่สร้างเพื่อให้คะแนนความยากอยู่ในช่วงของระดับ ถ้าไม่ได้จะใช้ตารางที่ใกล้ที่สุด
+    static final int MAX_CALIBRATION_ATTEMPTS = 40;
+
+    // ช่องที่เปิดต่อหนึ่งคำของตารางที่มีรูปทรง - ตาราง Hard 12x12 เต็มใช้ราว 7 ช่องต่อคำ แต่รูปทรงมีแนวสั้นกว่า
+    // ถ้าแน่นกว่านี้ตารางส่วนใหญ่วางไม่ครบและต้องสร้างใหม่ (ช้าลงหลายเท่า)
+    static final int OPEN_CELLS_PER_WORD = 9;
+
+    private final int size;
+    private final Random random;
+    private boolean verbose = true;
+    private int calibrationAttempts;
+    // สถิติของ placeWords ครั้งล่าสุด สำหรับ GameEvents.PuzzleGeneration
+    private int retries;
+    private int fallbackPlacements;
+    private String difficultyName = "";
+    private DirectionPolicy directions = DirectionPolicy.ALL;
+    private double decoysPerWord;
+    private BoardMask mask; // null = ตารางสี่เหลี่ยมเต็ม
+    private Alphabet alphabet = Alphabet.LATIN;
+    private char[][] grid;
+    private List<Puzzle.Placement> placements;
+
+    public PuzzleGenerator(int size, Random random) {
+        this.size = size;
+        this.random = random;
+    }
+
+    // ตารางที่สร้างซ้ำได้จาก seed - ทุกเครื่องที่ใช้ seed เดียวกันจะได้ตารางเดียวกัน
+    static Puzzle generateSeeded(WordSearchGame.DifficultyLevel difficulty, long seed) {
+        PuzzleGenerator generator = new PuzzleGenerator(DEFAULT_SIZE, new Random(seed));
+        generator.setVerbose(false);
+        return generator.generateCalibrated(DEFAULT_WORDS, difficulty);
+    }
+
+    // เหมือน generateSeeded แต่ใช้รูปทรง (null = สี่เหลี่ยมเต็มแบบเดิม)
+    static Puzzle generateSeeded(WordSearchGame.DifficultyLevel difficulty, long seed, BoardMask mask) {
+        if (mask == null || mask.isFull() && mask.size == DEFAULT_SIZE) {
+            return generateSeeded(difficulty, seed);
+        }
+        return generateShaped(DEFAULT_WORDS, difficulty, mask, new Random(seed));
+    }
+
+    // ชุดคำของ alphabet อื่น (เช่น Alphabet.load("thai"))
+    static Puzzle generateSeeded(WordSearchGame.DifficultyLevel difficulty, long seed, BoardMask mask, Alphabet.Words words) {
+        if (words.alphabet.isLatin() && words.encoded.equals(DEFAULT_WORDS)) {
+            return generateSeeded(difficulty, seed, mask);
+        }
+        if (mask != null && !(mask.isFull() && mask.size == DEFAULT_SIZE)) {
+            return generateShaped(words.encoded, difficulty, mask, words.alphabet, new Random(seed));
+        }
+        PuzzleGenerator generator = new PuzzleGenerator(DEFAULT_SIZE, new Random(seed));
+        generator.setVerbose(false);
+        generator.setAlphabet(words.alphabet);
+        return generator.generateCalibrated(words.encoded, difficulty);
+    }
+
+    // ตาราง lazy ไม่จำกัดจำนวน (ใช้คู่กับ limit) - ลำดับที่ i ได้ตารางเดิมเสมอทั้งแบบ sequential และ parallel
+    // เช่น PuzzleGenerator.stream(DifficultyLevel.HARD, seed).parallel().limit(1_000_000)
+    static Stream<Puzzle> stream(WordSearchGame.DifficultyLevel difficulty, long seed) {
+        return stream(difficulty, seed, null, new Alphabet.Words(Alphabet.LATIN, DEFAULT_WORDS));
+    }
+
+    static Stream<Puzzle> stream(WordSearchGame.DifficultyLevel difficulty, long seed, BoardMask mask, Alphabet.Words words) {
+        return StreamSupport.stream(new PuzzleSpliterator(difficulty, seed, mask, words, 0, Long.MAX_VALUE), false);
+    }
+
+    // ตารางที่มีรูปทรง - ไม่ผ่าน generateCalibrated เพราะช่วงคะแนนปรับเทียบไว้กับตาราง 12x12 เต็ม
+    // จำนวนคำจำกัดตามช่องที่เปิด ไม่อย่างนั้นรูปเล็กจะลองใหม่จนครบ maxRetries ทุกครั้ง
+    static Puzzle generateShaped(Collection<String> candidateWords, WordSearchGame.DifficultyLevel difficulty,
+                                 BoardMask mask, Random random) {
+        return generateShaped(candidateWords, difficulty, mask, Alphabet.LATIN, random);
+    }
+
+    static Puzzle generateShaped(Collection<String> candidateWords, WordSearchGame.DifficultyLevel difficulty,
+                                 BoardMask mask, Alphabet alphabet, Random random) {
+        PuzzleGenerator generator = new PuzzleGenerator(mask.size, random);
+        generator.setVerbose(false);
+        generator.setMask(mask);
+        generator.setAlphabet(alphabet);
+        generator.setDirectionPolicy(difficulty.directions);
+        generator.setDecoysPerWord(difficulty.decoysPerWord);
+        generator.setDifficultyName(difficulty.name);
+        return generator.generate(candidateWords, shapedWordCount(mask, difficulty.wordCount));
+    }
+
+    static int shapedWordCount(BoardMask mask, int requested) {
+        return Math.max(1, Math.min(requested, mask.openCells() / OPEN_CELLS_PER_WORD));
+    }
+
+    // ปิด log ของการสร้างตาราง (ใช้ตอนสร้างจำนวนมาก เช่น server หรือ benchmark)
+    public void setVerbose(boolean verbose) {
+        this.verbose = verbose;
+    }
+
+    // กำหนดทิศที่อนุญาตให้วางคำ (ทั้งการสุ่มและการบังคับวาง)
+    public void setDirectionPolicy(DirectionPolicy directions) {
+        this.directions = directions;
+    }
+
+    // รูปทรงของตาราง - ช่องที่ปิดเป็น BoardMask.BLANK ในตารางที่สร้าง (null = สี่เหลี่ยมเต็ม)
+    public void setMask(BoardMask mask) {
+        if (mask != null && mask.size != size) {
+            throw new IllegalArgumentException("mask is " + mask.size + "x" + mask.size + ", grid is " + size + "x" + size);
+        }
+        this.mask = mask != null && mask.isFull() ? null : mask;
+    }
+
+    // สัญลักษณ์ของตัวเติม - คำที่ส่งให้ generate ต้องเข้ารหัสด้วย alphabet เดียวกัน
+    public void setAlphabet(Alphabet alphabet) {
+        this.alphabet = alphabet;
+    }
+
+    // จำนวนต้นคำหลอกที่วางในช่องว่างต่อหนึ่งคำเป้าหมาย (0 = ไม่มี)
+    public void setDecoysPerWord(double decoysPerWord) {
+        this.decoysPerWord = decoysPerWord;
+    }
+
+    // ชื่อระดับใน JFR event (generateCalibrated ตั้งให้เอง)
+    public void setDifficultyName(String difficultyName) {
+        this.difficultyName = difficultyName;
+    }
+
+    // จำนวนตารางที่สร้างในการเรียก generateCalibrated ครั้งล่าสุด
+    public int getCalibrationAttempts() {
+        return calibrationAttempts;
+    }
+
+    // สร้างซ้ำจนคะแนน PuzzleDifficulty อยู่ในช่วงของระดับ - ตารางที่ไม่ผ่านถูกทิ้ง
+    public Puzzle generateCalibrated(Collection<String> candidateWords, WordSearchGame.DifficultyLevel difficulty) {
+        Puzzle closest = null;
+        double closestDistance = Double.MAX_VALUE;
+        boolean wasVerbose = verbose;
+        verbose = false;
+        directions = difficulty.directions;
+        decoysPerWord = difficulty.decoysPerWord;
+        difficultyName = difficulty.name;
+        GameEvents.PuzzleGeneration event = new GameEvents.PuzzleGeneration();
+        event.begin();
+        int totalRetries = 0;
+        int totalFallbacks = 0;
+        try {
+            for (calibrationAttempts = 1; calibrationAttempts <= MAX_CALIBRATION_ATTEMPTS; calibrationAttempts++) {
+                Puzzle puzzle = placeWords(candidateWords, difficulty.wordCount);
+                totalRetries += retries;
+                totalFallbacks += fallbackPlacements;
+                double score = PuzzleDifficulty.score(puzzle);
+                if (difficulty.acceptsScore(score)) {
+                    closest = puzzle;
+                    break;
+                }
+                double distance = score < difficulty.minScore ? difficulty.minScore - score : score - difficulty.maxScore;
+                if (distance < closestDistance) {
+                    closest = puzzle;
+                    closestDistance = distance;
+                }
+                if (Thread.currentThread().isInterrupted()) {
+                    break;
+                }
+            }
+        } finally {
+            verbose = wasVerbose;
+        }
+        calibrationAttempts = Math.min(calibrationAttempts, MAX_CALIBRATION_ATTEMPTS);
+        event.end();
+        if (event.shouldCommit()) {
+            describe(event, difficulty.wordCount, closest, calibrationAttempts);
+            event.retries = totalRetries;
+            event.fallbackPlacements = totalFallbacks;
+            event.commit();
+        }
+        log("✓ สร้างตาราง " + difficulty.name + " ความยาก " + String.format("%.1f", PuzzleDifficulty.score(closest))
+            + " (ช่วง " + (int) difficulty.minScore + "-" + (int) difficulty.maxScore + ", สร้าง " + calibrationAttempts + " ครั้ง)");
+        return closest;
+    }
+
+    public Puzzle generate(Collection<String> candidateWords, int targetWords) {
+        GameEvents.PuzzleGeneration event = new GameEvents.PuzzleGeneration();
+        event.begin();
+        Puzzle puzzle = placeWords(candidateWords, targetWords);
+        event.end();
+        if (event.shouldCommit()) {
+            describe(event, targetWords, puzzle, 1);
+            event.retries = retries;
+            event.fallbackPlacements = fallbackPlacements;
+            event.commit();
+        }
+        return puzzle;
+    }
+
+    private void describe(GameEvents.PuzzleGeneration event, int targetWords, Puzzle puzzle, int attempts) {
+        event.difficulty = difficultyName;
+        event.gridSize = size;
+        event.shaped = mask != null;
+        event.targetWords = targetWords;
+        event.placedWords = puzzle != null ? puzzle.words.size() : 0;
+        event.attempts = attempts;
+    }
+
+    private Puzzle placeWords(Collection<String> candidateWords, int targetWords) {
+        fallbackPlacements = 0;
+        int maxRetries = 50; // เพิ่มจำนวนครั้งในการลองใหม่
+        int retryCount = 0;
+        boolean success = false;
+
+        // พยายามสร้างตารางจนกว่าจะได้คำครบตามจำนวนที่ต้องการ
+        while (retryCount < maxRetries && !success) {
+            // หยุดถ้างานถูกยกเลิก (เช่น ผู้เล่นออกจากหน้าเกม)
+            if (Thread.currentThread().isInterrupted()) {
+                break;
+            }
+
+            // สร้างตารางว่างเปล่าโดยใช้ตัวอักษรพิเศษเพื่อแสดงว่ายังไม่ได้ใช้
+            placements = new ArrayList<>();
+            if (mask != null) {
+                // ช่องที่ปิดเป็น BLANK ตั้งแต่ต้น - ตัวเติมและตัวหลอกเขียนเฉพาะช่อง EMPTY
+                grid = mask.emptyGrid(EMPTY);
+            } else {
+                grid = new char[size][size];
+
+                // เติมด้วย '-' เพื่อแสดงว่ายังไม่ได้ใช้งาน
+                for (int i = 0; i < size; i++) {
+                    for (int j = 0; j < size; j++) {
+                        grid[i][j] = EMPTY;
+                    }
+                }
+            }
+
+            List<String> availableWords = new ArrayList<>(candidateWords);
+            Collections.shuffle(availableWords, random);
+
+            // ลำดับความสำคัญในการวาง: วางคำยาวก่อน
+            availableWords.sort((a, b) -> b.length() - a.length());
+
+            // พยายามวางคำให้ได้ตามจำนวนเป้าหมาย - เพิ่มจำนวนครั้งที่พยายามวางแต่ละคำ
+            for (String word : availableWords) {
+                if (placements.size() >= targetWords) {
+                    break;
+                }
+                placeWordInGridWithRetry(word, 500); // เพิ่มเป็น 500 ครั้ง
+            }
+
+            // ถ้าวางได้น้อยกว่าเป้าหมาย ให้พยายามวางอีกรอบด้วยวิธีบังคับวาง
+            if (placements.size() < targetWords) {
+                // สุ่มใหม่เพื่อลองคำอื่น
+                Collections.shuffle(availableWords, random);
+
+                for (String word : availableWords) {
+                    if (placements.size() >= targetWords) {
+                        break;
+                    }
+                    if (!isPlaced(word) && word.length() <= longestLine()) {
+                        if (forcePlacement(word)) {
+                            fallbackPlacements++;
+                        }
+                    }
+                }
+            }
+
+            // ถ้าวางได้ครบแล้ว ถึงค่อยเติมช่องว่างด้วยตัวอักษรสุ่มตามความถี่ (และตัวหลอกถ้าเปิดไว้)
+            // ถ้าคำที่วางซ้อนกันบังเอิญประกอบเป็นคำเป้าหมายซ้ำ ต้องสร้างใหม่ทั้งตาราง
+            boolean clean = false;
+            if (placements.size() >= targetWords) {
+                clean = fillGrid();
+                if (!clean) {
+                    log("⚠ พบคำเป้าหมายซ้ำจากคำที่ซ้อนกัน - สร้างตารางใหม่");
+                }
+            }
+
+            // ถ้าวางได้ครบแล้ว ออกจาก loop
+            if (clean) {
+                success = true;
+                log("✓ สร้างตารางสำเร็จ! วางคำได้ " + placements.size() + " คำ");
+                break;
+            }
+
+            // ถ้าวางไม่ครบ ลองใหม่
+            retryCount++;
+            if (retryCount < maxRetries) {
+                log("พยายามครั้งที่ " + (retryCount + 1) + " - วางได้เพียง " + placements.size() + "/" + targetWords + " คำ");
+            }
+        }
+
+        // ตรวจสอบว่าวางคำครบหรือไม่ - ถ้าไม่ครบใช้ตารางสุดท้ายที่มี
+        if (!success) {
+            log("⚠ เตือน: วางคำได้เพียง " + placements.size() + " จาก " + targetWords + " คำที่ต้องการ");
+            fillGrid();
+        }
+
+        retries = retryCount;
+        return new Puzzle(grid, placements, alphabet);
+    }
+
+    private boolean fillGrid() {
+        return LetterFiller.fill(grid, EMPTY, placements, decoysPerWord, alphabet, random);
+    }
+
+    private void log(String message) {
+        if (verbose) {
+            System.out.println(message);
+        }
+    }
+
+    // คำที่ยาวที่สุดที่ตารางนี้รับได้
+    private int longestLine() {
+        return mask != null ? mask.longestRun() : size;
+    }
+
+    private boolean isPlaced(String word) {
+        for (Puzzle.Placement p : placements) {
+            if (p.word.equals(word)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void placeWord(String word, int startRow, int startCol, int rowDir, int colDir) {
+        for (int i = 0; i < word.length(); i++) {
+            grid[startRow + i * rowDir][startCol + i * colDir] = word.charAt(i);
+        }
+        placements.add(new Puzzle.Placement(word, startRow, startCol, rowDir, colDir));
+    }
+
+    // บังคับวางเมื่อวิธีสุ่มไม่ได้ผล: ไล่ทิศที่นโยบายอนุญาตตามลำดับสุ่มถ่วงน้ำหนักแบบเดียวกับ sampleDirection
+    // และไล่จุดเริ่มจากช่องสุ่ม - ถ้าไล่ทิศ/ช่องตามลำดับตายตัว คำที่วางด้วยวิธีนี้จะเอียงไปทางแนวนอนและมุมซ้ายบน
+    private boolean forcePlacement(String word) {
+        for (int d : directions.sampleOrder(random)) {
+            int rowDir = DirectionPolicy.DIRECTIONS[d][0];
+            int colDir = DirectionPolicy.DIRECTIONS[d][1];
+            if (mask != null) {
+                // เฉพาะ slot ที่คำอยู่ในช่องเปิดทั้งคำ
+                int count = mask.slotCount(rowDir, colDir, word.length());
+                int offset = count > 0 ? random.nextInt(count) : 0;
+                for (int i = 0; i < count; i++) {
+                    int cell = mask.slot(rowDir, colDir, (offset + i) % count);
+                    if (canPlaceWord(word, cell / size, cell % size, rowDir, colDir)) {
+                        placeWord(word, cell / size, cell % size, rowDir, colDir);
+                        return true;
+                    }
+                }
+                continue;
+            }
+            int cells = size * size;
+            int offset = random.nextInt(cells);
+            for (int i = 0; i < cells; i++) {
+                int cell = (offset + i) % cells;
+                if (canPlaceWord(word, cell / size, cell % size, rowDir, colDir)) {
+                    placeWord(word, cell / size, cell % size, rowDir, colDir);
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    // เมธอดสำหรับวางคำพร้อมการลองหลายครั้ง
+    private boolean placeWordInGridWithRetry(String word, int maxAttempts) {
+        if (word.length() > longestLine()) {
+            return false;
+        }
+        for (int attempts = 0; attempts < maxAttempts; attempts++) {
+            // สุ่มทิศตามนโยบาย แล้วสุ่มจุดเริ่มเฉพาะช่องที่คำไม่ล้นตาราง (หรือไม่ล้นรูปทรง)
+            int[] dir = directions.sampleDirection(random);
+            int startRow;
+            int startCol;
+            if (mask != null) {
+                int cell = mask.sampleStart(dir[0], dir[1], word.length(), random);
+                if (cell < 0) {
+                    continue; // ทิศนี้ไม่มีแนวที่ยาวพอ
+                }
+                startRow = cell / size;
+                startCol = cell % size;
+            } else {
+                startRow = DirectionPolicy.sampleStart(dir[0], word.length(), size, random);
+                startCol = DirectionPolicy.sampleStart(dir[1], word.length(), size, random);
+            }
+
+            // ตรวจสอบว่าวางคำได้หรือไม่ (ชนกับตัวอักษรที่วางไว้แล้ว)
+            if (canPlaceWord(word, startRow, startCol, dir[0], dir[1])) {
+                placeWord(word, startRow, startCol, dir[0], dir[1]);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean canPlaceWord(String word, int startRow, int startCol, int rowDir, int colDir) {
+        // ตรวจสอบว่าคำจะออกนอกตารางหรือไม่
+        int endRow = startRow + (word.length() - 1) * rowDir;
+        int endCol = startCol + (word.length() - 1) * colDir;
+
+        if (endRow < 0 || endRow >= size || endCol < 0 || endCol >= size) {
+            return false;
+        }
+        if (mask != null && !mask.fits(startRow, startCol, rowDir, colDir, word.length())) {
+            return false;
+        }
+
+        // ตรวจสอบว่าช่องว่างพอหรือไม่ (ยอมให้ทับกันถ้าตัวอักษรเหมือนกัน หรือเป็นช่องว่าง)
+        for (int i = 0; i < word.length(); i++) {
+            char existingChar = grid[startRow + i * rowDir][startCol + i * colDir];
+
+            // อนุญาตถ้าช่องว่าง (-) หรือตัวอักษรเหมือนกัน
+            if (existingChar != EMPTY && existingChar != word.charAt(i)) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+}
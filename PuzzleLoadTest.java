@@ -0,0 +1,150 @@
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+// ทดสอบโหลดของ PuzzleService บน localhost - client แต่ละตัวส่งคำขอทีละครั้ง (closed loop)
+// สัดส่วนคำขอ: 60% ตารางใหม่ตามระดับ (pool), 30% seed ที่ถูกขอบ่อย (cache), 10% seed ใหม่ (สร้างทันที)
+//
+// java PuzzleLoadTest [clients] [seconds] [host port]   (ไม่ใส่ host จะเปิด service ในโปรเซสเดียวกัน)
+public class PuzzleLoadTest {
+    private static final int HOT_SEEDS = 64;
+
+    private static final WordSearchGame.DifficultyLevel[] LEVELS = WordSearchGame.DifficultyLevel.values();
+
+    // ผลของ client หนึ่งตัว - รวมกันตอนจบ
+    private static final class ClientResult {
+        final LatencyHistogram byLevel = new LatencyHistogram();
+        final LatencyHistogram hotSeed = new LatencyHistogram();
+        final LatencyHistogram coldSeed = new LatencyHistogram();
+        long errors;
+        long bytes;
+    }
+
+    public static void main(String[] args) throws Exception {
+        int clients = args.length > 0 ? Integer.parseInt(args[0]) : 64;
+        int seconds = args.length > 1 ? Integer.parseInt(args[1]) : 10;
+        if (!Boolean.getBoolean("sun.net.httpserver.nodelay")) {
+            System.out.println("⚠ -Dsun.net.httpserver.nodelay=true is not set - keep-alive latency includes ~40 ms delayed ACKs");
+        }
+
+        PuzzleService embedded = null;
+        String base;
+        if (args.length > 3) {
+            base = "http://" + args[2] + ":" + args[3];
+        } else {
+            embedded = new PuzzleService(0, PuzzleService.DEFAULT_POOL_SIZE, PuzzleService.DEFAULT_CACHE_SIZE);
+            embedded.start();
+            base = "http://127.0.0.1:" + embedded.getPort();
+            System.out.println("Embedded service on " + base + " ("
+                + (embedded.usesVirtualThreads() ? "virtual" : "platform") + " threads), filling pools ...");
+            if (!embedded.awaitPools(2, TimeUnit.MINUTES)) {
+                System.out.println("⚠ Pools not full after 2 minutes, measuring anyway");
+            }
+        }
+
+        // HttpURLConnection เก็บ connection ไว้ใช้ซ้ำแค่ 5 ตัวต่อ host โดยค่าเริ่มต้น
+        System.setProperty("http.maxConnections", Integer.toString(clients));
+        System.out.println("Running " + clients + " clients against " + base + " for " + seconds + " s");
+        new PuzzleLoadTest().run(base, clients, seconds);
+
+        if (embedded != null) {
+            System.out.println(embedded.statsReport());
+            embedded.stop();
+        }
+    }
+
+    private void run(String base, int clients, int seconds) throws Exception {
+        long[] hotSeeds = new long[HOT_SEEDS];
+        Random seedSource = new Random(7);
+        for (int i = 0; i < HOT_SEEDS; i++) {
+            hotSeeds[i] = seedSource.nextLong();
+        }
+
+        ExecutorService executor = GameTaskScheduler.createExecutor("load-client");
+        long start = System.nanoTime();
+        long end = start + TimeUnit.SECONDS.toNanos(seconds);
+        List<Future<ClientResult>> futures = new ArrayList<>(clients);
+        for (int i = 0; i < clients; i++) {
+            int id = i;
+            futures.add(executor.submit(() -> client(base, id, hotSeeds, end)));
+        }
+        ClientResult total = new ClientResult();
+        for (Future<ClientResult> future : futures) {
+            ClientResult result = future.get();
+            total.byLevel.merge(result.byLevel);
+            total.hotSeed.merge(result.hotSeed);
+            total.coldSeed.merge(result.coldSeed);
+            total.errors += result.errors;
+            total.bytes += result.bytes;
+        }
+        executor.shutdownNow();
+        report(total, (System.nanoTime() - start) / 1e9);
+    }
+
+    private static ClientResult client(String base, int id, long[] hotSeeds, long end) {
+        ClientResult result = new ClientResult();
+        Random random = new Random(id);
+        byte[] buffer = new byte[16 * 1024];
+        while (System.nanoTime() < end) {
+            WordSearchGame.DifficultyLevel level = LEVELS[random.nextInt(LEVELS.length)];
+            int kind = random.nextInt(10);
+            LatencyHistogram histogram;
+            String path = "/puzzle?level=" + level.name();
+            if (kind < 6) {
+                histogram = result.byLevel;
+            } else if (kind < 9) {
+                histogram = result.hotSeed;
+                path += "&seed=" + hotSeeds[random.nextInt(HOT_SEEDS)];
+            } else {
+                histogram = result.coldSeed;
+                path += "&seed=" + random.nextLong();
+            }
+            long sentAt = System.nanoTime();
+            try {
+                result.bytes += fetch(base + path, buffer);
+                histogram.record(System.nanoTime() - sentAt);
+            } catch (IOException e) {
+                result.errors++;
+            }
+        }
+        return result;
+    }
+
+    // อ่าน body จนหมดเพื่อให้ connection กลับไปใช้ซ้ำได้ (keep-alive)
+    private static long fetch(String url, byte[] buffer) throws IOException {
+        HttpURLConnection connection = (HttpURLConnection) new URL(url).openConnection();
+        int status = connection.getResponseCode();
+        if (status != 200) {
+            throw new IOException("HTTP " + status);
+        }
+        long read = 0;
+        try (InputStream in = connection.getInputStream()) {
+            int n;
+            while ((n = in.read(buffer)) > 0) {
+                read += n;
+            }
+        }
+        return read;
+    }
+
+    private static void report(ClientResult total, double seconds) {
+        long requests = total.byLevel.samples() + total.hotSeed.samples() + total.coldSeed.samples();
+        LatencyHistogram all = new LatencyHistogram();
+        all.merge(total.byLevel);
+        all.merge(total.hotSeed);
+        all.merge(total.coldSeed);
+        System.out.printf("Requests: %d in %.1f s -> %.0f req/s (%.1f MB/s), errors: %d%n",
+            requests, seconds, requests / seconds, total.bytes / seconds / (1024 * 1024), total.errors);
+        System.out.println("All        : " + all.summary());
+        System.out.println("By level   : " + total.byLevel.summary());
+        System.out.println("Hot seed   : " + total.hotSeed.summary());
+        System.out.println("Cold seed  : " + total.coldSeed.summary());
+    }
+}
@@ -0,0 +1,113 @@
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+// ตารางแบบ Flow.Publisher สำหรับผู้รับที่ดึงทีละชุด (เกมเองไม่ใช้คลาสนี้)
+// ตารางลำดับเดียวกับ PuzzleGenerator.stream (seed ต่อ index เดียวกัน) และสร้างเฉพาะเมื่อผู้รับ request เท่านั้น
+// - ผู้รับช้าไม่ทำให้ตารางค้างในหน่วยความจำ แต่ละ subscriber เริ่มจาก index 0 ของตัวเอง
+public final class PuzzlePublisher implements Flow.Publisher<Puzzle> {
+    private final WordSearchGame.DifficultyLevel difficulty;
+    private final long seed;
+    private final BoardMask mask;
+    private final Alphabet.Words words;
+    private final long count;
+    private final Executor executor;
+
+    // count ตาราง (Long.MAX_VALUE = ไม่รู้จบ) สร้างบน executor
+    PuzzlePublisher(WordSearchGame.DifficultyLevel difficulty, long seed, BoardMask mask, Alphabet.Words words,
+                    long count, Executor executor) {
+        this.difficulty = difficulty;
+        this.seed = seed;
+        this.mask = mask;
+        this.words = words;
+        this.count = count;
+        this.executor = executor;
+    }
+
+    PuzzlePublisher(WordSearchGame.DifficultyLevel difficulty, long seed, long count) {
+        this(difficulty, seed, null, new Alphabet.Words(Alphabet.LATIN, PuzzleGenerator.DEFAULT_WORDS), count,
+            GameTaskScheduler.createExecutor("puzzle-publisher"));
+    }
+
+    @Override
+    public void subscribe(Flow.Subscriber<? super Puzzle> subscriber) {
+        if (subscriber == null) {
+            throw new NullPointerException("subscriber");
+        }
+        Subscription subscription = new Subscription(subscriber);
+        subscriber.onSubscribe(subscription);
+    }
+
+    // ส่งสัญญาณทีละตัวเสมอ: มี drain loop ได้ครั้งละหนึ่งตัว (wip) ที่รันบน executor
+    private final class Subscription implements Flow.Subscription {
+        private final Flow.Subscriber<? super Puzzle> subscriber;
+        private final AtomicLong demand = new AtomicLong();
+        private final AtomicInteger wip = new AtomicInteger();
+        private volatile boolean cancelled;
+        private volatile Throwable badRequest;
+        private long next; // ใช้ใน drain loop เท่านั้น
+
+        Subscription(Flow.Subscriber<? super Puzzle> subscriber) {
+            this.subscriber = subscriber;
+        }
+
+        @Override
+        public void request(long n) {
+            if (n <= 0) {
+                badRequest = new IllegalArgumentException("request must be positive (rule 3.9): " + n);
+            } else {
+                demand.getAndAccumulate(n, (current, added) -> current + added < 0 ? Long.MAX_VALUE : current + added);
+            }
+            drain();
+        }
+
+        @Override
+        public void cancel() {
+            cancelled = true;
+        }
+
+        private void drain() {
+            if (wip.getAndIncrement() == 0) {
+                executor.execute(this::run);
+            }
+        }
+
+        private void run() {
+            int missed = 1;
+            do {
+                if (cancelled) {
+                    return;
+                }
+                if (badRequest != null) {
+                    cancelled = true;
+                    subscriber.onError(badRequest);
+                    return;
+                }
+                long requested = demand.get();
+                long emitted = 0;
+                while (emitted != requested && next < count && !cancelled) {
+                    Puzzle puzzle;
+                    try {
+                        puzzle = PuzzleSpliterator.generate(difficulty, seed, mask, words, next++);
+                    } catch (RuntimeException e) {
+                        cancelled = true;
+                        subscriber.onError(e);
+                        return;
+                    }
+                    subscriber.onNext(puzzle);
+                    emitted++;
+                }
+                if (next >= count && !cancelled) {
+                    cancelled = true;
+                    subscriber.onComplete();
+                    return;
+                }
+                if (emitted != 0 && requested != Long.MAX_VALUE) {
+                    demand.addAndGet(-emitted);
+                }
+                missed = wip.addAndGet(-missed);
+            } while (missed != 0);
+        }
+    }
+}
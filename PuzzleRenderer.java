@@ -0,0 +1,197 @@
+import java.awt.BasicStroke;
+import java.awt.Color;
+import java.awt.Font;
+import java.awt.FontMetrics;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+
+// วาดตารางสำหรับพิมพ์ (ตาราง + รายการคำ + เฉลยถ้าต้องการ) โดยไม่ใช้ JFrame - รันแบบ java.awt.headless=true ได้
+// ตำแหน่งทุกอย่างคำนวณใน Layout ชุดเดียว ใช้ร่วมกันทั้ง PNG และ PDF (1 px = 1 pt)
+// แต่ละ instance ไม่ thread-safe (ใช้ภาพซ้ำ) ให้มีหนึ่งตัวต่อ thread
+public class PuzzleRenderer {
+    // สไตล์เส้นเฉลยเดียวกับ highlight ของคำที่พบในเกม
+    static final float HIGHLIGHT_STROKE_RATIO = 0.6f;
+    static final int HIGHLIGHT_ALPHA = 180;
+
+    // สีสำหรับคำที่พบ - หลากหลายสี
+    static final Color[] WORD_COLORS = {
+        new Color(255, 200, 200),  // ชมพูอ่อน
+        new Color(200, 255, 200),  // เขียวอ่อน
+        new Color(200, 220, 255),  // ฟ้าอ่อน
+        new Color(255, 255, 180),  // เหลืองอ่อน
+        new Color(255, 220, 200),  // ส้มอ่อน
+        new Color(230, 200, 255),  // ม่วงอ่อน
+        new Color(200, 255, 255),  // เขียวน้ำทะเลอ่อน
+        new Color(255, 200, 255),  // ชมพูม่วง
+        new Color(220, 255, 220),  // เขียวมิ้นต์
+        new Color(255, 230, 200),  // พีช
+        new Color(200, 240, 255),  // ฟ้าน้ำทะเล
+        new Color(255, 210, 230),  // ชมพูโรส
+        new Color(230, 255, 200)   // เขียวมะนาว
+    };
+
+    static final int WORD_COLUMNS = 3;
+    private static final Color GRID_LINE = new Color(190, 190, 190);
+
+    // เส้นไฮไลต์หนึ่งคำจากกลางช่องแรกถึงกลางช่องสุดท้าย (ใช้ทั้งหน้าเกมและตอนพิมพ์)
+    static void strokeWord(Graphics2D g, Color color, int cellSize, int x1, int y1, int x2, int y2) {
+        g.setColor(new Color(color.getRed(), color.getGreen(), color.getBlue(), HIGHLIGHT_ALPHA));
+        g.setStroke(new BasicStroke(cellSize * HIGHLIGHT_STROKE_RATIO, BasicStroke.CAP_ROUND, BasicStroke.JOIN_ROUND));
+        g.drawLine(x1, y1, x2, y2);
+    }
+
+    // ===== LAYOUT =====
+    static final class Layout {
+        final int cellSize;
+        final int margin;
+        final int titleHeight;
+        final int gridX;
+        final int gridY;
+        final int gridPixels;
+        final int listY;
+        final int rowHeight;
+        final int columnWidth;
+        final int width;
+        final int height;
+        final float letterSize;
+        final float listSize;
+
+        Layout(int gridSize, int wordCount, int cellSize) {
+            this.cellSize = cellSize;
+            this.margin = cellSize;
+            this.titleHeight = cellSize;
+            this.gridPixels = gridSize * cellSize;
+            this.gridX = margin;
+            this.gridY = margin + titleHeight;
+            this.rowHeight = Math.round(cellSize * 0.6f);
+            this.listY = gridY + gridPixels + cellSize / 2;
+            this.columnWidth = gridPixels / WORD_COLUMNS;
+            int rows = (wordCount + WORD_COLUMNS - 1) / WORD_COLUMNS;
+            this.width = gridPixels + 2 * margin;
+            this.height = listY + rows * rowHeight + margin;
+            this.letterSize = cellSize * 0.55f;
+            this.listSize = cellSize * 0.4f;
+        }
+
+        int cellCenterX(int col) {
+            return gridX + col * cellSize + cellSize / 2;
+        }
+
+        int cellCenterY(int row) {
+            return gridY + row * cellSize + cellSize / 2;
+        }
+
+        // baseline ของคำที่ index ในรายการ (เรียงลงตามคอลัมน์)
+        int wordX(int index, int wordCount) {
+            int rows = (wordCount + WORD_COLUMNS - 1) / WORD_COLUMNS;
+            return gridX + (index / rows) * columnWidth;
+        }
+
+        int wordY(int index, int wordCount) {
+            int rows = (wordCount + WORD_COLUMNS - 1) / WORD_COLUMNS;
+            return listY + (index % rows + 1) * rowHeight;
+        }
+    }
+
+    private final int cellSize;
+    private BufferedImage image;
+    private Font letterFont;
+    private Font listFont;
+    private Font titleFont;
+
+    public PuzzleRenderer(int cellSize) {
+        this.cellSize = cellSize;
+    }
+
+    Layout layout(Puzzle puzzle) {
+        return new Layout(puzzle.size, puzzle.words.size(), cellSize);
+    }
+
+    // วาดลงภาพที่ใช้ซ้ำระหว่างการเรียก (สร้างใหม่เฉพาะเมื่อขนาดเปลี่ยน) - ภาพที่คืนจะถูกเขียนทับในครั้งถัดไป
+    public BufferedImage render(Puzzle puzzle, String title, boolean solution) {
+        Layout layout = layout(puzzle);
+        if (image == null || image.getWidth() != layout.width || image.getHeight() != layout.height) {
+            image = new BufferedImage(layout.width, layout.height, BufferedImage.TYPE_INT_RGB);
+            letterFont = new Font(Font.SANS_SERIF, Font.BOLD, Math.round(layout.letterSize));
+            listFont = new Font(Font.SANS_SERIF, Font.PLAIN, Math.round(layout.listSize));
+            titleFont = new Font(Font.SANS_SERIF, Font.BOLD, Math.round(layout.letterSize));
+        }
+        Graphics2D g = image.createGraphics();
+        try {
+            g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+            g.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+            g.setColor(Color.WHITE);
+            g.fillRect(0, 0, layout.width, layout.height);
+            draw(g, puzzle, layout, title, solution);
+        } finally {
+            g.dispose();
+        }
+        return image;
+    }
+
+    private void draw(Graphics2D g, Puzzle puzzle, Layout layout, String title, boolean solution) {
+        g.setColor(Color.BLACK);
+        g.setFont(titleFont);
+        g.drawString(title, layout.gridX, layout.margin + layout.titleHeight / 2);
+
+        if (solution) {
+            for (int i = 0; i < puzzle.placements.size(); i++) {
+                Puzzle.Placement p = puzzle.placements.get(i);
+                strokeWord(g, WORD_COLORS[i % WORD_COLORS.length], layout.cellSize,
+                    layout.cellCenterX(p.col), layout.cellCenterY(p.row),
+                    layout.cellCenterX(p.endCol()), layout.cellCenterY(p.endRow()));
+            }
+        }
+
+        g.setStroke(new BasicStroke(1f));
+        g.setColor(GRID_LINE);
+        boolean shaped = puzzle.isShaped();
+        if (shaped) {
+            // ตารางที่มีรูปทรง - กรอบเฉพาะช่องที่เปิด
+            for (int row = 0; row < puzzle.size; row++) {
+                for (int col = 0; col < puzzle.size; col++) {
+                    if (puzzle.isOpen(row, col)) {
+                        g.drawRect(layout.gridX + col * layout.cellSize, layout.gridY + row * layout.cellSize,
+                            layout.cellSize, layout.cellSize);
+                    }
+                }
+            }
+        } else {
+            for (int i = 0; i <= puzzle.size; i++) {
+                int offset = i * layout.cellSize;
+                g.drawLine(layout.gridX, layout.gridY + offset, layout.gridX + layout.gridPixels, layout.gridY + offset);
+                g.drawLine(layout.gridX + offset, layout.gridY, layout.gridX + offset, layout.gridY + layout.gridPixels);
+            }
+        }
+
+        g.setColor(Color.BLACK);
+        g.setFont(letterFont);
+        FontMetrics metrics = g.getFontMetrics();
+        int ascent = metrics.getAscent() - metrics.getDescent();
+        boolean latin = puzzle.alphabet.isLatin();
+        char[] letter = new char[1];
+        for (int row = 0; row < puzzle.size; row++) {
+            for (int col = 0; col < puzzle.size; col++) {
+                letter[0] = puzzle.grid[row][col];
+                if (letter[0] == BoardMask.BLANK) {
+                    continue;
+                }
+                int y = layout.cellCenterY(row) + ascent / 2;
+                if (latin) {
+                    g.drawChars(letter, 0, 1, layout.cellCenterX(col) - metrics.charWidth(letter[0]) / 2, y);
+                } else {
+                    // grapheme cluster ของ alphabet อื่น (อาจมีสระ/วรรณยุกต์ซ้อน)
+                    String text = puzzle.cellText(row, col);
+                    g.drawString(text, layout.cellCenterX(col) - metrics.stringWidth(text) / 2, y);
+                }
+            }
+        }
+
+        g.setFont(listFont);
+        int wordCount = puzzle.words.size();
+        for (int i = 0; i < wordCount; i++) {
+            g.drawString(puzzle.displayWord(i), layout.wordX(i, wordCount), layout.wordY(i, wordCount));
+        }
+    }
+}
@@ -0,0 +1,384 @@
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+// HTTP service ให้ frontend ขอตาราง (JSON) - ใช้ com.sun.net.httpserver ที่มากับ JDK
+//
+// GET /puzzle?level=HARD            ตารางใหม่จาก pool ที่สร้างไว้ล่วงหน้าของระดับนั้น
+// GET /puzzle?level=HARD&seed=42    ตารางจาก seed (สร้างซ้ำได้) ผ่าน LRU cache
+// GET /stats                        สถิติ pool, cache และตารางซ้ำที่ถูกกรอง
+//
+// request รันบน virtual thread (Java 21+) ส่วนการสร้างตารางเติม pool ใช้ thread pool ขนาดเท่าจำนวน CPU
+// java PuzzleService [port] [pool-per-level] [cache-entries]
+//
+// ควรรันด้วย -Dsun.net.httpserver.nodelay=true: header กับ body ถูกเขียนแยกกัน ถ้าไม่ปิด Nagle ทุก response
+// บน keep-alive จะค้างรอ delayed ACK ~40 ms - ต้องเป็น launch flag เพราะ JDK อ่านค่านี้ครั้งเดียวตอนโหลด
+// config ของ HTTP server (ตั้ง System property ในโค้ดทีหลังไม่มีผลถ้า server ตัวอื่นถูกสร้างไปแล้ว)
+public class PuzzleService {
+    static final int DEFAULT_POOL_SIZE = 32;
+    static final int DEFAULT_CACHE_SIZE = 1024;
+
+    // ตารางซ้ำติดกันเกินจำนวนนี้ (เช่นระดับง่ายที่มีตารางให้สร้างได้ไม่มาก) จะยอมแจกตารางซ้ำ
+    private static final int MAX_DUPLICATE_RETRIES = 8;
+
+    private static final WordSearchGame.DifficultyLevel[] LEVELS = WordSearchGame.DifficultyLevel.values();
+
+    private final HttpServer server;
+    private final ExecutorService handlers;
+    private final ExecutorService generators;
+    private final int poolSize;
+    private final List<BlockingQueue<Entry>> pools;
+    private final AtomicInteger[] refilling;
+    private final SeedCache cache;
+    private final PuzzleDeduplicator deduplicator = new PuzzleDeduplicator();
+
+    // สถิติ
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder poolHits = new LongAdder();
+    private final LongAdder poolMisses = new LongAdder();
+    private final LongAdder cacheHits = new LongAdder();
+    private final LongAdder cacheMisses = new LongAdder();
+    private final LongAdder generated = new LongAdder();
+
+    // ตารางที่ serialize เป็น JSON แล้ว - ส่งซ้ำได้โดยไม่ต้องแปลงใหม่
+    private static final class Entry {
+        final long seed;
+        final byte[] json;
+
+        Entry(long seed, byte[] json) {
+            this.seed = seed;
+            this.json = json;
+        }
+    }
+
+    private static final class Key {
+        final int level;
+        final long seed;
+
+        Key(int level, long seed) {
+            this.level = level;
+            this.seed = seed;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Key && ((Key) o).level == level && ((Key) o).seed == seed;
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * level + Long.hashCode(seed);
+        }
+    }
+
+    // LinkedHashMap แบบ access order - เข้าถึงผ่าน synchronized เท่านั้น
+    private static final class SeedCache extends LinkedHashMap<Key, byte[]> {
+        private static final long serialVersionUID = 1L;
+
+        private final int capacity;
+
+        SeedCache(int capacity) {
+            super(capacity * 4 / 3 + 1, 0.75f, true);
+            this.capacity = capacity;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Key, byte[]> eldest) {
+            return size() > capacity;
+        }
+    }
+
+    public PuzzleService(int port, int poolSize, int cacheSize) throws IOException {
+        this.poolSize = poolSize;
+        this.pools = new ArrayList<>(LEVELS.length);
+        this.refilling = new AtomicInteger[LEVELS.length];
+        for (int i = 0; i < LEVELS.length; i++) {
+            pools.add(new ArrayBlockingQueue<>(Math.max(1, poolSize)));
+            refilling[i] = new AtomicInteger();
+        }
+        this.cache = new SeedCache(cacheSize);
+        this.handlers = GameTaskScheduler.createExecutor("puzzle-http");
+        AtomicInteger counter = new AtomicInteger();
+        this.generators = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors(), r -> {
+            Thread t = new Thread(r, "puzzle-pool-" + counter.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+        this.server = HttpServer.create(new InetSocketAddress(port), 1024);
+        server.setExecutor(handlers);
+        server.createContext("/puzzle", this::handlePuzzle);
+        server.createContext("/stats", this::handleStats);
+    }
+
+    public void start() {
+        for (WordSearchGame.DifficultyLevel level : LEVELS) {
+            refill(level);
+        }
+        server.start();
+    }
+
+    public void stop() {
+        server.stop(0);
+        handlers.shutdownNow();
+        generators.shutdownNow();
+    }
+
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    public boolean usesVirtualThreads() {
+        return !(handlers instanceof ThreadPoolExecutor);
+    }
+
+    // รอจน pool ทุกระดับเต็ม (ใช้ก่อนเริ่มวัดผลใน load test)
+    public boolean awaitPools(long timeout, TimeUnit unit) throws InterruptedException {
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        for (BlockingQueue<Entry> pool : pools) {
+            while (pool.size() < poolSize) {
+                if (System.nanoTime() > deadline) {
+                    return false;
+                }
+                Thread.sleep(10);
+            }
+        }
+        return true;
+    }
+
+    public String statsReport() {
+        StringBuilder pooled = new StringBuilder();
+        for (int i = 0; i < LEVELS.length; i++) {
+            pooled.append(i == 0 ? "" : ", ").append(LEVELS[i].name()).append('=').append(pools.get(i).size());
+        }
+        int cached;
+        synchronized (cache) {
+            cached = cache.size();
+        }
+        return "Puzzle service: requests=" + requests.sum()
+            + ", pool hits=" + poolHits.sum() + ", pool misses=" + poolMisses.sum()
+            + ", cache hits=" + cacheHits.sum() + ", cache misses=" + cacheMisses.sum()
+            + ", generated=" + generated.sum() + ", pooled [" + pooled + "], cached=" + cached
+            + "\nDedup: " + deduplicator.report();
+    }
+
+    // ===== HANDLERS =====
+    private void handlePuzzle(HttpExchange exchange) throws IOException {
+        try {
+            requests.increment();
+            if (!"GET".equals(exchange.getRequestMethod())) {
+                send(exchange, 405, "text/plain", "GET only\n".getBytes(StandardCharsets.UTF_8), null);
+                return;
+            }
+            String levelParam = null;
+            String seedParam = null;
+            String query = exchange.getRequestURI().getRawQuery();
+            if (query != null) {
+                for (String pair : query.split("&")) {
+                    int eq = pair.indexOf('=');
+                    String name = eq < 0 ? pair : pair.substring(0, eq);
+                    String value = eq < 0 ? "" : pair.substring(eq + 1);
+                    if (name.equals("level")) {
+                        levelParam = value;
+                    } else if (name.equals("seed")) {
+                        seedParam = value;
+                    }
+                }
+            }
+
+            WordSearchGame.DifficultyLevel level;
+            long seed = 0;
+            try {
+                level = levelParam == null
+                    ? WordSearchGame.DifficultyLevel.NORMAL
+                    : WordSearchGame.DifficultyLevel.valueOf(levelParam.toUpperCase());
+                if (seedParam != null) {
+                    seed = Long.parseLong(seedParam);
+                }
+            } catch (IllegalArgumentException e) {
+                send(exchange, 400, "text/plain",
+                    ("bad request: " + e.getMessage() + "\n").getBytes(StandardCharsets.UTF_8), null);
+                return;
+            }
+
+            if (seedParam != null) {
+                send(exchange, 200, "application/json", bySeed(level, seed), null);
+            } else {
+                Entry entry = fromPool(level);
+                send(exchange, 200, "application/json", entry.json, entry.seed);
+            }
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private void handleStats(HttpExchange exchange) throws IOException {
+        try {
+            send(exchange, 200, "text/plain", (statsReport() + "\n").getBytes(StandardCharsets.UTF_8), null);
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private void send(HttpExchange exchange, int status, String contentType, byte[] body, Long seed)
+            throws IOException {
+        exchange.getResponseHeaders().set("Content-Type", contentType);
+        if (seed != null) {
+            exchange.getResponseHeaders().set("X-Puzzle-Seed", Long.toString(seed));
+        }
+        exchange.sendResponseHeaders(status, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    // ===== POOL AND CACHE =====
+    // ตารางใหม่: หยิบจาก pool แล้วสั่งเติม ถ้า pool ว่าง (โหลดสูงเกินกว่าที่เติมทัน) สร้างบน thread ของ request เอง
+    private Entry fromPool(WordSearchGame.DifficultyLevel level) {
+        Entry entry = pools.get(level.ordinal()).poll();
+        refill(level);
+        if (entry != null) {
+            poolHits.increment();
+        } else {
+            poolMisses.increment();
+            entry = fresh(level);
+        }
+        // ผู้เล่นอาจขอตารางเดิมอีกครั้งด้วย seed (เช่นเริ่มใหม่หรือแชร์ให้เพื่อน)
+        synchronized (cache) {
+            cache.put(new Key(level.ordinal(), entry.seed), entry.json);
+        }
+        return entry;
+    }
+
+    // ตารางจาก seed - สองคำขอ seed เดียวกันพร้อมกันอาจสร้างซ้ำ แต่ได้ผลเหมือนกันเสมอ
+    private byte[] bySeed(WordSearchGame.DifficultyLevel level, long seed) {
+        Key key = new Key(level.ordinal(), seed);
+        byte[] json;
+        synchronized (cache) {
+            json = cache.get(key);
+        }
+        if (json != null) {
+            cacheHits.increment();
+            return json;
+        }
+        cacheMisses.increment();
+        json = generate(level, seed).json;
+        synchronized (cache) {
+            cache.put(key, json);
+        }
+        return json;
+    }
+
+    private void refill(WordSearchGame.DifficultyLevel level) {
+        BlockingQueue<Entry> pool = pools.get(level.ordinal());
+        AtomicInteger inFlight = refilling[level.ordinal()];
+        while (pool.size() + inFlight.get() < poolSize) {
+            inFlight.incrementAndGet();
+            try {
+                generators.execute(() -> {
+                    try {
+                        pool.offer(fresh(level));
+                    } finally {
+                        inFlight.decrementAndGet();
+                    }
+                });
+            } catch (RuntimeException e) {
+                inFlight.decrementAndGet(); // shutting down
+                return;
+            }
+        }
+    }
+
+    // ตารางใหม่ที่ไม่ซ้ำ (รวมถึงที่หมุน/กลับด้าน) กับตารางใดที่เคยเข้า pool - ใช้ dedup ร่วมกันทุกระดับ
+    private Entry fresh(WordSearchGame.DifficultyLevel level) {
+        long seed = 0;
+        Puzzle puzzle = null;
+        for (int attempt = 0; attempt <= MAX_DUPLICATE_RETRIES; attempt++) {
+            seed = ThreadLocalRandom.current().nextLong();
+            puzzle = PuzzleGenerator.generateSeeded(level, seed);
+            generated.increment();
+            if (deduplicator.firstSeen(puzzle)) {
+                break;
+            }
+        }
+        return entry(level, seed, puzzle);
+    }
+
+    private Entry generate(WordSearchGame.DifficultyLevel level, long seed) {
+        Puzzle puzzle = PuzzleGenerator.generateSeeded(level, seed);
+        generated.increment();
+        return entry(level, seed, puzzle);
+    }
+
+    private static Entry entry(WordSearchGame.DifficultyLevel level, long seed, Puzzle puzzle) {
+        return new Entry(seed, toJson(level, seed, puzzle).getBytes(StandardCharsets.UTF_8));
+    }
+
+    // ===== JSON =====
+    static String toJson(WordSearchGame.DifficultyLevel level, long seed, Puzzle puzzle) {
+        StringBuilder json = new StringBuilder(512 + puzzle.size * puzzle.size);
+        json.append("{\"level\":\"").append(level.name())
+            .append("\",\"seed\":").append(seed)
+            .append(",\"size\":").append(puzzle.size)
+            .append(",\"difficulty\":").append(String.format(Locale.ROOT, "%.1f", PuzzleDifficulty.score(puzzle)))
+            .append(",\"grid\":[");
+        for (int row = 0; row < puzzle.size; row++) {
+            json.append(row == 0 ? "\"" : ",\"").append(puzzle.grid[row]).append('"');
+        }
+        json.append("],\"words\":[");
+        for (int i = 0; i < puzzle.placements.size(); i++) {
+            Puzzle.Placement p = puzzle.placements.get(i);
+            json.append(i == 0 ? "{" : ",{")
+                .append("\"word\":\"").append(escape(p.word))
+                .append("\",\"row\":").append(p.row)
+                .append(",\"col\":").append(p.col)
+                .append(",\"rowDir\":").append(p.rowDir)
+                .append(",\"colDir\":").append(p.colDir)
+                .append('}');
+        }
+        return json.append("]}").toString();
+    }
+
+    private static String escape(String text) {
+        StringBuilder escaped = new StringBuilder(text.length());
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == '"' || c == '\\') {
+                escaped.append('\\').append(c);
+            } else if (c < 0x20) {
+                escaped.append(String.format("\\u%04x", (int) c));
+            } else {
+                escaped.append(c);
+            }
+        }
+        return escaped.toString();
+    }
+
+    public static void main(String[] args) throws IOException {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : 8080;
+        int poolSize = args.length > 1 ? Integer.parseInt(args[1]) : DEFAULT_POOL_SIZE;
+        int cacheSize = args.length > 2 ? Integer.parseInt(args[2]) : DEFAULT_CACHE_SIZE;
+        PuzzleService service = new PuzzleService(port, poolSize, cacheSize);
+        service.start();
+        System.out.println("Puzzle service listening on http://localhost:" + service.getPort()
+            + "/puzzle (" + (service.usesVirtualThreads() ? "virtual" : "platform") + " threads, pool "
+            + poolSize + " per level, cache " + cacheSize + ")");
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> System.out.println(service.statsReport())));
+    }
+}
@@ -0,0 +1,80 @@
+import java.util.Spliterator;
+import java.util.function.Consumer;
+
+// แหล่งตารางแบบ lazy สำหรับ Stream<Puzzle> (ดู PuzzleGenerator.stream) - ตารางลำดับที่ i สร้างจาก seedFor(seed, i)
+// ไม่มีสถานะร่วมระหว่างตาราง ผลจึงเหมือนกันทุกครั้งไม่ว่าจะแบ่งงานขนานแบบไหนหรือกี่ thread
+// แบ่งครึ่งช่วง index ทุกครั้งที่ trySplit (SIZED/SUBSIZED) - limit()/skip() ของ parallel stream ตัดช่วงได้ตรง
+// โดยไม่สร้างตารางเกิน และ fork-join ขโมยงานช่วงที่เหลือได้เมื่อบางตารางใช้เวลาสร้างนานกว่าปกติ
+final class PuzzleSpliterator implements Spliterator<Puzzle> {
+    private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+
+    private final WordSearchGame.DifficultyLevel difficulty;
+    private final long seed;
+    private final BoardMask mask;
+    private final Alphabet.Words words;
+    private long index;
+    private final long end;
+
+    PuzzleSpliterator(WordSearchGame.DifficultyLevel difficulty, long seed, BoardMask mask, Alphabet.Words words,
+                      long from, long end) {
+        this.difficulty = difficulty;
+        this.seed = seed;
+        this.mask = mask;
+        this.words = words;
+        this.index = from;
+        this.end = end;
+    }
+
+    // seed ของตารางลำดับที่ index (SplitMix64) - seed ที่ติดกันได้ค่าที่ไม่สัมพันธ์กัน
+    static long seedFor(long seed, long index) {
+        long z = seed + (index + 1) * GOLDEN_GAMMA;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    // ตารางลำดับที่ index ของ stream - เรียกตรง ๆ ได้โดยไม่ต้องเดิน stream
+    static Puzzle generate(WordSearchGame.DifficultyLevel difficulty, long seed, BoardMask mask,
+                           Alphabet.Words words, long index) {
+        return PuzzleGenerator.generateSeeded(difficulty, seedFor(seed, index), mask, words);
+    }
+
+    @Override
+    public boolean tryAdvance(Consumer<? super Puzzle> action) {
+        if (index >= end) {
+            return false;
+        }
+        action.accept(generate(difficulty, seed, mask, words, index++));
+        return true;
+    }
+
+    @Override
+    public void forEachRemaining(Consumer<? super Puzzle> action) {
+        long last = end;
+        for (long i = index; i < last; i++) {
+            index = i + 1;
+            action.accept(generate(difficulty, seed, mask, words, i));
+        }
+    }
+
+    @Override
+    public Spliterator<Puzzle> trySplit() {
+        long from = index;
+        long middle = from + (end - from) / 2;
+        if (middle <= from) {
+            return null;
+        }
+        index = middle;
+        return new PuzzleSpliterator(difficulty, seed, mask, words, from, middle);
+    }
+
+    @Override
+    public long estimateSize() {
+        return end - index;
+    }
+
+    @Override
+    public int characteristics() {
+        return ORDERED | SIZED | SUBSIZED | NONNULL | IMMUTABLE;
+    }
+}
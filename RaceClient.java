@@ -0,0 +1,175 @@
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import javax.swing.SwingUtilities;
+
+// client ของโหมดแข่งสำหรับเกม Swing - ต่อ RaceServer ด้วย SocketChannel แบบ blocking
+// thread อ่านหนึ่งตัวต่อการเชื่อมต่อ แปลง frame แล้วเรียก Listener บน EDT ผ่าน SwingUtilities.invokeLater
+// (เกมมีการเชื่อมต่อเดียว จึงไม่ต้องใช้ selector แบบ RaceLoadTest)
+final class RaceClient {
+    // ทุก method ถูกเรียกบน EDT
+    interface Listener {
+        void welcomed(int playerId);
+
+        void roundStarted(int roundId, WordSearchGame.DifficultyLevel difficulty, long seed);
+
+        void claimResult(int seq, int status, int wordIndex);
+
+        // คำที่ถูกพบ (รวมคำของผู้เล่นเอง) - playerIds[i] พบ wordIndexes[i]
+        void wordsFound(int[] playerIds, int[] wordIndexes);
+
+        void roundOver(int roundId, int winnerId);
+
+        // การเชื่อมต่อหลุด (ไม่เรียกหลัง close())
+        void disconnected(Throwable error);
+    }
+
+    private final SocketChannel channel;
+    private final Listener listener;
+    private final ByteBuffer in = ByteBuffer.allocate(RaceProtocol.MAX_FRAME * 2);
+    // เขียนจาก thread ของ GameTaskScheduler - ใช้ร่วมกันภายใต้ lock ของ out
+    private final ByteBuffer out = ByteBuffer.allocate(RaceProtocol.MAX_FRAME);
+    private int nextSeq;
+    private volatile boolean closed;
+
+    private RaceClient(SocketChannel channel, Listener listener) {
+        this.channel = channel;
+        this.listener = listener;
+    }
+
+    // address เป็น host:port - เชื่อมต่อ ส่ง HELLO แล้วเริ่ม thread อ่าน (blocking - เรียกนอก EDT)
+    static RaceClient connect(String address, String playerName, Listener listener) throws IOException {
+        int colon = address.lastIndexOf(':');
+        if (colon <= 0) {
+            throw new IllegalArgumentException("race address must be host:port, got '" + address + "'");
+        }
+        String host = address.substring(0, colon);
+        int port = Integer.parseInt(address.substring(colon + 1));
+        SocketChannel channel = SocketChannel.open(new InetSocketAddress(host, port));
+        channel.socket().setTcpNoDelay(true);
+        RaceClient client = new RaceClient(channel, listener);
+        synchronized (client.out) {
+            RaceProtocol.writeHello(client.out, playerName);
+            client.flush();
+        }
+        Thread reader = new Thread(client::readLoop, "race-reader");
+        reader.setDaemon(true);
+        reader.start();
+        return client;
+    }
+
+    // ส่ง claim ของเส้นที่ลาก คืน seq ที่ใช้ (blocking - เรียกนอก EDT)
+    int claim(int roundId, int startRow, int startCol, int endRow, int endCol) throws IOException {
+        synchronized (out) {
+            nextSeq = (nextSeq + 1) & 0xFFFF;
+            RaceProtocol.writeClaim(out, nextSeq, roundId, startRow, startCol, endRow, endCol);
+            flush();
+            return nextSeq;
+        }
+    }
+
+    void close() {
+        closed = true;
+        try {
+            channel.close();
+        } catch (IOException ignored) {
+            // already closing
+        }
+    }
+
+    // channel เป็น blocking - write คืนเมื่อเขียนครบหรือ error
+    private void flush() throws IOException {
+        out.flip();
+        while (out.hasRemaining()) {
+            channel.write(out);
+        }
+        out.clear();
+    }
+
+    private void readLoop() {
+        try {
+            while (!closed) {
+                if (channel.read(in) < 0) {
+                    throw new EOFException("server closed the connection");
+                }
+                in.flip();
+                int length;
+                while ((length = RaceProtocol.nextFrameLength(in)) > 0) {
+                    int frameEnd = in.position() + RaceProtocol.LENGTH_BYTES + length;
+                    in.position(in.position() + RaceProtocol.LENGTH_BYTES);
+                    handleFrame(in.get(), length);
+                    in.position(frameEnd);
+                }
+                in.compact();
+            }
+        } catch (IOException | RuntimeException e) {
+            if (!closed) {
+                close();
+                SwingUtilities.invokeLater(() -> listener.disconnected(e));
+            }
+        }
+    }
+
+    // length คือความยาว frame (รวมไบต์ชนิด) - frame ที่สั้นกว่าที่ชนิดนั้นต้องการถือว่าเสีย
+    // ชนิดที่ไม่รู้จักข้ามไป (server รุ่นใหม่อาจส่ง frame เพิ่ม)
+    private void handleFrame(byte type, int length) {
+        switch (type) {
+            case RaceProtocol.WELCOME: {
+                requireLength(type, length, 3);
+                int playerId = in.getShort() & 0xFFFF;
+                SwingUtilities.invokeLater(() -> listener.welcomed(playerId));
+                break;
+            }
+            case RaceProtocol.ROUND: {
+                requireLength(type, length, 14);
+                int roundId = in.getInt();
+                int ordinal = in.get() & 0xFF;
+                long seed = in.getLong();
+                WordSearchGame.DifficultyLevel[] levels = WordSearchGame.DifficultyLevel.values();
+                if (ordinal >= levels.length) {
+                    throw new IllegalStateException("unknown difficulty " + ordinal);
+                }
+                SwingUtilities.invokeLater(() -> listener.roundStarted(roundId, levels[ordinal], seed));
+                break;
+            }
+            case RaceProtocol.CLAIM_RESULT: {
+                requireLength(type, length, 5);
+                int seq = in.getShort() & 0xFFFF;
+                int status = in.get() & 0xFF;
+                int wordIndex = in.get() & 0xFF;
+                SwingUtilities.invokeLater(() -> listener.claimResult(seq, status, wordIndex));
+                break;
+            }
+            case RaceProtocol.FOUND_BATCH: {
+                requireLength(type, length, 2);
+                int count = in.get() & 0xFF;
+                requireLength(type, length, 2 + count * 3);
+                int[] playerIds = new int[count];
+                int[] wordIndexes = new int[count];
+                for (int i = 0; i < count; i++) {
+                    playerIds[i] = in.getShort() & 0xFFFF;
+                    wordIndexes[i] = in.get() & 0xFF;
+                }
+                SwingUtilities.invokeLater(() -> listener.wordsFound(playerIds, wordIndexes));
+                break;
+            }
+            case RaceProtocol.ROUND_OVER: {
+                requireLength(type, length, 7);
+                int roundId = in.getInt();
+                int winnerId = in.getShort() & 0xFFFF;
+                SwingUtilities.invokeLater(() -> listener.roundOver(roundId, winnerId));
+                break;
+            }
+            default:
+                break;
+        }
+    }
+
+    private static void requireLength(byte type, int length, int needed) {
+        if (length < needed) {
+            throw new IllegalStateException("short frame type " + type + " (" + length + " bytes)");
+        }
+    }
+}
@@ -0,0 +1,231 @@
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// ทดสอบโหลดของ RaceServer - จำลองบอทหลายพันตัวบน localhost ด้วย selector เดียว
+// บอทแต่ละตัวส่ง claim ทีละครั้ง (closed loop) แล้ววัดเวลาตั้งแต่ส่งจนได้ผลลัพธ์
+//
+// java RaceLoadTest [bots] [seconds] [host port]   (ไม่ใส่ host จะเปิด server ในโปรเซสเดียวกัน)
+public class RaceLoadTest {
+    private final LatencyHistogram latency = new LatencyHistogram();
+    private long accepted;
+    private long rejected;
+    private long broadcastFrames;
+    private final Map<Long, Puzzle> puzzles = new HashMap<>();
+
+    private static final class Bot {
+        final int id;
+        final SocketChannel channel;
+        final Random random;
+        final ByteBuffer in = ByteBuffer.allocate(16 * 1024);
+        final ByteBuffer out = ByteBuffer.allocate(256);
+        SelectionKey key;
+        boolean welcomed;
+        boolean waiting;
+        int roundId;
+        Puzzle puzzle;
+        int seq;
+        long sentAt;
+
+        Bot(int id, SocketChannel channel) {
+            this.id = id;
+            this.channel = channel;
+            this.random = new Random(id);
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        int botCount = args.length > 0 ? Integer.parseInt(args[0]) : 2000;
+        int seconds = args.length > 1 ? Integer.parseInt(args[1]) : 10;
+
+        RaceServer embedded = null;
+        String host;
+        int port;
+        if (args.length > 3) {
+            host = args[2];
+            port = Integer.parseInt(args[3]);
+        } else {
+            embedded = new RaceServer(0, WordSearchGame.DifficultyLevel.HARD, 42L);
+            Thread serverThread = new Thread(embedded, "race-server");
+            serverThread.setDaemon(true);
+            serverThread.start();
+            host = "127.0.0.1";
+            port = embedded.getPort();
+        }
+
+        System.out.println("Connecting " + botCount + " bots to " + host + ":" + port + " ...");
+        new RaceLoadTest().run(new InetSocketAddress(host, port), botCount, seconds);
+
+        if (embedded != null) {
+            System.out.println(embedded.statsReport());
+            embedded.stop();
+        }
+    }
+
+    private void run(InetSocketAddress address, int botCount, int seconds) throws IOException {
+        Selector selector = Selector.open();
+        List<Bot> bots = new ArrayList<>(botCount);
+        for (int i = 0; i < botCount; i++) {
+            SocketChannel channel = SocketChannel.open();
+            channel.configureBlocking(false);
+            channel.socket().setTcpNoDelay(true);
+            Bot bot = new Bot(i, channel);
+            bot.key = channel.register(selector, SelectionKey.OP_CONNECT, bot);
+            channel.connect(address);
+            bots.add(bot);
+        }
+
+        ArrayDeque<Bot> ready = new ArrayDeque<>();
+        int welcomed = 0;
+        long measureStart = 0;
+        long measureEnd = Long.MAX_VALUE;
+
+        while (System.nanoTime() < measureEnd) {
+            selector.select(10);
+            Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+            while (keys.hasNext()) {
+                SelectionKey key = keys.next();
+                keys.remove();
+                Bot bot = (Bot) key.attachment();
+                if (key.isConnectable()) {
+                    bot.channel.finishConnect();
+                    key.interestOps(SelectionKey.OP_READ);
+                    RaceProtocol.writeHello(bot.out, "bot-" + bot.id);
+                    write(bot);
+                    continue;
+                }
+                if (key.isWritable()) {
+                    write(bot);
+                }
+                if (key.isReadable()) {
+                    boolean wasWelcomed = bot.welcomed;
+                    if (!read(bot)) {
+                        key.cancel();
+                        continue;
+                    }
+                    if (!wasWelcomed && bot.welcomed) {
+                        welcomed++;
+                        if (welcomed == botCount) {
+                            // ทุกบอทพร้อมแล้ว เริ่มวัดผล
+                            measureStart = System.nanoTime();
+                            measureEnd = measureStart + TimeUnit.SECONDS.toNanos(seconds);
+                            System.out.println("All bots connected, measuring for " + seconds + " s");
+                            ready.addAll(bots);
+                        }
+                    } else if (measureStart != 0 && !bot.waiting) {
+                        ready.add(bot);
+                    }
+                }
+            }
+
+            Bot bot;
+            while ((bot = ready.poll()) != null) {
+                sendClaim(bot);
+            }
+        }
+
+        long elapsed = System.nanoTime() - measureStart;
+        report(elapsed);
+        for (Bot b : bots) {
+            b.channel.close();
+        }
+        selector.close();
+    }
+
+    // อ่าน frame จาก server - คืน false ถ้าการเชื่อมต่อปิด
+    private boolean read(Bot bot) throws IOException {
+        if (bot.channel.read(bot.in) < 0) {
+            return false;
+        }
+        bot.in.flip();
+        int length;
+        while ((length = RaceProtocol.nextFrameLength(bot.in)) > 0) {
+            int frameEnd = bot.in.position() + RaceProtocol.LENGTH_BYTES + length;
+            bot.in.position(bot.in.position() + RaceProtocol.LENGTH_BYTES);
+            byte type = bot.in.get();
+            switch (type) {
+                case RaceProtocol.WELCOME:
+                    break;
+                case RaceProtocol.ROUND:
+                    bot.roundId = bot.in.getInt();
+                    int difficulty = bot.in.get();
+                    long seed = bot.in.getLong();
+                    bot.puzzle = puzzles.computeIfAbsent(seed, s -> PuzzleGenerator.generateSeeded(
+                        WordSearchGame.DifficultyLevel.values()[difficulty], s));
+                    bot.welcomed = true;
+                    break;
+                case RaceProtocol.CLAIM_RESULT:
+                    bot.in.getShort();
+                    int status = bot.in.get();
+                    latency.record(System.nanoTime() - bot.sentAt);
+                    if (status == RaceProtocol.RESULT_ACCEPTED) {
+                        accepted++;
+                    } else {
+                        rejected++;
+                    }
+                    bot.waiting = false;
+                    break;
+                default:
+                    broadcastFrames++;
+                    break;
+            }
+            bot.in.position(frameEnd);
+        }
+        bot.in.compact();
+        return true;
+    }
+
+    // ส่ง claim ถัดไป: ส่วนใหญ่เป็นคำจริงในตาราง (อาจถูกคนอื่นเจอไปแล้ว) ที่เหลือเป็นเส้นสุ่ม
+    private void sendClaim(Bot bot) throws IOException {
+        Puzzle puzzle = bot.puzzle;
+        int startRow, startCol, endRow, endCol;
+        if (bot.random.nextInt(10) < 6) {
+            Puzzle.Placement p = puzzle.placements.get(bot.random.nextInt(puzzle.placements.size()));
+            boolean reversed = bot.random.nextBoolean();
+            startRow = reversed ? p.endRow() : p.row;
+            startCol = reversed ? p.endCol() : p.col;
+            endRow = reversed ? p.row : p.endRow();
+            endCol = reversed ? p.col : p.endCol();
+        } else {
+            startRow = bot.random.nextInt(puzzle.size);
+            endRow = startRow;
+            startCol = bot.random.nextInt(puzzle.size);
+            endCol = bot.random.nextInt(puzzle.size);
+        }
+        bot.seq = (bot.seq + 1) & 0xFFFF;
+        RaceProtocol.writeClaim(bot.out, bot.seq, bot.roundId, startRow, startCol, endRow, endCol);
+        bot.waiting = true;
+        bot.sentAt = System.nanoTime();
+        write(bot);
+    }
+
+    // channel เป็น non-blocking - เขียนเท่าที่ได้ ส่วนที่เหลือรอ OP_WRITE แทนการวนเขียนซ้ำจนกว่าจะหมด
+    private void write(Bot bot) throws IOException {
+        bot.out.flip();
+        bot.channel.write(bot.out);
+        bot.out.compact();
+        int ops = bot.out.position() > 0 ? SelectionKey.OP_READ | SelectionKey.OP_WRITE : SelectionKey.OP_READ;
+        if (bot.key.interestOps() != ops) {
+            bot.key.interestOps(ops);
+        }
+    }
+
+    private void report(long elapsedNanos) {
+        double seconds = elapsedNanos / 1e9;
+        System.out.printf("Claims: %d (accepted %d, rejected %d) in %.1f s -> %.0f claims/s%n",
+            latency.samples(), accepted, rejected, seconds, latency.samples() / seconds);
+        System.out.println("Claim latency: " + latency.summary());
+        System.out.println("Broadcast frames received: " + broadcastFrames);
+    }
+}
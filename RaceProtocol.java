@@ -0,0 +1,92 @@
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+// โปรโตคอลไบนารีของโหมดแข่ง (race) - ทุก frame คือ [u16 ความยาว][u8 ชนิด][payload]
+// ความยาวนับรวมไบต์ชนิดแต่ไม่รวม 2 ไบต์ของความยาวเอง
+final class RaceProtocol {
+    // client -> server
+    static final byte HELLO = 1;          // u8 nameLength, name (UTF-8)
+    static final byte CLAIM = 2;          // u16 seq, u32 roundId, u8 startRow, u8 startCol, u8 endRow, u8 endCol
+
+    // server -> client
+    static final byte WELCOME = 16;       // u16 playerId
+    static final byte ROUND = 17;         // u32 roundId, u8 difficulty ordinal, i64 seed
+    static final byte CLAIM_RESULT = 18;  // u16 seq, u8 status, u8 wordIndex (0xFF = none)
+    static final byte FOUND_BATCH = 19;   // u8 count, count x (u16 playerId, u8 wordIndex)
+    static final byte ROUND_OVER = 20;    // u32 roundId, u16 winnerId
+
+    // claim status
+    static final int RESULT_ACCEPTED = 0;
+    static final int RESULT_INVALID = 1;
+    static final int RESULT_ALREADY_FOUND = 2;
+    static final int RESULT_STALE_ROUND = 3;
+
+    static final int LENGTH_BYTES = 2;
+    static final int MAX_FRAME = 1024;
+    static final int MAX_BATCH = 255;
+    static final int NO_WORD = 0xFF;
+    static final int NO_PLAYER = 0;  // winnerId ของรอบที่ไม่มีผู้ชนะ - ไม่ใช้เป็น playerId
+    static final int CLAIM_LENGTH = 11;
+
+    private RaceProtocol() {
+    }
+
+    // คืนความยาว frame ถัดไป (ไม่รวม 2 ไบต์ความยาว) หรือ -1 ถ้าข้อมูลยังมาไม่ครบ
+    // buffer ต้องอยู่ในโหมดอ่าน (หลัง flip)
+    static int nextFrameLength(ByteBuffer in) {
+        if (in.remaining() < LENGTH_BYTES) {
+            return -1;
+        }
+        int length = in.getShort(in.position()) & 0xFFFF;
+        if (length == 0 || length > MAX_FRAME) {
+            throw new IllegalStateException("bad frame length " + length);
+        }
+        return in.remaining() >= LENGTH_BYTES + length ? length : -1;
+    }
+
+    static void writeHello(ByteBuffer out, String name) {
+        byte[] bytes = name.getBytes(StandardCharsets.UTF_8);
+        int length = Math.min(bytes.length, 255);
+        out.putShort((short) (2 + length)).put(HELLO).put((byte) length).put(bytes, 0, length);
+    }
+
+    // frameLength คือความยาวของ frame HELLO ทั้ง frame - ชื่อต้องไม่ยาวเกิน frame
+    static String readHelloName(ByteBuffer in, int frameLength) {
+        int length = in.get() & 0xFF;
+        if (frameLength < 2 || length > frameLength - 2) {
+            throw new IllegalStateException("short hello frame");
+        }
+        byte[] bytes = new byte[length];
+        in.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    static void writeClaim(ByteBuffer out, int seq, int roundId, int startRow, int startCol, int endRow, int endCol) {
+        out.putShort((short) CLAIM_LENGTH).put(CLAIM).putShort((short) seq).putInt(roundId)
+            .put((byte) startRow).put((byte) startCol).put((byte) endRow).put((byte) endCol);
+    }
+
+    static void writeWelcome(ByteBuffer out, int playerId) {
+        out.putShort((short) 3).put(WELCOME).putShort((short) playerId);
+    }
+
+    static void writeRound(ByteBuffer out, int roundId, int difficulty, long seed) {
+        out.putShort((short) 14).put(ROUND).putInt(roundId).put((byte) difficulty).putLong(seed);
+    }
+
+    static void writeClaimResult(ByteBuffer out, int seq, int status, int wordIndex) {
+        out.putShort((short) 5).put(CLAIM_RESULT).putShort((short) seq).put((byte) status).put((byte) wordIndex);
+    }
+
+    // รวมคำที่ถูกพบหลายคำไว้ใน frame เดียว
+    static void writeFoundBatch(ByteBuffer out, int[] playerIds, int[] wordIndexes, int offset, int count) {
+        out.putShort((short) (2 + count * 3)).put(FOUND_BATCH).put((byte) count);
+        for (int i = offset; i < offset + count; i++) {
+            out.putShort((short) playerIds[i]).put((byte) wordIndexes[i]);
+        }
+    }
+
+    static void writeRoundOver(ByteBuffer out, int roundId, int winnerId) {
+        out.putShort((short) 7).put(ROUND_OVER).putInt(roundId).putShort((short) winnerId);
+    }
+}
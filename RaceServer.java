@@ -0,0 +1,425 @@
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Queue;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+// เซิร์ฟเวอร์โหมดแข่ง - ผู้เล่นทุกคนเล่นตารางเดียวกันจาก seed เดียวกัน
+// ใช้ NIO selector thread เดียว ตรวจคำที่ผู้เล่นอ้างด้วย Puzzle.matchSelection (ตรรกะเดียวกับ checkWord)
+// และรวมการแจ้งคำที่ถูกพบไว้ส่งครั้งเดียวต่อรอบของ selector
+public class RaceServer implements Runnable {
+    private static final int OUT_BUFFER_BYTES = 64 * 1024;
+
+    private final Selector selector;
+    private final ServerSocketChannel serverChannel;
+    private final WordSearchGame.DifficultyLevel difficulty;
+    private final Random seeds;
+    private volatile boolean running = true;
+
+    // Round state - only touched on the selector thread
+    private int roundId;
+    private long roundSeed;
+    private Puzzle puzzle;
+    private BitSet claimed = new BitSet();
+    private CompletableFuture<Puzzle> nextPuzzle;
+    private long nextSeed;
+    // รอบจบแล้วแต่ตารางรอบถัดไปยังสร้างไม่เสร็จ - claim ที่เข้ามาระหว่างนี้อ้างอิงรอบเดิม
+    private boolean awaitingRound;
+    // งานจาก thread อื่น (เช่น ตารางรอบถัดไปสร้างเสร็จ) - รันบน selector thread หลัง wakeup
+    private final Queue<Runnable> selectorTasks = new ConcurrentLinkedQueue<>();
+
+    private final List<Player> players = new ArrayList<>();
+    private final List<Player> dirty = new ArrayList<>();
+    // playerId เป็น u16 ในโปรโตคอล - ข้าม NO_PLAYER และ id ที่ยังมีคนใช้อยู่เมื่อวนครบรอบ
+    private final BitSet usedPlayerIds = new BitSet(1 << 16);
+    private int nextPlayerId = 1;
+
+    // Found-word updates waiting for the next batched broadcast
+    private final int[] batchPlayers = new int[RaceProtocol.MAX_BATCH];
+    private final int[] batchWords = new int[RaceProtocol.MAX_BATCH];
+    private int batchCount;
+
+    // สถิติ
+    private long claimsHandled;
+    private long claimsAccepted;
+    private long roundsPlayed;
+
+    private static final class Player {
+        final int id;
+        final SocketChannel channel;
+        final SelectionKey key;
+        final ByteBuffer in = ByteBuffer.allocate(RaceProtocol.MAX_FRAME * 2);
+        final ByteBuffer out = ByteBuffer.allocate(OUT_BUFFER_BYTES);
+        String name = "";
+        int score;
+        boolean queued;
+        boolean closed;
+
+        Player(int id, SocketChannel channel, SelectionKey key) {
+            this.id = id;
+            this.channel = channel;
+            this.key = key;
+        }
+    }
+
+    public RaceServer(int port, WordSearchGame.DifficultyLevel difficulty, long seed) throws IOException {
+        this.difficulty = difficulty;
+        this.seeds = new Random(seed);
+        this.selector = Selector.open();
+        this.serverChannel = ServerSocketChannel.open();
+        serverChannel.bind(new InetSocketAddress(port), 1024);
+        serverChannel.configureBlocking(false);
+        serverChannel.register(selector, SelectionKey.OP_ACCEPT);
+        prepareNextPuzzle();
+        startNextRound(nextPuzzle.join());
+    }
+
+    public int getPort() {
+        return serverChannel.socket().getLocalPort();
+    }
+
+    public void stop() {
+        running = false;
+        selector.wakeup();
+    }
+
+    public String statsReport() {
+        return "Race server: connected=" + players.size() + ", rounds=" + roundsPlayed
+            + ", claims=" + claimsHandled + ", accepted=" + claimsAccepted;
+    }
+
+    @Override
+    public void run() {
+        try {
+            while (running) {
+                selector.select();
+                Runnable task;
+                while ((task = selectorTasks.poll()) != null) {
+                    task.run();
+                }
+                Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+                while (keys.hasNext()) {
+                    SelectionKey key = keys.next();
+                    keys.remove();
+                    if (!key.isValid()) {
+                        continue;
+                    }
+                    if (key.isAcceptable()) {
+                        accept();
+                    } else {
+                        Player player = (Player) key.attachment();
+                        if (key.isReadable()) {
+                            read(player);
+                        }
+                        if (key.isValid() && key.isWritable()) {
+                            queue(player);
+                        }
+                    }
+                }
+                flushBatch();
+                flushWrites();
+                players.removeIf(this::removeClosed);
+            }
+        } catch (IOException e) {
+            System.err.println("✗ Race server stopped: " + e);
+        } finally {
+            closeAll();
+        }
+    }
+
+    private void accept() throws IOException {
+        SocketChannel channel;
+        while ((channel = serverChannel.accept()) != null) {
+            channel.configureBlocking(false);
+            channel.socket().setTcpNoDelay(true);
+            int id = allocatePlayerId();
+            if (id == RaceProtocol.NO_PLAYER) {
+                // id เต็มทั้ง 65535 ตัว
+                channel.close();
+                continue;
+            }
+            SelectionKey key = channel.register(selector, SelectionKey.OP_READ);
+            Player player = new Player(id, channel, key);
+            key.attach(player);
+            players.add(player);
+        }
+    }
+
+    // id ถัดไปที่ว่าง (1-65535) หรือ NO_PLAYER ถ้าไม่เหลือ
+    private int allocatePlayerId() {
+        int id = usedPlayerIds.nextClearBit(nextPlayerId);
+        if (id > 0xFFFF) {
+            id = usedPlayerIds.nextClearBit(1);
+            if (id > 0xFFFF) {
+                return RaceProtocol.NO_PLAYER;
+            }
+        }
+        usedPlayerIds.set(id);
+        nextPlayerId = id + 1;
+        return id;
+    }
+
+    private boolean removeClosed(Player player) {
+        if (player.closed) {
+            usedPlayerIds.clear(player.id);
+        }
+        return player.closed;
+    }
+
+    private void read(Player player) {
+        try {
+            if (player.channel.read(player.in) < 0) {
+                disconnect(player);
+                return;
+            }
+            player.in.flip();
+            int length;
+            while ((length = RaceProtocol.nextFrameLength(player.in)) > 0) {
+                int frameEnd = player.in.position() + RaceProtocol.LENGTH_BYTES + length;
+                player.in.position(player.in.position() + RaceProtocol.LENGTH_BYTES);
+                handleFrame(player, player.in.get(), length);
+                player.in.position(frameEnd);
+            }
+            player.in.compact();
+        } catch (IOException | RuntimeException e) {
+            disconnect(player);
+        }
+    }
+
+    // length คือความยาว frame (รวมไบต์ชนิด) - frame ที่สั้นกว่าที่ชนิดนั้นต้องการถือว่าเสีย และตัดการเชื่อมต่อ
+    private void handleFrame(Player player, byte type, int length) {
+        switch (type) {
+            case RaceProtocol.HELLO:
+                player.name = RaceProtocol.readHelloName(player.in, length);
+                if (ensureRoom(player, 5 + 16)) {
+                    RaceProtocol.writeWelcome(player.out, player.id);
+                    if (!awaitingRound) {
+                        RaceProtocol.writeRound(player.out, roundId, difficulty.ordinal(), roundSeed);
+                    }
+                    queue(player);
+                }
+                break;
+            case RaceProtocol.CLAIM:
+                if (length < RaceProtocol.CLAIM_LENGTH) {
+                    throw new IllegalStateException("short claim frame (" + length + " bytes)");
+                }
+                handleClaim(player);
+                break;
+            default:
+                throw new IllegalStateException("unknown frame type " + type);
+        }
+    }
+
+    private void handleClaim(Player player) {
+        ByteBuffer in = player.in;
+        int seq = in.getShort() & 0xFFFF;
+        int claimRound = in.getInt();
+        int startRow = in.get() & 0xFF;
+        int startCol = in.get() & 0xFF;
+        int endRow = in.get() & 0xFF;
+        int endCol = in.get() & 0xFF;
+        claimsHandled++;
+
+        int status;
+        int wordIndex = RaceProtocol.NO_WORD;
+        if (claimRound != roundId) {
+            status = RaceProtocol.RESULT_STALE_ROUND;
+        } else {
+            int index = puzzle.matchSelection(startRow, startCol, endRow, endCol, null);
+            if (index < 0) {
+                status = RaceProtocol.RESULT_INVALID;
+            } else if (claimed.get(index)) {
+                status = RaceProtocol.RESULT_ALREADY_FOUND;
+                wordIndex = index;
+            } else {
+                // ใครอ้างก่อนได้คะแนน
+                claimed.set(index);
+                player.score++;
+                claimsAccepted++;
+                status = RaceProtocol.RESULT_ACCEPTED;
+                wordIndex = index;
+                batchPlayers[batchCount] = player.id;
+                batchWords[batchCount] = index;
+                batchCount++;
+                if (batchCount == RaceProtocol.MAX_BATCH) {
+                    flushBatch();
+                }
+            }
+        }
+
+        if (ensureRoom(player, 7)) {
+            RaceProtocol.writeClaimResult(player.out, seq, status, wordIndex);
+            queue(player);
+        }
+    }
+
+    // ส่งคำที่ถูกพบทั้งหมดในรอบนี้ให้ทุกคนใน frame เดียว แล้วเริ่มรอบใหม่ถ้าพบครบ
+    private void flushBatch() {
+        boolean roundOver = !awaitingRound && claimed.cardinality() >= puzzle.words.size();
+        if (batchCount == 0 && !roundOver) {
+            return;
+        }
+        int winnerId = roundOver ? leader() : RaceProtocol.NO_PLAYER;
+
+        int frameBytes = RaceProtocol.LENGTH_BYTES + 2 + batchCount * 3;
+        for (Player player : players) {
+            if (player.closed || !ensureRoom(player, frameBytes + 9)) {
+                continue;
+            }
+            if (batchCount > 0) {
+                RaceProtocol.writeFoundBatch(player.out, batchPlayers, batchWords, 0, batchCount);
+            }
+            if (roundOver) {
+                RaceProtocol.writeRoundOver(player.out, roundId, winnerId);
+                player.score = 0;
+            }
+            queue(player);
+        }
+        batchCount = 0;
+        if (roundOver) {
+            awaitingRound = true;
+            awaitNextPuzzle();
+        }
+    }
+
+    private int leader() {
+        Player best = null;
+        for (Player player : players) {
+            if (best == null || player.score > best.score) {
+                best = player;
+            }
+        }
+        return best == null ? RaceProtocol.NO_PLAYER : best.id;
+    }
+
+    // ตารางรอบถัดไปสร้างล่วงหน้าบน thread อื่น เพื่อไม่ให้ selector ค้างตอนเปลี่ยนรอบ
+    private void prepareNextPuzzle() {
+        long seed = seeds.nextLong();
+        nextSeed = seed;
+        nextPuzzle = CompletableFuture.supplyAsync(() -> PuzzleGenerator.generateSeeded(difficulty, seed));
+    }
+
+    // เริ่มรอบใหม่เมื่อตารางพร้อม - ไม่ join บน selector thread (จะทำให้ทุกการเชื่อมต่อค้าง)
+    // callback ส่งงานกลับมาที่ selector thread ผ่าน selectorTasks + wakeup
+    private void awaitNextPuzzle() {
+        CompletableFuture<Puzzle> pending = nextPuzzle;
+        pending.whenComplete((ready, error) -> {
+            selectorTasks.add(() -> {
+                if (error != null) {
+                    System.err.println("⚠ Race server: next board failed (" + error + ") - retrying");
+                    prepareNextPuzzle();
+                    awaitNextPuzzle();
+                    return;
+                }
+                startNextRound(ready);
+                broadcastRound();
+            });
+            selector.wakeup();
+        });
+    }
+
+    private void startNextRound(Puzzle ready) {
+        puzzle = ready;
+        roundSeed = nextSeed;
+        roundId++;
+        roundsPlayed++;
+        claimed = new BitSet(puzzle.words.size());
+        awaitingRound = false;
+        prepareNextPuzzle();
+    }
+
+    private void broadcastRound() {
+        for (Player player : players) {
+            if (player.closed || !ensureRoom(player, 16)) {
+                continue;
+            }
+            RaceProtocol.writeRound(player.out, roundId, difficulty.ordinal(), roundSeed);
+            queue(player);
+        }
+    }
+
+    private boolean ensureRoom(Player player, int bytes) {
+        if (player.out.remaining() >= bytes) {
+            return true;
+        }
+        // client อ่านช้าเกินไป - ตัดการเชื่อมต่อแทนการเก็บข้อมูลไม่จำกัด
+        disconnect(player);
+        return false;
+    }
+
+    private void queue(Player player) {
+        if (!player.queued) {
+            player.queued = true;
+            dirty.add(player);
+        }
+    }
+
+    private void flushWrites() {
+        for (Player player : dirty) {
+            player.queued = false;
+            if (!player.key.isValid()) {
+                continue;
+            }
+            try {
+                player.out.flip();
+                player.channel.write(player.out);
+                player.out.compact();
+                int ops = player.out.position() > 0
+                    ? SelectionKey.OP_READ | SelectionKey.OP_WRITE
+                    : SelectionKey.OP_READ;
+                if (player.key.interestOps() != ops) {
+                    player.key.interestOps(ops);
+                }
+            } catch (IOException e) {
+                disconnect(player);
+            }
+        }
+        dirty.clear();
+    }
+
+    // ปิดการเชื่อมต่อ - ลบออกจากรายชื่อผู้เล่นตอนจบรอบของ selector เพื่อไม่ให้กระทบ loop ที่กำลังวนอยู่
+    private void disconnect(Player player) {
+        player.closed = true;
+        player.key.cancel();
+        try {
+            player.channel.close();
+        } catch (IOException ignored) {
+            // already closing
+        }
+    }
+
+    private void closeAll() {
+        for (Player player : players) {
+            disconnect(player);
+        }
+        players.clear();
+        try {
+            serverChannel.close();
+            selector.close();
+        } catch (IOException ignored) {
+            // shutting down
+        }
+    }
+
+    // java RaceServer [port] [EASY|NORMAL|HARD]
+    public static void main(String[] args) throws IOException {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : 7777;
+        WordSearchGame.DifficultyLevel difficulty = args.length > 1
+            ? WordSearchGame.DifficultyLevel.valueOf(args[1].toUpperCase())
+            : WordSearchGame.DifficultyLevel.NORMAL;
+        RaceServer server = new RaceServer(port, difficulty, System.nanoTime());
+        System.out.println("Race server listening on port " + server.getPort() + " (" + difficulty.displayName + ")");
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> System.out.println(server.statsReport())));
+        server.run();
+    }
+}
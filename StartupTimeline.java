@@ -0,0 +1,56 @@
+import java.lang.management.ManagementFactory;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// เส้นเวลาตอนเปิดเกม: JVM start → main → หน้าต่างแรกวาดเสร็จ → ตารางแรกพร้อมเล่น
+// แต่ละจุดบันทึกเฉพาะครั้งแรก ใช้ติดตาม time-to-first-interaction ระหว่างปรับแต่ง
+final class StartupTimeline {
+    static final String MAIN = "main";
+    static final String WELCOME_VISIBLE = "welcome visible";
+    static final String FIRST_PAINT = "first paint";
+    static final String GENERATOR_WARM = "generator warm";
+    static final String OPTIONS_SCREEN = "options screen built";
+    static final String FIRST_PLAYABLE = "first playable grid";
+
+    // จุดอ้างอิงของ nanoTime - เวลาเริ่มของ JVM อ่านตอนทำรายงานเท่านั้น เพื่อไม่โหลด java.management ระหว่างเปิดเกม
+    private static final long ORIGIN_NANOS = System.nanoTime();
+    private static final long ORIGIN_MILLIS = System.currentTimeMillis();
+
+    private static final Map<String, Long> marks = new LinkedHashMap<>();
+
+    private StartupTimeline() {
+    }
+
+    static synchronized void mark(String event) {
+        marks.putIfAbsent(event, System.nanoTime());
+    }
+
+    static synchronized boolean hasMark(String event) {
+        return marks.containsKey(event);
+    }
+
+    // มิลลิวินาทีนับจาก JVM start
+    static synchronized long millisSinceJvmStart(String event) {
+        Long nanos = marks.get(event);
+        if (nanos == null) {
+            return -1;
+        }
+        long jvmStartOffset = Math.max(0, ORIGIN_MILLIS - ManagementFactory.getRuntimeMXBean().getStartTime());
+        return jvmStartOffset + (nanos - ORIGIN_NANOS) / 1_000_000;
+    }
+
+    // HotSpot แสดง "sharing" ใน java.vm.info เมื่อใช้ class-data-sharing archive
+    static boolean classDataSharingEnabled() {
+        return System.getProperty("java.vm.info", "").contains("sharing");
+    }
+
+    static synchronized String report() {
+        StringBuilder report = new StringBuilder("⏱ Startup timeline (CDS "
+            + (classDataSharingEnabled() ? "on" : "off") + ")\n");
+        report.append(String.format("   %-22s %6d ms%n", "JVM start", 0));
+        for (String event : marks.keySet()) {
+            report.append(String.format("   %-22s %6d ms%n", event, millisSinceJvmStart(event)));
+        }
+        return report.toString().trim();
+    }
+}
@@ -0,0 +1,86 @@
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+
+// ทดสอบว่าไฟล์บันทึกการลาก (.wsr) เขียนแล้วอ่านกลับได้ตารางและ event เดิมทุกตัว
+// รวมตาราง event ที่ใหญ่กว่า 255 ช่อง (ขนาด ตำแหน่งคำ และช่องของ event ต้องไม่ถูกตัดเหลือ byte)
+//
+// java TestInputRecording [size...]   (ค่าเริ่มต้น 12 300 2000)
+public class TestInputRecording {
+    public static void main(String[] args) throws IOException {
+        int[] sizes = args.length > 0 ? new int[args.length] : new int[] {12, 300, 2000};
+        for (int i = 0; i < args.length; i++) {
+            sizes[i] = Integer.parseInt(args[i]);
+        }
+        boolean passed = true;
+        for (int size : sizes) {
+            String failure = roundTrip(size, 42L + size);
+            if (failure == null) {
+                System.out.println("✓ " + size + "x" + size + " round trip");
+            } else {
+                passed = false;
+                System.out.println("✗ " + size + "x" + size + ": " + failure);
+            }
+        }
+        System.exit(passed ? 0 : 1);
+    }
+
+    // คืนข้อความของสิ่งที่ไม่ตรง หรือ null ถ้าตรงทั้งหมด
+    static String roundTrip(int size, long seed) throws IOException {
+        PuzzleGenerator generator = new PuzzleGenerator(size, new Random(seed));
+        generator.setVerbose(false);
+        Puzzle puzzle = generator.generate(PuzzleGenerator.DEFAULT_WORDS, 10);
+
+        // ลากตามคำสุดท้าย แล้วกระโดดไปมุมตรงข้าม (delta ไกล) และลากต่ออีกช่อง
+        InputRecording.Recorder recorder = new InputRecording.Recorder(seed, "HARD", "Event", puzzle);
+        Puzzle.Placement last = puzzle.placements.get(puzzle.placements.size() - 1);
+        int[][] events = new int[last.word.length() + 3][];
+        events[0] = new int[] {InputRecording.PRESS, last.row, last.col};
+        for (int i = 1; i < last.word.length(); i++) {
+            events[i] = new int[] {InputRecording.ENTER, last.row + i * last.rowDir, last.col + i * last.colDir};
+        }
+        events[last.word.length()] = new int[] {InputRecording.RELEASE, last.endRow(), last.endCol()};
+        events[last.word.length() + 1] = new int[] {InputRecording.PRESS, size - 1, size - 1};
+        events[last.word.length() + 2] = new int[] {InputRecording.RELEASE, size - 1, size - 2};
+        for (int[] event : events) {
+            recorder.record(event[0], event[1], event[2]);
+        }
+
+        Path file = Files.createTempFile("wordsearch-test", ".wsr");
+        try {
+            recorder.write(file);
+            InputRecording read = InputRecording.read(file);
+            if (read.seed != seed || read.puzzle.size != size) {
+                return "header: seed " + read.seed + ", size " + read.puzzle.size;
+            }
+            for (int row = 0; row < size; row++) {
+                if (!new String(read.puzzle.grid[row]).equals(new String(puzzle.grid[row]))) {
+                    return "grid row " + row + " differs";
+                }
+            }
+            if (read.puzzle.placements.size() != puzzle.placements.size()) {
+                return read.puzzle.placements.size() + " words instead of " + puzzle.placements.size();
+            }
+            for (int i = 0; i < puzzle.placements.size(); i++) {
+                Puzzle.Placement a = puzzle.placements.get(i);
+                Puzzle.Placement b = read.puzzle.placements.get(i);
+                if (!a.word.equals(b.word) || a.row != b.row || a.col != b.col
+                        || a.rowDir != b.rowDir || a.colDir != b.colDir) {
+                    return "word " + a.word + " read back at " + b.row + "," + b.col;
+                }
+            }
+            if (read.eventCount() != events.length) {
+                return read.eventCount() + " events instead of " + events.length;
+            }
+            for (int i = 0; i < events.length; i++) {
+                if (read.type(i) != events[i][0] || read.row(i) != events[i][1] || read.col(i) != events[i][2]) {
+                    return "event " + i + " read back as " + read.row(i) + "," + read.col(i);
+                }
+            }
+            return null;
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+}
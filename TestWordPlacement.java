@@ -1,220 +1,447 @@
-import java.util.*;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
 
+// ทดสอบตัวสร้างตารางแบบ property/fuzz: สร้างตารางจาก seed ต่อเนื่องหลายล้านครั้งบนทุก core
+// แล้วตรวจ invariant ของทุกตาราง ถ้าพบ seed ที่ผิด จะย่อ input (คำ/จำนวนคำ/ขนาดตาราง) ให้เหลือน้อยที่สุด
+// ที่ยังผิดอยู่ เพื่อใช้ทำซ้ำได้ทันที
+//
+// java TestWordPlacement [generations] [threads] [startIndex] [--calibrated]
 public class TestWordPlacement {
-    private static final int GRID_SIZE = 12;
-    private char[][] grid;
-    private List<String> wordsToFind;
-    private Random random = new Random();
-    
-    private final List<String> ALL_WORDS = Arrays.asList(
-        "OCEAN", "MOUNTAIN", "FOREST", "RIVER", "FLOWER",
-        "BUTTERFLY", "EAGLE", "WHALE", "TIGER", "RAINBOW",
-        "SUNSET", "BEACH", "ISLAND", "DESERT", "VALLEY",
-        "CANYON", "WATERFALL", "DOLPHIN", "SHARK", "CORAL"
-    );
-    
-    public static void main(String[] args) {
-        TestWordPlacement test = new TestWordPlacement();
-        
-        System.out.println("Testing Easy (5 words):");
-        test.testPlacement(5);
-        
-        System.out.println("\nTesting Normal (15 words):");
-        test.testPlacement(15);
-        
-        System.out.println("\nTesting Hard (20 words):");
-        test.testPlacement(20);
-    }
-    
-    public void testPlacement(int targetWords) {
-        wordsToFind = new ArrayList<>();
-        createGridWithWords(targetWords);
-        
-        System.out.println("Target: " + targetWords + " words");
-        System.out.println("Placed: " + wordsToFind.size() + " words");
-        System.out.println("Words: " + wordsToFind);
-        
-        // ตรวจสอบว่าคำทุกคำอยู่ในตารางจริงหรือไม่
-        for (String word : wordsToFind) {
-            if (!isWordInGrid(word)) {
-                System.out.println("WARNING: Word '" + word + "' NOT FOUND in grid!");
-            }
-        }
-        System.out.println("All words verified in grid: " + (wordsToFind.size() > 0));
-    }
-    
-    private boolean isWordInGrid(String word) {
-        // ค้นหาคำในทุกทิศทาง
-        for (int row = 0; row < GRID_SIZE; row++) {
-            for (int col = 0; col < GRID_SIZE; col++) {
-                // ลองทุกทิศทาง
-                if (searchFromPosition(word, row, col)) {
-                    return true;
-                }
-            }
-        }
-        return false;
-    }
-    
-    private boolean searchFromPosition(String word, int row, int col) {
-        int[][] directions = {
-            {0, 1}, {1, 0}, {1, 1}, {1, -1},
-            {0, -1}, {-1, 0}, {-1, 1}, {-1, -1}
-        };
-        
-        for (int[] dir : directions) {
-            if (checkDirection(word, row, col, dir[0], dir[1])) {
-                return true;
-            }
-        }
-        return false;
-    }
-    
-    private boolean checkDirection(String word, int row, int col, int rowDir, int colDir) {
-        for (int i = 0; i < word.length(); i++) {
-            int newRow = row + i * rowDir;
-            int newCol = col + i * colDir;
-            
-            if (newRow < 0 || newRow >= GRID_SIZE || newCol < 0 || newCol >= GRID_SIZE) {
-                return false;
-            }
-            
-            if (grid[newRow][newCol] != word.charAt(i)) {
-                return false;
-            }
-        }
-        return true;
-    }
-    
-    private void createGridWithWords(int targetWords) {
-        grid = new char[GRID_SIZE][GRID_SIZE];
-        
-        for (int i = 0; i < GRID_SIZE; i++) {
-            for (int j = 0; j < GRID_SIZE; j++) {
-                grid[i][j] = '-';
-            }
-        }
-        
-        List<String> shuffledWords = new ArrayList<>(ALL_WORDS);
-        Collections.shuffle(shuffledWords, random);
-        
-        wordsToFind.clear();
-        
-        for (String word : shuffledWords) {
-            if (wordsToFind.size() >= targetWords) {
-                break;
-            }
-            
-            if (placeWordInGrid(word)) {
-                wordsToFind.add(word);
-            }
-        }
-        
-        if (wordsToFind.size() < targetWords) {
-            for (String word : shuffledWords) {
-                if (wordsToFind.size() >= targetWords) {
-                    break;
-                }
-                if (!wordsToFind.contains(word) && word.length() <= GRID_SIZE) {
-                    if (forceHorizontalPlacement(word)) {
-                        wordsToFind.add(word);
-                    }
+    private static final WordSearchGame.DifficultyLevel[] LEVELS = WordSearchGame.DifficultyLevel.values();
+    private static final int CHUNK = 1024;
+
+    // ค่าวิกฤตของ chi-square ที่ p = 0.001 ตาม degrees of freedom (index = df)
+    // กลุ่มที่ค่าคาดหวังต่อทิศน้อยกว่า MIN_EXPECTED (รันสั้น ๆ) ไม่ทดสอบ - แสดงสัดส่วนอย่างเดียว
+    private static final int MIN_EXPECTED = 1000;
+    private static final double[] CHI_SQUARE_CRITICAL = {0, 10.83, 13.82, 16.27, 18.47, 20.52, 22.46, 24.32};
+
+    // input หนึ่งชุดของตัวสร้าง - ตัวที่ถูกย่อเมื่อพบข้อผิดพลาด
+    static final class Case {
+        final long seed;
+        final WordSearchGame.DifficultyLevel level;
+        final int size;
+        final List<String> words;
+        final int target;
+        final boolean calibrated;
+
+        Case(long seed, WordSearchGame.DifficultyLevel level, int size, List<String> words, int target,
+             boolean calibrated) {
+            this.seed = seed;
+            this.level = level;
+            this.size = size;
+            this.words = words;
+            this.target = target;
+            this.calibrated = calibrated;
+        }
+
+        Puzzle generate() {
+            PuzzleGenerator generator = new PuzzleGenerator(size, new Random(seed));
+            generator.setVerbose(false);
+            if (calibrated && target == level.wordCount) {
+                return generator.generateCalibrated(words, level);
+            }
+            generator.setDirectionPolicy(level.directions);
+            generator.setDecoysPerWord(level.decoysPerWord);
+            return generator.generate(words, target);
+        }
+
+        @Override
+        public String toString() {
+            return "seed=" + seed + "L, level=" + level + ", size=" + size + ", target=" + target
+                + (calibrated ? ", calibrated" : "") + ", words=" + words;
+        }
+    }
+
+    private final AtomicLong nextIndex;
+    private final long endIndex;
+    private final boolean calibrated;
+    private final AtomicLong generated = new AtomicLong();
+    // ข้อผิดพลาดหนึ่งรายการ (seed น้อยที่สุด) ของแต่ละ invariant
+    private final ConcurrentMap<String, Case> failures = new ConcurrentHashMap<>();
+    private final long[][] directionCounts = new long[LEVELS.length][DirectionPolicy.DIRECTIONS.length];
+    // ทิศของคำหนึ่งคำต่อหนึ่งตาราง (สุ่มเลือกคำ) - ใช้ทดสอบ chi-square เพราะคำในตารางเดียวกันแย่งช่องกันเอง
+    // จึงไม่เป็นอิสระต่อกัน ถ้านับทุกคำ การทดสอบจะปฏิเสธบ่อยกว่าระดับ p ที่อ้าง
+    private final long[][] sampledDirections = new long[LEVELS.length][DirectionPolicy.DIRECTIONS.length];
+
+    TestWordPlacement(long startIndex, long generations, boolean calibrated) {
+        this.nextIndex = new AtomicLong(startIndex);
+        this.endIndex = startIndex + generations;
+        this.calibrated = calibrated;
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        List<String> positional = new ArrayList<>();
+        boolean calibrated = false;
+        for (String arg : args) {
+            if (arg.equals("--calibrated")) {
+                calibrated = true;
+            } else {
+                positional.add(arg);
+            }
+        }
+        long generations = positional.size() > 0 ? Long.parseLong(positional.get(0)) : 1_000_000;
+        int threads = positional.size() > 1 ? Integer.parseInt(positional.get(1))
+            : Runtime.getRuntime().availableProcessors();
+        long startIndex = positional.size() > 2 ? Long.parseLong(positional.get(2)) : 0;
+
+        TestWordPlacement harness = new TestWordPlacement(startIndex, generations, calibrated);
+        boolean passed = harness.run(threads);
+        System.exit(passed ? 0 : 1);
+    }
+
+    boolean run(int threadCount) throws InterruptedException {
+        System.out.println("Generating " + (endIndex - nextIndex.get()) + " puzzles from index " + nextIndex.get()
+            + " on " + threadCount + " threads" + (calibrated ? " (calibrated)" : ""));
+        long start = System.nanoTime();
+        Thread[] workers = new Thread[threadCount];
+        for (int i = 0; i < threadCount; i++) {
+            workers[i] = new Thread(this::work, "fuzz-" + i);
+            workers[i].start();
+        }
+
+        long lastReport = System.nanoTime();
+        for (Thread worker : workers) {
+            while (worker.isAlive()) {
+                worker.join(1000);
+                if (System.nanoTime() - lastReport > 5_000_000_000L) {
+                    lastReport = System.nanoTime();
+                    double seconds = (lastReport - start) / 1e9;
+                    System.out.printf("  %d puzzles, %.0f/s, %d failing invariants%n",
+                        generated.get(), generated.get() / seconds, failures.size());
+                }
+            }
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        System.out.printf("Checked %d puzzles in %.1f s (%.0f puzzles/s)%n",
+            generated.get(), seconds, generated.get() / seconds);
+
+        boolean directionsPassed = checkDirectionDistribution();
+        boolean passed = directionsPassed;
+        if (!failures.isEmpty()) {
+            passed = false;
+            for (String invariant : failures.keySet()) {
+                Case failing = failures.get(invariant);
+                System.out.println("✗ " + invariant);
+                System.out.println("  first failing input: " + failing);
+                Case minimal = shrink(failing, invariant);
+                System.out.println("  minimal reproduction: " + minimal);
+                System.out.println("  grid:");
+                for (char[] row : minimal.generate().grid) {
+                    System.out.println("    " + new String(row));
+                }
+            }
+        }
+        if (passed) {
+            System.out.println("✓ All invariants held");
+        } else {
+            // ทั้ง invariant ของแต่ละตารางและสัดส่วนทิศ - อย่างใดอย่างหนึ่งผิดก็ไม่ผ่าน
+            System.out.println("✗ Failed: " + failures.size() + " invariant(s)"
+                + (directionsPassed ? "" : ", direction distribution"));
+        }
+        return passed;
+    }
+
+    private void work() {
+        long[][] counts = new long[LEVELS.length][DirectionPolicy.DIRECTIONS.length];
+        long[][] sampled = new long[LEVELS.length][DirectionPolicy.DIRECTIONS.length];
+        long from;
+        while ((from = nextIndex.getAndAdd(CHUNK)) < endIndex) {
+            long to = Math.min(endIndex, from + CHUNK);
+            for (long index = from; index < to; index++) {
+                WordSearchGame.DifficultyLevel level = LEVELS[(int) Math.floorMod(index, (long) LEVELS.length)];
+                Case input = new Case(mix(index), level, PuzzleGenerator.DEFAULT_SIZE,
+                    PuzzleGenerator.DEFAULT_WORDS, level.wordCount, calibrated);
+                Puzzle puzzle;
+                try {
+                    puzzle = input.generate();
+                } catch (RuntimeException e) {
+                    recordFailure("generator threw " + e.getClass().getSimpleName(), input);
+                    continue;
+                }
+                String violation = check(input, puzzle);
+                if (violation != null) {
+                    recordFailure(violation, input);
+                }
+                for (Puzzle.Placement p : puzzle.placements) {
+                    counts[level.ordinal()][directionIndex(p.rowDir, p.colDir)]++;
+                }
+                if (!puzzle.placements.isEmpty()) {
+                    // เลือกคำด้วยค่าสุ่มที่ไม่เกี่ยวกับ seed ของตัวสร้าง
+                    Puzzle.Placement p = puzzle.placements.get(
+                        (int) Math.floorMod(mix(~index), (long) puzzle.placements.size()));
+                    sampled[level.ordinal()][directionIndex(p.rowDir, p.colDir)]++;
+                }
+            }
+            generated.addAndGet(to - from);
+        }
+        synchronized (directionCounts) {
+            for (int level = 0; level < counts.length; level++) {
+                for (int d = 0; d < counts[level].length; d++) {
+                    directionCounts[level][d] += counts[level][d];
+                    sampledDirections[level][d] += sampled[level][d];
+                }
+            }
+        }
+    }
+
+    // java.util.Random ที่ seed ติดกันให้ค่าแรก ๆ สัมพันธ์กัน (ทำให้สัดส่วนทิศเพี้ยน) จึงกระจาย index ก่อนใช้เป็น seed
+    // seed ที่แสดงในผลลัพธ์คือค่าที่ส่งให้ new Random(seed) โดยตรง
+    static long mix(long index) {
+        long z = index * 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    private void recordFailure(String invariant, Case input) {
+        failures.merge(invariant, input, (a, b) -> a.seed <= b.seed ? a : b);
+    }
+
+    // ===== INVARIANTS =====
+    // คืนชื่อ invariant ที่ผิด (ใช้เป็น key ตอนย่อ) หรือ null ถ้าถูกทั้งหมด
+    static String check(Case input, Puzzle puzzle) {
+        int size = input.size;
+        if (puzzle.size != size || puzzle.grid.length != size) {
+            return "grid has the requested size";
+        }
+        for (char[] row : puzzle.grid) {
+            if (row.length != size) {
+                return "grid has the requested size";
+            }
+            for (char c : row) {
+                if (c < 'A' || c > 'Z') {
+                    return "every cell is filled with A-Z (no '-')";
                 }
             }
         }
-        
-        for (int i = 0; i < GRID_SIZE; i++) {
-            for (int j = 0; j < GRID_SIZE; j++) {
-                if (grid[i][j] == '-') {
-                    grid[i][j] = (char) ('A' + random.nextInt(26));
+        if (puzzle.placements.size() != input.target) {
+            return "target word count is met";
+        }
+        List<String> seen = new ArrayList<>();
+        for (Puzzle.Placement p : puzzle.placements) {
+            if (!input.words.contains(p.word) || seen.contains(p.word)) {
+                return "placed words are distinct candidates";
+            }
+            seen.add(p.word);
+            if (!puzzle.inBounds(p.row, p.col) || !puzzle.inBounds(p.endRow(), p.endCol())) {
+                return "every placement is within bounds";
+            }
+            if (!input.level.directions.allows(p.rowDir, p.colDir)) {
+                return "every placement follows the level's direction policy";
+            }
+            for (int i = 0; i < p.word.length(); i++) {
+                if (puzzle.grid[p.row + i * p.rowDir][p.col + i * p.colDir] != p.word.charAt(i)) {
+                    return "grid letters match each placement";
                 }
             }
+            if (countOccurrences(puzzle.grid, p.word) != (isPalindrome(p.word) ? 2 : 1)) {
+                return "every word appears in the grid exactly once";
+            }
+        }
+        // ตรรกะตรวจคำของเกมต้องยอมรับทุกคำทั้งสองทิศ
+        for (int index = 0; index < puzzle.placements.size(); index++) {
+            Puzzle.Placement p = puzzle.placements.get(index);
+            if (puzzle.matchSelection(p.row, p.col, p.endRow(), p.endCol(), null) != index
+                    || puzzle.matchSelection(p.endRow(), p.endCol(), p.row, p.col, null) != index) {
+                return "Puzzle.matchSelection accepts every placement in both directions";
+            }
         }
+        return null;
     }
-    
-    private boolean forceHorizontalPlacement(String word) {
-        for (int row = 0; row < GRID_SIZE; row++) {
-            for (int startCol = 0; startCol <= GRID_SIZE - word.length(); startCol++) {
-                boolean canPlace = true;
-                
-                for (int i = 0; i < word.length(); i++) {
-                    char existingChar = grid[row][startCol + i];
-                    char targetChar = word.charAt(i);
-                    
-                    if (existingChar != '-' && existingChar != targetChar) {
-                        canPlace = false;
-                        break;
+
+    // ค้นหาแบบ brute force ทุกจุดเริ่ม ทุกทิศ - ไม่ใช้โค้ดของตัวสร้าง
+    private static int countOccurrences(char[][] grid, String word) {
+        int size = grid.length;
+        int count = 0;
+        for (int row = 0; row < size; row++) {
+            for (int col = 0; col < size; col++) {
+                for (int[] dir : DirectionPolicy.DIRECTIONS) {
+                    int i = 0;
+                    while (i < word.length()) {
+                        int r = row + i * dir[0];
+                        int c = col + i * dir[1];
+                        if (r < 0 || r >= size || c < 0 || c >= size || grid[r][c] != word.charAt(i)) {
+                            break;
+                        }
+                        i++;
+                    }
+                    if (i == word.length()) {
+                        count++;
                     }
                 }
-                
-                if (canPlace) {
-                    for (int i = 0; i < word.length(); i++) {
-                        grid[row][startCol + i] = word.charAt(i);
+            }
+        }
+        return count;
+    }
+
+    private static boolean isPalindrome(String word) {
+        return new StringBuilder(word).reverse().toString().equals(word);
+    }
+
+    private static int directionIndex(int rowDir, int colDir) {
+        for (int i = 0; i < DirectionPolicy.DIRECTIONS.length; i++) {
+            if (DirectionPolicy.DIRECTIONS[i][0] == rowDir && DirectionPolicy.DIRECTIONS[i][1] == colDir) {
+                return i;
+            }
+        }
+        throw new IllegalArgumentException("not a direction: " + rowDir + "," + colDir);
+    }
+
+    // ทิศที่มีน้ำหนักเท่ากันและรูปทรงเดียวกัน (แนวตรง/แนวทแยง) ต้องถูกใช้เท่า ๆ กัน - ทดสอบด้วย chi-square
+    // บนตัวอย่างหนึ่งคำต่อตาราง (ตารางเป็นอิสระต่อกัน) สัดส่วนที่แสดงนับจากทุกคำ
+    // ระหว่างกลุ่มไม่เทียบกัน เพราะแนวทแยงมีช่องวางน้อยกว่าแนวตรงโดยธรรมชาติ (แสดงสัดส่วนไว้ดูเท่านั้น)
+    private boolean checkDirectionDistribution() {
+        boolean passed = true;
+        for (WordSearchGame.DifficultyLevel level : LEVELS) {
+            long[] counts = directionCounts[level.ordinal()];
+            long total = Arrays.stream(counts).sum();
+            if (total == 0) {
+                continue;
+            }
+            StringBuilder line = new StringBuilder(level.name + " directions (%):");
+            for (long count : counts) {
+                line.append(String.format(" %.1f", 100.0 * count / total));
+            }
+            System.out.println(line);
+
+            boolean[] grouped = new boolean[counts.length];
+            for (int d = 0; d < counts.length; d++) {
+                if (grouped[d] || level.directions.weight(d) == 0) {
+                    continue;
+                }
+                List<Integer> group = new ArrayList<>();
+                for (int other = d; other < counts.length; other++) {
+                    if (level.directions.weight(other) == level.directions.weight(d)
+                            && isDiagonal(other) == isDiagonal(d)
+                            && (!calibrated || directionCost(other) == directionCost(d))) {
+                        group.add(other);
+                        grouped[other] = true;
                     }
-                    return true;
-                }
-            }
-        }
-        return false;
-    }
-    
-    private boolean placeWordInGrid(String word) {
-        boolean placed = false;
-        int attempts = 0;
-        int maxAttempts = 100;
-        
-        while (!placed && attempts < maxAttempts) {
-            attempts++;
-            
-            int startRow = random.nextInt(GRID_SIZE);
-            int startCol = random.nextInt(GRID_SIZE);
-            
-            int direction = random.nextInt(8);
-            int rowDir = 0, colDir = 0;
-            
-            switch (direction) {
-                case 0: rowDir = 0; colDir = 1; break;
-                case 1: rowDir = 1; colDir = 0; break;
-                case 2: rowDir = 1; colDir = 1; break;
-                case 3: rowDir = 1; colDir = -1; break;
-                case 4: rowDir = 0; colDir = -1; break;
-                case 5: rowDir = -1; colDir = 0; break;
-                case 6: rowDir = -1; colDir = 1; break;
-                case 7: rowDir = -1; colDir = -1; break;
-            }
-            
-            if (canPlaceWord(word, startRow, startCol, rowDir, colDir)) {
-                for (int i = 0; i < word.length(); i++) {
-                    int row = startRow + i * rowDir;
-                    int col = startCol + i * colDir;
-                    grid[row][col] = word.charAt(i);
-                }
-                placed = true;
-            }
-        }
-        
-        return placed;
-    }
-    
-    private boolean canPlaceWord(String word, int startRow, int startCol, int rowDir, int colDir) {
-        int endRow = startRow + (word.length() - 1) * rowDir;
-        int endCol = startCol + (word.length() - 1) * colDir;
-        
-        if (endRow < 0 || endRow >= GRID_SIZE || endCol < 0 || endCol >= GRID_SIZE) {
-            return false;
-        }
-        
-        for (int i = 0; i < word.length(); i++) {
-            int row = startRow + i * rowDir;
-            int col = startCol + i * colDir;
-            char existingChar = grid[row][col];
-            char targetChar = word.charAt(i);
-            
-            if (existingChar != '-' && existingChar != targetChar) {
-                return false;
-            }
-        }
-        
-        return true;
+                }
+                if (group.size() < 2) {
+                    continue;
+                }
+                long[] samples = sampledDirections[level.ordinal()];
+                long groupTotal = 0;
+                for (int direction : group) {
+                    groupTotal += samples[direction];
+                }
+                double expected = (double) groupTotal / group.size();
+                if (expected < MIN_EXPECTED) {
+                    System.out.printf("  %s: directions %s not tested (%.0f samples per direction, need %d)%n",
+                        level.name, group, expected, MIN_EXPECTED);
+                    continue;
+                }
+                double chiSquare = 0;
+                for (int direction : group) {
+                    chiSquare += (samples[direction] - expected) * (samples[direction] - expected) / expected;
+                }
+                double critical = CHI_SQUARE_CRITICAL[group.size() - 1];
+                if (chiSquare > critical) {
+                    passed = false;
+                    System.out.printf("✗ %s: directions %s are not uniform (chi-square %.1f > %.1f)%n",
+                        level.name, group, chiSquare, critical);
+                }
+            }
+        }
+        return passed;
+    }
+
+    // ตอนปรับเทียบ ตารางถูกคัดตามคะแนนทิศ ทิศที่คะแนนต่างกันจึงไม่ควรถูกใช้เท่ากัน
+    private static double directionCost(int direction) {
+        return PuzzleDifficulty.directionCost(DirectionPolicy.DIRECTIONS[direction][0], DirectionPolicy.DIRECTIONS[direction][1]);
+    }
+
+    private static boolean isDiagonal(int direction) {
+        return DirectionPolicy.DIRECTIONS[direction][0] != 0 && DirectionPolicy.DIRECTIONS[direction][1] != 0;
+    }
+
+    // ===== SHRINKING =====
+    // ย่อทีละขั้นแบบ greedy: ลดขนาดตาราง ลดจำนวนคำเป้าหมาย แล้วตัดคำที่ไม่จำเป็นออกทีละคำ
+    // การเปลี่ยน input ทำให้ลำดับสุ่มเปลี่ยนทั้งหมด จึงลอง seed เดิมก่อนแล้วค่อยลอง seed เล็ก ๆ อื่น
+    // ยอมรับการย่อเมื่อยังผิด invariant เดิม
+    private static final int SHRINK_SEEDS = 64;
+
+    static Case shrink(Case failing, String invariant) {
+        Case current = failing;
+        boolean progress = true;
+        while (progress) {
+            progress = false;
+
+            for (int size = longestWord(current.words); size < current.size && !progress; size++) {
+                Case smaller = reproduce(current, size, current.words, current.target, invariant);
+                if (smaller != null) {
+                    current = smaller;
+                    progress = true;
+                }
+            }
+
+            for (int target = 1; target < current.target && !progress; target++) {
+                Case fewer = reproduce(current, current.size, current.words, target, invariant);
+                if (fewer != null) {
+                    current = fewer;
+                    progress = true;
+                }
+            }
+
+            for (int i = 0; i < current.words.size() && current.words.size() > current.target; i++) {
+                List<String> words = new ArrayList<>(current.words);
+                words.remove(i);
+                Case reduced = reproduce(current, current.size, words, current.target, invariant);
+                if (reduced != null) {
+                    current = reduced;
+                    progress = true;
+                    i--;
+                }
+            }
+
+            // คำเป้าหมายทุกคำจำเป็น - ลองตัดคำพร้อมลดจำนวนเป้าหมายไปด้วยกัน
+            for (int i = 0; i < current.words.size() && current.target > 1 && !progress; i++) {
+                List<String> words = new ArrayList<>(current.words);
+                words.remove(i);
+                Case reduced = reproduce(current, current.size, words, current.target - 1, invariant);
+                if (reduced != null) {
+                    current = reduced;
+                    progress = true;
+                }
+            }
+        }
+        return current;
+    }
+
+    // input ที่เล็กลงซึ่งยังผิด invariant เดิม (seed เดิมหรือ seed ใดก็ได้ใน 0..SHRINK_SEEDS-1) หรือ null
+    private static Case reproduce(Case current, int size, List<String> words, int target, String invariant) {
+        Case sameSeed = new Case(current.seed, current.level, size, words, target, current.calibrated);
+        if (stillFails(sameSeed, invariant)) {
+            return sameSeed;
+        }
+        for (long index = 0; index < SHRINK_SEEDS; index++) {
+            Case other = new Case(mix(index), current.level, size, words, target, current.calibrated);
+            if (stillFails(other, invariant)) {
+                return other;
+            }
+        }
+        return null;
+    }
+
+    private static boolean stillFails(Case input, String invariant) {
+        try {
+            return invariant.equals(check(input, input.generate()));
+        } catch (RuntimeException e) {
+            return invariant.equals("generator threw " + e.getClass().getSimpleName());
+        }
+    }
+
+    private static int longestWord(List<String> words) {
+        int longest = 1;
+        for (String word : words) {
+            longest = Math.max(longest, word.length());
+        }
+        return longest;
     }
 }
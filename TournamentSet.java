@@ -0,0 +1,141 @@
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+// ชุดตารางสำหรับแข่งขัน (PuzzleBook --tournament) - ไม่มีคำซ้ำกันเลยทั้งชุด และทุกตารางได้คำครบตามระดับ
+// คำถูกแบ่งให้ทุกตารางพร้อมกันก่อนสร้าง (ไม่ใช่หยิบทีละตารางแบบ usedWordsInSession ที่ต้องล้างเมื่อคำไม่พอ):
+// เรียงคำยาวไปสั้นแล้วแบ่งเป็นชั้นละ rounds คำ แต่ละชั้นแจกแบบงู (ไป-กลับ) - ทุกตารางได้คำยาว/สั้นอย่างละเท่า ๆ กัน
+// และผลรวมตัวอักษรใกล้กัน ตารางจึงวางคำได้ยากพอ ๆ กัน (ช่วงความยากยังคุมด้วย generateCalibrated เหมือนเดิม)
+final class TournamentSet {
+    // ลองสร้างใหม่ด้วย seed ถัดไปเมื่อวางคำที่ได้รับไม่ครบ
+    private static final int MAX_ATTEMPTS = 8;
+    // ตัวอักษรรวมต่อช่องเปิดสูงสุดที่ให้ต่อตาราง - 20 คำของ DEFAULT_WORDS ในตาราง Hard 12x12 ใช้ 122/144 ช่อง
+    static final double MAX_LETTER_FILL = 0.85;
+
+    private TournamentSet() {
+    }
+
+    // คำที่ใช้ได้: ไม่ซ้ำ ยาว 3 ตัวขึ้นไป และไม่ยาวเกิน maxLength - สุ่มเลือกตาม seed เมื่อมีคำเกินที่ต้องใช้
+    // ถ้าคำที่สุ่มได้ยาวรวมเกิน openCells * MAX_LETTER_FILL ต่อตาราง (วางไม่ลง) แทนคำยาวที่สุดด้วยคำสั้นที่เหลือ
+    static List<List<String>> assign(List<String> words, int rounds, int wordsPerPuzzle, int maxLength,
+                                     int openCells, Random random) {
+        List<String> usable = new ArrayList<>();
+        for (String word : new LinkedHashSet<>(words)) {
+            if (word.length() >= Dawg.MIN_WORD_LENGTH && word.length() <= maxLength) {
+                usable.add(word);
+            }
+        }
+        long needed = (long) rounds * wordsPerPuzzle;
+        if (usable.size() < needed) {
+            throw new IllegalArgumentException(rounds + " rounds of " + wordsPerPuzzle + " words need " + needed
+                + " distinct words of 3-" + maxLength + " letters, the list has " + usable.size());
+        }
+        Collections.shuffle(usable, random);
+        List<String> chosen = new ArrayList<>(usable.subList(0, (int) needed));
+        chosen.sort((a, b) -> b.length() - a.length()); // stable - คำยาวเท่ากันคงลำดับสุ่ม
+        List<String> spare = new ArrayList<>(usable.subList((int) needed, usable.size()));
+        spare.sort((a, b) -> a.length() - b.length());
+        long budget = (long) (openCells * MAX_LETTER_FILL) * rounds;
+        long letters = 0;
+        for (String word : chosen) {
+            letters += word.length();
+        }
+        for (int i = 0; letters > budget && i < spare.size() && i < chosen.size()
+                && spare.get(i).length() < chosen.get(i).length(); i++) {
+            letters -= chosen.get(i).length() - spare.get(i).length();
+            chosen.set(i, spare.get(i));
+        }
+        if (letters > budget) {
+            throw new IllegalArgumentException("the shortest " + needed + " words still need "
+                + letters / rounds + " letters per puzzle, more than " + budget / rounds + " fit");
+        }
+        chosen.sort((a, b) -> b.length() - a.length());
+
+        List<List<String>> sets = new ArrayList<>(rounds);
+        for (int round = 0; round < rounds; round++) {
+            sets.add(new ArrayList<>(wordsPerPuzzle));
+        }
+        for (int tier = 0; tier < wordsPerPuzzle; tier++) {
+            List<String> pool = new ArrayList<>(chosen.subList(tier * rounds, (tier + 1) * rounds));
+            for (int step = 0; step < rounds; step++) {
+                int round = tier % 2 == 0 ? step : rounds - 1 - step;
+                sets.get(round).add(pool.remove(pick(pool, sets.get(round))));
+            }
+        }
+        return sets;
+    }
+
+    // คำแรกในชั้นที่ไม่ซ้อนกับคำที่ตารางนี้มีแล้ว - คำที่อยู่ในอีกคำ (หรือในคำกลับด้าน) ทำให้ตารางมีคำเป้าหมายซ้ำ
+    private static int pick(List<String> pool, List<String> current) {
+        for (int i = 0; i < pool.size(); i++) {
+            if (!overlapsAny(pool.get(i), current)) {
+                return i;
+            }
+        }
+        return 0; // ไม่มีทางเลี่ยง - ตารางนี้จะลองสร้างใหม่หลายครั้งแล้วรายงานว่าไม่สำเร็จ
+    }
+
+    private static boolean overlapsAny(String word, List<String> current) {
+        String reversed = new StringBuilder(word).reverse().toString();
+        for (String other : current) {
+            if (other.contains(word) || other.contains(reversed) || word.contains(other)
+                    || reversed.contains(other)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // ตารางที่ใช้คำที่ได้รับทั้งหมด (ไม่มีคำอื่นปน) - seed ถัดไปเมื่อวางไม่ครบ
+    static Puzzle generate(WordSearchGame.DifficultyLevel level, long seed, List<String> assigned,
+                           BoardMask mask, Alphabet alphabet) {
+        Random seeds = new Random(seed);
+        for (int attempt = 0; attempt < MAX_ATTEMPTS; attempt++) {
+            Random random = new Random(seeds.nextLong());
+            Puzzle puzzle;
+            if (mask != null) {
+                puzzle = PuzzleGenerator.generateShaped(assigned, level, mask, alphabet, random);
+            } else {
+                PuzzleGenerator generator = new PuzzleGenerator(PuzzleGenerator.DEFAULT_SIZE, random);
+                generator.setVerbose(false);
+                generator.setAlphabet(alphabet);
+                puzzle = generator.generateCalibrated(assigned, level);
+            }
+            if (puzzle.words.size() == assigned.size() && puzzle.isConsistent()) {
+                return puzzle;
+            }
+        }
+        throw new IllegalStateException("could not place all of " + assigned + " in " + MAX_ATTEMPTS + " attempts");
+    }
+
+    // ตรวจทั้งชุดหลังสร้าง: ไม่มีคำซ้ำข้ามตาราง
+    static void checkDisjoint(List<List<String>> placedWords) {
+        Set<String> seen = new HashSet<>();
+        for (int i = 0; i < placedWords.size(); i++) {
+            for (String word : placedWords.get(i)) {
+                if (!seen.add(word)) {
+                    throw new IllegalStateException(word + " appears again in round " + (i + 1));
+                }
+            }
+        }
+    }
+
+    // ผลรวมตัวอักษรของแต่ละตาราง (min, max) - ใช้ดูว่าแบ่งคำสมดุลแค่ไหน
+    static int[] letterSpread(List<List<String>> sets) {
+        int min = Integer.MAX_VALUE;
+        int max = 0;
+        for (List<String> set : sets) {
+            int letters = 0;
+            for (String word : set) {
+                letters += word.length();
+            }
+            min = Math.min(min, letters);
+            max = Math.max(max, letters);
+        }
+        return new int[] {min, max};
+    }
+}
@@ -0,0 +1,151 @@
+import javax.swing.JComponent;
+import javax.swing.Scrollable;
+import javax.swing.SwingConstants;
+import java.awt.Color;
+import java.awt.Dimension;
+import java.awt.Font;
+import java.awt.FontMetrics;
+import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.awt.RenderingHints;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// รายการคำที่ต้องหาแบบวาดเอง - วาดเฉพาะแถวที่มองเห็น และขีดฆ่าคำด้วยเส้นตรง
+// แทนการใช้ JLabel ต่อคำ + HTML <strike> ทำให้รองรับรายการคำหลักร้อยคำได้
+public class WordListPanel extends JComponent implements Scrollable {
+    private static final long serialVersionUID = 1L;
+
+    private static final Font WORD_FONT = new Font("Arial", Font.PLAIN, 16);
+    // คำที่ Arial วาดไม่ได้ (เช่น ภาษาไทย) ใช้ logical font ที่มี fallback
+    private static final Font SCRIPT_WORD_FONT = new Font(Font.DIALOG, Font.PLAIN, 16);
+    private static final Color FOUND_COLOR = new Color(100, 150, 100);
+    private static final int ROW_GAP = 5;
+
+    private String[] words = new String[0];
+    private boolean[] found = new boolean[0];
+    private final Map<String, Integer> rowIndex = new HashMap<>();
+    private Font wordFont;
+    private int rowHeight;
+    private int ascent;
+    private int preferredWidth;
+
+    public WordListPanel() {
+        setOpaque(false);
+        useFont(WORD_FONT);
+    }
+
+    private void useFont(Font font) {
+        wordFont = font;
+        setFont(font);
+        FontMetrics fm = getFontMetrics(font);
+        rowHeight = fm.getHeight() + ROW_GAP;
+        ascent = fm.getAscent();
+    }
+
+    // ตั้งรายการคำใหม่ทั้งหมด (เรียกครั้งเดียวต่อด่าน)
+    public void setWords(List<String> newWords, Color textColor) {
+        words = newWords.toArray(new String[0]);
+        found = new boolean[words.length];
+        rowIndex.clear();
+
+        Font font = WORD_FONT;
+        for (String word : words) {
+            if (WORD_FONT.canDisplayUpTo(word) >= 0) {
+                font = SCRIPT_WORD_FONT;
+                break;
+            }
+        }
+        if (font != wordFont) {
+            useFont(font);
+        }
+        FontMetrics fm = getFontMetrics(wordFont);
+        int width = 0;
+        for (int i = 0; i < words.length; i++) {
+            rowIndex.put(words[i], i);
+            width = Math.max(width, fm.stringWidth(words[i]));
+        }
+        preferredWidth = width + 4;
+        setForeground(textColor);
+
+        revalidate();
+        repaint();
+    }
+
+    // ขีดฆ่าคำที่พบ - repaint เฉพาะแถวนั้น
+    public void markFound(String word) {
+        Integer index = rowIndex.get(word);
+        if (index == null || found[index]) {
+            return;
+        }
+        found[index] = true;
+        repaint(0, index * rowHeight, getWidth(), rowHeight);
+        scrollRectToVisible(new Rectangle(0, index * rowHeight, 1, rowHeight));
+    }
+
+    @Override
+    public Dimension getPreferredSize() {
+        return new Dimension(preferredWidth, words.length * rowHeight);
+    }
+
+    @Override
+    protected void paintComponent(Graphics g) {
+        Graphics2D g2d = (Graphics2D) g;
+        g2d.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+        g2d.setFont(wordFont);
+        FontMetrics fm = g2d.getFontMetrics();
+
+        // วาดเฉพาะแถวที่อยู่ในพื้นที่ clip
+        Rectangle clip = g.getClipBounds();
+        int first = 0;
+        int last = words.length - 1;
+        if (clip != null) {
+            first = Math.max(0, clip.y / rowHeight);
+            last = Math.min(last, (clip.y + clip.height) / rowHeight);
+        }
+
+        for (int i = first; i <= last; i++) {
+            int baseline = i * rowHeight + ascent;
+            if (found[i]) {
+                g2d.setColor(FOUND_COLOR);
+                g2d.drawString(words[i], 0, baseline);
+                int strikeY = baseline - fm.getAscent() / 3;
+                g2d.drawLine(0, strikeY, fm.stringWidth(words[i]), strikeY);
+            } else {
+                g2d.setColor(getForeground());
+                g2d.drawString(words[i], 0, baseline);
+            }
+        }
+    }
+
+    // ===== Scrollable =====
+    @Override
+    public Dimension getPreferredScrollableViewportSize() {
+        return getPreferredSize();
+    }
+
+    @Override
+    public int getScrollableUnitIncrement(Rectangle visibleRect, int orientation, int direction) {
+        return orientation == SwingConstants.VERTICAL ? rowHeight : 10;
+    }
+
+    @Override
+    public int getScrollableBlockIncrement(Rectangle visibleRect, int orientation, int direction) {
+        if (orientation == SwingConstants.VERTICAL) {
+            return Math.max(rowHeight, visibleRect.height - rowHeight);
+        }
+        return visibleRect.width;
+    }
+
+    @Override
+    public boolean getScrollableTracksViewportWidth() {
+        return false;
+    }
+
+    @Override
+    public boolean getScrollableTracksViewportHeight() {
+        return false;
+    }
+}
@@ -1,40 +1,134 @@
 import javax.swing.*;
 import java.awt.*;
 import java.awt.event.*;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import javax.swing.border.Border;
 import java.util.*;
 import java.util.List;
 
 public class WordSearchGame extends JFrame {
-    private static final int GRID_SIZE = 12;
+    private static final int GRID_SIZE = PuzzleGenerator.DEFAULT_SIZE;
     private static final int CELL_SIZE = 45; // ลดขนาดเล็กลงนิดหน่อยเพื่อให้พอดีกับหน้าจอ
+    // พื้นที่ตารางคงที่เท่าตาราง 12x12 - ตารางที่ใหญ่กว่า (endless) ใช้ช่องเล็กลง
+    private static final int MAX_GRID_PIXELS = GRID_SIZE * (CELL_SIZE + 2);
+    // ตารางที่ใหญ่กว่านี้ใช้ BoardViewport (ซูม/เลื่อน วาดจาก tile) แทนปุ่มหนึ่งปุ่มต่อช่อง
+    private static final int MAX_BUTTON_GRID = 24;
+    private static final String BUTTON_BOARD = "buttons";
+    private static final String VIEWPORT_BOARD = "viewport";
+    
+    // -Dwordsearch.eventSize=N: ด่านปกติเป็นตาราง event ขนาด NxN (เช่น 500) - คำละประมาณ EVENT_CELLS_PER_WORD ช่อง
+    // เท่าที่ชุดคำมี ไม่ปรับความยาก (คะแนนความยากคิดไว้สำหรับตาราง 12x12) และไม่ใช้ wordsearch.shape
+    private static final String EVENT_SIZE_PROPERTY = "wordsearch.eventSize";
+    private static final int EVENT_SIZE = Integer.getInteger(EVENT_SIZE_PROPERTY, 0);
+    private static final int EVENT_CELLS_PER_WORD = 50;
     
     // Game state
     private char[][] grid;
+    private int gridSize;
+    private int cellSize = CELL_SIZE;
+    private Puzzle currentPuzzle;
+    private final BitSet foundIndices = new BitSet();
+    
+    // Free-discovery bonus: any dictionary word dragged out of the grid scores its length
+    private static final String DICTIONARY_PROPERTY = "wordsearch.dictionary";
+    private static final Color BONUS_COLOR = new Color(215, 215, 215);
+    private volatile Dawg bonusDictionary;
+    
+    // -Dwordsearch.shape=heart|star|letter:X|mask.txt|mask.png: ด่านปกติใช้ตารางรูปทรงนี้ (endless ใช้สี่เหลี่ยมเสมอ)
+    private static final String SHAPE_PROPERTY = "wordsearch.shape";
+    private volatile BoardMask shape;
+    // งานโหลดรูปทรงที่ยังไม่เสร็จ และระดับที่ผู้เล่นเลือกไว้ระหว่างรอ (เริ่มทันทีที่โหลดเสร็จ)
+    private GameTaskScheduler.Task<BoardMask> shapeLoad;
+    private DifficultyLevel startAfterShape;
+    
+    // -Dwordsearch.record=<dir>: บันทึกการลากบนตารางของแต่ละตารางเป็นไฟล์ .wsr สำหรับ InputReplay
+    private static final String RECORD_PROPERTY = "wordsearch.record";
+    private static final String RECORD_DIR = System.getProperty(RECORD_PROPERTY);
+    private InputRecording.Recorder recorder;
+    private long currentSeed;
+    private boolean replaying;
+    
+    // -Dwordsearch.startupTraining=true: ผ่านหน้าแรกอัตโนมัติจนถึงตาราง Easy แล้วปิดโปรแกรม
+    // ใช้วัด startup timeline และสร้าง class-data-sharing archive (ดู README)
+    private static final boolean STARTUP_TRAINING = Boolean.getBoolean("wordsearch.startupTraining");
+    private final Set<Long> bonusLines = new HashSet<>();
+    private int bonusScore;
+    private JLabel bonusLabel;
     private JButton[][] buttons;
     private List<String> wordsToFind;
     private List<String> foundWords;
-    private Map<String, JLabel> wordLabels;
     private Point startCell = null;
     private Point endCell = null;
     private List<Point> selectedCells = new ArrayList<>();
     private List<FoundWord> foundWordsList = new ArrayList<>();
     private JPanel wordPanel;
+    private JLabel wordListTitle;
+    private WordListPanel wordListPanel;
+    private JLayeredPane layeredPane;
     private JPanel gridPanel;
     private JPanel highlightPanel;
+    private JPanel boardCards;
+    private BoardViewport boardView;
     private Random random = new Random();
     
+    // Background work (generation/validation) - results come back on the EDT
+    private final GameTaskScheduler scheduler = new GameTaskScheduler();
+    private GameTaskScheduler.Task<Puzzle> pendingGeneration;
+    // สร้างตารางล้มเหลวติดกันกี่ครั้ง - ลองใหม่ด้วย seed ใหม่จนถึง MAX_GENERATION_RETRIES แล้วกลับหน้าเลือกระดับ
+    private static final int MAX_GENERATION_RETRIES = 2;
+    private int generationFailures;
+    
     // Player and difficulty
     private String playerName = "";
     private DifficultyLevel currentDifficulty = null;
     private DifficultyLevel nextDifficulty = null;
+    private String currentLevelName = "";
+    private int currentTimeLimit;
+    
+    // Endless mode (null = ด่านปกติ) - ตารางถัดไปถูกสร้างล่วงหน้าเมื่อหาคำเจอ 70%
+    private EndlessMode endless;
+    private EndlessMode.Board currentBoard;
+    private EndlessMode.Board prefetchedBoard;
+    private GameTaskScheduler.Task<Puzzle> prefetchTask;
+    private Puzzle prefetchedPuzzle;
+    private long prefetchedSeed;
+    private boolean awaitingPrefetch;
+    private boolean transitionPrefetched;
     
+    // -Dwordsearch.race=host:port: หน้าเลือกระดับมีปุ่ม RACE ที่ต่อ RaceServer ตัวนั้น
+    // ตารางของแต่ละรอบสร้างจาก seed ของ server ด้วย PuzzleGenerator.generateSeeded (ตารางเดียวกับ server)
+    // และ server เป็นผู้ตัดสินคำที่ลาก - คำที่คนอื่นพบขีดฆ่าด้วย RIVAL_COLOR
+    private static final String RACE_PROPERTY = "wordsearch.race";
+    private static final String RACE_ADDRESS = System.getProperty(RACE_PROPERTY);
+    private static final Color RIVAL_COLOR = new Color(170, 170, 180);
+    private RaceSession race;
+
     // Track used words across levels to avoid repetition
     private Set<String> usedWordsInSession = new HashSet<>();
     
-    // Timer
+    // Timer - countdown is deadline based, gameTimer only schedules repaints at second boundaries
     private javax.swing.Timer gameTimer;
-    private int timeRemaining; // in seconds
-    private JLabel timerLabel;
+    private final CountdownClock countdown = new CountdownClock();
+    private TimerDisplay timerDisplay;
+    
+    // Game screen is built once and rebound to each new puzzle
+    private JPanel gameScreen;
+    private JPanel gameTopPanel;
+    private JPanel gameContainer;
+    private JLabel playerLabel;
+    private long transitionStartNanos;
+    private GameEvents.ScreenTransition transitionEvent;
+    private static final Font PLAYER_FONT = new Font("Arial", Font.BOLD, 18);
+    private static final Font CELL_FONT = new Font("Arial", Font.BOLD, 18); // ลดขนาดฟอนต์จาก 20 เป็น 18
+    // Arial ไม่มีอักษรไทยและอักษรอื่น ๆ - logical font Dialog มี font fallback
+    private static final Font SCRIPT_CELL_FONT = new Font(Font.DIALOG, Font.BOLD, 18);
+    private static final Font TIMER_FONT = new Font("Arial", Font.BOLD, 20);
+    private static final Color TIMER_NORMAL_COLOR = new Color(50, 100, 50);
+    private static final Color TIMER_WARNING_COLOR = new Color(200, 100, 0);
+    private static final Color TIMER_CRITICAL_COLOR = new Color(200, 0, 0);
     
     // Screen management
     private CardLayout cardLayout;
@@ -43,50 +137,68 @@ public class WordSearchGame extends JFrame {
     private static final String OPTIONS_SCREEN = "options";
     private static final String GAME_SCREEN = "game";
     private static final String VICTORY_SCREEN = "victory";
+    private boolean optionsScreenBuilt;
     
     // Difficulty enum
     enum DifficultyLevel {
-        EASY("Easy", 5, 600, new Color(173, 216, 230), "Easy Level"), // 10 minutes, light blue
-        NORMAL("Normal", 15, 600, new Color(255, 200, 124), "Normal Level"), // 10 minutes, orange
-        HARD("Hard", 20, 900, new Color(255, 160, 160), "Hard Level"); // 15 minutes, red
+        // 10 minutes, light blue - อ่านตามปกติเท่านั้น (ขวา/ลง)
+        EASY("Easy", 5, 600, new Color(173, 216, 230), "Easy Level", 0, 32,
+            new DirectionPolicy(3, 2, 0, 0, 0, 0, 0, 0), 0),
+        // 10 minutes, orange - เพิ่มแนวทแยงและคำกลับหลังบางส่วน
+        NORMAL("Normal", 15, 600, new Color(255, 200, 124), "Normal Level", 45, 58,
+            new DirectionPolicy(3, 3, 2, 0, 1, 1, 1, 0), 0.5),
+        // 15 minutes, red - ทุกทิศ เน้นแนวทแยงและคำกลับหลัง
+        HARD("Hard", 20, 900, new Color(255, 160, 160), "Hard Level", 64, 100,
+            new DirectionPolicy(1, 1, 2, 2, 2, 2, 2, 2), 1.5);
         
         final String name;
         final int wordCount;
         final int timeLimit; // in seconds
         final Color themeColor;
         final String displayName;
-        
-        DifficultyLevel(String name, int wordCount, int timeLimit, Color themeColor, String displayName) {
+        // ช่วงคะแนน PuzzleDifficulty ที่ยอมรับ (ปรับเทียบจากการสุ่ม 2000 ตารางต่อระดับ)
+        final double minScore;
+        final double maxScore;
+        final DirectionPolicy directions;
+        final double decoysPerWord; // ต้นคำหลอกในตัวอักษรเติม ต่อหนึ่งคำเป้าหมาย
+        
+        // Theme palette derived once, reused whenever the game screen is rebound
+        final Color lightColor;
+        final Color darkColor;
+        final Color textColor;
+        final Border cellBorder;
+        
+        DifficultyLevel(String name, int wordCount, int timeLimit, Color themeColor, String displayName,
+                        double minScore, double maxScore, DirectionPolicy directions, double decoysPerWord) {
             this.name = name;
             this.wordCount = wordCount;
             this.timeLimit = timeLimit;
             this.themeColor = themeColor;
             this.displayName = displayName;
+            this.minScore = minScore;
+            this.maxScore = maxScore;
+            this.directions = directions;
+            this.decoysPerWord = decoysPerWord;
+            this.lightColor = themeColor.brighter();
+            this.darkColor = themeColor.darker();
+            this.textColor = darkColor.darker();
+            this.cellBorder = BorderFactory.createLineBorder(themeColor, 1);
+        }
+        
+        boolean acceptsScore(double score) {
+            return score >= minScore && score <= maxScore;
         }
     }
     
-    // สีสำหรับคำที่พบ - หลากหลายสี
-    private final Color[] WORD_COLORS = {
-        new Color(255, 200, 200),  // ชมพูอ่อน
-        new Color(200, 255, 200),  // เขียวอ่อน
-        new Color(200, 220, 255),  // ฟ้าอ่อน
-        new Color(255, 255, 180),  // เหลืองอ่อน
-        new Color(255, 220, 200),  // ส้มอ่อน
-        new Color(230, 200, 255),  // ม่วงอ่อน
-        new Color(200, 255, 255),  // เขียวน้ำทะเลอ่อน
-        new Color(255, 200, 255),  // ชมพูม่วง
-        new Color(220, 255, 220),  // เขียวมิ้นต์
-        new Color(255, 230, 200),  // พีช
-        new Color(200, 240, 255),  // ฟ้าน้ำทะเล
-        new Color(255, 210, 230),  // ชมพูโรส
-        new Color(230, 255, 200)   // เขียวมะนาว
-    };
+    // สีสำหรับคำที่พบ - ชุดเดียวกับเฉลยตอนพิมพ์ (PuzzleRenderer.WORD_COLORS)
     private int currentColorIndex = 0;
     
     // คลาสสำหรับเก็บข้อมูลคำที่พบ
     private static class FoundWord {
         List<Point> cells;
         Color color;
+        AnimationClock.Tween appear; // เส้นลากจากช่องแรกไปช่องสุดท้าย หรือจางเข้า (fadeIn)
+        boolean fadeIn;
         
         FoundWord(List<Point> cells, Color color) {
             this.cells = new ArrayList<>(cells);
@@ -94,13 +206,19 @@ public class WordSearchGame extends JFrame {
         }
     }
     
+    // Animation - ทุก effect ใช้นาฬิกาเฟรมเดียวกัน (ดู AnimationClock)
+    private static final int SWEEP_MILLIS = 250;
+    private static final int FADE_MILLIS = 400;
+    private static final int VICTORY_MILLIS = 3000;
+    private static final int CONFETTI_PIECES = 60;
+    private final AnimationClock animations = new AnimationClock();
+    
     // ชุดคำทั้งหมดที่มีในตาราง - ธีมคำเกี่ยวกับธรรมชาติและสัตว์
-    private final List<String> ALL_WORDS = Arrays.asList(
-        "OCEAN", "MOUNTAIN", "FOREST", "RIVER", "FLOWER",
-        "BUTTERFLY", "EAGLE", "WHALE", "TIGER", "RAINBOW",
-        "SUNSET", "BEACH", "ISLAND", "DESERT", "VALLEY",
-        "CANYON", "WATERFALL", "DOLPHIN", "SHARK", "CORAL"
-    );
+    // -Dwordsearch.words=thai|words.txt: ชุดคำภาษาใดก็ได้ คำและช่องเก็บเป็นรหัสของ alphabet (ดู Alphabet)
+    private static final String WORDS_PROPERTY = "wordsearch.words";
+    private final Alphabet.Words wordSet = loadWords();
+    private final Alphabet alphabet = wordSet.alphabet;
+    private final List<String> ALL_WORDS = wordSet.encoded;
     
     public WordSearchGame() {
         setTitle("Word Search Game");
@@ -109,26 +227,83 @@ public class WordSearchGame extends JFrame {
         
         foundWords = new ArrayList<>();
         wordsToFind = new ArrayList<>();
+        loadBonusDictionary();
+        loadShape();
         
         // Setup CardLayout for screen management
         cardLayout = new CardLayout();
         mainContainer = new JPanel(cardLayout);
         
-        // Create all screens
+        // Only the welcome screen is built up front; options, game and victory screens
+        // are created on first navigation so the first frame appears sooner
         mainContainer.add(createWelcomeScreen(), WELCOME_SCREEN);
-        mainContainer.add(createOptionsScreen(), OPTIONS_SCREEN);
-        // Game screen will be created when difficulty is selected
         
         add(mainContainer);
         
+        // หยุดเวลาชั่วคราวเมื่อย่อหน้าต่าง
+        addWindowListener(new WindowAdapter() {
+            @Override
+            public void windowClosing(WindowEvent e) {
+                // EXIT_ON_CLOSE จบโปรแกรมทันทีหลัง listener - ต้องเขียนไฟล์ให้เสร็จก่อน
+                writeRecording(recorder);
+                recorder = null;
+                System.out.println(scheduler.edtReport());
+                System.out.println(animations.frameReport());
+                leaveRace();
+                scheduler.shutdown();
+            }
+            
+
+            @Override
+            public void windowIconified(WindowEvent e) {
+                pauseTimer();
+            }
+            
+            @Override
+            public void windowDeiconified(WindowEvent e) {
+                resumeTimer();
+            }
+        });
+        
         pack();
         setLocationRelativeTo(null);
         setVisible(true);
+        StartupTimeline.mark(StartupTimeline.WELCOME_VISIBLE);
+        
+        prewarmGenerator();
+        if (STARTUP_TRAINING) {
+            SwingUtilities.invokeLater(() -> {
+                playerName = "Startup";
+                showScreen(OPTIONS_SCREEN);
+                startGame(DifficultyLevel.EASY);
+            });
+        }
+    }
+    
+    // โหลด class และ JIT ของตัวสร้างตาราง/Puzzle ระหว่างที่ผู้เล่นยังอยู่หน้าแรก
+    // ตารางแรกหลังเลือกระดับจึงไม่ต้องจ่ายค่า class loading เอง
+    // ไม่ถูกยกเลิกตอนเปลี่ยนหน้า (โหมด startup training เปลี่ยนหน้าทันที) GENERATOR_WARM จึงถูกบันทึกเสมอ
+    private void prewarmGenerator() {
+        scheduler.submit("prewarmGenerator", () -> {
+            long seed = System.nanoTime();
+            for (DifficultyLevel level : DifficultyLevel.values()) {
+                Puzzle puzzle = PuzzleGenerator.generateSeeded(level, seed);
+                puzzle.matchSelection(0, 0, 0, puzzle.size - 1, null);
+            }
+            return Boolean.TRUE;
+        }, warm -> StartupTimeline.mark(StartupTimeline.GENERATOR_WARM),
+            error -> System.out.println("⚠ prewarm ตัวสร้างตารางไม่สำเร็จ: " + error));
     }
     
     // ===== WELCOME SCREEN =====
     private JPanel createWelcomeScreen() {
-        JPanel panel = new JPanel();
+        JPanel panel = new JPanel() {
+            @Override
+            protected void paintComponent(Graphics g) {
+                super.paintComponent(g);
+                StartupTimeline.mark(StartupTimeline.FIRST_PAINT);
+            }
+        };
         panel.setLayout(new BoxLayout(panel, BoxLayout.Y_AXIS));
         panel.setBackground(new Color(240, 240, 255));
         panel.setBorder(BorderFactory.createEmptyBorder(100, 100, 100, 100));
@@ -189,7 +364,7 @@ public class WordSearchGame extends JFrame {
             if (playerName.isEmpty()) {
                 JOptionPane.showMessageDialog(this, "Please enter your name!", "Name Required", JOptionPane.WARNING_MESSAGE);
             } else {
-                cardLayout.show(mainContainer, OPTIONS_SCREEN);
+                showScreen(OPTIONS_SCREEN);
             }
         });
         
@@ -236,20 +411,37 @@ public class WordSearchGame extends JFrame {
         JButton hardButton = createDifficultyButton("HARD", DifficultyLevel.HARD, 
             "20 Words • 15 Minutes • Red Theme");
         panel.add(hardButton);
+        panel.add(Box.createVerticalStrut(20));
         
+        // Endless button - ไม่มีด่านสุดท้าย ตารางปรับตามความเร็วผู้เล่น
+        JButton endlessButton = createModeButton("ENDLESS", new Color(200, 185, 240),
+            "Adaptive Boards • No Final Level", this::startEndless);
+        panel.add(endlessButton);
+
+        if (RACE_ADDRESS != null) {
+            panel.add(Box.createVerticalStrut(20));
+            JButton raceButton = createModeButton("RACE", new Color(170, 225, 180),
+                "Live Race • " + RACE_ADDRESS, this::startRace);
+            panel.add(raceButton);
+        }
+
         panel.add(Box.createVerticalGlue());
         
         return panel;
     }
     
     private JButton createDifficultyButton(String text, DifficultyLevel difficulty, String description) {
+        return createModeButton(text, difficulty.themeColor, description, () -> startGame(difficulty));
+    }
+    
+    private JButton createModeButton(String text, Color themeColor, String description, Runnable onStart) {
         JPanel buttonPanel = new JPanel();
         buttonPanel.setLayout(new BoxLayout(buttonPanel, BoxLayout.Y_AXIS));
         buttonPanel.setAlignmentX(Component.CENTER_ALIGNMENT);
         buttonPanel.setMaximumSize(new Dimension(400, 100));
-        buttonPanel.setBackground(difficulty.themeColor);
+        buttonPanel.setBackground(themeColor);
         buttonPanel.setBorder(BorderFactory.createCompoundBorder(
-            BorderFactory.createLineBorder(difficulty.themeColor.darker(), 3),
+            BorderFactory.createLineBorder(themeColor.darker(), 3),
             BorderFactory.createEmptyBorder(15, 20, 15, 20)
         ));
         
@@ -277,408 +469,364 @@ public class WordSearchGame extends JFrame {
         button.setFocusPainted(false);
         button.setCursor(new Cursor(Cursor.HAND_CURSOR));
         
-        button.addActionListener(e -> startGame(difficulty));
+        button.addActionListener(e -> scheduler.runOnEdt("startGame", onStart));
         
         return button;
     }
     
     private void startGame(DifficultyLevel difficulty) {
-        currentDifficulty = difficulty;
+        if (shapeLoad != null && EVENT_SIZE == 0) {
+            // ขนาดและรูปทรงของตารางแรกขึ้นกับ shape - รอโหลดเสร็จก่อน ไม่งั้นได้ตารางสี่เหลี่ยม
+            startAfterShape = difficulty;
+            System.out.println("⏱ รอโหลดตารางรูปทรงก่อนเริ่ม " + difficulty.displayName);
+            return;
+        }
+        endless = null;
+        currentBoard = null;
+        discardPrefetch();
         nextDifficulty = getNextDifficulty(difficulty);
-        
-        // Remove old game screen if exists
-        Component[] components = mainContainer.getComponents();
-        for (Component comp : components) {
-            if (comp.getName() != null && comp.getName().equals(GAME_SCREEN)) {
-                mainContainer.remove(comp);
+        int size = EVENT_SIZE > 0 ? EVENT_SIZE : shape != null ? shape.size : GRID_SIZE;
+        enterGameScreen(difficulty, size, difficulty.timeLimit, difficulty.displayName);
+    }
+    
+    // ===== ENDLESS MODE =====
+    private void startEndless() {
+        endless = new EndlessMode();
+        nextDifficulty = null;
+        discardPrefetch();
+        startEndlessBoard(endless.nextBoard(ALL_WORDS.size()));
+    }
+    
+    private void startEndlessBoard(EndlessMode.Board board) {
+        currentBoard = board;
+        endless.startBoard(board);
+        enterGameScreen(board.tier, board.gridSize, board.timeLimit,
+            board.displayName() + " (" + board.describe() + ")");
+    }
+    
+    // สร้างตารางถัดไปบน background thread ระหว่างที่ผู้เล่นยังหาคำที่เหลือ
+    private void prefetchNextBoard() {
+        EndlessMode.Board next = endless.nextBoard(ALL_WORDS.size());
+        List<String> candidates = getAvailableWords(next.wordCount);
+        long seed = random.nextLong();
+        long start = System.nanoTime();
+        prefetchedBoard = next;
+        prefetchedSeed = seed;
+        prefetchTask = scheduler.submit("prefetchBoard", () -> checked(next.generate(candidates, alphabet, seed)), puzzle -> {
+            prefetchTask = null;
+            System.out.println("✓ สร้างตารางถัดไปล่วงหน้า (" + next.describe() + ") ใน "
+                + (System.nanoTime() - start) / 1_000_000 + " ms");
+            if (awaitingPrefetch) {
+                // ผู้เล่นไปตารางถัดไปก่อนสร้างเสร็จ
+                awaitingPrefetch = false;
+                applyPuzzle(puzzle);
+            } else {
+                prefetchedPuzzle = puzzle;
             }
-        }
-        
-        // Create and add new game screen
-        JPanel gameScreen = createGameScreen();
-        gameScreen.setName(GAME_SCREEN);
-        mainContainer.add(gameScreen, GAME_SCREEN);
-        
-        // Start the game
-        resetGame();
-        cardLayout.show(mainContainer, GAME_SCREEN);
+        }, error -> {
+            // ทิ้งตารางล่วงหน้า - ตารางถัดไปจะสร้างตามปกติตอนเริ่ม
+            prefetchTask = null;
+            prefetchedBoard = null;
+            if (awaitingPrefetch) {
+                awaitingPrefetch = false;
+                generationFailed(error);
+            }
+        });
     }
     
-    private DifficultyLevel getNextDifficulty(DifficultyLevel current) {
-        switch (current) {
-            case EASY: return DifficultyLevel.NORMAL;
-            case NORMAL: return DifficultyLevel.HARD;
-            case HARD: return null; // No next level after hard
-            default: return null;
+    private void discardPrefetch() {
+        if (prefetchTask != null) {
+            prefetchTask.cancel();
         }
+        prefetchTask = null;
+        prefetchedBoard = null;
+        prefetchedPuzzle = null;
+        awaitingPrefetch = false;
     }
     
-    private void createGridWithWords() {
-        int maxRetries = 50; // เพิ่มจำนวนครั้งในการลองใหม่
-        int retryCount = 0;
-        int targetWords = currentDifficulty != null ? currentDifficulty.wordCount : 10;
-        boolean success = false;
-        
-        // พยายามสร้างตารางจนกว่าจะได้คำครบตามจำนวนที่ต้องการ
-        while (retryCount < maxRetries && !success) {
-            // สร้างตารางว่างเปล่าโดยใช้ตัวอักษรพิเศษเพื่อแสดงว่ายังไม่ได้ใช้
-            grid = new char[GRID_SIZE][GRID_SIZE];
-            
-            // เติมด้วย '-' เพื่อแสดงว่ายังไม่ได้ใช้งาน
-            for (int i = 0; i < GRID_SIZE; i++) {
-                for (int j = 0; j < GRID_SIZE; j++) {
-                    grid[i][j] = '-';
-                }
-            }
-            
-            // สุ่มคำและพยายามวางลงในตาราง
-            // กรองคำที่ยังไม่ได้ใช้ในเซสชันนี้ออกมา
-            List<String> availableWords = new ArrayList<>();
-            for (String word : ALL_WORDS) {
-                if (!usedWordsInSession.contains(word)) {
-                    availableWords.add(word);
-                }
+    private void showEndlessBoardCleared() {
+        endless.boardCleared();
+        EndlessMode.Board next = prefetchedBoard != null ? prefetchedBoard : endless.nextBoard(ALL_WORDS.size());
+        String message = "You cleared " + currentBoard.displayName() + "!\n"
+            + String.format("Pace: %.1f words per minute", endless.currentPace())
+            + "\n\nNext board: " + next.describe();
+        String[] options = {"Next Board", "End Game"};
+        int choice = JOptionPane.showOptionDialog(this, message, "Board Cleared!",
+            JOptionPane.DEFAULT_OPTION, JOptionPane.INFORMATION_MESSAGE, null, options, options[0]);
+        if (choice == 0) {
+            startEndlessBoard(next);
+        } else {
+            showScreen(OPTIONS_SCREEN);
+        }
+    }
+
+    // ===== RACE MODE =====
+    // เข้าหน้าเกมทันทีพร้อมตารางว่าง แล้วต่อ server บน background thread - ตารางมาพร้อม ROUND แรก
+    private void startRace() {
+        endless = null;
+        currentBoard = null;
+        nextDifficulty = null;
+        discardPrefetch();
+        leaveRace();
+        showGameScreen(DifficultyLevel.NORMAL, GRID_SIZE, DifficultyLevel.NORMAL.timeLimit, "Race");
+        stopTimer();
+        clearBoardState();
+        playerLabel.setText("Player: " + playerName + " | Connecting to " + RACE_ADDRESS + " ...");
+
+        RaceSession session = new RaceSession();
+        race = session;
+        String name = playerName.isEmpty() ? "Player" : playerName;
+        scheduler.submit("raceConnect", () -> RaceClient.connect(RACE_ADDRESS, name, session), client -> {
+            if (race != session) {
+                // ผู้เล่นออกก่อนต่อเสร็จ
+                client.close();
+                return;
             }
-            
-            // ถ้าคำที่เหลือไม่พอ ให้รีเซ็ตคำที่ใช้แล้ว (เริ่มใหม่)
-            if (availableWords.size() < targetWords) {
-                usedWordsInSession.clear();
-                availableWords = new ArrayList<>(ALL_WORDS);
+            session.client = client;
+        }, error -> {
+            if (race == session) {
+                session.disconnected(error);
             }
-            
-            Collections.shuffle(availableWords, random);
-            
-            // ล้างรายการคำที่จะใช้
-            wordsToFind.clear();
-            
-            // ลำดับความสำคัญในการวาง: วางคำยาวก่อน
-            availableWords.sort((a, b) -> b.length() - a.length());
-            
-            // พยายามวางคำให้ได้ตามจำนวนเป้าหมาย - เพิ่มจำนวนครั้งที่พยายามวางแต่ละคำ
-            for (String word : availableWords) {
-                if (wordsToFind.size() >= targetWords) {
-                    break;
-                }
-                
-                if (placeWordInGridWithRetry(word, 500)) { // เพิ่มเป็น 500 ครั้ง
-                    wordsToFind.add(word);
-                }
+        });
+    }
+
+    // ปิดการเชื่อมต่อ (ออกจากหน้าเกมหรือปิดหน้าต่าง) - callback ที่ค้างอยู่ของ session เดิมถูกข้าม
+    private void leaveRace() {
+        RaceSession session = race;
+        race = null;
+        if (session != null && session.client != null) {
+            session.client.close();
+        }
+    }
+
+    // ตารางของรอบใหม่สร้างเสร็จ (บน EDT) - ทิ้งถ้าออกจากการแข่งหรือ server เริ่มรอบถัดไปแล้ว
+    private void showRaceRound(RaceSession session, int roundId, DifficultyLevel difficulty, long seed, Puzzle puzzle) {
+        if (race != session || roundId != session.latestRound) {
+            return;
+        }
+        session.roundId = roundId;
+        session.score = 0;
+        session.rivalScore = 0;
+        showGameScreen(difficulty, puzzle.size, difficulty.timeLimit, "Race round " + roundId);
+        clearBoardState();
+        currentSeed = seed;
+        applyPuzzle(puzzle);
+        session.updateLabel();
+        // คำที่ถูกพบระหว่างที่ตารางยังสร้างไม่เสร็จ
+        for (int[] find : session.earlyFinds) {
+            session.markFound(find[0], find[1]);
+        }
+        session.earlyFinds.clear();
+    }
+
+    // สถานะการเชื่อมต่อหนึ่งครั้ง - callback ทุกตัวมาบน EDT และถูกข้ามเมื่อ race ไม่ใช่ session นี้แล้ว
+    private class RaceSession implements RaceClient.Listener {
+        RaceClient client;
+        int playerId = RaceProtocol.NO_PLAYER;
+        int latestRound;  // รอบล่าสุดที่ server ประกาศ
+        int roundId;      // รอบของตารางที่แสดงอยู่ (0 = ยังไม่มี)
+        int score;
+        int rivalScore;
+        final List<int[]> earlyFinds = new ArrayList<>();
+
+        // ส่งเส้นที่ลากให้ server ตัดสิน - คำจะถูกขีดฆ่าเมื่อผลกลับมา
+        void claimSelection() {
+            RaceClient target = client;
+            if (selectedCells.isEmpty() || target == null || roundId == 0 || roundId != latestRound) {
+                return;
             }
-            
-            // ถ้าวางได้น้อยกว่าเป้าหมาย ให้พยายามวางอีกรอบด้วยวิธีบังคับวาง
-            if (wordsToFind.size() < targetWords) {
-                // สุ่มใหม่เพื่อลองคำอื่น
-                Collections.shuffle(availableWords, random);
-                
-                for (String word : availableWords) {
-                    if (wordsToFind.size() >= targetWords) {
-                        break;
-                    }
-                    if (!wordsToFind.contains(word) && word.length() <= GRID_SIZE) {
-                        // พยายามวางแนวนอนที่แถวว่าง
-                        if (forceHorizontalPlacement(word)) {
-                            wordsToFind.add(word);
-                        } else if (forceVerticalPlacement(word)) {
-                            // ถ้าวางแนวนอนไม่ได้ ลองแนวตั้ง
-                            wordsToFind.add(word);
-                        } else if (forceDiagonalPlacement(word)) {
-                            // ถ้าวางแนวตั้งไม่ได้ ลองแนวทแยง
-                            wordsToFind.add(word);
-                        }
-                    }
-                }
+            Point first = selectedCells.get(0);
+            Point last = selectedCells.get(selectedCells.size() - 1);
+            int claimRound = roundId;
+            scheduler.submit("raceClaim", () -> target.claim(claimRound, first.x, first.y, last.x, last.y),
+                seq -> { }, error -> { });
+        }
+
+        // playerId == NO_PLAYER คือคำที่ผู้เล่นเองพบจาก CLAIM_RESULT
+        void markFound(int finderId, int wordIndex) {
+            if (currentPuzzle == null || wordIndex >= wordsToFind.size() || foundIndices.get(wordIndex)) {
+                return;
             }
-            
-            // ถ้าวางได้ครบแล้ว ออกจาก loop
-            if (wordsToFind.size() >= targetWords) {
-                success = true;
-                
-                // บันทึกคำที่ใช้ไปแล้วในเซสชันนี้
-                usedWordsInSession.addAll(wordsToFind);
-                
-                System.out.println("✓ สร้างตารางสำเร็จ! วางคำได้ " + wordsToFind.size() + " คำ");
-                System.out.println("คำที่วาง: " + wordsToFind);
-                System.out.println("คำที่ใช้ไปแล้วทั้งหมด: " + usedWordsInSession);
-                break;
+            boolean mine = finderId == RaceProtocol.NO_PLAYER || finderId == playerId;
+            Puzzle.Placement placement = currentPuzzle.placements.get(wordIndex);
+            List<Point> cells = new ArrayList<>(placement.word.length());
+            for (int i = 0; i < placement.word.length(); i++) {
+                cells.add(new Point(placement.row + i * placement.rowDir, placement.col + i * placement.colDir));
             }
-            
-            // ถ้าวางไม่ครบ ลองใหม่
-            retryCount++;
-            if (retryCount < maxRetries) {
-                System.out.println("พยายามครั้งที่ " + (retryCount + 1) + " - วางได้เพียง " + wordsToFind.size() + "/" + targetWords + " คำ");
+            String word = wordsToFind.get(wordIndex);
+            foundIndices.set(wordIndex);
+            foundWords.add(word);
+            Color color = RIVAL_COLOR;
+            if (mine) {
+                color = PuzzleRenderer.WORD_COLORS[currentColorIndex % PuzzleRenderer.WORD_COLORS.length];
+                currentColorIndex++;
+                score++;
+            } else {
+                rivalScore++;
             }
+            foundWordsList.add(animateFound(new FoundWord(cells, color), !mine));
+            wordListPanel.markFound(currentPuzzle.alphabet.decode(word));
+            updateLabel();
         }
-        
-        // ตรวจสอบว่าวางคำครบหรือไม่
-        if (!success) {
-            System.out.println("⚠ เตือน: วางคำได้เพียง " + wordsToFind.size() + " จาก " + targetWords + " คำที่ต้องการ");
-            System.out.println("คำที่วางได้: " + wordsToFind);
+
+        void updateLabel() {
+            playerLabel.setText("Player: " + playerName + " | Race round " + roundId
+                + " | You: " + score + " • Rivals: " + rivalScore);
         }
-        
-        // หลังจากวางคำเสร็จแล้ว ถึงค่อยเติมช่องว่างด้วยตัวอักษรสุ่ม
-        for (int i = 0; i < GRID_SIZE; i++) {
-            for (int j = 0; j < GRID_SIZE; j++) {
-                if (grid[i][j] == '-') {
-                    grid[i][j] = (char) ('A' + random.nextInt(26));
-                }
+
+        @Override
+        public void welcomed(int id) {
+            if (race == this) {
+                playerId = id;
+                System.out.println("✓ เข้าร่วมการแข่งที่ " + RACE_ADDRESS + " (player #" + id + ")");
             }
         }
-    }
-    
-    // เมธอดสำหรับบังคับวางคำแนวนอนเมื่อวิธีปกติไม่ได้ผล
-    private boolean forceHorizontalPlacement(String word) {
-        // พยายามวางแนวนอนในแต่ละแถว
-        for (int row = 0; row < GRID_SIZE; row++) {
-            // ลองทุกตำแหน่งเริ่มต้นในแถว
-            for (int startCol = 0; startCol <= GRID_SIZE - word.length(); startCol++) {
-                boolean canPlace = true;
-                
-                // ตรวจสอบว่าวางได้หรือไม่
-                for (int i = 0; i < word.length(); i++) {
-                    char existingChar = grid[row][startCol + i];
-                    char targetChar = word.charAt(i);
-                    
-                    // อนุญาตถ้าช่องว่าง (-) หรือตัวอักษรเหมือนกัน
-                    if (existingChar != '-' && existingChar != targetChar) {
-                        canPlace = false;
-                        break;
-                    }
-                }
-                
-                // ถ้าวางได้ ให้วางเลย
-                if (canPlace) {
-                    for (int i = 0; i < word.length(); i++) {
-                        grid[row][startCol + i] = word.charAt(i);
-                    }
-                    return true;
-                }
+
+        @Override
+        public void roundStarted(int id, DifficultyLevel difficulty, long seed) {
+            if (race != this) {
+                return;
             }
+            latestRound = id;
+            earlyFinds.clear();
+            scheduler.submit("raceRound", () -> PuzzleGenerator.generateSeeded(difficulty, seed),
+                puzzle -> showRaceRound(this, id, difficulty, seed, puzzle),
+                this::disconnected);
         }
-        return false;
-    }
-    
-    // เมธอดสำหรับบังคับวางคำแนวตั้ง
-    private boolean forceVerticalPlacement(String word) {
-        // พยายามวางแนวตั้งในแต่ละคอลัมน์
-        for (int col = 0; col < GRID_SIZE; col++) {
-            // ลองทุกตำแหน่งเริ่มต้นในคอลัมน์
-            for (int startRow = 0; startRow <= GRID_SIZE - word.length(); startRow++) {
-                boolean canPlace = true;
-                
-                // ตรวจสอบว่าวางได้หรือไม่
-                for (int i = 0; i < word.length(); i++) {
-                    char existingChar = grid[startRow + i][col];
-                    char targetChar = word.charAt(i);
-                    
-                    // อนุญาตถ้าช่องว่าง (-) หรือตัวอักษรเหมือนกัน
-                    if (existingChar != '-' && existingChar != targetChar) {
-                        canPlace = false;
-                        break;
-                    }
-                }
-                
-                // ถ้าวางได้ ให้วางเลย
-                if (canPlace) {
-                    for (int i = 0; i < word.length(); i++) {
-                        grid[startRow + i][col] = word.charAt(i);
-                    }
-                    return true;
-                }
+
+        @Override
+        public void claimResult(int seq, int status, int wordIndex) {
+            if (race == this && status == RaceProtocol.RESULT_ACCEPTED && roundId == latestRound) {
+                markFound(RaceProtocol.NO_PLAYER, wordIndex);
             }
         }
-        return false;
-    }
-    
-    // เมธอดสำหรับบังคับวางคำแนวทแยง
-    private boolean forceDiagonalPlacement(String word) {
-        // ลองวางแนวทแยงทั้ง 4 ทิศทาง
-        int[][] directions = {
-            {1, 1},   // ขวาล่าง
-            {1, -1},  // ซ้ายล่าง
-            {-1, 1},  // ขวาบน
-            {-1, -1}  // ซ้ายบน
-        };
-        
-        for (int[] dir : directions) {
-            int rowDir = dir[0];
-            int colDir = dir[1];
-            
-            // ลองทุกตำแหน่งเริ่มต้นที่เป็นไปได้
-            for (int startRow = 0; startRow < GRID_SIZE; startRow++) {
-                for (int startCol = 0; startCol < GRID_SIZE; startCol++) {
-                    // คำนวณตำแหน่งสุดท้าย
-                    int endRow = startRow + (word.length() - 1) * rowDir;
-                    int endCol = startCol + (word.length() - 1) * colDir;
-                    
-                    // ตรวจสอบว่าอยู่ในขอบเขตหรือไม่
-                    if (endRow >= 0 && endRow < GRID_SIZE && endCol >= 0 && endCol < GRID_SIZE) {
-                        boolean canPlace = true;
-                        
-                        // ตรวจสอบว่าวางได้หรือไม่
-                        for (int i = 0; i < word.length(); i++) {
-                            int row = startRow + i * rowDir;
-                            int col = startCol + i * colDir;
-                            char existingChar = grid[row][col];
-                            char targetChar = word.charAt(i);
-                            
-                            // อนุญาตถ้าช่องว่าง (-) หรือตัวอักษรเหมือนกัน
-                            if (existingChar != '-' && existingChar != targetChar) {
-                                canPlace = false;
-                                break;
-                            }
-                        }
-                        
-                        // ถ้าวางได้ ให้วางเลย
-                        if (canPlace) {
-                            for (int i = 0; i < word.length(); i++) {
-                                int row = startRow + i * rowDir;
-                                int col = startCol + i * colDir;
-                                grid[row][col] = word.charAt(i);
-                            }
-                            return true;
-                        }
-                    }
+
+        @Override
+        public void wordsFound(int[] playerIds, int[] wordIndexes) {
+            if (race != this) {
+                return;
+            }
+            for (int i = 0; i < playerIds.length; i++) {
+                if (roundId != latestRound) {
+                    earlyFinds.add(new int[] {playerIds[i], wordIndexes[i]});
+                } else {
+                    markFound(playerIds[i], wordIndexes[i]);
                 }
             }
         }
-        return false;
-    }
-    
-    // เมธอดใหม่สำหรับวางคำพร้อมการลองหลายครั้ง
-    private boolean placeWordInGridWithRetry(String word, int maxAttempts) {
-        boolean placed = false;
-        int attempts = 0;
-        
-        while (!placed && attempts < maxAttempts) {
-            attempts++;
-            
-            // สุ่มตำแหน่งเริ่มต้น
-            int startRow = random.nextInt(GRID_SIZE);
-            int startCol = random.nextInt(GRID_SIZE);
-            
-            // สุ่มทิศทาง (0-7: 8 ทิศทาง)
-            int direction = random.nextInt(8);
-            int rowDir = 0, colDir = 0;
-            
-            switch (direction) {
-                case 0: rowDir = 0; colDir = 1; break;   // ขวา
-                case 1: rowDir = 1; colDir = 0; break;   // ลง
-                case 2: rowDir = 1; colDir = 1; break;   // ขวาล่าง
-                case 3: rowDir = 1; colDir = -1; break;  // ซ้ายล่าง
-                case 4: rowDir = 0; colDir = -1; break;  // ซ้าย
-                case 5: rowDir = -1; colDir = 0; break;  // บน
-                case 6: rowDir = -1; colDir = 1; break;  // ขวาบน
-                case 7: rowDir = -1; colDir = -1; break; // ซ้ายบน
+
+        @Override
+        public void roundOver(int id, int winnerId) {
+            if (race != this || id != roundId) {
+                return;
             }
-            
-            // ตรวจสอบว่าวางคำได้หรือไม่
-            if (canPlaceWord(word, startRow, startCol, rowDir, colDir)) {
-                // วางคำลงในตาราง
-                for (int i = 0; i < word.length(); i++) {
-                    int row = startRow + i * rowDir;
-                    int col = startCol + i * colDir;
-                    grid[row][col] = word.charAt(i);
-                }
-                placed = true;
+            stopTimer();
+            finishRecording();
+            String result = winnerId == playerId ? "You won!"
+                : winnerId == RaceProtocol.NO_PLAYER ? "No winner"
+                : "Player #" + winnerId + " won";
+            System.out.println("✓ จบรอบแข่ง " + id + ": " + result);
+            playerLabel.setText("Player: " + playerName + " | Race round " + id + " over - " + result
+                + " | Waiting for the next round ...");
+        }
+
+        @Override
+        public void disconnected(Throwable error) {
+            if (race != this) {
+                return;
             }
+            leaveRace();
+            JOptionPane.showMessageDialog(WordSearchGame.this,
+                "The race at " + RACE_ADDRESS + " ended:\n" + error,
+                "Race Error", JOptionPane.ERROR_MESSAGE);
+            showScreen(OPTIONS_SCREEN);
         }
-        
-        return placed;
+    }
+
+    private void enterGameScreen(DifficultyLevel theme, int size, int timeLimit, String levelName) {
+        showGameScreen(theme, size, timeLimit, levelName);
+        resetGame();
     }
     
-    private boolean placeWordInGrid(String word) {
-        boolean placed = false;
-        int attempts = 0;
-        int maxAttempts = 100;
-        
-        while (!placed && attempts < maxAttempts) {
-            attempts++;
-            
-            // สุ่มตำแหน่งเริ่มต้น
-            int startRow = random.nextInt(GRID_SIZE);
-            int startCol = random.nextInt(GRID_SIZE);
-            
-            // สุ่มทิศทาง (0-7: 8 ทิศทาง)
-            int direction = random.nextInt(8);
-            int rowDir = 0, colDir = 0;
-            
-            switch (direction) {
-                case 0: rowDir = 0; colDir = 1; break;   // ขวา
-                case 1: rowDir = 1; colDir = 0; break;   // ลง
-                case 2: rowDir = 1; colDir = 1; break;   // ขวาล่าง
-                case 3: rowDir = 1; colDir = -1; break;  // ซ้ายล่าง
-                case 4: rowDir = 0; colDir = -1; break;  // ซ้าย
-                case 5: rowDir = -1; colDir = 0; break;  // บน
-                case 6: rowDir = -1; colDir = 1; break;  // ขวาบน
-                case 7: rowDir = -1; colDir = -1; break; // ซ้ายบน
-            }
-            
-            // ตรวจสอบว่าวางคำได้หรือไม่
-            if (canPlaceWord(word, startRow, startCol, rowDir, colDir)) {
-                // วางคำลงในตาราง
-                for (int i = 0; i < word.length(); i++) {
-                    int row = startRow + i * rowDir;
-                    int col = startCol + i * colDir;
-                    grid[row][col] = word.charAt(i);
-                }
-                placed = true;
-            }
+    private void showGameScreen(DifficultyLevel theme, int size, int timeLimit, String levelName) {
+        transitionStartNanos = System.nanoTime();
+        transitionEvent = new GameEvents.ScreenTransition();
+        transitionEvent.begin();
+        transitionPrefetched = false;
+        currentDifficulty = theme;
+        currentTimeLimit = timeLimit;
+        currentLevelName = levelName;
+        
+        // Create the game screen on first use, afterwards only rebind it
+        if (gameScreen == null) {
+            gameScreen = createGameScreen();
+            gameScreen.setName(GAME_SCREEN);
+            mainContainer.add(gameScreen, GAME_SCREEN);
         }
+        resizeGrid(size);
+        applyTheme(theme);
+        playerLabel.setText("Player: " + playerName + " | " + levelName);
         
-        return placed;
+        showScreen(GAME_SCREEN);
     }
     
-    private boolean canPlaceWord(String word, int startRow, int startCol, int rowDir, int colDir) {
-        // ตรวจสอบว่าคำจะออกนอกตารางหรือไม่
-        int endRow = startRow + (word.length() - 1) * rowDir;
-        int endCol = startCol + (word.length() - 1) * colDir;
-        
-        if (endRow < 0 || endRow >= GRID_SIZE || endCol < 0 || endCol >= GRID_SIZE) {
-            return false;
+    // เปลี่ยนหน้าจอ - ถ้าออกจากหน้าเกม ให้ยกเลิกงานสร้างตารางที่ค้างอยู่
+    // (เฉพาะงานของหน้าเกม - งานโหลดตอนเริ่มโปรแกรมต้องทำต่อจนเสร็จแม้ผู้เล่นเปลี่ยนหน้า)
+    private void showScreen(String screen) {
+        if (OPTIONS_SCREEN.equals(screen) && !optionsScreenBuilt) {
+            mainContainer.add(createOptionsScreen(), OPTIONS_SCREEN);
+            optionsScreenBuilt = true;
+            StartupTimeline.mark(StartupTimeline.OPTIONS_SCREEN);
         }
-        
-        // ตรวจสอบว่าช่องว่างพอหรือไม่ (ยอมให้ทับกันถ้าตัวอักษรเหมือนกัน หรือเป็นช่องว่าง)
-        for (int i = 0; i < word.length(); i++) {
-            int row = startRow + i * rowDir;
-            int col = startCol + i * colDir;
-            char existingChar = grid[row][col];
-            char targetChar = word.charAt(i);
-            
-            // อนุญาตถ้าช่องว่าง (-) หรือตัวอักษรเหมือนกัน
-            if (existingChar != '-' && existingChar != targetChar) {
-                return false;
+        if (!GAME_SCREEN.equals(screen)) {
+            leaveRace();
+            finishRecording();
+            stopTimer();
+            if (pendingGeneration != null) {
+                pendingGeneration.cancel();
             }
+            pendingGeneration = null;
+            discardPrefetch();
+        }
+        cardLayout.show(mainContainer, screen);
+    }
+    
+    private DifficultyLevel getNextDifficulty(DifficultyLevel current) {
+        switch (current) {
+            case EASY: return DifficultyLevel.NORMAL;
+            case NORMAL: return DifficultyLevel.HARD;
+            case HARD: return null; // No next level after hard
+            default: return null;
         }
-        
-        return true;
     }
     
     // ===== GAME SCREEN =====
     private JPanel createGameScreen() {
         JPanel mainPanel = new JPanel(new BorderLayout(10, 10));
-        mainPanel.setBackground(currentDifficulty.themeColor);
         mainPanel.setBorder(BorderFactory.createEmptyBorder(10, 10, 10, 10));
         
         // Top panel with player info and timer
-        JPanel topPanel = new JPanel(new BorderLayout());
-        topPanel.setBackground(currentDifficulty.themeColor);
+        gameTopPanel = new JPanel(new BorderLayout());
         
-        JLabel playerLabel = new JLabel("Player: " + playerName + " | " + currentDifficulty.displayName);
-        playerLabel.setFont(new Font("Arial", Font.BOLD, 18));
+        playerLabel = new JLabel();
+        playerLabel.setFont(PLAYER_FONT);
         playerLabel.setForeground(new Color(50, 50, 50));
         
-        timerLabel = new JLabel("Time: 00:00");
-        timerLabel.setFont(new Font("Arial", Font.BOLD, 20));
-        timerLabel.setForeground(new Color(180, 0, 0));
+        timerDisplay = new TimerDisplay();
+        
+        bonusLabel = new JLabel("", SwingConstants.CENTER);
+        bonusLabel.setFont(PLAYER_FONT);
+        bonusLabel.setForeground(new Color(90, 90, 90));
         
-        topPanel.add(playerLabel, BorderLayout.WEST);
-        topPanel.add(timerLabel, BorderLayout.EAST);
+        gameTopPanel.add(playerLabel, BorderLayout.WEST);
+        gameTopPanel.add(bonusLabel, BorderLayout.CENTER);
+        gameTopPanel.add(timerDisplay, BorderLayout.EAST);
         
         // Create game UI
-        JPanel gamePanel = createGameUI();
+        gameContainer = createGameUI();
         
-        mainPanel.add(topPanel, BorderLayout.NORTH);
-        mainPanel.add(gamePanel, BorderLayout.CENTER);
+        mainPanel.add(gameTopPanel, BorderLayout.NORTH);
+        mainPanel.add(gameContainer, BorderLayout.CENTER);
         
         // ตั้งขนาดหน้าต่างให้แน่ใจว่าเห็นตารางครบ 12x12
         setPreferredSize(new Dimension(900, 750));
@@ -687,32 +835,69 @@ public class WordSearchGame extends JFrame {
         return mainPanel;
     }
     
+    // เปลี่ยนสีธีมของหน้าเกมที่มีอยู่แล้วตามระดับความยาก โดยไม่สร้าง component ใหม่
+    private void applyTheme(DifficultyLevel difficulty) {
+        gameScreen.setBackground(difficulty.themeColor);
+        gameTopPanel.setBackground(difficulty.themeColor);
+        gameContainer.setBackground(difficulty.themeColor);
+        gridPanel.setBackground(difficulty.darkColor);
+        wordPanel.setBackground(difficulty.lightColor);
+        wordListTitle.setForeground(difficulty.textColor);
+        boardView.setColors(difficulty.darkColor, difficulty.lightColor, difficulty.darkColor);
+        
+        if (buttons == null) {
+            return;
+        }
+        for (int row = 0; row < gridSize; row++) {
+            for (int col = 0; col < gridSize; col++) {
+                JButton btn = buttons[row][col];
+                btn.setBackground(difficulty.lightColor);
+                btn.setForeground(difficulty.darkColor);
+                btn.setBorder(difficulty.cellBorder);
+            }
+        }
+    }
+    
+    // วัดเวลาตั้งแต่กดเริ่มด่านจนตารางพร้อมเล่นถูกวาดครั้งแรก (highlightPanel วาดทับตารางเป็นชั้นสุดท้าย)
+    private void reportTransitionIfReady() {
+        if (transitionStartNanos != 0 && grid != null) {
+            long millis = (System.nanoTime() - transitionStartNanos) / 1_000_000;
+            transitionStartNanos = 0;
+            if (transitionEvent.shouldCommit()) {
+                transitionEvent.level = currentLevelName;
+                transitionEvent.gridSize = gridSize;
+                transitionEvent.prefetched = transitionPrefetched;
+                transitionEvent.commit();
+            }
+            System.out.println("⏱ Screen transition to " + currentLevelName + ": " + millis + " ms"
+                + (transitionPrefetched ? " (prefetched)" : ""));
+            if (!StartupTimeline.hasMark(StartupTimeline.FIRST_PLAYABLE)) {
+                StartupTimeline.mark(StartupTimeline.FIRST_PLAYABLE);
+                System.out.println(StartupTimeline.report());
+                if (STARTUP_TRAINING) {
+                    // ออกหลังวาดเสร็จ เพื่อให้ -XX:ArchiveClassesAtExit เก็บ class ของหน้าเกมด้วย
+                    SwingUtilities.invokeLater(() -> System.exit(0));
+                }
+            }
+        }
+    }
+    
     private JPanel createGameUI() {
         JPanel container = new JPanel(new BorderLayout(10, 10));
-        container.setBackground(currentDifficulty.themeColor);
         
         // Panel หลักที่จะใช้ LayeredPane เพื่อวาด highlight ทับด้านบน
-        JLayeredPane layeredPane = new JLayeredPane();
-        layeredPane.setPreferredSize(new Dimension(
-            GRID_SIZE * (CELL_SIZE + 2) + 20,
-            GRID_SIZE * (CELL_SIZE + 2) + 20
-        ));
+        layeredPane = new JLayeredPane();
         
-        // Panel สำหรับตาราง
-        gridPanel = new JPanel(new GridLayout(GRID_SIZE, GRID_SIZE, 2, 2));
-        Color darkColor = currentDifficulty.themeColor.darker();
-        gridPanel.setBackground(darkColor);
+        // Panel สำหรับตาราง - ปุ่มถูกสร้างใน resizeGrid ตามขนาดตารางของด่าน
+        gridPanel = new JPanel();
         gridPanel.setBorder(BorderFactory.createEmptyBorder(10, 10, 10, 10));
-        gridPanel.setBounds(0, 0, 
-            GRID_SIZE * (CELL_SIZE + 2) + 20,
-            GRID_SIZE * (CELL_SIZE + 2) + 20
-        );
-        buttons = new JButton[GRID_SIZE][GRID_SIZE];
         
         // Panel สำหรับวาด highlight ทับด้านบน
         highlightPanel = new JPanel() {
             @Override
             protected void paintComponent(Graphics g) {
+                GameEvents.BoardPaint event = new GameEvents.BoardPaint();
+                event.begin();
                 super.paintComponent(g);
                 Graphics2D g2d = (Graphics2D) g;
                 g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
@@ -720,70 +905,143 @@ public class WordSearchGame extends JFrame {
                 Color highlightColor = new Color(255, 255, 150);
                 
                 // วาด highlight สำหรับคำที่พบแล้ว
+                Composite opaque = g2d.getComposite();
                 for (FoundWord fw : foundWordsList) {
-                    // ทำให้สีโปร่งใสนิดหน่อย
-                    Color transparentColor = new Color(fw.color.getRed(), fw.color.getGreen(), 
-                                                       fw.color.getBlue(), 180);
-                    g2d.setColor(transparentColor);
-                    g2d.setStroke(new BasicStroke(CELL_SIZE * 0.6f, BasicStroke.CAP_ROUND, BasicStroke.JOIN_ROUND));
-                    
                     if (fw.cells.size() > 0) {
                         Point first = fw.cells.get(0);
                         Point last = fw.cells.get(fw.cells.size() - 1);
                         
                         // คำนวณตำแหน่งกลางเซลล์
-                        int x1 = first.y * (CELL_SIZE + 2) + CELL_SIZE / 2 + 10;
-                        int y1 = first.x * (CELL_SIZE + 2) + CELL_SIZE / 2 + 10;
-                        int x2 = last.y * (CELL_SIZE + 2) + CELL_SIZE / 2 + 10;
-                        int y2 = last.x * (CELL_SIZE + 2) + CELL_SIZE / 2 + 10;
+                        int x1 = first.y * (cellSize + 2) + cellSize / 2 + 10;
+                        int y1 = first.x * (cellSize + 2) + cellSize / 2 + 10;
+                        int x2 = last.y * (cellSize + 2) + cellSize / 2 + 10;
+                        int y2 = last.x * (cellSize + 2) + cellSize / 2 + 10;
+                        
+                        // คำที่เพิ่งพบ: ลากเส้นออกจากช่องแรก หรือจางเข้า (คำโบนัส)
+                        if (fw.appear != null && !fw.appear.isFinished()) {
+                            float t = fw.appear.value();
+                            if (fw.fadeIn) {
+                                g2d.setComposite(AlphaComposite.SrcOver.derive(t));
+                            } else {
+                                x2 = x1 + Math.round((x2 - x1) * t);
+                                y2 = y1 + Math.round((y2 - y1) * t);
+                            }
+                        }
                         
-                        g2d.drawLine(x1, y1, x2, y2);
+                        PuzzleRenderer.strokeWord(g2d, fw.color, cellSize, x1, y1, x2, y2);
+                        g2d.setComposite(opaque);
                     }
                 }
                 
                 // วาด highlight สำหรับการเลือกปัจจุบัน
                 if (!selectedCells.isEmpty()) {
-                    // ทำให้สีโปร่งใสนิดหน่อย
-                    Color transparentHighlight = new Color(highlightColor.getRed(), 
-                                                           highlightColor.getGreen(), 
-                                                           highlightColor.getBlue(), 180);
-                    g2d.setColor(transparentHighlight);
-                    g2d.setStroke(new BasicStroke(CELL_SIZE * 0.6f, BasicStroke.CAP_ROUND, BasicStroke.JOIN_ROUND));
-                    
                     Point first = selectedCells.get(0);
                     Point last = selectedCells.get(selectedCells.size() - 1);
                     
-                    int x1 = first.y * (CELL_SIZE + 2) + CELL_SIZE / 2 + 10;
-                    int y1 = first.x * (CELL_SIZE + 2) + CELL_SIZE / 2 + 10;
-                    int x2 = last.y * (CELL_SIZE + 2) + CELL_SIZE / 2 + 10;
-                    int y2 = last.x * (CELL_SIZE + 2) + CELL_SIZE / 2 + 10;
+                    int x1 = first.y * (cellSize + 2) + cellSize / 2 + 10;
+                    int y1 = first.x * (cellSize + 2) + cellSize / 2 + 10;
+                    int x2 = last.y * (cellSize + 2) + cellSize / 2 + 10;
+                    int y2 = last.x * (cellSize + 2) + cellSize / 2 + 10;
                     
-                    g2d.drawLine(x1, y1, x2, y2);
+                    PuzzleRenderer.strokeWord(g2d, highlightColor, cellSize, x1, y1, x2, y2);
+                }
+                
+                event.end();
+                if (event.shouldCommit()) {
+                    event.component = "highlightPanel";
+                    event.highlights = foundWordsList.size();
+                    event.selectedCells = selectedCells.size();
+                    event.commit();
                 }
+                reportTransitionIfReady();
             }
         };
         highlightPanel.setOpaque(false);
-        highlightPanel.setBounds(0, 0,
-            GRID_SIZE * (CELL_SIZE + 2) + 20,
-            GRID_SIZE * (CELL_SIZE + 2) + 20
-        );
         
         // เพิ่ม panels เข้า layered pane
         layeredPane.add(gridPanel, JLayeredPane.DEFAULT_LAYER);
         layeredPane.add(highlightPanel, JLayeredPane.PALETTE_LAYER);
         
-        Color lightColor = currentDifficulty.themeColor.brighter();
-        Color mediumColor = currentDifficulty.themeColor;
+        // ตารางใหญ่ (event) - เมาส์ผ่าน handler เดียวกับปุ่ม
+        boardView = new BoardViewport(animations, new BoardViewport.CellListener() {
+            @Override
+            public void pressed(int row, int col) {
+                onCellPressed(row, col);
+            }
+            
+            @Override
+            public void entered(int row, int col) {
+                onCellEntered(row, col);
+            }
+            
+            @Override
+            public void released(int row, int col) {
+                onCellReleased(row, col);
+            }
+        });
+        boardView.setCellFont(alphabet.isLatin() ? CELL_FONT : SCRIPT_CELL_FONT);
+        boardView.setPreferredSize(new Dimension(MAX_GRID_PIXELS + 20, MAX_GRID_PIXELS + 20));
+        boardView.setAfterPaint(this::reportTransitionIfReady);
+        boardCards = new JPanel(new CardLayout());
+        boardCards.setOpaque(false);
+        boardCards.add(layeredPane, BUTTON_BOARD);
+        boardCards.add(boardView, VIEWPORT_BOARD);
+        resizeGrid(GRID_SIZE);
+        // Panel สำหรับรายการคำ
+        wordPanel = new JPanel(new BorderLayout(0, 10));
+        wordPanel.setBorder(BorderFactory.createEmptyBorder(10, 10, 10, 10));
+        
+        wordListTitle = new JLabel("Words to Find ");
+        wordListTitle.setFont(new Font("Arial", Font.BOLD, 18));
+        
+        // รายการคำแบบวาดเองใน scroll pane - วาดเฉพาะแถวที่มองเห็น
+        wordListPanel = new WordListPanel();
+        JScrollPane wordScroll = new JScrollPane(wordListPanel,
+            ScrollPaneConstants.VERTICAL_SCROLLBAR_AS_NEEDED,
+            ScrollPaneConstants.HORIZONTAL_SCROLLBAR_NEVER);
+        wordScroll.setBorder(BorderFactory.createEmptyBorder());
+        wordScroll.setOpaque(false);
+        wordScroll.getViewport().setOpaque(false);
+        
+        wordPanel.add(wordListTitle, BorderLayout.NORTH);
+        wordPanel.add(wordScroll, BorderLayout.CENTER);
+        
+        container.add(boardCards, BorderLayout.CENTER);
+        container.add(wordPanel, BorderLayout.EAST);
         
-        for (int row = 0; row < GRID_SIZE; row++) {
-            for (int col = 0; col < GRID_SIZE; col++) {
-                JButton btn = new JButton(grid != null ? String.valueOf(grid[row][col]) : "");
-                btn.setFont(new Font("Arial", Font.BOLD, 18)); // ลดขนาดฟอนต์จาก 20 เป็น 18
-                btn.setPreferredSize(new Dimension(CELL_SIZE, CELL_SIZE));
-                btn.setBackground(lightColor);
-                btn.setForeground(darkColor);
+        return container;
+    }
+    
+    // สร้างปุ่มตารางใหม่เมื่อขนาดตารางเปลี่ยน (endless) - ตารางใหญ่ใช้ช่องเล็กลงในพื้นที่เท่าเดิม
+    // ตารางที่ใหญ่เกิน MAX_BUTTON_GRID ใช้ boardView แทนและทิ้งปุ่มเดิม
+    private void resizeGrid(int size) {
+        if (size == gridSize) {
+            return;
+        }
+        gridSize = size;
+        CardLayout cards = (CardLayout) boardCards.getLayout();
+        if (size > MAX_BUTTON_GRID) {
+            gridPanel.removeAll();
+            buttons = null;
+            cards.show(boardCards, VIEWPORT_BOARD);
+            return;
+        }
+        cards.show(boardCards, BUTTON_BOARD);
+        cellSize = Math.min(CELL_SIZE, MAX_GRID_PIXELS / size - 2);
+        int pixels = size * (cellSize + 2) + 20;
+        layeredPane.setPreferredSize(new Dimension(pixels, pixels));
+        gridPanel.setBounds(0, 0, pixels, pixels);
+        highlightPanel.setBounds(0, 0, pixels, pixels);
+        gridPanel.removeAll();
+        gridPanel.setLayout(new GridLayout(size, size, 2, 2));
+        buttons = new JButton[size][size];
+        
+        for (int row = 0; row < size; row++) {
+            for (int col = 0; col < size; col++) {
+                JButton btn = new JButton("");
+                btn.setFont(alphabet.isLatin() ? CELL_FONT : SCRIPT_CELL_FONT);
+                btn.setPreferredSize(new Dimension(cellSize, cellSize));
                 btn.setFocusPainted(false);
-                btn.setBorder(BorderFactory.createLineBorder(mediumColor, 1));
                 btn.setMargin(new Insets(0, 0, 0, 0));
                 btn.setOpaque(true);
                 btn.setContentAreaFilled(true);
@@ -794,23 +1052,17 @@ public class WordSearchGame extends JFrame {
                 btn.addMouseListener(new MouseAdapter() {
                     @Override
                     public void mousePressed(MouseEvent e) {
-                        startCell = new Point(r, c);
-                        endCell = new Point(r, c);
-                        highlightSelection();
+                        onCellPressed(r, c);
                     }
                     
                     @Override
                     public void mouseReleased(MouseEvent e) {
-                        checkWord();
-                        clearSelection();
+                        onCellReleased(r, c);
                     }
                     
                     @Override
                     public void mouseEntered(MouseEvent e) {
-                        if (startCell != null) {
-                            endCell = new Point(r, c);
-                            highlightSelection();
-                        }
+                        onCellEntered(r, c);
                     }
                 });
                 
@@ -818,19 +1070,43 @@ public class WordSearchGame extends JFrame {
                 gridPanel.add(btn);
             }
         }
-        
-        // Panel สำหรับรายการคำ
-        wordPanel = new JPanel();
-        wordPanel.setLayout(new BoxLayout(wordPanel, BoxLayout.Y_AXIS));
-        wordPanel.setBackground(lightColor);
-        wordPanel.setBorder(BorderFactory.createEmptyBorder(10, 10, 10, 10));
-        
-        updateWordList();
-        
-        container.add(layeredPane, BorderLayout.CENTER);
-        container.add(wordPanel, BorderLayout.EAST);
-        
-        return container;
+        gridPanel.revalidate();
+        layeredPane.revalidate();
+    }
+    
+    // handler ของเมาส์บนตาราง - InputReplay เรียกผ่านเส้นทางเดียวกันนี้
+    private void onCellPressed(int row, int col) {
+        if (recorder != null) {
+            recorder.record(InputRecording.PRESS, row, col);
+        }
+        startCell = new Point(row, col);
+        endCell = new Point(row, col);
+        highlightSelection();
+    }
+    
+    private void onCellEntered(int row, int col) {
+        if (startCell == null) {
+            return;
+        }
+        if (recorder != null) {
+            recorder.record(InputRecording.ENTER, row, col);
+        }
+        endCell = new Point(row, col);
+        highlightSelection();
+    }
+    
+    private void onCellReleased(int row, int col) {
+        if (recorder != null) {
+            recorder.record(InputRecording.RELEASE, row, col);
+        }
+        scheduler.runOnEdt("checkWord", () -> {
+            if (race != null) {
+                race.claimSelection();
+            } else {
+                checkWord();
+            }
+            clearSelection();
+        });
     }
     
     private void highlightSelection() {
@@ -878,62 +1154,207 @@ public class WordSearchGame extends JFrame {
             }
         }
         
+        if (buttons == null) {
+            if (selectedCells.isEmpty()) {
+                boardView.clearSelection();
+            } else {
+                Point first = selectedCells.get(0);
+                Point last = selectedCells.get(selectedCells.size() - 1);
+                boardView.setSelection(first.x, first.y, last.x, last.y);
+            }
+            return;
+        }
         gridPanel.repaint();
         highlightPanel.repaint();
     }
     
     private void checkWord() {
-        if (selectedCells.isEmpty()) return;
-        
-        StringBuilder word = new StringBuilder();
-        StringBuilder reverseWord = new StringBuilder();
-        
-        for (Point p : selectedCells) {
-            word.append(grid[p.x][p.y]);
+        if (selectedCells.isEmpty() || currentPuzzle == null) return;
+        GameEvents.WordCheck event = new GameEvents.WordCheck();
+        event.begin();
+        int foundBefore = foundWords.size();
+        int bonusBefore = bonusScore;
+        checkSelection();
+        event.end();
+        if (event.shouldCommit()) {
+            event.hit = foundWords.size() != foundBefore;
+            event.bonus = bonusScore != bonusBefore;
+            event.length = selectedCells.size();
+            event.foundWords = foundWords.size();
+            event.commit();
         }
-        reverseWord.append(word).reverse();
-        
-        String wordStr = word.toString();
-        String reverseStr = reverseWord.toString();
+    }
+    
+    private void checkSelection() {
         
-        // ตรวจสอบว่าพบคำหรือไม่
-        String foundWord = null;
-        if (wordsToFind.contains(wordStr) && !foundWords.contains(wordStr)) {
-            foundWord = wordStr;
-        } else if (wordsToFind.contains(reverseStr) && !foundWords.contains(reverseStr)) {
-            foundWord = reverseStr;
-        }
+        // ตรวจสอบว่าพบคำหรือไม่ (ทั้งอ่านไปข้างหน้าและย้อนกลับ)
+        Point first = selectedCells.get(0);
+        Point last = selectedCells.get(selectedCells.size() - 1);
+        int wordIndex = currentPuzzle.matchSelection(first.x, first.y, last.x, last.y, foundIndices);
         
-        if (foundWord != null) {
+        if (wordIndex >= 0) {
+            String foundWord = wordsToFind.get(wordIndex);
+            foundIndices.set(wordIndex);
             foundWords.add(foundWord);
             
             // เลือกสีสำหรับคำนี้
-            Color wordColor = WORD_COLORS[currentColorIndex % WORD_COLORS.length];
+            Color wordColor = PuzzleRenderer.WORD_COLORS[currentColorIndex % PuzzleRenderer.WORD_COLORS.length];
             currentColorIndex++;
             
             // เพิ่มคำที่พบลงในลิสต์พร้อมสี
-            foundWordsList.add(new FoundWord(selectedCells, wordColor));
+            foundWordsList.add(animateFound(new FoundWord(selectedCells, wordColor), false));
             
             // ขีดฆ่าคำในรายการ
-            JLabel label = wordLabels.get(foundWord);
-            label.setText("<html><strike>" + foundWord + "</strike></html>");
-            label.setForeground(new Color(100, 150, 100));
+            wordListPanel.markFound(currentPuzzle.alphabet.decode(foundWord));
             
-            // Repaint เพื่อแสดง highlight
-            highlightPanel.repaint();
+            if (endless != null) {
+                endless.wordFound(currentTimeLimit * 1_000_000_000L - countdown.remainingNanos());
+                if (prefetchedBoard == null && foundWords.size() < wordsToFind.size()
+                        && endless.shouldPrefetch(foundWords.size(), wordsToFind.size())) {
+                    prefetchNextBoard();
+                }
+            }
             
             // ตรวจสอบว่าชนะหรือยัง
             if (foundWords.size() == wordsToFind.size()) {
                 stopTimer();
-                showLevelCompletionDialog();
+                finishRecording();
+                if (!replaying) {
+                    showLevelCompletionDialog();
+                }
+            }
+        } else if (bonusDictionary != null && currentPuzzle.matchSelection(first.x, first.y, last.x, last.y, null) < 0) {
+            checkBonusWord(first, last);
+        }
+    }
+    
+    private static Alphabet.Words loadWords() {
+        String spec = System.getProperty(WORDS_PROPERTY);
+        if (spec != null) {
+            try {
+                Alphabet.Words words = Alphabet.load(spec);
+                System.out.println("✓ ชุดคำ " + words.alphabet + ": " + words.encoded.size() + " คำ");
+                return words;
+            } catch (IOException | IllegalArgumentException e) {
+                System.out.println("⚠ โหลดชุดคำ " + spec + " ไม่ได้ (" + e.getMessage() + ") - ใช้ชุดคำเริ่มต้น");
             }
         }
+        return new Alphabet.Words(Alphabet.LATIN, PuzzleGenerator.DEFAULT_WORDS);
+    }
+    
+    // ===== BONUS WORDS =====
+    // โหลดพจนานุกรม DAWG (สร้างด้วย java Dawg build) บน background thread ถ้ามีไฟล์
+    private void loadBonusDictionary() {
+        Path path = Paths.get(System.getProperty(DICTIONARY_PROPERTY, "words.dawg"));
+        if (!alphabet.isLatin() || !Files.isRegularFile(path)) { // DAWG เก็บเฉพาะ A-Z
+            return;
+        }
+        scheduler.submit("loadDictionary", () -> Dawg.load(path), dawg -> {
+            bonusDictionary = dawg;
+            System.out.println("✓ โหลดพจนานุกรมคำโบนัส " + path + " (" + dawg.memoryBytes() / 1024 + " KB)");
+            updateBonusLabel();
+        }, error -> System.out.println("⚠ โหลดพจนานุกรม " + path + " ไม่ได้ - ปิดคำโบนัส"));
+    }
+    
+    private void loadShape() {
+        String spec = System.getProperty(SHAPE_PROPERTY);
+        if (spec == null) {
+            return;
+        }
+        shapeLoad = scheduler.submit("loadShape", () -> BoardMask.parse(spec, GRID_SIZE), mask -> {
+            shape = mask;
+            System.out.println("✓ ตารางรูปทรง " + spec + " (" + mask.size + "x" + mask.size + ", เปิด " + mask.openCells() + " ช่อง)");
+            shapeLoaded();
+        }, error -> {
+            System.out.println("⚠ โหลดรูปทรง " + spec + " ไม่ได้ (" + error + ") - ใช้ตารางสี่เหลี่ยม");
+            shapeLoaded();
+        });
+    }
+    
+    private void shapeLoaded() {
+        shapeLoad = null;
+        DifficultyLevel waiting = startAfterShape;
+        startAfterShape = null;
+        if (waiting != null) {
+            startGame(waiting);
+        }
+    }
+    
+    // คำที่ไม่ได้อยู่ในรายการแต่มีในพจนานุกรม ได้คะแนนโบนัสตามความยาวคำ (นับครั้งเดียวต่อเส้น)
+    private void checkBonusWord(Point first, Point last) {
+        int length = selectedCells.size();
+        if (length < Dawg.MIN_WORD_LENGTH) {
+            return;
+        }
+        int rowStep = Integer.signum(last.x - first.x);
+        int colStep = Integer.signum(last.y - first.y);
+        if (!bonusDictionary.containsLine(grid, first.x, first.y, rowStep, colStep, length)
+                && !bonusDictionary.containsLine(grid, last.x, last.y, -rowStep, -colStep, length)) {
+            return;
+        }
+        
+        // key ของเส้นไม่ขึ้นกับทิศทางที่ลาก
+        long a = (long) first.x * gridSize + first.y;
+        long b = (long) last.x * gridSize + last.y;
+        if (!bonusLines.add(Math.min(a, b) << 32 | Math.max(a, b))) {
+            return;
+        }
+        bonusScore += length;
+        foundWordsList.add(animateFound(new FoundWord(selectedCells, BONUS_COLOR), true));
+        updateBonusLabel();
+    }
+    
+    private void updateBonusLabel() {
+        if (bonusLabel != null) {
+            bonusLabel.setText(bonusDictionary != null ? "Bonus: " + bonusScore : "");
+        }
+    }
+    
+    // ===== ANIMATION =====
+    // เริ่ม effect ของคำที่เพิ่งพบ - repaint เฉพาะกรอบของเส้นคำนั้นทุกเฟรมจนจบ
+    // ตารางใหญ่วาดเส้นลง tile ของ boardView ทันที (ไม่มี effect)
+    private FoundWord animateFound(FoundWord word, boolean fadeIn) {
+        Point first = word.cells.get(0);
+        Point last = word.cells.get(word.cells.size() - 1);
+        if (buttons == null) {
+            boardView.addHighlight(first.x, first.y, last.x, last.y, word.color);
+            return word;
+        }
+        int x1 = first.y * (cellSize + 2) + cellSize / 2 + 10;
+        int y1 = first.x * (cellSize + 2) + cellSize / 2 + 10;
+        int x2 = last.y * (cellSize + 2) + cellSize / 2 + 10;
+        int y2 = last.x * (cellSize + 2) + cellSize / 2 + 10;
+        int pad = (int) Math.ceil(cellSize * PuzzleRenderer.HIGHLIGHT_STROKE_RATIO / 2) + 2;
+        Rectangle dirty = new Rectangle(Math.min(x1, x2) - pad, Math.min(y1, y2) - pad,
+            Math.abs(x2 - x1) + 2 * pad, Math.abs(y2 - y1) + 2 * pad);
+        word.fadeIn = fadeIn;
+        word.appear = animations.start(highlightPanel, dirty, fadeIn ? FADE_MILLIS : SWEEP_MILLIS);
+        return word;
+    }
+    
+    // เศษกระดาษสีร่วงลงมาบนหน้าชนะ แล้วจางหายในช่วงท้าย (t = 0..1 ตามเวลาจริง)
+    private static void paintConfetti(Graphics2D g, float t, int width, int height) {
+        Random pieces = new Random(CONFETTI_PIECES); // ชุดเดิมทุกเฟรม - ตำแหน่งขึ้นกับ t เท่านั้น
+        float alpha = t < 0.7f ? 1f : (1 - t) / 0.3f;
+        g.setComposite(AlphaComposite.SrcOver.derive(Math.max(0f, alpha)));
+        for (int i = 0; i < CONFETTI_PIECES; i++) {
+            double x = pieces.nextDouble() * width;
+            double speed = 0.6 + pieces.nextDouble() * 0.8;
+            double sway = pieces.nextDouble() * Math.PI * 2;
+            int y = (int) (-20 + (height + 40) * Math.min(1.0, t * speed + pieces.nextDouble() * 0.2));
+            g.setColor(PuzzleRenderer.WORD_COLORS[i % PuzzleRenderer.WORD_COLORS.length].darker());
+            g.fillRect((int) (x + Math.sin(sway + t * 12) * 15), y, 8, 12);
+        }
     }
     
     private void showLevelCompletionDialog() {
         String message;
         String[] options;
         
+        if (endless != null) {
+            showEndlessBoardCleared();
+            return;
+        }
         if (nextDifficulty == null) {
             // Completed Hard level - show victory screen
             showVictoryScreen();
@@ -962,7 +1383,7 @@ public class WordSearchGame extends JFrame {
             }
         } else {
             // End Game - back to options
-            cardLayout.show(mainContainer, OPTIONS_SCREEN);
+            showScreen(OPTIONS_SCREEN);
         }
     }
     
@@ -975,14 +1396,27 @@ public class WordSearchGame extends JFrame {
             }
         }
         
-        JPanel victoryPanel = createVictoryScreen();
+        AnimationClock.Tween[] celebration = new AnimationClock.Tween[1];
+        JPanel victoryPanel = createVictoryScreen(celebration);
         victoryPanel.setName(VICTORY_SCREEN);
         mainContainer.add(victoryPanel, VICTORY_SCREEN);
-        cardLayout.show(mainContainer, VICTORY_SCREEN);
+        showScreen(VICTORY_SCREEN);
+        celebration[0] = animations.start(victoryPanel, new Rectangle(mainContainer.getSize()), VICTORY_MILLIS);
     }
     
-    private JPanel createVictoryScreen() {
-        JPanel panel = new JPanel();
+    private JPanel createVictoryScreen(AnimationClock.Tween[] celebration) {
+        JPanel panel = new JPanel() {
+            @Override
+            protected void paintComponent(Graphics g) {
+                super.paintComponent(g);
+                AnimationClock.Tween tween = celebration[0];
+                if (tween != null && !tween.isFinished()) {
+                    Graphics2D g2d = (Graphics2D) g.create();
+                    paintConfetti(g2d, tween.linear(), getWidth(), getHeight());
+                    g2d.dispose();
+                }
+            }
+        };
         panel.setLayout(new BoxLayout(panel, BoxLayout.Y_AXIS));
         panel.setBackground(new Color(255, 250, 230));
         panel.setBorder(BorderFactory.createEmptyBorder(80, 80, 80, 80));
@@ -1038,13 +1472,15 @@ public class WordSearchGame extends JFrame {
             public void actionPerformed(ActionEvent e) {
                 // รีเซ็ตคำที่ใช้แล้วเพื่อเริ่มเกมใหม่
                 usedWordsInSession.clear();
-                cardLayout.show(mainContainer, OPTIONS_SCREEN);
+                showScreen(OPTIONS_SCREEN);
             }
         });
         
         endGameButton.addActionListener(new ActionListener() {
             @Override
             public void actionPerformed(ActionEvent e) {
+                System.out.println(scheduler.edtReport());
+                System.out.println(animations.frameReport());
                 System.exit(0);
             }
         });
@@ -1070,99 +1506,296 @@ public class WordSearchGame extends JFrame {
         selectedCells.clear();
         startCell = null;
         endCell = null;
+        boardView.clearSelection();
         highlightPanel.repaint();
     }
     
     private void updateWordList() {
-        wordPanel.removeAll();
-        
-        Color darkColor = currentDifficulty.themeColor.darker().darker();
-        
-        JLabel titleLabel = new JLabel("Words to Find ");
-        titleLabel.setFont(new Font("Arial", Font.BOLD, 18));
-        titleLabel.setForeground(darkColor);
-        titleLabel.setAlignmentX(Component.LEFT_ALIGNMENT);
-        wordPanel.add(titleLabel);
-        wordPanel.add(Box.createVerticalStrut(10));
-        
-        wordLabels = new HashMap<>();
+        // ตั้งรายการคำใหม่ในครั้งเดียว - การขีดฆ่าคำภายหลังจะอัพเดทเฉพาะแถวนั้น
+        List<String> labels = new ArrayList<>(wordsToFind.size());
+        Alphabet shown = currentPuzzle != null ? currentPuzzle.alphabet : alphabet;
         for (String word : wordsToFind) {
-            JLabel label = new JLabel(word);
-            label.setFont(new Font("Arial", Font.PLAIN, 16));
-            label.setForeground(darkColor);
-            label.setAlignmentX(Component.LEFT_ALIGNMENT);
-            wordLabels.put(word, label);
-            wordPanel.add(label);
-            wordPanel.add(Box.createVerticalStrut(5));
+            labels.add(shown.decode(word));
         }
-        
-        wordPanel.revalidate();
-        wordPanel.repaint();
+        wordListPanel.setWords(labels, currentDifficulty.textColor);
     }
     
     // ===== TIMER METHODS =====
     private void startTimer() {
-        timeRemaining = currentDifficulty.timeLimit;
-        updateTimerDisplay();
+        if (gameTimer == null) {
+            gameTimer = new javax.swing.Timer(1000, e -> onTimerTick());
+            gameTimer.setRepeats(false);
+        }
+        gameTimer.stop();
         
-        if (gameTimer != null) {
-            gameTimer.stop();
+        countdown.start(currentTimeLimit);
+        updateTimerDisplay();
+        scheduleNextTick();
+    }
+    
+    // ตั้ง tick ถัดไปให้ตรงกับขอบวินาทีของ deadline แทนการนับ 1000 ms ต่อครั้ง
+    private void scheduleNextTick() {
+        gameTimer.setInitialDelay(countdown.millisUntilNextSecond());
+        gameTimer.restart();
+    }
+    
+    private void onTimerTick() {
+        if (!countdown.isRunning()) {
+            return;
         }
+        updateTimerDisplay();
         
-        gameTimer = new javax.swing.Timer(1000, e -> {
-            timeRemaining--;
-            updateTimerDisplay();
-            
-            if (timeRemaining <= 0) {
-                stopTimer();
-                JOptionPane.showMessageDialog(this,
-                    "Time's up! You didn't find all the words.",
-                    "Game Over",
-                    JOptionPane.INFORMATION_MESSAGE);
-                cardLayout.show(mainContainer, OPTIONS_SCREEN);
+        if (countdown.isExpired()) {
+            stopTimer();
+            if (race != null) {
+                // server ไม่มีเวลาจำกัด - รอบจบเมื่อพบครบ ผู้เล่นจึงหาต่อได้
+                System.out.println("⏱ หมดเวลาของรอบแข่ง - เล่นต่อจนกว่า server จะจบรอบ");
+                return;
             }
-        });
-        gameTimer.start();
+            JOptionPane.showMessageDialog(this,
+                endless != null
+                    ? "Time's up! You cleared " + endless.boardsCleared() + " boards in Endless mode."
+                    : "Time's up! You didn't find all the words.",
+                "Game Over",
+                JOptionPane.INFORMATION_MESSAGE);
+            showScreen(OPTIONS_SCREEN);
+        } else {
+            scheduleNextTick();
+        }
     }
     
     private void stopTimer() {
+        countdown.stop();
         if (gameTimer != null) {
             gameTimer.stop();
         }
     }
     
+    private void pauseTimer() {
+        if (countdown.isRunning()) {
+            countdown.pause();
+            gameTimer.stop();
+        }
+    }
+    
+    private void resumeTimer() {
+        if (countdown.isPaused()) {
+            countdown.resume();
+            scheduleNextTick();
+        }
+    }
+    
     private void updateTimerDisplay() {
-        int minutes = timeRemaining / 60;
-        int seconds = timeRemaining % 60;
-        timerLabel.setText(String.format("Time: %02d:%02d", minutes, seconds));
-        
-        // Change color when time is running out
-        if (timeRemaining <= 60) {
-            timerLabel.setForeground(new Color(200, 0, 0));
-        } else if (timeRemaining <= 180) {
-            timerLabel.setForeground(new Color(200, 100, 0));
-        } else {
-            timerLabel.setForeground(new Color(50, 100, 50));
+        // เวลาที่เหลือจะถูกอ่านจาก countdown ตอน paint
+        if (timerDisplay != null) {
+            timerDisplay.repaint();
+        }
+    }
+    
+    // ป้ายแสดงเวลาแบบวาดเอง - ใช้ char buffer เดิมและสีคงที่ จึงไม่สร้าง String/Color ใหม่ทุกวินาที
+    private class TimerDisplay extends JComponent {
+        private static final long serialVersionUID = 1L;
+
+        private final char[] text = "Time: 00:00".toCharArray();
+        private final int digitsOffset = text.length - 5;
+        private Dimension preferredSize;
+        
+        TimerDisplay() {
+            setFont(TIMER_FONT);
+        }
+        
+        @Override
+        public Dimension getPreferredSize() {
+            if (preferredSize == null) {
+                FontMetrics fm = getFontMetrics(getFont());
+                preferredSize = new Dimension(fm.charsWidth(text, 0, text.length) + 4, fm.getHeight());
+            }
+            return preferredSize;
+        }
+        
+        @Override
+        protected void paintComponent(Graphics g) {
+            int secondsLeft = countdown.remainingSeconds();
+            int minutes = secondsLeft / 60;
+            int seconds = secondsLeft % 60;
+            text[digitsOffset] = (char) ('0' + (minutes / 10) % 10);
+            text[digitsOffset + 1] = (char) ('0' + minutes % 10);
+            text[digitsOffset + 3] = (char) ('0' + seconds / 10);
+            text[digitsOffset + 4] = (char) ('0' + seconds % 10);
+            
+            // Change color when time is running out
+            if (secondsLeft <= 60) {
+                g.setColor(TIMER_CRITICAL_COLOR);
+            } else if (secondsLeft <= 180) {
+                g.setColor(TIMER_WARNING_COLOR);
+            } else {
+                g.setColor(TIMER_NORMAL_COLOR);
+            }
+            
+            ((Graphics2D) g).setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING,
+                RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+            g.setFont(getFont());
+            FontMetrics fm = g.getFontMetrics();
+            int y = (getHeight() - fm.getHeight()) / 2 + fm.getAscent();
+            g.drawChars(text, 0, text.length, getWidth() - fm.charsWidth(text, 0, text.length) - 2, y);
         }
     }
     
     private void resetGame() {
-        // Stop any existing timer
+        // Stop any existing timer and drop a generation that is still running
         stopTimer();
+        if (pendingGeneration != null) {
+            pendingGeneration.cancel();
+        }
+        clearBoardState();
+        
+        // ตาราง endless ที่สร้างล่วงหน้าไว้แล้ว - ใช้ทันที หรือรองานที่กำลังสร้างอยู่
+        if (currentBoard != null && currentBoard == prefetchedBoard) {
+            Puzzle ready = prefetchedPuzzle;
+            prefetchedBoard = null;
+            prefetchedPuzzle = null;
+            currentSeed = prefetchedSeed;
+            if (ready != null) {
+                transitionPrefetched = true;
+                applyPuzzle(ready);
+            } else {
+                awaitingPrefetch = true;
+                pendingGeneration = prefetchTask;
+            }
+            return;
+        }
         
-        // รีเซ็ตข้อมูลเกม
+        // สร้างตารางและคำใหม่บน background thread
+        EndlessMode.Board board = currentBoard;
+        int wordCount = board != null ? board.wordCount : EVENT_SIZE > 0 ? eventWordCount() : currentDifficulty.wordCount;
+        List<String> candidates = getAvailableWords(wordCount);
+        DifficultyLevel difficulty = currentDifficulty;
+        BoardMask mask = shape;
+        long seed = random.nextLong();
+        currentSeed = seed;
+        pendingGeneration = scheduler.submit("generatePuzzle", () -> checked(board != null
+            ? board.generate(candidates, alphabet, seed)
+            : EVENT_SIZE > 0
+                ? newEventGenerator(seed, difficulty).generate(candidates, wordCount)
+            : mask != null
+                ? PuzzleGenerator.generateShaped(candidates, difficulty, mask, alphabet, new Random(seed))
+                : newGenerator(seed).generateCalibrated(candidates, difficulty)),
+            this::applyPuzzle, this::generationFailed);
+    }
+    
+    // สร้างตารางไม่สำเร็จ (รวมตารางที่ checked() ไม่ผ่าน) - ลองใหม่ด้วย seed ใหม่ ถ้ายังไม่ได้ให้แจ้งผู้เล่น
+    // แล้วกลับหน้าเลือกระดับ แทนที่จะค้างอยู่บนตารางว่างที่ไม่มีเวลาเดิน
+    private void generationFailed(Throwable error) {
+        pendingGeneration = null;
+        generationFailures++;
+        if (generationFailures <= MAX_GENERATION_RETRIES) {
+            System.out.println("⚠ สร้างตารางไม่สำเร็จ (" + error + ") - ลองใหม่ครั้งที่ " + generationFailures);
+            resetGame();
+            return;
+        }
+        generationFailures = 0;
+        JOptionPane.showMessageDialog(this,
+            "The board could not be generated:\n" + error,
+            "Board Error", JOptionPane.ERROR_MESSAGE);
+        showScreen(OPTIONS_SCREEN);
+    }
+    
+    // ล้างตารางและสถานะของตารางเดิม (timer ต้องหยุดแล้ว)
+    private void clearBoardState() {
+        animations.finishAll(highlightPanel);
         foundWords.clear();
         foundWordsList.clear();
         currentColorIndex = 0;  // รีเซ็ต index สี
-        
-        // สร้างตารางและคำใหม่
-        createGridWithWords();
-        
-        // อัพเดทปุ่มในตาราง
+        foundIndices.clear();
+        bonusLines.clear();
+        bonusScore = 0;
+        updateBonusLabel();
+        currentPuzzle = null;
+        grid = null;
+        wordsToFind.clear();
+        
+        // ล้างตารางระหว่างรอสร้างตารางใหม่
+        boardView.setPuzzle(null);
         if (buttons != null) {
-            for (int row = 0; row < GRID_SIZE; row++) {
-                for (int col = 0; col < GRID_SIZE; col++) {
-                    buttons[row][col].setText(String.valueOf(grid[row][col]));
+            for (int row = 0; row < gridSize; row++) {
+                for (int col = 0; col < gridSize; col++) {
+                    buttons[row][col].setText("");
+                }
+            }
+        }
+        updateWordList();
+    }
+    
+    private PuzzleGenerator newGenerator(long seed) {
+        PuzzleGenerator generator = new PuzzleGenerator(GRID_SIZE, new Random(seed));
+        generator.setAlphabet(alphabet);
+        return generator;
+    }
+    
+    private PuzzleGenerator newEventGenerator(long seed, DifficultyLevel difficulty) {
+        PuzzleGenerator generator = new PuzzleGenerator(EVENT_SIZE, new Random(seed));
+        generator.setVerbose(false);
+        generator.setAlphabet(alphabet);
+        generator.setDirectionPolicy(difficulty.directions);
+        generator.setDecoysPerWord(difficulty.decoysPerWord);
+        generator.setDifficultyName(difficulty.name);
+        return generator;
+    }
+    
+    private int eventWordCount() {
+        return Math.max(1, Math.min(ALL_WORDS.size(), EVENT_SIZE * EVENT_SIZE / EVENT_CELLS_PER_WORD));
+    }
+    
+    private static Puzzle checked(Puzzle puzzle) {
+        if (!puzzle.isConsistent()) {
+            throw new IllegalStateException("generated puzzle does not contain its words");
+        }
+        return puzzle;
+    }
+    
+    // กรองคำที่ยังไม่ได้ใช้ในเซสชันนี้ ถ้าเหลือไม่พอให้รีเซ็ตคำที่ใช้แล้ว (เริ่มใหม่)
+    private List<String> getAvailableWords(int targetWords) {
+        List<String> availableWords = new ArrayList<>();
+        for (String word : ALL_WORDS) {
+            if (!usedWordsInSession.contains(word)) {
+                availableWords.add(word);
+            }
+        }
+        
+        if (availableWords.size() < targetWords) {
+            usedWordsInSession.clear();
+            availableWords = new ArrayList<>(ALL_WORDS);
+        }
+        return availableWords;
+    }
+    
+    // ใส่ตารางที่สร้างเสร็จลงใน UI (เรียกบน EDT)
+    private void applyPuzzle(Puzzle puzzle) {
+        pendingGeneration = null;
+        generationFailures = 0;
+        finishRecording();
+        if (RECORD_DIR != null && !replaying) {
+            recorder = new InputRecording.Recorder(currentSeed, currentDifficulty.name(), currentLevelName, puzzle);
+        }
+        currentPuzzle = puzzle;
+        grid = puzzle.grid;
+        wordsToFind.clear();
+        wordsToFind.addAll(puzzle.words);
+        
+        // บันทึกคำที่ใช้ไปแล้วในเซสชันนี้
+        usedWordsInSession.addAll(wordsToFind);
+        System.out.println("คำที่วาง: " + wordsToFind);
+        System.out.println("คำที่ใช้ไปแล้วทั้งหมด: " + usedWordsInSession);
+        
+        // อัพเดทปุ่มในตาราง (ตารางใหญ่วาดจาก tile ของ boardView)
+        if (buttons == null) {
+            boardView.setPuzzle(puzzle);
+        } else {
+            for (int row = 0; row < gridSize; row++) {
+                for (int col = 0; col < gridSize; col++) {
+                    buttons[row][col].setText(puzzle.cellText(row, col));
+                    // ช่องที่ปิดของตารางรูปทรงซ่อนไว้ (GridLayout ยังเว้นที่ให้)
+                    buttons[row][col].setVisible(grid[row][col] != BoardMask.BLANK);
                 }
             }
         }
@@ -1178,7 +1811,95 @@ public class WordSearchGame extends JFrame {
         startTimer();
     }
     
+    // เขียนไฟล์บันทึกของตารางที่เพิ่งจบบน background thread - ไฟล์เก็บทั้งตาราง จึงโตตามขนาดตาราง
+    // (12x12 ไม่กี่ร้อย byte แต่ตาราง event 300x300 ~90 KB และ 500x500 ~250 KB)
+    private void finishRecording() {
+        InputRecording.Recorder finished = recorder;
+        recorder = null;
+        if (finished == null || finished.eventCount() == 0) {
+            return;
+        }
+        scheduler.submit("writeRecording", () -> {
+            writeRecording(finished);
+            return Boolean.TRUE;
+        }, written -> { }, error -> { });
+    }
+    
+    private static void writeRecording(InputRecording.Recorder finished) {
+        if (finished == null || finished.eventCount() == 0) {
+            return;
+        }
+        try {
+            Path dir = Paths.get(RECORD_DIR);
+            Files.createDirectories(dir);
+            Path file = dir.resolve(finished.fileName());
+            finished.write(file);
+            System.out.println("✓ บันทึกการลาก " + finished.eventCount() + " event: " + file);
+        } catch (IOException e) {
+            System.out.println("⚠ บันทึกการลากไม่ได้: " + e.getMessage());
+        }
+    }
+    
+    // ===== REPLAY =====
+    // เล่นไฟล์บันทึกซ้ำ (InputReplay) บนตารางจากไฟล์ - ไม่มี timer และไม่มี dialog ตอนจบ
+    // event ถัดไปรอ paint ของ event ก่อนหน้าเสร็จเสมอ เวลาที่วัดจึงรวมค่า render ของแต่ละ event
+    void replay(InputRecording recording, boolean realtime, InputReplay.Timings timings, Runnable onDone) {
+        replaying = true;
+        endless = null;
+        currentBoard = null;
+        nextDifficulty = null;
+        discardPrefetch();
+        playerName = "Replay";
+        DifficultyLevel theme = DifficultyLevel.valueOf(recording.difficulty);
+        showGameScreen(theme, recording.puzzle.size, theme.timeLimit, recording.levelName);
+        clearBoardState();
+        currentSeed = recording.seed;
+        applyPuzzle(recording.puzzle);
+        stopTimer();
+        
+        // เริ่มหลังจากตารางแรกวาดเสร็จ
+        SwingUtilities.invokeLater(() -> {
+            RepaintManager.currentManager(layeredPane).paintDirtyRegions();
+            replayEvent(recording, 0, realtime, timings, System.nanoTime(), onDone);
+        });
+    }
+    
+    private void replayEvent(InputRecording recording, int event, boolean realtime,
+                             InputReplay.Timings timings, long startNanos, Runnable onDone) {
+        if (event >= recording.eventCount()) {
+            timings.finish(System.nanoTime() - startNanos);
+            replaying = false;
+            onDone.run();
+            return;
+        }
+        int type = recording.type(event);
+        int row = recording.row(event);
+        int col = recording.col(event);
+        long handleStart = System.nanoTime();
+        if (type == InputRecording.PRESS) {
+            onCellPressed(row, col);
+        } else if (type == InputRecording.ENTER) {
+            onCellEntered(row, col);
+        } else {
+            onCellReleased(row, col);
+        }
+        long paintStart = System.nanoTime();
+        RepaintManager.currentManager(layeredPane).paintDirtyRegions();
+        timings.record(event, type, paintStart - handleStart, System.nanoTime() - paintStart);
+        
+        Runnable next = () -> replayEvent(recording, event + 1, realtime, timings, startNanos, onDone);
+        if (realtime && event + 1 < recording.eventCount()) {
+            javax.swing.Timer pause = new javax.swing.Timer(
+                (int) (recording.atMillis(event + 1) - recording.atMillis(event)), e -> next.run());
+            pause.setRepeats(false);
+            pause.start();
+        } else {
+            SwingUtilities.invokeLater(next);
+        }
+    }
+    
     public static void main(String[] args) {
+        StartupTimeline.mark(StartupTimeline.MAIN);
         SwingUtilities.invokeLater(() -> new WordSearchGame());
     }
 }